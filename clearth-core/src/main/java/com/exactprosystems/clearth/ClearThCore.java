@@ -477,7 +477,7 @@ public abstract class ClearThCore
 		Automation automation = config.getAutomation();
 		return new ActionGeneratorResources(automation.getSpecialActionParameters(), actionFactory, mvelVariablesFactory,
 				createMatrixFunctions(Collections.emptyMap(), null, null, true, valueGenerators.getCommonGenerator()),
-				automation.getMatrixFatalErrors());
+				automation.getMatrixFatalErrors(), automation.getMatrixCompilationThreads());
 	}
 	
 	protected SchedulerFactory createSchedulerFactory(ValueGenerators valueGenerators)
@@ -523,7 +523,8 @@ public abstract class ClearThCore
 				ConnectionTypeInfo typeInfo = new ConnectionTypeInfo(type.getName(), 
 						Class.forName(type.getConnectionClass()).asSubclass(ClearThConnection.class), 
 						Paths.get(rootRelative(type.getDirectory())), 
-						validationRules);
+						validationRules,
+						type.getDecodeThreads());
 				connectionStorage.registerType(typeInfo);
 			}
 			catch (Exception e)
@@ -18,6 +18,7 @@
 
 package com.exactprosystems.clearth.automation;
 
+import com.exactprosystems.clearth.ClearThCore;
 import com.exactprosystems.clearth.automation.actions.SchedulerPause;
 import com.exactprosystems.clearth.automation.async.AsyncActionData;
 import com.exactprosystems.clearth.automation.async.AsyncActionsManager;
@@ -41,6 +42,11 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
@@ -66,7 +72,10 @@ public class ActionExecutor implements Closeable
 	private final boolean ignoreAllConnectionsFailures;
 	private final Set<String> connectionsToIgnoreFailures;
 	
-	private AsyncActionsManager asyncManager;
+	private final Object failoverMonitor = new Object(),
+			handlerMonitor = new Object();
+	
+	private volatile AsyncActionsManager asyncManager;
 	private ActionsExecutionProgress executionProgress;
 	private String actionsReportsDir;
 	private boolean interrupted = false;
@@ -91,6 +100,7 @@ public class ActionExecutor implements Closeable
 	public void close() throws IOException
 	{
 		Utils.closeResource(asyncManager);
+		Utils.closeResource(reportWriter);
 	}
 	
 	
@@ -166,7 +176,12 @@ public class ActionExecutor implements Closeable
 				getLogger().debug("Calculating parameters of{}", actionDesc);
 			}
 
-			List<String> errorsInParams = calculator.calculateParameters(action, stepExecutable);
+			List<String> errorsInParams;
+			//Calculator and matrix functions keep state of current calculation, so actions from parallel lanes are calculated one by one
+			synchronized (calculator)
+			{
+				errorsInParams = calculator.calculateParameters(action, stepExecutable);
+			}
 			
 			if (getLogger().isTraceEnabled())
 				getLogger().trace("Finished calculation for{}", actionDesc != null ? actionDesc : action.getDescForLog(""));
@@ -191,7 +206,13 @@ public class ActionExecutor implements Closeable
 	public void callActionAsync(Action action, StepContext stepContext, MatrixContext matrixContext) throws InterruptedException
 	{
 		if (!isAsyncEnabled())
-			asyncManager = createAsyncManager();
+		{
+			synchronized (this)
+			{
+				if (asyncManager == null)
+					asyncManager = createAsyncManager();
+			}
+		}
 		
 		String waitMsg;
 		switch (action.getWaitAsyncEnd())
@@ -311,7 +332,7 @@ public class ActionExecutor implements Closeable
 	
 	protected AsyncActionsManager createAsyncManager()
 	{
-		return new AsyncActionsManager(globalContext, this::actionToMvel);
+		return new AsyncActionsManager(globalContext, this::actionToMvel, ClearThCore.config().getAutomation().getAsyncGroups());
 	}
 	
 	public static boolean isAsyncAction(Action action)
@@ -381,23 +402,45 @@ public class ActionExecutor implements Closeable
 	protected void waitForAsyncActions(Set<AsyncActionData> actions) throws InterruptedException
 	{
 		int asyncEndWaitInterval = getAsyncEndWaitInterval();
-		for (AsyncActionData action : actions)
+		//Set can get new actions while waiting, so waiting until nothing is left in it
+		while (!actions.isEmpty() && !isExecutionInterrupted())
 		{
-			while (!asyncManager.isActionFinished(action))
+			List<AsyncActionData> toWait = new ArrayList<>(actions);
+			CompletableFuture<?> allFinished = CompletableFuture.allOf(toWait.stream()
+					.map(AsyncActionData::getCompletion)
+					.toArray(CompletableFuture[]::new));
+			
+			//Execution may be interrupted without finishing the actions, so waiting is split by intervals to check for that
+			while (!awaitCompletion(allFinished, asyncEndWaitInterval))
 			{
-				Thread.sleep(asyncEndWaitInterval);
-				//InterruptedException may have occurred in other place (in callActionAsync(), for example) so that sleep ends correctly.
-				//But if execution is interrupted, need to break the loop anyway
 				if (isExecutionInterrupted())
 					break;
 			}
 			
-			if (isExecutionInterrupted())
-				break;
+			actions.removeAll(toWait);
 		}
 		actions.clear();  //All actions finished. Clearing history to free memory
 	}
 	
+	private boolean awaitCompletion(Future<?> future, long timeout) throws InterruptedException
+	{
+		try
+		{
+			future.get(timeout, TimeUnit.MILLISECONDS);
+			return true;
+		}
+		catch (TimeoutException e)
+		{
+			return false;
+		}
+		catch (ExecutionException e)
+		{
+			//Completion futures are never completed exceptionally, action errors are stored in results
+			getLogger().warn("Unexpected error while waiting for async actions", e.getCause());
+			return true;
+		}
+	}
+	
 	
 	protected void handleActionCrash(Action action, Exception e)
 	{
@@ -431,6 +474,8 @@ public class ActionExecutor implements Closeable
 			action.getStep().refreshAsyncFlag(action);
 		}
 		reportWriter.writeReport(action, actionsReportsDir, action.getStep().getSafeName());
+		//Crash report should be on disk even if execution is not going to continue normally
+		reportWriter.flushReports();
 		handleActionResult(action);
 	}
 	
@@ -504,6 +549,16 @@ public class ActionExecutor implements Closeable
 			return true;
 		}
 		
+		//Failover status shows one failure at a time, so failures from parallel lanes are handled one by one
+		synchronized (failoverMonitor)
+		{
+			return handleFailover(action, actionDesc, exception, stepContext, matrixContext);
+		}
+	}
+	
+	private boolean handleFailover(Action action, String actionDesc, FailoverException exception,
+			StepContext stepContext, MatrixContext matrixContext) throws InterruptedException
+	{
 		action.getStep().actionFailover(action, exception, stepContext, matrixContext, globalContext);  // Disposing connections according to action type, if needed
 		synchronized (failoverStatus)
 		{
@@ -675,7 +730,10 @@ public class ActionExecutor implements Closeable
 			pauseDesc = "Action with ID '" + action.getIdInMatrix() + "' from matrix '" + action.getMatrix().getName() + "' failed";
 		
 		if (pauseDesc != null)
+		{
+			flushReports();
 			action.getStep().pauseAction(pauseDesc);
+		}
 	}
 
 	protected boolean doExecuteAction(Action action, List<String> errorsInParams, StepContext stepContext,	AtomicBoolean canReplay) throws InterruptedException
@@ -801,7 +859,11 @@ public class ActionExecutor implements Closeable
 		try
 		{
 			logger.trace("Handling execution of action '{}' ({})", action.getIdInMatrix(), action.getName());
-			HandledTestExecutionId executionId = executionHandler.onAction(action);
+			HandledTestExecutionId executionId;
+			synchronized (handlerMonitor)
+			{
+				executionId = executionHandler.onAction(action);
+			}
 			action.setTestExecutionId(executionId);
 		}
 		catch (Exception e)
@@ -823,7 +885,10 @@ public class ActionExecutor implements Closeable
 		try
 		{
 			logger.trace("Handling result of action '{}' ({})", action.getIdInMatrix(), action.getName());
-			executionHandler.onActionResult(action.getResult(), action);
+			synchronized (handlerMonitor)
+			{
+				executionHandler.onActionResult(action.getResult(), action);
+			}
 		}
 		catch (Exception e)
 		{
@@ -875,6 +940,14 @@ public class ActionExecutor implements Closeable
 		return null;
 	}
 
+	/**
+	 * Writes buffered action reports to disk, e.g. before execution is paused
+	 */
+	public void flushReports()
+	{
+		reportWriter.flushReports();
+	}
+	
 	public void afterActionsExecution(Step step)
 	{
 		reportWriter.makeReportsEnding(actionsReportsDir, step.getSafeName());
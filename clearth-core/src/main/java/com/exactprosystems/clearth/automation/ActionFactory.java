@@ -27,9 +27,9 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Created by alexey.karpukhin on 10/7/15.
@@ -39,10 +39,10 @@ public class ActionFactory {
 	private static final Logger logger = LoggerFactory.getLogger(ActionFactory.class);
 
 	private Map<String, ActionMetaData> actionsMapping; //map key is action name in lower case
-	private Map<String, Logger> loggers;
+	private Map<String, Logger> loggers; //Accessed by threads compiling matrices in parallel
 
 	public ActionFactory() {
-		loggers = new HashMap<String, Logger>();
+		loggers = new ConcurrentHashMap<String, Logger>();
 	}
 
 
@@ -22,6 +22,8 @@ import com.exactprosystems.clearth.automation.async.WaitAsyncEnd;
 import com.exactprosystems.clearth.automation.exceptions.AutomationException;
 import com.exactprosystems.clearth.automation.generator.ActionReader;
 import com.exactprosystems.clearth.automation.generator.CsvActionReader;
+import com.exactprosystems.clearth.automation.generator.MatrixCache;
+import com.exactprosystems.clearth.automation.generator.ParsedMatrixReader;
 import com.exactprosystems.clearth.automation.generator.XlsActionReader;
 import com.exactprosystems.clearth.config.MatrixFatalErrors;
 import com.exactprosystems.clearth.config.SpecialActionParameters;
@@ -32,7 +34,10 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 public abstract class ActionGenerator
@@ -65,13 +70,16 @@ public abstract class ActionGenerator
 	private final Map<String, Step> steps;
 	private final List<Matrix> matrices;
 	protected Map<String, Preparable> preparableActions;
-	private String matrixStepName;
 	protected final StringCache stringCache = new StringCache(1_000_000, 500);
+	//Compilations in progress, filled with actions to add to steps after compilation is finished. Matrices are compared by identity
+	private final Map<Matrix, MatrixCompilation> compilations = new ConcurrentHashMap<>();
 	private final SpecialActionParameters specialActionParameters;
 	private final ActionFactory actionFactory;
 	private final MvelVariablesFactory mvelVariablesFactory;
 	private final MatrixFunctions matrixFunctions;
 	private final MatrixFatalErrors matrixFatalErrors;
+	private final int compilationThreads;
+	private MatrixCache matrixCache;
 
 
 	public ActionGenerator(Map<String, Step> steps, List<Matrix> matrices, Map<String, Preparable> preparableActions, ActionGeneratorResources resources)
@@ -87,6 +95,7 @@ public abstract class ActionGenerator
 		this.mvelVariablesFactory = resources.getMvelFactory();
 		this.matrixFunctions = resources.getMatrixFunctions();
 		this.matrixFatalErrors = resources.getMatrixFatalErrors();
+		this.compilationThreads = resources.getCompilationThreads();
 	}
 	
 	protected abstract Logger getLogger();
@@ -223,7 +232,6 @@ public abstract class ActionGenerator
 				{
 					actionSettings.setStep(steps.get(value));
 					actionSettings.setStepName(value);
-					matrixStepName = value;
 				}
 			}
 			else if (headLow.equals(COLUMN_EXECUTE))
@@ -491,19 +499,16 @@ public abstract class ActionGenerator
 					{
 						allSuccessful = false;
 						String message = "Action '"+actionSettings.getActionId()+"' (line "+lineNumber+") is included in step " +
-								"'"+matrixStepName+"' of unexpected kind '"+step.getKind()+"'. '"+action.getName()+
+								"'"+actionSettings.getStepName()+"' of unexpected kind '"+step.getKind()+"'. '"+action.getName()+
 								"' action must be used within the following step kind(s): "+StringUtils.join(action.getExpectedStepKinds(), ", ");
 						logger.warn(message);
 						matrix.addGeneratorMessage(ActionGeneratorMessageType.WARNING, ActionGeneratorMessageKind.UNEXPECTED_STEP_KIND, message);
 					}
-					step.addAction(action);
-					if (step.isExecutable()
-							&& action.isExecutable()
-							&& action instanceof Preparable
-							&& preparableActions != null
-							&& !preparableActions.containsKey(action.getName())
-					)
-						preparableActions.put(action.getName(), (Preparable)action);
+					MatrixCompilation compilation = compilations.get(matrix);
+					if (compilation != null)
+						compilation.addStepAction(step, action);
+					else
+						addStepAction(step, action);
 				}
 				logger.trace("Finished adding new action " + action.getClass());
 				if (logger.isTraceEnabled() && action.getStep() != null) // this check reduces time for loading very big matrices
@@ -513,6 +518,18 @@ public abstract class ActionGenerator
 
 		return allSuccessful;
 	}
+	
+	private void addStepAction(Step step, Action action)
+	{
+		step.addAction(action);
+		if (step.isExecutable()
+				&& action.isExecutable()
+				&& action instanceof Preparable
+				&& preparableActions != null
+				&& !preparableActions.containsKey(action.getName())
+		)
+			preparableActions.put(action.getName(), (Preparable)action);
+	}
 
 	/**
 	 * Builds Matrix instance according to given data
@@ -522,17 +539,127 @@ public abstract class ActionGenerator
 	 */
 	public boolean build(MatrixData matrixData, boolean onlyCheck) throws IOException
 	{
-		Matrix matrix = createMatrix(matrixData);
+		MatrixCompilation compilation = compile(matrixData, onlyCheck);
+		register(compilation, onlyCheck);
+		return compilation.isSuccessful();
+	}
+	
+	/**
+	 * Builds Matrix instances according to given data. 
+	 * Matrices are compiled in parallel if generator resources allow more than one compilation thread. 
+	 * Anyway, matrices and actions in steps are added in order of given data, so the result is the same as if matrices were built one by one
+	 * @param matricesData settings of matrices to build
+	 * @return true if all matrices have been generated without any errors or warnings
+	 * @throws IOException if error occurred while reading matrix file
+	 */
+	public boolean build(List<MatrixData> matricesData, boolean onlyCheck) throws IOException
+	{
+		int threads = compilationThreads == 0 ? Runtime.getRuntime().availableProcessors() : compilationThreads;
+		threads = Math.min(threads, matricesData.size());
+		if (threads <= 1)
+		{
+			boolean allSuccessful = true;
+			for (MatrixData matrixData : matricesData)
+			{
+				if (!build(matrixData, onlyCheck))
+					allSuccessful = false;
+			}
+			return allSuccessful;
+		}
 		
-		boolean allSuccessful = generateActions(matrix.getFileName(), matrixData.isTrim(), matrix, onlyCheck);
+		getLogger().debug("Compiling {} matrices in {} threads", matricesData.size(), threads);
+		AtomicInteger threadIndex = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "MatrixCompiler-"+threadIndex.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try
+		{
+			List<Future<MatrixCompilation>> futures = new ArrayList<>(matricesData.size());
+			for (MatrixData matrixData : matricesData)
+				futures.add(executor.submit(() -> compile(matrixData, onlyCheck)));
+			
+			//Registering compilations in order of matrices to get steps filled exactly like in sequential mode
+			boolean allSuccessful = true;
+			for (Future<MatrixCompilation> future : futures)
+			{
+				MatrixCompilation compilation = getCompilation(future);
+				register(compilation, onlyCheck);
+				if (!compilation.isSuccessful())
+					allSuccessful = false;
+			}
+			return allSuccessful;
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Compiles matrix without adding its actions to steps. 
+	 * Can be called for different matrices from different threads
+	 * @param matrixData matrix settings including file path
+	 * @return compilation result to pass to {@link #register(MatrixCompilation, boolean)}
+	 * @throws IOException if error occurred while reading matrix file
+	 */
+	protected MatrixCompilation compile(MatrixData matrixData, boolean onlyCheck) throws IOException
+	{
+		Matrix matrix = createMatrix(matrixData);
+		MatrixCompilation compilation = new MatrixCompilation(matrixData, matrix);
+		compilations.put(matrix, compilation);
+		try
+		{
+			compilation.setSuccessful(generateActions(matrix.getFileName(), matrixData.isTrim(), matrix, onlyCheck));
+		}
+		finally
+		{
+			compilations.remove(matrix);
+		}
+		return compilation;
+	}
+	
+	/**
+	 * Adds actions of compiled matrix to steps and matrix itself to the list of built matrices
+	 * @param compilation result of {@link #compile(MatrixData, boolean)}
+	 */
+	protected void register(MatrixCompilation compilation, boolean onlyCheck) throws IOException
+	{
+		for (Pair<Step, Action> stepAction : compilation.getStepActions())
+			addStepAction(stepAction.getFirst(), stepAction.getSecond());
 		
+		Matrix matrix = compilation.getMatrix();
 		MvelVariables vars = matrix.getMvelVars();
 		MvelVarsCleaningTableBuilder cleaningTableBuilder = new MvelVarsCleaningTableBuilder(matrixFunctions);
 		vars.setCleaningTable(cleaningTableBuilder.build(matrix, steps.keySet()));
 		
 		matrices.add(matrix);
-		getLogger().debug(String.format("Matrix '%s' %s", matrixData.getFile().getCanonicalPath(), onlyCheck ? "checked" : "compiled"));
-		return allSuccessful;
+		getLogger().debug(String.format("Matrix '%s' %s", compilation.getMatrixData().getFile().getCanonicalPath(), onlyCheck ? "checked" : "compiled"));
+	}
+	
+	private MatrixCompilation getCompilation(Future<MatrixCompilation> future) throws IOException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Wait for matrix compilation interrupted");
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IOException("Error while compiling matrix", cause);
+		}
 	}
 
 	protected Matrix createMatrix(MatrixData matrixData) throws IOException {
@@ -552,12 +679,7 @@ public abstract class ActionGenerator
 	protected boolean generateActions(String fileName, boolean trim, Matrix matrix, boolean onlyCheck) throws IOException
 	{
 		String fileExtension = FilenameUtils.getExtension(fileName).toLowerCase();
-		ActionReader reader;
-		if (fileExtension.equals("csv"))
-			reader = new CsvActionReader(fileName, trim);
-		else if ((fileExtension.equals("xls")) || (fileExtension.equals("xlsx")))
-			reader = new XlsActionReader(fileName, trim);
-		else
+		if (!fileExtension.equals("csv") && !fileExtension.equals("xls") && !fileExtension.equals("xlsx"))
 		{
 			matrix.addGeneratorMessage(ActionGeneratorMessageType.ERROR, ActionGeneratorMessageKind.UNSUPPORTED_FILE_EXTENSION,
 					"Unsupported file extension '" + fileExtension + "'");
@@ -565,8 +687,20 @@ public abstract class ActionGenerator
 			return false;
 		}
 		
+		ActionReader reader;
+		if (matrixCache != null)
+			reader = new ParsedMatrixReader(fileName, trim, matrixCache.getMatrix(fileName, trim, () -> createReader(fileName, fileExtension, trim)));
+		else
+			reader = createReader(fileName, fileExtension, trim);
 		return generateActions(reader, matrix, onlyCheck);
 	}
+	
+	protected ActionReader createReader(String fileName, String fileExtension, boolean trim) throws IOException
+	{
+		if (fileExtension.equals("csv"))
+			return new CsvActionReader(fileName, trim);
+		return new XlsActionReader(fileName, trim);
+	}
 
 	/**
 	 * @param onlyCheck if true action won't be generated, only validation will be performed
@@ -730,6 +864,20 @@ public abstract class ActionGenerator
 	}
 
 	
+	public MatrixCache getMatrixCache()
+	{
+		return matrixCache;
+	}
+	
+	/**
+	 * @param matrixCache cache to take parsed matrices from instead of parsing unchanged matrix files again. Null to parse all matrix files
+	 */
+	public void setMatrixCache(MatrixCache matrixCache)
+	{
+		this.matrixCache = matrixCache;
+	}
+	
+	
 	public void dispose()
 	{
 		stringCache.clear();
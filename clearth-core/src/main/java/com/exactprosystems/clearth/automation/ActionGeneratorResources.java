@@ -28,15 +28,23 @@ public class ActionGeneratorResources
 	private final MvelVariablesFactory mvelFactory;
 	private final MatrixFunctions matrixFunctions;
 	private final MatrixFatalErrors matrixFatalErrors;
+	private final int compilationThreads;
 	
 	public ActionGeneratorResources(SpecialActionParameters specialActionParameters, ActionFactory actionFactory, MvelVariablesFactory mvelFactory,
 									MatrixFunctions matrixFunctions, MatrixFatalErrors matrixFatalErrors)
+	{
+		this(specialActionParameters, actionFactory, mvelFactory, matrixFunctions, matrixFatalErrors, 1);
+	}
+	
+	public ActionGeneratorResources(SpecialActionParameters specialActionParameters, ActionFactory actionFactory, MvelVariablesFactory mvelFactory,
+									MatrixFunctions matrixFunctions, MatrixFatalErrors matrixFatalErrors, int compilationThreads)
 	{
 		this.specialActionParameters = specialActionParameters;
 		this.actionFactory = actionFactory;
 		this.mvelFactory = mvelFactory;
 		this.matrixFunctions = matrixFunctions;
 		this.matrixFatalErrors = matrixFatalErrors;
+		this.compilationThreads = compilationThreads;
 	}
 	
 	public SpecialActionParameters getSpecialActionParameters()
@@ -63,4 +71,12 @@ public class ActionGeneratorResources
 	{
 		return matrixFatalErrors;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return number of threads to compile matrices with. 1 means sequential compilation, 0 means number of available processors
+	 */
+	public int getCompilationThreads()
+	{
+		return compilationThreads;
+	}
+}
@@ -20,6 +20,9 @@ package com.exactprosystems.clearth.automation;
 
 import java.util.Objects;
 
+/**
+ * Counters of done and successful actions of a step. Counters can be updated from several threads if actions are executed in parallel lanes
+ */
 public class ActionsExecutionProgress
 {
 	private int successful, done;
@@ -39,43 +42,43 @@ public class ActionsExecutionProgress
 	}
 	
 	
-	public void incrementSuccessful()
+	public synchronized void incrementSuccessful()
 	{
 		successful++;
 	}
 	
-	public void decrementSuccessful()
+	public synchronized void decrementSuccessful()
 	{
 		successful--;
 	}
 	
-	public void incrementDone()
+	public synchronized void incrementDone()
 	{
 		done++;
 	}
 	
-	public void decrementDone()
+	public synchronized void decrementDone()
 	{
 		done--;
 	}
 	
 	
-	public void setSuccessful(int successful)
+	public synchronized void setSuccessful(int successful)
 	{
 		this.successful = successful;
 	}
 	
-	public int getSuccessful()
+	public synchronized int getSuccessful()
 	{
 		return successful;
 	}
 	
-	public void setDone(int done)
+	public synchronized void setDone(int done)
 	{
 		this.done = done;
 	}
 	
-	public int getDone()
+	public synchronized int getDone()
 	{
 		return done;
 	}
@@ -86,7 +89,7 @@ public class ActionsExecutionProgress
 	}
 
 	@Override
-	public String toString()
+	public synchronized String toString()
 	{
 		return successful + delimiter + done;
 	}
@@ -0,0 +1,194 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation;
+
+import org.apache.commons.collections4.map.AbstractLinkedMap;
+import org.apache.commons.collections4.map.LRUMap;
+import org.mvel2.MVEL;
+import org.mvel2.ParserContext;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded thread-safe cache of MVEL expressions compiled by {@link MatrixFunctions}.
+ * Expressions are stored by formula text and parser context they were compiled with,
+ * so the same formula used by many actions is compiled and validated only once.
+ * When cache is full, least recently used expression is evicted.
+ */
+public class CompiledExpressionCache
+{
+	public static final int DEFAULT_MAX_SIZE = 5000;
+
+	private final int maxSize;
+	private final LRUMap<ExpressionKey, Serializable> cache;
+	private final AtomicLong hits = new AtomicLong(),
+			misses = new AtomicLong(),
+			evictions = new AtomicLong();
+
+	public CompiledExpressionCache()
+	{
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public CompiledExpressionCache(int maxSize)
+	{
+		if (maxSize < 1)
+			throw new IllegalArgumentException("Max size of expressions cache must be positive, got "+maxSize);
+
+		this.maxSize = maxSize;
+		cache = new LRUMap<ExpressionKey, Serializable>(maxSize)
+		{
+			@Override
+			protected boolean removeLRU(AbstractLinkedMap.LinkEntry<ExpressionKey, Serializable> entry)
+			{
+				evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns compiled expression for given formula, compiling it if it is not cached yet.
+	 * @param formula MVEL expression text to compile
+	 * @param context parser context to compile expression with
+	 * @param validator validator to check newly compiled expression with. Only valid expressions are cached
+	 * @return compiled expression ready to be executed
+	 * @throws Exception if expression cannot be compiled or is not valid
+	 */
+	public Serializable getExpression(String formula, ParserContext context, MvelExpressionValidator validator) throws Exception
+	{
+		ExpressionKey key = new ExpressionKey(formula, context);
+		Serializable result;
+		synchronized (cache)
+		{
+			result = cache.get(key);
+		}
+
+		if (result != null)
+		{
+			hits.incrementAndGet();
+			return result;
+		}
+
+		misses.incrementAndGet();
+		//Compiling outside of lock to not block other threads while expression is being parsed
+		result = MVEL.compileExpression(formula, context);
+		if (validator != null)
+			validator.validateExpression(result);
+
+		synchronized (cache)
+		{
+			Serializable existing = cache.get(key);
+			if (existing != null)
+				return existing;
+
+			cache.put(key, result);
+		}
+		return result;
+	}
+
+	public void clear()
+	{
+		synchronized (cache)
+		{
+			cache.clear();
+		}
+	}
+
+	public void resetStatistics()
+	{
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+	}
+
+
+	public int getMaxSize()
+	{
+		return maxSize;
+	}
+
+	public int getSize()
+	{
+		synchronized (cache)
+		{
+			return cache.size();
+		}
+	}
+
+	public long getHits()
+	{
+		return hits.get();
+	}
+
+	public long getMisses()
+	{
+		return misses.get();
+	}
+
+	public long getEvictions()
+	{
+		return evictions.get();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CompiledExpressionCache{size="+getSize()+"/"+maxSize
+				+", hits="+getHits()
+				+", misses="+getMisses()
+				+", evictions="+getEvictions()+"}";
+	}
+
+
+	private static class ExpressionKey
+	{
+		private final String formula;
+		private final ParserContext context;
+		private final int hash;
+
+		ExpressionKey(String formula, ParserContext context)
+		{
+			this.formula = formula;
+			this.context = context;
+			this.hash = 31 * formula.hashCode() + System.identityHashCode(context);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+				return true;
+			if (!(o instanceof ExpressionKey))
+				return false;
+			ExpressionKey that = (ExpressionKey) o;
+			//Parser contexts are compared by identity as they hold imports used to resolve functions
+			return context == that.context && Objects.equals(formula, that.formula);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation;
+
+import com.exactprosystems.clearth.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of matrix compilation made by {@link ActionGenerator} without changing steps it shares with other matrices.
+ * Actions are added to steps when compilation is registered in generator, so that order of actions in steps doesn't depend on order in which matrices were compiled.
+ */
+public class MatrixCompilation
+{
+	private final MatrixData matrixData;
+	private final Matrix matrix;
+	private final List<Pair<Step, Action>> stepActions = new ArrayList<>();
+	private boolean successful;
+	
+	public MatrixCompilation(MatrixData matrixData, Matrix matrix)
+	{
+		this.matrixData = matrixData;
+		this.matrix = matrix;
+	}
+	
+	
+	public MatrixData getMatrixData()
+	{
+		return matrixData;
+	}
+	
+	public Matrix getMatrix()
+	{
+		return matrix;
+	}
+	
+	/**
+	 * @return actions to add to steps, in order of their appearance in matrix
+	 */
+	public List<Pair<Step, Action>> getStepActions()
+	{
+		return Collections.unmodifiableList(stepActions);
+	}
+	
+	void addStepAction(Step step, Action action)
+	{
+		stepActions.add(new Pair<>(step, action));
+	}
+	
+	/**
+	 * @return true if matrix has been compiled without any errors or warnings
+	 */
+	public boolean isSuccessful()
+	{
+		return successful;
+	}
+	
+	void setSuccessful(boolean successful)
+	{
+		this.successful = successful;
+	}
+}
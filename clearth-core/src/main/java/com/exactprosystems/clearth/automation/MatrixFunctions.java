@@ -75,6 +75,7 @@ public class MatrixFunctions
 
 	protected final Object weekendHolidayMonitor = new Object();
 	protected final MvelExpressionValidator validator = new MvelExpressionValidator();
+	protected final CompiledExpressionCache expressionCache;
 
 	public MatrixFunctions(Map<String, Boolean> holidays, Date businessDay, Date baseTime, boolean weekendHoliday, ValueGenerator valueGenerator)
 	{
@@ -87,6 +88,12 @@ public class MatrixFunctions
 		
 		functionsContext = new ParserContext();
 		functionsContext.addImport(this.getClass());
+		expressionCache = createExpressionCache();
+	}
+	
+	protected CompiledExpressionCache createExpressionCache()
+	{
+		return new CompiledExpressionCache();
 	}
 	
 	protected void shiftError(int shift, String shiftName) throws FunctionException
@@ -1056,12 +1063,10 @@ public class MatrixFunctions
 				break;
 			}
 
-			//Compile and execute expression
-			Serializable compiledExp = MVEL.compileExpression(formula, functionsContext);
+			//Compile and execute expression. Compiled expressions are cached as the same formulas are used by many actions
+			Serializable compiledExp = expressionCache.getExpression(formula, functionsContext, validator);
 			this.currentAction = currentAction;
 
-			validator.validateExpression(compiledExp);
-
 			Object resultObj = MVEL.executeExpression(compiledExp, this, mvelVars);  //if mvelVars is null it will only calculate function results, but will not follow references
 
 			if(needClassCheck && (resultObj instanceof Class))
@@ -1103,6 +1108,11 @@ public class MatrixFunctions
 		return holidays;
 	}
 	
+	public CompiledExpressionCache getExpressionCache()
+	{
+		return expressionCache;
+	}
+	
 	public void setWeekendHoliday(boolean weekendHoliday)
 	{
 		synchronized (weekendHolidayMonitor)
@@ -24,6 +24,7 @@ import com.exactprosystems.clearth.automation.exceptions.AutomationException;
 import com.exactprosystems.clearth.automation.exceptions.FatalAutomationException;
 import com.exactprosystems.clearth.automation.exceptions.NothingToStartException;
 import com.exactprosystems.clearth.automation.exceptions.SchedulerUpdateException;
+import com.exactprosystems.clearth.automation.generator.MatrixCache;
 import com.exactprosystems.clearth.automation.matrix.linked.LocalMatrixProvider;
 import com.exactprosystems.clearth.automation.matrix.linked.MatrixProvider;
 import com.exactprosystems.clearth.automation.matrix.linked.MatrixProviderHolder;
@@ -78,6 +79,7 @@ public abstract class Scheduler
 	protected final MatrixDataFactory matrixDataFactory;
 	protected final ActionGeneratorResources generatorResources;
 	protected final SchedulerData schedulerData;
+	protected final MatrixCache matrixCache;
 	protected List<Step> steps = new ArrayList<Step>();
 	protected List<Matrix> matrices = new ArrayList<Matrix>();
 	protected SchedulerStatus status = new SchedulerStatus();
@@ -111,6 +113,7 @@ public abstract class Scheduler
 		this.matrixDataFactory = ClearThCore.getInstance().getMatrixDataFactory();
 		this.generatorResources = generatorResources;
 		schedulerData = createSchedulerData(name, configsRoot, schedulerDirName, lastExecutionDataDir, scriptsDir);
+		matrixCache = createMatrixCache();
 		
 		//If some matrices files were added before scheduler construction - let's add them to schedulerData
 		File mdFile = new File(scriptsDir);
@@ -141,6 +144,13 @@ public abstract class Scheduler
 	
 	public abstract SchedulerData createSchedulerData(String name, String configsRoot, String schedulerDirName, String lastExecutedDataDir, String matricesDir) throws Exception;
 	public abstract void initEx() throws Exception;
+	protected MatrixCache createMatrixCache()
+	{
+		if (!ClearThCore.config().getAutomation().isMatrixCacheEnabled())
+			return null;
+		return new MatrixCache(schedulerData.getMatricesCacheDir().toPath());
+	}
+	
 	public abstract ActionGenerator createActionGenerator(Map<String, Step> stepsMap, List<Matrix> matricesContainer, Map<String, Preparable> preparableActions);
 	public abstract SequentialExecutor createSequentialExecutor(Scheduler scheduler, String userName, Map<String, Preparable> preparableActions);
 	
@@ -510,14 +520,15 @@ public abstract class Scheduler
 																	  boolean onlyCheck) throws IOException {
 		Map<String, Step> stepsMap = toMap(stepsContainer);
 		ActionGenerator generator = createActionGenerator(stepsMap, matricesContainer, preparableActions);
-		boolean allSuccessful = true;
+		generator.setMatrixCache(matrixCache);
+		List<MatrixData> matricesToBuild = new ArrayList<>();
 		for (MatrixData matrixData : matricesData)
 		{
 			if ((!matrixData.isExecute()) || (!matrixData.getFile().isFile()))
 				continue;
-			if (!generator.build(matrixData, onlyCheck))
-				allSuccessful = false;
+			matricesToBuild.add(matrixData);
 		}
+		boolean allSuccessful = generator.build(matricesToBuild, onlyCheck);
 
 		if (!onlyCheck) {
 			generator.createContextCleanData();
@@ -907,6 +918,9 @@ public abstract class Scheduler
 
 			Map<String, Preparable> preparableActions = new HashMap<String, Preparable>();
 			matricesErrors = prepare(steps, matrices, getMatricesData(), preparableActions);
+			//All matrices of scheduler have been just built, so cache can be cleaned from files of old or removed matrices
+			if (matrixCache != null)
+				matrixCache.removeUnused();
 
 			checkMatrixFatalErrors();
 
@@ -920,6 +934,7 @@ public abstract class Scheduler
 			if (stateConfig.isAutoSave())
 			{
 				ExecutorStateManager<?> es = getOrCreateStateManager();
+				es.setStateConfig(stateConfig);
 				simpleExecutor.setStateManager(es);
 			}
 			
@@ -1058,7 +1073,10 @@ public abstract class Scheduler
 		simpleExecutor.setRestored(true);
 		simpleExecutor.setStoredActionReports(storageRepDir);
 		if (stateConfig.isAutoSave())
+		{
+			es.setStateConfig(stateConfig);
 			simpleExecutor.setStateManager(es);
+		}
 		simpleExecutor.setOnFinish((x) -> this.simpleExecutorFinished(x));
 		
 		steps = simpleExecutor.getSteps();
@@ -104,6 +104,7 @@ public abstract class SchedulerData
 	private final List<MatrixData> matrices;
 	private final ConfigData configData;
 	private final File stateDir;
+	private final File matricesCacheDir;
 	private final File repDir;
 	private final File schedulerDir;
 	private final ExecutedMatricesData executedMatricesData;
@@ -156,6 +157,7 @@ public abstract class SchedulerData
 		matrices = loadMatrices();
 		configData = initConfigData();
 		stateDir = new File(getStateDirName(cfgDir, name));
+		matricesCacheDir = new File(getMatricesCacheDirName(cfgDir, name));
 		repDir = new File(getReportsDirName(cfgDir, name));
 
 		executedMatricesData = new ExecutedMatricesData(lastExecutedDataDir);
@@ -241,6 +243,11 @@ public abstract class SchedulerData
 		return configsRoot+schedulerName+File.separator+"state";
 	}
 	
+	public static String getMatricesCacheDirName(String configsRoot, String schedulerName)
+	{
+		return configsRoot+schedulerName+File.separator+"matrices_cache";
+	}
+	
 	public static String getReportsDirName(String configsRoot, String schedulerName)
 	{
 		return configsRoot+schedulerName+File.separator+"reports";
@@ -1096,6 +1103,11 @@ public abstract class SchedulerData
 		return stateDir;
 	}
 	
+	public File getMatricesCacheDir()
+	{
+		return matricesCacheDir;
+	}
+	
 	public File getRepDir() {
 		return repDir;
 	}
@@ -18,15 +18,18 @@
 
 package com.exactprosystems.clearth.automation;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.exactprosystems.clearth.automation.status.StatusLine;
 
+/**
+ * Lines describing scheduler execution. Lines can be added by scheduler threads while being read by GUI
+ */
 public class SchedulerStatus
 {
-	private List<StatusLine> lines = new ArrayList<>();
+	private final List<StatusLine> lines = new CopyOnWriteArrayList<>();
 	
 	public List<StatusLine> getLines()
 	{
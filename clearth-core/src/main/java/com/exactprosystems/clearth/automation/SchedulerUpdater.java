@@ -48,6 +48,7 @@ public class SchedulerUpdater
 	
 	public void updateMatrices(List<MatrixData> updatedMatrixData) throws SchedulerUpdateException, ActionUpdateException
 	{
+		checkNotExecutedInLanes();
 		Set<String> existingMatrices = scheduler.getMatrices().stream().map(Matrix::getName).collect(Collectors.toSet()),
 				matrixStates = isAutoSave() ? new HashSet<>(scheduler.getStateInfo().getMatrices()) : null;
 		checkUpdatedMatrixFiles(updatedMatrixData, existingMatrices, matrixStates);
@@ -92,6 +93,14 @@ public class SchedulerUpdater
 			throw new SchedulerUpdateException(errors.toString());
 	}
 	
+	private void checkNotExecutedInLanes() throws SchedulerUpdateException
+	{
+		//Lanes execute their own lists of actions, so current step can't be rewound to updated actions
+		Step currentStep = scheduler.getCurrentStep();
+		if (currentStep != null && currentStep.isExecutedInLanes())
+			throw new SchedulerUpdateException("Matrices can't be updated while step '"+currentStep.getName()+"' executes matrices in parallel lanes");
+	}
+	
 	private List<Matrix> compileUpdatedMatrices(List<MatrixData> updatedMatrixData) throws SchedulerUpdateException
 	{
 		List<Step> updatedSteps = createStepsToUpdate();
@@ -110,6 +119,7 @@ public class SchedulerUpdater
 	
 	private void applyUpdatedMatrices(List<Matrix> updatedMatrices) throws ActionUpdateException, SchedulerUpdateException
 	{
+		checkNotExecutedInLanes();  //Step could start lanes while matrices were being compiled
 		Step currentStep = scheduler.getCurrentStep();
 		Action currentAction = currentStep.getCurrentAction();
 		
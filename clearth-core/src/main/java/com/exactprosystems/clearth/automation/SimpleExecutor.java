@@ -27,9 +27,11 @@ import com.exactprosystems.clearth.automation.report.ActionReportWriter;
 import com.exactprosystems.clearth.automation.report.ReportException;
 import com.exactprosystems.clearth.automation.report.ReportsConfig;
 import com.exactprosystems.clearth.automation.report.ReportsWriter;
+import com.exactprosystems.clearth.automation.report.ReportSinks;
 import com.exactprosystems.clearth.automation.report.Result;
 import com.exactprosystems.clearth.automation.report.results.DefaultResult;
 import com.exactprosystems.clearth.automation.status.LaunchInfoLine;
+import com.exactprosystems.clearth.automation.status.ProgressLine;
 import com.exactprosystems.clearth.automation.status.StringLine;
 import com.exactprosystems.clearth.automation.steps.Default;
 import com.exactprosystems.clearth.data.HandledTestExecutionIdStorage;
@@ -47,6 +49,7 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -54,7 +57,12 @@ import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -301,7 +309,7 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 						}
 						
 						//Need to "execute actions" even if step is not executable, because actions may need to set some parameters referenced by further actions
-						step.executeActions(actionExecutor, actionsReportsDir, replay, suspension, stateUpdater);
+						step.executeActions(actionExecutor, actionsReportsDir, replay, suspension, stateUpdater, getMatrixLanes());
 						
 						if (interrupted.get())
 						{
@@ -421,6 +429,8 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 			scheduler.saveExecutedStepsData();
 			
 			getLogger().info("Execution of the scheduler completed now");
+			if (globalContext.getMatrixFunctions() != null)
+				getLogger().debug("Expressions cache statistics: {}", globalContext.getMatrixFunctions().getExpressionCache());
 			status.addLine(new StringLine("Finished"));
 		}
 		catch (Exception e)
@@ -633,6 +643,22 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 	}
 	
 	
+	/**
+	 * @return max number of matrices whose actions are executed in parallel within a step
+	 */
+	protected int getMatrixLanes()
+	{
+		return ClearThCore.config().getAutomation().getMatrixLanes();
+	}
+	
+	/**
+	 * @return number of threads to make reports of matrices with. 1 means sequential making, 0 means number of available processors
+	 */
+	protected int getReportThreads()
+	{
+		return ClearThCore.config().getAutomation().getReportThreads();
+	}
+	
 	protected ActionParamsCalculator createParamsCalculator()
 	{
 		return new ActionParamsCalculator(globalContext.getMatrixFunctions());
@@ -640,7 +666,8 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 	
 	protected ActionReportWriter createReportWriter()
 	{
-		return new ActionReportWriter(getReportsConfig(), ClearThCore.getInstance().getReportTemplatesProcessor());
+		ReportSinks sinks = new ReportSinks(ClearThCore.config().getAutomation().isBackgroundReportWriting(), ReportSinks.DEFAULT_BUFFER_SIZE);
+		return new ActionReportWriter(getReportsConfig(), ClearThCore.getInstance().getReportTemplatesProcessor(), sinks);
 	}
 	
 	protected ActionExecutor createActionExecutor()
@@ -714,7 +741,13 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 		if (!reportsConfig.isAnyReportEnabled())
 			return;
 		
-		makeReports(pathToStoreReports, pathToActionsReports);
+		ProgressLine progress = null;
+		if (matrices.size() > 1)
+		{
+			progress = new ProgressLine("Matrices reports", matrices.size());
+			status.addLine(progress);
+		}
+		makeReports(pathToStoreReports, pathToActionsReports, progress);
 	}
 	
 	protected XmlSchedulerLaunchInfo buildXmlSchedulerLaunchInfo(Date finished, ReportsInfo reportsInfo)
@@ -814,7 +847,7 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 				synchronized (suspension)
 				{
 					suspension.setSuspended(false);
-					suspension.notify();
+					suspension.notifyAll();
 				}
 			}
 		}
@@ -902,7 +935,8 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 			suspension.setSuspended(false);
 			if (!suspension.isTimeout())
 			{
-				suspension.notify();
+				//Actions from several lanes may wait for continuation
+				suspension.notifyAll();
 			}
 		}
 	}
@@ -1285,16 +1319,128 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 		}
 	}
 
-	//FIXME: this method is not thread-safe
+	/**
+	 * Makes reports of all matrices. 
+	 * Threads making reports of different matrices share only immutable {@link ReportsWriter} and write to files of own matrix. 
+	 * Still, the method is not thread-safe regarding calls made while the scheduler is running or from several threads at once: 
+	 * reports are built from actions and steps that can be changed by executor thread at the same time, 
+	 * and concurrent calls with the same path to store reports write the same files
+	 */
 	protected void makeReports(String pathToStoreReports, String pathToActionsReports) throws IOException, ReportException
+	{
+		makeReports(pathToStoreReports, pathToActionsReports, null);
+	}
+	
+	/**
+	 * Makes reports of all matrices. 
+	 * Reports of different matrices are independent, so they are made in parallel if more than one report thread is configured. 
+	 * In this case error while making reports of one matrix doesn't stop making reports of others, it is thrown when all of them are done. 
+	 * Thread-safety notes of {@link #makeReports(String, String)} apply to this method as well
+	 * @param progress optional status line to update when reports of a matrix are done
+	 */
+	protected void makeReports(String pathToStoreReports, String pathToActionsReports, ProgressLine progress) throws IOException, ReportException
 	{
 		Files.createDirectories(Path.of(pathToStoreReports));
+		//Action reports should be complete, including pending updates of async actions
+		actionExecutor.flushReports();
 
 		ReportsWriter reportsWriter = initReportsWriter(pathToStoreReports, pathToActionsReports);
-		for (Matrix matrix : matrices)
+		int threads = getReportThreads();
+		if (threads == 0)
+			threads = Runtime.getRuntime().availableProcessors();
+		threads = Math.min(threads, matrices.size());
+		if (threads <= 1)
+		{
+			for (Matrix matrix : matrices)
+				makeMatrixReports(reportsWriter, matrix, progress);
+			return;
+		}
+		
+		getLogger().debug("Making reports of {} matrices in {} threads", matrices.size(), threads);
+		AtomicInteger threadIndex = new AtomicInteger();
+		//Thread names start with scheduler name to keep reports making in logs of the scheduler
+		String threadNamePrefix = getName()+":Reports-";
+		ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, threadNamePrefix+threadIndex.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try
+		{
+			Map<Matrix, Future<?>> futures = new LinkedHashMap<>();
+			for (Matrix matrix : matrices)
+			{
+				futures.put(matrix, executor.submit(() -> {
+					makeMatrixReports(reportsWriter, matrix, progress);
+					return null;
+				}));
+			}
+			
+			Exception error = null;
+			for (Entry<Matrix, Future<?>> future : futures.entrySet())
+			{
+				try
+				{
+					waitForReports(future.getValue());
+				}
+				catch (InterruptedIOException e)
+				{
+					throw e;
+				}
+				catch (IOException | ReportException | RuntimeException e)
+				{
+					getLogger().error("Error while making reports of matrix '{}'", future.getKey().getName(), e);
+					if (error == null)
+						error = e;
+					else
+						error.addSuppressed(e);
+				}
+			}
+			
+			if (error instanceof IOException)
+				throw (IOException) error;
+			if (error instanceof ReportException)
+				throw (ReportException) error;
+			if (error != null)
+				throw (RuntimeException) error;
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+	
+	protected void makeMatrixReports(ReportsWriter reportsWriter, Matrix matrix, ProgressLine progress) throws IOException, ReportException
+	{
+		List<String> stepsMatrix = getMatrixSteps(matrix.getShortFileName());
+		reportsWriter.buildAndWriteReports(matrix, stepsMatrix, globalContext.getStartedByUser(), executionHandler.getName());
+		if (progress != null)
+			progress.itemDone();
+	}
+	
+	private void waitForReports(Future<?> future) throws IOException, ReportException
+	{
+		try
+		{
+			future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Wait for matrices reports interrupted");
+		}
+		catch (ExecutionException e)
 		{
-			List<String> stepsMatrix = getMatrixSteps(matrix.getShortFileName());
-			reportsWriter.buildAndWriteReports(matrix, stepsMatrix, globalContext.getStartedByUser(), executionHandler.getName());
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof ReportException)
+				throw (ReportException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IOException("Error while making matrix reports", cause);
 		}
 	}
 	
@@ -1379,6 +1525,7 @@ public abstract class SimpleExecutor extends Thread implements IExecutor
 	{
 		try
 		{
+			actionExecutor.flushReports();
 			FileUtils.deleteDirectory(toDir);
 			FileUtils.copyDirectory(new File (ClearThCore.appRootRelative(actionsReportsDir)),
 					toDir);
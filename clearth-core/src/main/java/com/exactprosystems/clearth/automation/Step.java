@@ -29,7 +29,12 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.exactprosystems.clearth.automation.ActionExecutor.isAsyncAction;
 
@@ -43,10 +48,20 @@ public abstract class Step implements CsvDataManager
 	protected final List<Action> actions = new ArrayList<>();
 	protected final Set<Action> asyncActions = new HashSet<>();
 	protected volatile Iterator<Action> actionsIterator = null;
+	//When matrices are executed in lanes, holds the action most recently started by any of them
 	protected volatile Action currentAction = null;
 	protected String actionsReportsDir = null;
-
-	protected boolean interrupted = false, paused = false;
+	protected final Object lanesMonitor = new Object();
+	//Lanes pause together: step is suspended only when all running lanes have stopped
+	protected final Object lanesPauseMonitor = new Object();
+	protected volatile boolean executedInLanes = false;
+	protected int laneThreads = 0,
+			remainingLanes = 0,
+			pausedLanes = 0;
+	protected long lanesPauseRound = 0;
+	protected boolean lanesSuspending = false;
+
+	protected volatile boolean interrupted = false, paused = false;
 	protected AtomicBoolean anyActionFailed = new AtomicBoolean(false);
 	protected AtomicBoolean failedDueToError = new AtomicBoolean(false);
 	protected SchedulerSuspension suspension = null;
@@ -438,7 +453,90 @@ public abstract class Step implements CsvDataManager
 	{
 		actionPauseDescription = pauseDescription;
 		actionPause = true;
-		pauseStep();
+		if (executedInLanes)
+			paused = true;  //Other lanes will stop before their next action
+		pauseExecution();
+	}
+	
+	/**
+	 * Stops execution of actions until the step is resumed
+	 */
+	protected void pauseExecution()
+	{
+		if (executedInLanes)
+			pauseLane();
+		else
+			pauseStep();
+	}
+	
+	/**
+	 * Stops current lane until the step is resumed. 
+	 * The step is suspended only when all running lanes are stopped, the lane that stops last suspends it
+	 */
+	protected void pauseLane()
+	{
+		long round;
+		synchronized (lanesPauseMonitor)
+		{
+			pausedLanes++;
+			if (isLanesPauseComplete())
+				lanesSuspending = true;
+			else
+			{
+				round = lanesPauseRound;
+				try
+				{
+					while (round == lanesPauseRound)
+						lanesPauseMonitor.wait();
+				}
+				catch (InterruptedException e)
+				{
+					getLogger().error("Wait for other lanes interrupted", e);
+					Thread.currentThread().interrupt();
+				}
+				return;
+			}
+		}
+		suspendLanes();
+	}
+	
+	/**
+	 * Called when lane has no more actions to execute. If other running lanes are paused, step is suspended now
+	 */
+	protected void finishLane()
+	{
+		synchronized (lanesPauseMonitor)
+		{
+			remainingLanes--;
+			if (!isLanesPauseComplete())
+				return;
+			lanesSuspending = true;
+		}
+		suspendLanes();
+	}
+	
+	private boolean isLanesPauseComplete()
+	{
+		//Threads that finish their lanes take next ones, so number of running lanes is limited by both values
+		return !lanesSuspending && pausedLanes > 0 && pausedLanes >= Math.min(laneThreads, remainingLanes);
+	}
+	
+	private void suspendLanes()
+	{
+		try
+		{
+			pauseStep();
+		}
+		finally
+		{
+			synchronized (lanesPauseMonitor)
+			{
+				pausedLanes = 0;
+				lanesSuspending = false;
+				lanesPauseRound++;
+				lanesPauseMonitor.notifyAll();
+			}
+		}
 	}
 	
 	protected void checkContextsExist()
@@ -492,6 +590,17 @@ public abstract class Step implements CsvDataManager
 
 	public void executeActions(ActionExecutor actionExec, String actionsReportsDir, BooleanObject replay, SchedulerSuspension suspension, 
 			ExecutorStateUpdater<?> stateUpdater) throws Exception
+	{
+		executeActions(actionExec, actionsReportsDir, replay, suspension, stateUpdater, 1);
+	}
+	
+	/**
+	 * Executes actions of this step
+	 * @param lanes max number of matrices whose actions are executed in parallel, each matrix in its own thread. 
+	 * Actions of one matrix are always executed in their order. 1 means all actions are executed one by one in order of the step
+	 */
+	public void executeActions(ActionExecutor actionExec, String actionsReportsDir, BooleanObject replay, SchedulerSuspension suspension, 
+			ExecutorStateUpdater<?> stateUpdater, int lanes) throws Exception
 	{
 		waitForAsyncActions(actionExec, ActionExecutor::waitForBeforeStepAsyncActions);
 
@@ -517,53 +626,19 @@ public abstract class Step implements CsvDataManager
 
 			AtomicBoolean canReplay = new AtomicBoolean(false);
 			logger.info("Running actions for step '{}'", this.getName());
-			actionsIterator = createActionsIterator();
-			while (actionsIterator.hasNext())
+			if (lanes > 1)
+				executeLanes(actionExec, globalContext, replay, canReplay, stateUpdater, lanes);
+			else
 			{
-				currentAction = actionsIterator.next();
-				try
+				actionsIterator = createActionsIterator();
+				while (actionsIterator.hasNext())
 				{
-					if (currentAction.getFinished() != null)  // If we replay the step and this action is already done
-					{
-						actionExec.getReportWriter().incActionIndex();
-						continue;
-					}
-					
-					if (paused)
-						this.pauseStep();
-					
-					if (interrupted)
+					currentAction = actionsIterator.next();
+					if (!executeAction(currentAction, actionExec, globalContext, replay, canReplay, stateUpdater))
 						break;
-					
-					actionExec.prepareToAction(currentAction);
-					
-					Matrix matrix = currentAction.getMatrix();
-					MatrixContext matrixContext = matrix.getContext();
-					StepContext stepContext = getStepContext(matrix);
-					
-					beforeAction(currentAction, stepContext, matrixContext, globalContext);
-					
-					if (replay.getValue() && !actionExec.prepareActionReplay(currentAction))
-						continue;
-
-					//Need to "execute actions" even if step is not executable, because actions may need to set some parameters referenced by further actions
-					if (currentAction.isAsync())
-						addAsyncAction(currentAction);
-					actionExec.executeAction(currentAction, stepContext, canReplay);
-					
-					afterAction(currentAction, stepContext, matrixContext, globalContext);
-					updateByAsyncActions(actionExec, 1000);
-					
-					if (stateUpdater != null)
-						stateUpdater.update(currentAction);
-				}
-				finally
-				{
-					if (!isAsyncAction(currentAction))
-						currentAction.dispose();
 				}
+				actionsIterator = null;
 			}
-			actionsIterator = null;
 			
 			actionExec.afterActionsExecution(this);
 			waitForAsyncActions(actionExec, ActionExecutor::waitForStepAsyncActions);
@@ -574,6 +649,166 @@ public abstract class Step implements CsvDataManager
 			afterActions(globalContext, stepContexts);
 		}
 	}
+	
+	/**
+	 * Executes one action of the step
+	 * @return false if step execution should be stopped
+	 */
+	protected boolean executeAction(Action action, ActionExecutor actionExec, GlobalContext globalContext, BooleanObject replay,
+			AtomicBoolean canReplay, ExecutorStateUpdater<?> stateUpdater) throws Exception
+	{
+		try
+		{
+			if (action.getFinished() != null)  // If we replay the step and this action is already done
+			{
+				actionExec.getReportWriter().incActionIndex();
+				return true;
+			}
+			
+			if (paused)
+			{
+				actionExec.flushReports();
+				pauseExecution();
+			}
+			
+			if (interrupted)
+				return false;
+			
+			actionExec.prepareToAction(action);
+			
+			Matrix matrix = action.getMatrix();
+			MatrixContext matrixContext = matrix.getContext();
+			StepContext stepContext = getStepContext(matrix);
+			
+			synchronized (lanesMonitor)
+			{
+				beforeAction(action, stepContext, matrixContext, globalContext);
+			}
+			
+			if (replay.getValue() && !actionExec.prepareActionReplay(action))
+				return true;
+			
+			//Need to "execute actions" even if step is not executable, because actions may need to set some parameters referenced by further actions
+			if (action.isAsync())
+				addAsyncAction(action);
+			actionExec.executeAction(action, stepContext, canReplay);
+			
+			synchronized (lanesMonitor)
+			{
+				afterAction(action, stepContext, matrixContext, globalContext);
+				updateByAsyncActions(actionExec, 1000);
+				
+				if (stateUpdater != null)
+					stateUpdater.update(action);
+			}
+			return true;
+		}
+		finally
+		{
+			if (!isAsyncAction(action))
+				action.dispose();
+		}
+	}
+	
+	/**
+	 * Executes actions of each matrix in separate lane. Lanes are run in thread pool, method returns when all lanes are finished.
+	 * Once any lane fails or stops, other lanes stop before their next action, like sequential execution of the step does
+	 */
+	protected void executeLanes(ActionExecutor actionExec, GlobalContext globalContext, BooleanObject replay, AtomicBoolean canReplay,
+			ExecutorStateUpdater<?> stateUpdater, int maxLanes) throws Exception
+	{
+		Map<Matrix, List<Action>> lanes = new LinkedHashMap<>();
+		for (Action action : actions)
+			lanes.computeIfAbsent(action.getMatrix(), m -> new ArrayList<>()).add(action);
+		//Creating contexts in advance because their map is not thread-safe
+		for (Matrix matrix : lanes.keySet())
+			getStepContext(matrix);
+		
+		int threads = Math.min(maxLanes, lanes.size());
+		synchronized (lanesPauseMonitor)
+		{
+			//Lanes waiting for a free thread are not running yet, they will see the pause flag before their first action
+			laneThreads = threads;
+			remainingLanes = lanes.size();
+			pausedLanes = 0;
+			lanesSuspending = false;
+		}
+		executedInLanes = true;
+		getLogger().debug("Executing actions of {} matrices in {} lanes", lanes.size(), threads);
+		AtomicInteger threadIndex = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, getName()+"-Lane-"+threadIndex.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try
+		{
+			AtomicBoolean stopped = new AtomicBoolean(false);
+			List<Future<?>> futures = new ArrayList<>(lanes.size());
+			for (List<Action> laneActions : lanes.values())
+			{
+				futures.add(executor.submit(() -> {
+					try
+					{
+						for (Action action : laneActions)
+						{
+							if (stopped.get())
+								break;
+							
+							currentAction = action;
+							if (!executeAction(action, actionExec, globalContext, replay, canReplay, stateUpdater))
+							{
+								stopped.set(true);
+								break;
+							}
+						}
+					}
+					catch (Exception | Error e)
+					{
+						stopped.set(true);
+						throw e;
+					}
+					finally
+					{
+						finishLane();
+					}
+					return null;
+				}));
+			}
+			
+			//Waiting for all lanes to finish, the step ends only after that
+			Exception error = null;
+			for (Future<?> future : futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+					if (error == null)
+						error = cause;
+					else
+						error.addSuppressed(cause);
+				}
+			}
+			
+			if (error != null)
+				throw error;
+		}
+		catch (InterruptedException e)
+		{
+			interrupted = true;
+			executor.shutdownNow();
+			throw e;
+		}
+		finally
+		{
+			executedInLanes = false;
+			executor.shutdown();
+		}
+	}
 
 	public void clearContexts()
 	{
@@ -656,6 +891,15 @@ public abstract class Step implements CsvDataManager
 		}
 	}
 	
+	/**
+	 * @return true if actions of matrices are being executed in parallel lanes. 
+	 * Current action is not meaningful in this case and step can't be rewound to it
+	 */
+	public boolean isExecutedInLanes()
+	{
+		return executedInLanes;
+	}
+	
 	public Action getCurrentAction()
 	{
 		return currentAction;
@@ -38,6 +38,7 @@ import com.exactprosystems.clearth.utils.tabledata.comparison.ComparisonExceptio
 import com.exactprosystems.clearth.utils.tabledata.comparison.ComparisonProcessor;
 import com.exactprosystems.clearth.utils.tabledata.comparison.TableDataReaderSettings;
 import com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators.IndexedStringTableDataComparator;
+import com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators.SortMergeStringTableDataComparator;
 import com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators.StringTableDataComparator;
 import com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators.TableDataComparator;
 import com.exactprosystems.clearth.utils.tabledata.comparison.mappings.DataMapping;
@@ -58,6 +59,7 @@ import com.exactprosystems.clearth.utils.tabledata.rowMatchers.NumericStringTabl
 import com.exactprosystems.clearth.utils.tabledata.rowMatchers.StringTableRowMatcher;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
 
 public class CompareDataSets extends Action
@@ -173,8 +175,18 @@ public class CompareDataSets extends Action
 			BasicTableDataReader<String, String, ?> actualReader) throws IOException, ParametersException
 	{
 		TableRowsComparator<String, String> rowsComparator = createTableRowsComparator();
-		return compConfig.getKeyColumns().isEmpty() ? new StringTableDataComparator(expectedReader, actualReader, rowsComparator)
-				: new IndexedStringTableDataComparator<>(expectedReader, actualReader, createTableRowMatcher(), rowsComparator);
+		if (compConfig.getKeyColumns().isEmpty())
+			return new StringTableDataComparator(expectedReader, actualReader, rowsComparator);
+		
+		if (compConfig.isSortMerge())
+			return new SortMergeStringTableDataComparator(expectedReader, actualReader, createTableRowMatcher(), rowsComparator,
+					Paths.get(ClearThCore.tempPath()));
+		
+		IndexedStringTableDataComparator<?> comparator =
+				new IndexedStringTableDataComparator<>(expectedReader, actualReader, createTableRowMatcher(), rowsComparator);
+		if (compConfig.getSpillMemoryLimit() > 0)
+			comparator.useSpillingStorages(Paths.get(ClearThCore.tempPath()), compConfig.getSpillMemoryLimit());
+		return comparator;
 	}
 	
 	protected ComparisonProcessor<String, String, PrimaryKey> createComparisonProcessor()
@@ -24,6 +24,7 @@ import com.exactprosystems.clearth.automation.exceptions.ResultException;
 import com.exactprosystems.clearth.automation.report.Result;
 import com.exactprosystems.clearth.connectivity.ConnectivityException;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessage;
+import com.exactprosystems.clearth.connectivity.listeners.ClearThMessageCollector;
 import com.exactprosystems.clearth.messages.*;
 import com.exactprosystems.clearth.utils.CommaBuilder;
 import com.exactprosystems.clearth.utils.Pair;
@@ -80,6 +81,8 @@ public abstract class ReceiveMessageAction<T extends ClearThMessage<T>> extends
 	}});
 	
 	protected long awaitedTimeout;
+	//Key fields of expected message, used to choose collector index in getMessageSource()
+	protected KeyFieldsData messageKeys;
 	
 	protected abstract void afterSearch(GlobalContext globalContext, List<T> messages) throws ResultException;
 
@@ -87,9 +90,9 @@ public abstract class ReceiveMessageAction<T extends ClearThMessage<T>> extends
 	protected Result run(StepContext stepContext, MatrixContext matrixContext, GlobalContext globalContext) throws ResultException, FailoverException
 	{
 		T expectedMessage = buildMessage(matrixContext);
-		MessageSource messageSource = getMessageSource(globalContext);
-		
 		AllKeyFieldsData allKeys = getAllKeys(stepContext, matrixContext, globalContext, expectedMessage);
+		messageKeys = allKeys.getKeys();
+		MessageSource messageSource = getMessageSource(globalContext);
 		checkKeys(allKeys);
 		
 		List<T> foundMessages = findMessages(allKeys.getKeys(), allKeys.getKeysInRgs(), messageSource, globalContext);
@@ -122,10 +125,14 @@ public abstract class ReceiveMessageAction<T extends ClearThMessage<T>> extends
 	
 	//*** Getters for objects to work with messages ***
 	
+	/**
+	 * Creates message source to find messages in. 
+	 * If messages are taken from collector that has index for one of key fields, message source will use this index
+	 */
 	protected MessageSource getMessageSource(GlobalContext globalContext) throws FailoverException
 	{
 		if (!getInputParam(CONNECTIONNAME, "").isEmpty())
-			return getCollectorMessageSource(globalContext);
+			return getCollectorMessageSource(globalContext, messageKeys);
 		if (!getInputParam(FILENAME, "").isEmpty())
 			return getFileMessageSource(globalContext);
 
@@ -154,6 +161,58 @@ public abstract class ReceiveMessageAction<T extends ClearThMessage<T>> extends
 		}
 	}
 	
+	protected CollectorMessageSource getCollectorMessageSource(GlobalContext globalContext, KeyFieldsData keys) throws FailoverException
+	{
+		ConnectionFinder connFinder = getConnectionFinder();
+		String connName = connFinder.getConnectionName(inputParams);
+		ClearThMessageCollector collector;
+		try
+		{
+			collector = connFinder.findCollector(connName);
+		}
+		catch (ConnectivityException e)
+		{
+			throw new FailoverException(e.getMessage(), FailoverReason.CONNECTION_ERROR, connName);
+		}
+		
+		MessageKeyField indexedKey = findIndexedKeyField(collector.getIndexedFields(), keys);
+		if (indexedKey == null)
+			return getCollectorMessageSource(globalContext);
+		
+		getLogger().debug("Using index by field '{}' of collector to find messages", indexedKey.getName());
+		return new CollectorMessageSource(collector, indexedKey.getName(), indexedKey.getValue(), !isReverseOrder());
+	}
+	
+	/**
+	 * Finds key field that can be used to get messages from collector index. 
+	 * Such key field should be indexed and its expected value should be plain, i.e. not contain any special function, 
+	 * because index contains exact values of fields
+	 * @param indexedFields names of fields indexed in collector
+	 * @param keys key fields to search message by
+	 * @return key field to use or null if collector index is not applicable
+	 */
+	protected MessageKeyField findIndexedKeyField(Set<String> indexedFields, KeyFieldsData keys)
+	{
+		if (indexedFields.isEmpty() || keys == null)
+			return null;
+		
+		for (MessageKeyField key : keys.getKeys())
+		{
+			if (indexedFields.contains(key.getName()) && isPlainValue(key.getValue()))
+				return key;
+		}
+		
+		String msgType = keys.getMsgType();
+		if (indexedFields.contains(ClearThMessage.MSGTYPE) && isPlainValue(msgType))
+			return new MessageKeyField(ClearThMessage.MSGTYPE, msgType);
+		return null;
+	}
+	
+	private boolean isPlainValue(String value)
+	{
+		return value != null && value.indexOf('{') < 0;
+	}
+	
 	protected FileMessageSource getFileMessageSource(GlobalContext globalContext)
 	{
 		File file = InputParamsUtils.getRequiredFile(inputParams, FILENAME);
@@ -0,0 +1,80 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.actions.db;
+
+import com.exactprosystems.clearth.utils.sql.SQLUtils;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cheap query (e.g. count of rows or maximum timestamp) executed to find out if data has changed since previous execution.
+ * Used to avoid re-running expensive query while data it depends on stays the same
+ */
+public class ProbeQuery implements AutoCloseable
+{
+	private final PreparedStatement statement;
+	private List<String> lastValues;
+	
+	public ProbeQuery(PreparedStatement statement)
+	{
+		this.statement = statement;
+	}
+	
+	
+	/**
+	 * Executes probe query and compares its result with result of previous execution
+	 * @return true if result differs from previous one. First execution always returns true
+	 * @throws SQLException if probe query failed
+	 * @throws IOException if value from result could not be obtained
+	 */
+	public boolean isChanged() throws SQLException, IOException
+	{
+		List<String> values = readValues();
+		boolean changed = lastValues == null || !lastValues.equals(values);
+		lastValues = values;
+		return changed;
+	}
+	
+	@Override
+	public void close() throws SQLException
+	{
+		statement.close();
+	}
+	
+	
+	private List<String> readValues() throws SQLException, IOException
+	{
+		List<String> result = new ArrayList<>();
+		try (ResultSet rs = statement.executeQuery())
+		{
+			int columns = rs.getMetaData().getColumnCount();
+			while (rs.next())
+			{
+				for (int i = 1; i <= columns; i++)
+					result.add(SQLUtils.getDbValue(rs, i));
+			}
+		}
+		return result;
+	}
+}
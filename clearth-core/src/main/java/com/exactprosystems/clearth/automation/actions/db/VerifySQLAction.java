@@ -52,7 +52,9 @@ public class VerifySQLAction extends SelectSQLAction implements TimeoutAwaiter
 			PARAM_CHECK_ALL_MAPPED_VALUES = "CheckAllMappedValues",
 			USE_CP_FROM = "UseCPFrom",
 			QUERY_WITH_CP = "QueryWithCP",
-			QUERY_WITH_CP_FILE = "QueryWithCPFile";
+			QUERY_WITH_CP_FILE = "QueryWithCPFile",
+			PARAM_PROBE_QUERY = "ProbeQuery",
+			PARAM_MAX_WAIT_PERIOD = "MaxWaitPeriod";
 
 	protected int expectedRecords = -1;
 	protected boolean noData = false,
@@ -301,7 +303,7 @@ public class VerifySQLAction extends SelectSQLAction implements TimeoutAwaiter
 	protected boolean getParameterIdentical(String param, String paramConverted, String dbField) throws ParametersException
 	{
 		return (param.equalsIgnoreCase("null")) ? (dbField == null)
-			: comparisonUtils().compareValuesIgnoreCase(paramConverted, dbField);
+			: comparisonUtils().getExpectedValuePredicate(paramConverted, false).test(dbField);
 	}
 
 	protected void saveFieldToMatrix(ResultSet rs, List<Pair<String, String>> params) throws SQLException, IOException
@@ -504,7 +506,9 @@ public class VerifySQLAction extends SelectSQLAction implements TimeoutAwaiter
 	protected Result executeQuery() throws Exception {
 
 		long timeout = getTimeOut();
-		long sleepDelta = getWaitPeriod();
+		long waitPeriod = getWaitPeriod(),
+				maxWaitPeriod = Math.max(getMaxWaitPeriod(), waitPeriod),
+				sleepDelta = waitPeriod;
 
 		String query = getQuery();
 		String[] keys = SQLUtils.getKeysFromQuery(query);
@@ -515,10 +519,12 @@ public class VerifySQLAction extends SelectSQLAction implements TimeoutAwaiter
 
 		Connection con = getDBConnection();
 		PreparedStatement parametrizedQuery = null;
+		ProbeQuery probe = null;
 		Stopwatch sw = new Stopwatch();
 		try
 		{
 			parametrizedQuery = this.prepareStatement(query, keys, con);
+			probe = createProbeQuery(con);
 
 			sw.start(timeout);
 
@@ -530,9 +536,18 @@ public class VerifySQLAction extends SelectSQLAction implements TimeoutAwaiter
 				try {
 					iteration++;
 					if (iteration != 1) {
-						Thread.sleep(sleepDelta);
+						waitForNextCheck(Math.max(Math.min(sleepDelta, timeout - sw.getElapsedMillis()), 0));
+						//Back-off: each next check waits longer, up to maximum wait period
+						sleepDelta = Math.min(sleepDelta * 2, maxWaitPeriod);
 					}
 
+					if (probe != null && !probe.isChanged()) {
+						logger.debug("Iteration #" + iteration + " skipped: probe query result is not changed.");
+						continue;
+					}
+					if (probe != null && iteration != 1)
+						sleepDelta = waitPeriod;  //Data is changing, checking it more often
+
 					logger.debug("Iteration #" + iteration + " started.");
 
 					rs = parametrizedQuery.executeQuery();
@@ -575,6 +590,7 @@ public class VerifySQLAction extends SelectSQLAction implements TimeoutAwaiter
 		finally
 		{
 			awaitedTimeout = sw.stop();
+			Utils.closeResource(probe);
 			Utils.closeStatement(parametrizedQuery);
 			if (isNeedCloseDbConnection())
 				Utils.closeResource(con);
@@ -613,4 +629,38 @@ public class VerifySQLAction extends SelectSQLAction implements TimeoutAwaiter
 	protected long getWaitPeriod() {
 		return 200;
 	}
+	
+	/**
+	 * Pauses verification before next check
+	 * @param period time to wait in milliseconds
+	 * @throws InterruptedException if wait has been interrupted
+	 */
+	protected void waitForNextCheck(long period) throws InterruptedException
+	{
+		Thread.sleep(period);
+	}
+	
+	/**
+	 * @return maximum period between checks. Period starts from {@link #getWaitPeriod()} and is doubled after each check, up to this value
+	 * @throws ResultException if action parameter with maximum period is invalid
+	 */
+	protected long getMaxWaitPeriod() throws ResultException
+	{
+		return InputParamsUtils.getLongOrDefault(inputParams, PARAM_MAX_WAIT_PERIOD, getWaitPeriod());
+	}
+	
+	/**
+	 * Creates cheap query to be executed before each check. Main query is re-executed only if result of this query changes
+	 * @param con connection to create query for
+	 * @return probe query or null if it is not specified in action parameters
+	 * @throws SQLException if query could not be prepared
+	 */
+	protected ProbeQuery createProbeQuery(Connection con) throws SQLException
+	{
+		String probeQuery = InputParamsUtils.getStringOrDefault(inputParams, PARAM_PROBE_QUERY, null);
+		if (StringUtils.isBlank(probeQuery))
+			return null;
+		
+		return new ProbeQuery(prepareStatement(probeQuery, SQLUtils.getKeysFromQuery(probeQuery), con));
+	}
 }
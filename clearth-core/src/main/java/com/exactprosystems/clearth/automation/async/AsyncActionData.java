@@ -19,6 +19,7 @@
 package com.exactprosystems.clearth.automation.async;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 import com.exactprosystems.clearth.automation.Action;
 import com.exactprosystems.clearth.automation.MatrixContext;
@@ -33,12 +34,14 @@ public class AsyncActionData
 	private Result result;
 	private Date started, 
 			finished;
+	private final CompletableFuture<AsyncActionData> completion;
 	
 	public AsyncActionData(Action action, StepContext stepContext, MatrixContext matrixContext)
 	{
 		this.action = action;
 		this.stepContext = stepContext;
 		this.matrixContext = matrixContext;
+		this.completion = new CompletableFuture<>();
 	}
 
 	
@@ -89,4 +92,24 @@ public class AsyncActionData
 	{
 		this.finished = finished;
 	}
+	
+	
+	/**
+	 * @return future that is completed with this object when action is finished or its execution is interrupted. 
+	 * Future is completed by {@link AsyncActionsManager} only after action result is available for processing
+	 */
+	public CompletableFuture<AsyncActionData> getCompletion()
+	{
+		return completion;
+	}
+	
+	public boolean isCompleted()
+	{
+		return completion.isDone();
+	}
+	
+	void complete()
+	{
+		completion.complete(this);
+	}
 }
@@ -0,0 +1,249 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.async;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactprosystems.clearth.automation.Action;
+import com.exactprosystems.clearth.automation.GlobalContext;
+import com.exactprosystems.clearth.automation.report.Result;
+import com.exactprosystems.clearth.automation.report.results.DefaultResult;
+
+/**
+ * Queue of asynchronous actions that belong to one async group.
+ * Actions are executed by executor shared between groups, no more than concurrency limit of the group at a time.
+ * Group doesn't occupy any thread while it has no actions to execute.
+ * With concurrency limit of 1 actions are executed one by one in order they were added
+ */
+public class AsyncActionsGroup
+{
+	private static final Logger logger = LoggerFactory.getLogger(AsyncActionsGroup.class);
+	
+	protected final String name,
+			threadName;
+	protected final int concurrencyLimit;
+	protected final Executor executor;
+	protected final GlobalContext globalContext;
+	protected final ActionMonitor monitor;
+	protected final AtomicBoolean interrupted;
+	
+	protected final Queue<AsyncActionData> actions;
+	protected int running;  //Guarded by actions queue
+	
+	/**
+	 * @param name of the group
+	 * @param threadName name to give executor thread while it executes action of the group
+	 * @param concurrencyLimit max number of actions executed at the same time. 0 means no limit
+	 * @param executor to execute actions with
+	 * @param globalContext to execute actions with
+	 * @param monitor to notify about finished actions
+	 */
+	public AsyncActionsGroup(String name, String threadName, int concurrencyLimit, Executor executor,
+			GlobalContext globalContext, ActionMonitor monitor)
+	{
+		this.name = name;
+		this.threadName = threadName;
+		this.concurrencyLimit = Math.max(concurrencyLimit, 0);
+		this.executor = executor;
+		this.globalContext = globalContext;
+		this.monitor = monitor;
+		this.interrupted = new AtomicBoolean(false);
+		this.actions = createActionsQueue();
+	}
+	
+	
+	public void addAction(AsyncActionData actionData)
+	{
+		synchronized (actions)
+		{
+			actions.add(actionData);
+		}
+		dispatchActions();
+	}
+	
+	public void interruptExecution()
+	{
+		interrupted.set(true);
+		synchronized (actions)
+		{
+			actions.clear();
+		}
+	}
+	
+	public boolean isExecutionInterrupted()
+	{
+		return interrupted.get();
+	}
+	
+	
+	public String getName()
+	{
+		return name;
+	}
+	
+	public int getConcurrencyLimit()
+	{
+		return concurrencyLimit;
+	}
+	
+	/**
+	 * @return number of actions being executed at the moment
+	 */
+	public int getRunningActions()
+	{
+		synchronized (actions)
+		{
+			return running;
+		}
+	}
+	
+	/**
+	 * @return number of actions waiting for free slot to start
+	 */
+	public int getQueuedActions()
+	{
+		synchronized (actions)
+		{
+			return actions.size();
+		}
+	}
+	
+	
+	protected Logger getLogger()
+	{
+		return logger;
+	}
+	
+	protected Queue<AsyncActionData> createActionsQueue()
+	{
+		return new ArrayDeque<AsyncActionData>();
+	}
+	
+	/**
+	 * Passes queued actions to executor while concurrency limit allows
+	 */
+	protected void dispatchActions()
+	{
+		while (true)
+		{
+			AsyncActionData next;
+			synchronized (actions)
+			{
+				if (isExecutionInterrupted() || (concurrencyLimit > 0 && running >= concurrencyLimit))
+					return;
+				
+				next = actions.poll();
+				if (next == null)
+					return;
+				running++;
+			}
+			
+			try
+			{
+				executor.execute(() -> runAction(next));
+			}
+			catch (RejectedExecutionException e)
+			{
+				//Executor is shut down, i.e. execution is interrupted
+				releaseSlot();
+				handleActionCrash(next, e);
+				notifyMonitor(next);
+				return;
+			}
+		}
+	}
+	
+	protected void runAction(AsyncActionData a)
+	{
+		Thread current = Thread.currentThread();
+		String executorThreadName = current.getName();
+		current.setName(threadName);
+		try
+		{
+			try
+			{
+				Action action = a.getAction();
+				String actionDesc = null;
+				if (getLogger().isDebugEnabled())
+				{
+					actionDesc = action.getDescForLog("");
+					getLogger().debug("Starting{}", actionDesc);
+				}
+				
+				executeAction(a);
+				
+				if (getLogger().isDebugEnabled())
+					getLogger().debug("Finished{}", actionDesc != null ? actionDesc : action.getDescForLog(""));
+			}
+			catch (Exception e)
+			{
+				handleActionCrash(a, e);
+			}
+			finally
+			{
+				//Monitor is notified before next action of the group can start to keep order of finished actions
+				notifyMonitor(a);
+			}
+		}
+		finally
+		{
+			current.setName(executorThreadName);
+			releaseSlot();
+		}
+		
+		dispatchActions();
+	}
+	
+	protected void releaseSlot()
+	{
+		synchronized (actions)
+		{
+			running--;
+		}
+	}
+	
+	
+	protected void executeAction(AsyncActionData actionData) throws Exception
+	{
+		//Action attributes must not be set directly not to harm main scheduler thread. It will get new values from AsyncActionData and apply them.
+		Action a = actionData.getAction();
+		actionData.setStarted(new Date());
+		Result result = a.executeForResult(actionData.getStepContext(), actionData.getMatrixContext(), globalContext);
+		actionData.setFinished(new Date());
+		actionData.setResult(result);
+	}
+	
+	protected void handleActionCrash(AsyncActionData actionData, Exception e)
+	{
+		actionData.getAction().setResult(DefaultResult.failed(e));
+	}
+	
+	protected void notifyMonitor(AsyncActionData actionData)
+	{
+		monitor.actionFinished(actionData);
+	}
+}
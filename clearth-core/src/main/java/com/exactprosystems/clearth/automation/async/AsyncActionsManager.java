@@ -21,6 +21,7 @@ package com.exactprosystems.clearth.automation.async;
 import com.exactprosystems.clearth.automation.Action;
 import com.exactprosystems.clearth.automation.GlobalContext;
 import com.exactprosystems.clearth.automation.report.results.DefaultResult;
+import com.exactprosystems.clearth.config.AsyncGroups;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,11 +30,19 @@ import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 
+/**
+ * Executes asynchronous actions and keeps track of their state.
+ * Actions are executed by pool of threads shared by all async groups. Each group limits number of its actions executed at the same time,
+ * limits are taken from {@link AsyncGroups} settings. Group with limit of 1 executes its actions one by one in order they were started.
+ */
 public class AsyncActionsManager implements ActionMonitor, Closeable
 {
 	private static final Logger logger = LoggerFactory.getLogger(AsyncActionsManager.class);
@@ -42,9 +51,11 @@ public class AsyncActionsManager implements ActionMonitor, Closeable
 	
 	protected final GlobalContext globalContext;
 	protected final Consumer<Action> actionToMvel;
+	protected final AsyncGroups groupsSettings;
+	protected final String ownerThreadName;
 	
-	protected AsyncActionsThread defaultThread;
-	protected Map<String, AsyncActionsThread> threads;
+	protected volatile ExecutorService executor;
+	protected final Map<String, AsyncActionsGroup> groups;
 	protected final Set<AsyncActionData> startedActions, finishedActions;
 	protected final BlockingQueue<AsyncActionData> actionsToProcess;
 	protected final Map<String, Set<AsyncActionData>> actionsByStep,  //Arranges actions by step name to quickly get know if step needs to wait for actions end
@@ -52,10 +63,18 @@ public class AsyncActionsManager implements ActionMonitor, Closeable
 	protected final Set<AsyncActionData> actionsForScheduler;
 	
 	public AsyncActionsManager(GlobalContext globalContext, Consumer<Action> actionToMvel)
+	{
+		this(globalContext, actionToMvel, new AsyncGroups());
+	}
+	
+	public AsyncActionsManager(GlobalContext globalContext, Consumer<Action> actionToMvel, AsyncGroups groupsSettings)
 	{
 		this.globalContext = globalContext;
 		this.actionToMvel = actionToMvel;
+		this.groupsSettings = groupsSettings;
+		this.ownerThreadName = Thread.currentThread().getName();
 		
+		groups = new ConcurrentHashMap<String, AsyncActionsGroup>();
 		startedActions = createActionDataSet();
 		finishedActions = createActionDataSet();
 		actionsToProcess = createActionDataQueue();
@@ -89,6 +108,7 @@ public class AsyncActionsManager implements ActionMonitor, Closeable
 		}
 		
 		finishedActions.add(actionData);
+		actionData.complete();
 	}
 
 	private void refreshState(Action action)
@@ -119,18 +139,17 @@ public class AsyncActionsManager implements ActionMonitor, Closeable
 			actionFinished(action);
 		}
 		
-		if (defaultThread != null)
-			defaultThread.interruptExecution();
+		for (AsyncActionsGroup g : groups.values())
+			g.interruptExecution();
 		
-		if (threads != null)
-		{
-			for (AsyncActionsThread t : threads.values())
-				t.interruptExecution();
-		}
+		ExecutorService e = executor;
+		if (e != null)
+			e.shutdownNow();
 	}
 	
 	/**
-	 * Triggers asynchronous action execution. Action is inserted into queue of corresponding actions group. 
+	 * Triggers asynchronous action execution. Action is inserted into queue of corresponding actions group 
+	 * and is started as soon as concurrency limit of the group allows. 
 	 * Its state can be monitored with isActionFinished method
 	 * @param actionData to execute asynchronously
 	 * @throws InterruptedException
@@ -139,16 +158,8 @@ public class AsyncActionsManager implements ActionMonitor, Closeable
 	{
 		addActionToHistory(actionData);
 		
-		AsyncActionsThread thread = getThreadForAction(actionData.getAction());
-		try
-		{
-			thread.addAction(actionData);
-		}
-		catch (InterruptedException e)
-		{
-			removeActionFromHistory(actionData);
-			throw e;
-		}
+		AsyncActionsGroup group = getGroupForAction(actionData.getAction());
+		group.addAction(actionData);
 	}
 	
 	
@@ -279,39 +290,52 @@ public class AsyncActionsManager implements ActionMonitor, Closeable
 	
 	//*** Action execution ***
 	
-	protected AsyncActionsThread createThread(String name)
+	protected ExecutorService createExecutor()
 	{
-		AsyncActionsThread result = new AsyncActionsThread(name, globalContext, this);
-		result.start();
-		return result;
+		AtomicInteger threadIndex = new AtomicInteger();
+		//Threads are created on demand and are reused by all groups, idle threads are stopped after a minute
+		return Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, ownerThreadName+":Async-"+threadIndex.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
 	}
 	
-	protected AsyncActionsThread getDefaultThread()
+	protected ExecutorService getExecutor()
 	{
-		if (defaultThread == null)
-			defaultThread = createThread(Thread.currentThread().getName()+":"+DEFAULT_ASYNC_THREAD_NAME);
-		return defaultThread;
-	}
-	
-	protected AsyncActionsThread getNamedThread(String groupName)
-	{
-		if (threads == null)
-			threads = new HashMap<String, AsyncActionsThread>();
-		AsyncActionsThread result = threads.get(groupName);
+		ExecutorService result = executor;
 		if (result == null)
 		{
-			result = createThread(groupName);
-			threads.put(groupName, result);
+			synchronized (this)
+			{
+				result = executor;
+				if (result == null)
+					executor = result = createExecutor();
+			}
 		}
 		return result;
 	}
 	
-	protected AsyncActionsThread getThreadForAction(Action action)
+	protected AsyncActionsGroup createGroup(String name, String threadName)
+	{
+		return new AsyncActionsGroup(name, threadName, groupsSettings.getConcurrencyLimit(name), getExecutor(), globalContext, this);
+	}
+	
+	protected AsyncActionsGroup getGroupForAction(Action action)
 	{
 		String group = action.getAsyncGroup();
-		if ((group == null) || (group.isEmpty()))
-			return getDefaultThread();
-		else
-			return getNamedThread(Thread.currentThread().getName()+":"+group);
+		if (group == null)
+			group = "";
+		return groups.computeIfAbsent(group, 
+				name -> createGroup(name, ownerThreadName+":"+(name.isEmpty() ? DEFAULT_ASYNC_THREAD_NAME : name)));
+	}
+	
+	/**
+	 * @param name of async group, empty string for default group
+	 * @return group that executes actions, null if no actions of the group were started
+	 */
+	public AsyncActionsGroup getGroup(String name)
+	{
+		return groups.get(name);
 	}
 }
@@ -0,0 +1,202 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.generator;
+
+import com.exactprosystems.clearth.utils.Utils;
+import com.exactprosystems.clearth.utils.javaFunction.SupplierWithException;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores parsed matrices in given directory so that unchanged matrix files are not parsed again.
+ * Matrices are stored by hash of file contents, i.e. cache entry is not used once the file is changed.
+ * Can be used by multiple threads.
+ */
+public class MatrixCache
+{
+	private static final Logger logger = LoggerFactory.getLogger(MatrixCache.class);
+	
+	public static final String FILE_EXTENSION = ".matrix";
+	
+	private final Path directory;
+	//Key of cache entry used for each matrix file, so that keys of changed files don't pile up
+	private final Map<String, String> usedKeys = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong(),
+			misses = new AtomicLong();
+	
+	public MatrixCache(Path directory)
+	{
+		this.directory = directory;
+	}
+	
+	
+	/**
+	 * Returns parsed matrix from cache or parses it with reader from given factory if file is not cached yet or has been changed since it was cached
+	 * @param fileName path to matrix file
+	 * @param trimValues flag to trim values in matrix, affects parsing result
+	 * @param readerFactory creates reader to parse matrix file if it is not cached
+	 * @return lines of parsed matrix
+	 * @throws IOException if matrix file cannot be read or parsed
+	 */
+	public ParsedMatrix getMatrix(String fileName, boolean trimValues, SupplierWithException<ActionReader, IOException> readerFactory) throws IOException
+	{
+		String key = createKey(fileName, trimValues);
+		usedKeys.put(trimValues ? fileName+"_trim" : fileName, key);
+		
+		Path file = directory.resolve(key+FILE_EXTENSION);
+		ParsedMatrix result = load(file, fileName);
+		if (result != null)
+		{
+			hits.incrementAndGet();
+			logger.trace("Matrix '{}' taken from cache", fileName);
+			return result;
+		}
+		
+		misses.incrementAndGet();
+		ActionReader reader = readerFactory.get();
+		try
+		{
+			result = ParsedMatrix.read(reader);
+		}
+		finally
+		{
+			Utils.closeResource(reader);
+		}
+		
+		//Lines with errors are parsed again next time to report the same errors
+		if (!result.hasErrors())
+			store(file, result, fileName);
+		return result;
+	}
+	
+	/**
+	 * Removes from cache directory all matrices that were not requested since previous call of this method.
+	 * Should not be called while matrices are being obtained from cache
+	 */
+	public void removeUnused()
+	{
+		Set<String> keys = new HashSet<>(usedKeys.values());
+		usedKeys.clear();
+		if (!Files.isDirectory(directory))
+			return;
+		
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+		{
+			for (Path file : files)
+			{
+				//Temporary files left after failures are removed as well
+				String fileName = file.getFileName().toString();
+				if (!fileName.endsWith(FILE_EXTENSION) || !keys.contains(FilenameUtils.removeExtension(fileName)))
+				{
+					logger.trace("Removing unused matrix cache file '{}'", file);
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			logger.warn("Error while removing unused files from matrix cache '{}'", directory, e);
+		}
+	}
+	
+	
+	public Path getDirectory()
+	{
+		return directory;
+	}
+	
+	public long getHits()
+	{
+		return hits.get();
+	}
+	
+	public long getMisses()
+	{
+		return misses.get();
+	}
+	
+	
+	protected String createKey(String fileName, boolean trimValues) throws IOException
+	{
+		String hash;
+		try (InputStream is = new BufferedInputStream(new FileInputStream(fileName)))
+		{
+			hash = DigestUtils.sha256Hex(is);
+		}
+		//Parsing result depends on file type and trimming flag, not only on file contents
+		return hash+"_"+FilenameUtils.getExtension(fileName).toLowerCase()+(trimValues ? "_trim" : "");
+	}
+	
+	protected ParsedMatrix load(Path file, String matrixFileName)
+	{
+		if (!Files.isRegularFile(file))
+			return null;
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			return ParsedMatrix.load(in);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Could not load cached matrix '{}' from '{}', matrix will be parsed again", matrixFileName, file, e);
+			return null;
+		}
+	}
+	
+	protected void store(Path file, ParsedMatrix matrix, String matrixFileName)
+	{
+		Path tempFile = null;
+		try
+		{
+			Files.createDirectories(directory);
+			//Writing to temporary file first to not leave incomplete cache file and to not interfere with other threads storing the same matrix
+			tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile))))
+			{
+				matrix.save(out);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Could not store matrix '{}' to cache", matrixFileName, e);
+			if (tempFile != null)
+			{
+				try
+				{
+					Files.deleteIfExists(tempFile);
+				}
+				catch (IOException e1)
+				{
+					logger.warn("Could not remove temporary file '{}'", tempFile, e1);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.generator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Matrix file contents split into lines the way {@link com.exactprosystems.clearth.automation.ActionGenerator} processes them.
+ * Can be stored in binary form to skip parsing of unchanged matrix files.
+ */
+public class ParsedMatrix
+{
+	public static final int FORMAT_VERSION = 1;
+	
+	public enum LineType
+	{
+		COMMENT, HEADER, EMPTY, VALUES
+	}
+	
+	private final List<Line> lines;
+	
+	public ParsedMatrix(List<Line> lines)
+	{
+		this.lines = lines;
+	}
+	
+	/**
+	 * Reads all lines from given reader. Reader is not closed by this method.
+	 * Errors occurred while parsing header or action line are stored in that line to be reported when it is processed
+	 */
+	public static ParsedMatrix read(ActionReader reader) throws IOException
+	{
+		List<Line> lines = new ArrayList<>();
+		while (reader.readNextLine())
+		{
+			//Order of checks is the same as in ActionGenerator
+			if (reader.isCommentLine())
+				lines.add(new Line(LineType.COMMENT, reader.getRawLine(), null));
+			else if (reader.isHeaderLine())
+				lines.add(parseLine(reader, LineType.HEADER));
+			else if (reader.isEmptyLine())
+				lines.add(new Line(LineType.EMPTY, null, null));
+			else
+				lines.add(parseLine(reader, LineType.VALUES));
+		}
+		return new ParsedMatrix(lines);
+	}
+	
+	private static Line parseLine(ActionReader reader, LineType type)
+	{
+		try
+		{
+			return new Line(type, null, reader.parseLine(type == LineType.HEADER));
+		}
+		catch (IOException | RuntimeException e)
+		{
+			return new Line(type, e);
+		}
+	}
+	
+	public static ParsedMatrix load(DataInputStream in) throws IOException
+	{
+		int version = in.readInt();
+		if (version != FORMAT_VERSION)
+			throw new IOException("Unsupported format version: "+version+", expected "+FORMAT_VERSION);
+		
+		LineType[] types = LineType.values();
+		int count = in.readInt();
+		List<Line> lines = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			int typeIndex = in.readByte();
+			if (typeIndex < 0 || typeIndex >= types.length)
+				throw new IOException("Invalid type of line #"+(i+1)+": "+typeIndex);
+			
+			LineType type = types[typeIndex];
+			String rawLine = null;
+			List<String> values = null;
+			if (type == LineType.COMMENT)
+				rawLine = readString(in);
+			else if (type != LineType.EMPTY)
+			{
+				int size = in.readInt();
+				values = new ArrayList<>(size);
+				for (int j = 0; j < size; j++)
+					values.add(readString(in));
+			}
+			lines.add(new Line(type, rawLine, values));
+		}
+		return new ParsedMatrix(lines);
+	}
+	
+	/**
+	 * Stores matrix in binary form. Matrix with errors cannot be stored
+	 * @throws IOException if matrix contains lines with errors or writing failed
+	 */
+	public void save(DataOutputStream out) throws IOException
+	{
+		if (hasErrors())
+			throw new IOException("Matrix contains lines with errors");
+		
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(lines.size());
+		for (Line line : lines)
+		{
+			out.writeByte(line.getType().ordinal());
+			if (line.getType() == LineType.COMMENT)
+				writeString(out, line.getRawLine());
+			else if (line.getType() != LineType.EMPTY)
+			{
+				List<String> values = line.getValues();
+				out.writeInt(values.size());
+				for (String v : values)
+					writeString(out, v);
+			}
+		}
+	}
+	
+	
+	public List<Line> getLines()
+	{
+		return Collections.unmodifiableList(lines);
+	}
+	
+	public boolean hasErrors()
+	{
+		for (Line line : lines)
+		{
+			if (line.getError() != null)
+				return true;
+		}
+		return false;
+	}
+	
+	
+	private static String readString(DataInputStream in) throws IOException
+	{
+		int length = in.readInt();
+		if (length < 0)
+			return null;
+		
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private static void writeString(DataOutputStream out, String s) throws IOException
+	{
+		//DataOutputStream.writeUTF() is not used because it is limited to 64K bytes
+		if (s == null)
+		{
+			out.writeInt(-1);
+			return;
+		}
+		
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	
+	public static class Line
+	{
+		private final LineType type;
+		private final String rawLine;
+		private final List<String> values;
+		private final Exception error;
+		
+		public Line(LineType type, String rawLine, List<String> values)
+		{
+			this.type = type;
+			this.rawLine = rawLine;
+			this.values = values;
+			this.error = null;
+		}
+		
+		/**
+		 * Creates line that could not be parsed
+		 * @param type type of line
+		 * @param error exception occurred while parsing the line, i.e. {@link IOException} or {@link RuntimeException}
+		 */
+		public Line(LineType type, Exception error)
+		{
+			this.type = type;
+			this.rawLine = null;
+			this.values = null;
+			this.error = error;
+		}
+		
+		public LineType getType()
+		{
+			return type;
+		}
+		
+		/**
+		 * @return raw contents of comment line, null for other line types
+		 */
+		public String getRawLine()
+		{
+			return rawLine;
+		}
+		
+		/**
+		 * @return parsed values of header or action line, null for other line types
+		 */
+		public List<String> getValues()
+		{
+			return values;
+		}
+		
+		/**
+		 * @return exception occurred while parsing the line, null if line was parsed successfully
+		 */
+		public Exception getError()
+		{
+			return error;
+		}
+	}
+}
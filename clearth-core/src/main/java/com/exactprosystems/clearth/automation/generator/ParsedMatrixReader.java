@@ -0,0 +1,93 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.generator;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads lines of already parsed matrix
+ */
+public class ParsedMatrixReader extends ActionReader
+{
+	private final Iterator<ParsedMatrix.Line> lines;
+	private ParsedMatrix.Line line;
+	
+	public ParsedMatrixReader(String source, boolean trimValues, ParsedMatrix matrix)
+	{
+		super(source, trimValues);
+		this.lines = matrix.getLines().iterator();
+	}
+	
+	
+	@Override
+	public void close() throws IOException
+	{
+	}
+	
+	@Override
+	public boolean readNextLine() throws IOException
+	{
+		if (!lines.hasNext())
+			return false;
+		
+		line = lines.next();
+		return true;
+	}
+	
+	@Override
+	public boolean isCommentLine()
+	{
+		return line.getType() == ParsedMatrix.LineType.COMMENT;
+	}
+	
+	@Override
+	public String getRawLine() throws IOException
+	{
+		return line.getRawLine();
+	}
+	
+	@Override
+	public boolean isHeaderLine()
+	{
+		return line.getType() == ParsedMatrix.LineType.HEADER;
+	}
+	
+	@Override
+	public boolean isEmptyLine()
+	{
+		return line.getType() == ParsedMatrix.LineType.EMPTY;
+	}
+	
+	@Override
+	public List<String> parseLine(boolean header) throws IOException
+	{
+		Exception error = line.getError();
+		if (error instanceof IOException)
+			throw (IOException) error;
+		if (error != null)
+			throw (RuntimeException) error;
+		
+		List<String> values = line.getValues();
+		if (values == null)
+			throw new IOException("Line of type "+line.getType()+" has no values");
+		return values;
+	}
+}
@@ -41,6 +41,7 @@ public class ExecutorStateManager<C extends ExecutorStateContext>
 	private final ExecutorStateOperatorFactory<C> operatorFactory;
 	private ExecutorStateInfo stateInfo;
 	private C context;
+	private StateConfig stateConfig;
 	
 	public ExecutorStateManager(ExecutorStateOperatorFactory<C> operatorFactory)
 	{
@@ -53,6 +54,19 @@ public class ExecutorStateManager<C extends ExecutorStateContext>
 		return stateInfo;
 	}
 	
+	public StateConfig getStateConfig()
+	{
+		return stateConfig;
+	}
+	
+	/**
+	 * @param stateConfig configuration to apply to state updaters created by this manager
+	 */
+	public void setStateConfig(StateConfig stateConfig)
+	{
+		this.stateConfig = stateConfig;
+	}
+	
 	public SimpleExecutor executorFromState(Scheduler scheduler, ExecutorFactory executorFactory, Date businessDay, Date baseTime, String startedByUser)
 			throws IllegalArgumentException, SecurityException, InstantiationException, IllegalAccessException,
 			InvocationTargetException, NoSuchMethodException, AutomationException, DataHandlingException, ExecutorStateException, IOException
@@ -174,12 +188,15 @@ public class ExecutorStateManager<C extends ExecutorStateContext>
 			throw e;
 		}
 		
+		configureUpdates(operator);
 		return createExecutorStateUpdater(stateInfo, context, operator);
 	}
 	
 	public ExecutorStateUpdater<C> createStateUpdater() throws IOException
 	{
-		return createExecutorStateUpdater(stateInfo, context, operatorFactory.createOperator());
+		ExecutorStateOperator<C> operator = operatorFactory.createOperator();
+		configureUpdates(operator);
+		return createExecutorStateUpdater(stateInfo, context, operator);
 	}
 	
 	public void load() throws IOException
@@ -246,6 +263,15 @@ public class ExecutorStateManager<C extends ExecutorStateContext>
 	{
 	}
 	
+	protected void configureUpdates(ExecutorStateOperator<C> operator)
+	{
+		if (stateConfig == null || !stateConfig.isWriteBehind())
+			return;
+		
+		logger.info("State updates will be written in background, durability window is {} ms", stateConfig.getDurabilityWindow());
+		operator.enableWriteBehind(stateConfig.getDurabilityWindow(), stateConfig.getMaxPendingUpdates());
+	}
+	
 	
 	protected ExecutorStateInfo createStateInfo()
 	{
@@ -35,4 +35,21 @@ public interface ExecutorStateOperator<C extends ExecutorStateContext> extends A
 	void updateSteps(ExecutorStateInfo stateInfo, C context) throws IOException;
 	void updateMatrices(ExecutorStateInfo stateInfo, C context, Collection<MatrixState> matrixStates) throws IOException;
 	void updateStateInfo(ExecutorStateInfo stateInfo, C context) throws IOException;
+	
+	/**
+	 * Switches operator to write-behind mode: updates made after actions are written in background, in batches. 
+	 * Operators that don't support this mode write updates immediately
+	 * @param durabilityWindow max time in milliseconds update can wait before being written
+	 * @param maxPendingUpdates max number of updates waiting to be written
+	 */
+	default void enableWriteBehind(long durabilityWindow, int maxPendingUpdates)
+	{
+	}
+	
+	/**
+	 * Writes all pending updates made in write-behind mode
+	 */
+	default void flush() throws IOException
+	{
+	}
 }
@@ -81,6 +81,14 @@ public class ExecutorStateUpdater<C extends ExecutorStateContext> implements Aut
 		operator.update(stateInfo, context, lastFinishedStep, stepState);
 	}
 	
+	/**
+	 * Writes state updates that are pending in write-behind mode
+	 */
+	public void flush() throws IOException
+	{
+		operator.flush();
+	}
+	
 	public void updateActionReportsPath(String actionReportsPath) throws IOException
 	{
 		stateInfo.getReportsInfo().setActionReportsPath(actionReportsPath);
@@ -18,23 +18,42 @@
 
 package com.exactprosystems.clearth.automation.persistence;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class StateConfig
 {
+	public static final int DEFAULT_MAX_PENDING_UPDATES = 1000;
+	
 	protected boolean autoSave;
+	/**
+	 * Max time in milliseconds state updates made after actions can be kept in memory before being written to storage. 
+	 * 0 means that state is written right after each action
+	 */
+	protected long durabilityWindow;
+	protected int maxPendingUpdates;
 	
 	public StateConfig()
 	{
-		autoSave = false;
+		this(false);
 	}
 	
 	public StateConfig(boolean autoSave)
+	{
+		this(autoSave, 0, DEFAULT_MAX_PENDING_UPDATES);
+	}
+	
+	public StateConfig(boolean autoSave, long durabilityWindow, int maxPendingUpdates)
 	{
 		this.autoSave = autoSave;
+		this.durabilityWindow = durabilityWindow;
+		this.maxPendingUpdates = maxPendingUpdates;
 	}
 	
 	public StateConfig(StateConfig copyFrom)
 	{
 		this.autoSave = copyFrom.isAutoSave();
+		this.durabilityWindow = copyFrom.getDurabilityWindow();
+		this.maxPendingUpdates = copyFrom.getMaxPendingUpdates();
 	}
 	
 	
@@ -42,4 +61,23 @@ public class StateConfig
 	{
 		return autoSave;
 	}
-}
\ No newline at end of file
+	
+	public long getDurabilityWindow()
+	{
+		return durabilityWindow;
+	}
+	
+	public int getMaxPendingUpdates()
+	{
+		return maxPendingUpdates;
+	}
+	
+	/**
+	 * @return true if state updates made after actions are written to storage in background, in batches
+	 */
+	@JsonIgnore
+	public boolean isWriteBehind()
+	{
+		return durabilityWindow > 0;
+	}
+}
@@ -0,0 +1,67 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.persistence.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import com.exactprosystems.clearth.utils.Pair;
+
+/**
+ * Update of one DB row with values captured at the moment of update creation. 
+ * Such update can be applied later, even if objects the values were taken from are changed.
+ */
+public class DbRowUpdate
+{
+	private final PreparedStatement query;
+	private final int id;
+	private final Object[] values;
+	private final String entityName;
+	
+	public DbRowUpdate(PreparedStatement query, int id, String entityName, Object... values)
+	{
+		this.query = query;
+		this.id = id;
+		this.entityName = entityName;
+		this.values = values;
+	}
+	
+	
+	/**
+	 * @return key of updated row. Updates with equal keys change the same row, so only the latest of them needs to be applied
+	 */
+	public Pair<PreparedStatement, Integer> getKey()
+	{
+		return new Pair<>(query, id);
+	}
+	
+	public String getEntityName()
+	{
+		return entityName;
+	}
+	
+	public void apply(QueryHelper helper) throws SQLException
+	{
+		QueryParameterSetter setter = QueryParameterSetter.newInstance(query);
+		for (Object v : values)
+			setter.setObject(v);
+		setter.setInt(id);
+		helper.update(query);
+	}
+}
@@ -22,11 +22,13 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.collections4.multimap.HashSetValuedHashMap;
 
 import com.exactprosystems.clearth.automation.*;
 import com.exactprosystems.clearth.automation.persistence.ActionState;
+import com.exactprosystems.clearth.automation.persistence.ExecutorStateException;
 import com.exactprosystems.clearth.automation.persistence.ExecutorStateInfo;
 import com.exactprosystems.clearth.automation.persistence.ExecutorStateObjects;
 import com.exactprosystems.clearth.automation.persistence.ExecutorStateOperator;
@@ -67,6 +69,8 @@ public class DbStateOperator implements ExecutorStateOperator<DbStateContext>
 	private final DbStateSaver saver;
 	private final DbStateUpdater updater;
 	private final DbStateLoader loader;
+	private final Object dbMonitor = new Object();
+	private volatile DbStateUpdatesWriter writer;
 	
 	public DbStateOperator(Connection con, Class[] allowedClasses) throws SQLException
 	{
@@ -86,8 +90,45 @@ public class DbStateOperator implements ExecutorStateOperator<DbStateContext>
 	@Override
 	public void close() throws SQLException
 	{
-		helper.close();
-		con.close();
+		try
+		{
+			if (writer != null)
+				writer.close();
+		}
+		catch (ExecutorStateException e)
+		{
+			throw new SQLException("Could not write pending state updates", e);
+		}
+		finally
+		{
+			helper.close();
+			con.close();
+		}
+	}
+	
+	@Override
+	public void enableWriteBehind(long durabilityWindow, int maxPendingUpdates)
+	{
+		if (writer != null)
+			return;
+		
+		writer = new DbStateUpdatesWriter(updater, dbMonitor, durabilityWindow, maxPendingUpdates, "State updates writer");
+	}
+	
+	@Override
+	public void flush() throws IOException
+	{
+		if (writer == null)
+			return;
+		
+		try
+		{
+			writer.flush();
+		}
+		catch (Exception e)
+		{
+			throw new IOException("Error while writing pending state updates", e);
+		}
 	}
 	
 	
@@ -135,7 +176,28 @@ public class DbStateOperator implements ExecutorStateOperator<DbStateContext>
 	{
 		try
 		{
-			updater.update(context, lastExecutedAction, actionState);
+			if (writer != null)
+			{
+				List<DbRowUpdate> updates = updater.prepareUpdate(context, lastExecutedAction, actionState);
+				if (updates != null)
+				{
+					writer.add(updates);
+					return;
+				}
+				
+				//Some records need to be created, this is done synchronously
+				writer.flush();
+			}
+			
+			synchronized (dbMonitor)
+			{
+				updater.update(context, lastExecutedAction, actionState);
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("Wait for pending state updates to be written interrupted", e);
 		}
 		catch (Exception e)
 		{
@@ -146,9 +208,13 @@ public class DbStateOperator implements ExecutorStateOperator<DbStateContext>
 	@Override
 	public void update(ExecutorStateInfo stateInfo, DbStateContext context, Step lastFinishedStep, StepState stepState) throws IOException
 	{
+		flush();
 		try
 		{
-			updater.update(context, lastFinishedStep);
+			synchronized (dbMonitor)
+			{
+				updater.update(context, lastFinishedStep);
+			}
 		}
 		catch (Exception e)
 		{
@@ -159,9 +225,13 @@ public class DbStateOperator implements ExecutorStateOperator<DbStateContext>
 	@Override
 	public void updateSteps(ExecutorStateInfo stateInfo, DbStateContext context) throws IOException
 	{
+		flush();
 		try
 		{
-			updater.updateSteps(stateInfo.getSteps(), context);
+			synchronized (dbMonitor)
+			{
+				updater.updateSteps(stateInfo.getSteps(), context);
+			}
 		}
 		catch (Exception e)
 		{
@@ -172,9 +242,13 @@ public class DbStateOperator implements ExecutorStateOperator<DbStateContext>
 	@Override
 	public void updateStateInfo(ExecutorStateInfo stateInfo, DbStateContext context) throws IOException
 	{
+		flush();
 		try
 		{
-			updater.updateStateInfo(stateInfo, context);
+			synchronized (dbMonitor)
+			{
+				updater.updateStateInfo(stateInfo, context);
+			}
 		}
 		catch (Exception e)
 		{
@@ -185,9 +259,13 @@ public class DbStateOperator implements ExecutorStateOperator<DbStateContext>
 	@Override
 	public void updateMatrices(ExecutorStateInfo stateInfo, DbStateContext context, Collection<MatrixState> matrixStates) throws IOException
 	{
+		flush();
 		try
 		{
-			updater.updateMatrices(context, matrixStates);
+			synchronized (dbMonitor)
+			{
+				updater.updateMatrices(context, matrixStates);
+			}
 		}
 		catch (Exception e)
 		{
@@ -21,6 +21,7 @@ package com.exactprosystems.clearth.automation.persistence.db;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.text.DateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -117,6 +118,83 @@ public class DbStateUpdater
 		}
 	}
 	
+	/**
+	 * Creates updates of rows affected by executed action without writing them to DB. 
+	 * Values are taken from objects immediately, so updates can be applied later by {@link #applyUpdates(Collection)}
+	 * @return updates to apply or null if some of records to update don't exist yet. 
+	 * In this case {@link #update(DbStateContext, Action, ActionState)} should be used to create them
+	 */
+	public List<DbRowUpdate> prepareUpdate(DbStateContext context, Action lastExecutedAction, ActionState actionState) throws ExecutorStateException
+	{
+		prepareQueriesIfNeeded();
+		
+		Step step = lastExecutedAction.getStep();
+		Matrix matrix = lastExecutedAction.getMatrix();
+		
+		List<DbRowUpdate> result = new ArrayList<>();
+		result.add(createStepUpdate(step, context));
+		if (step.getStepContexts() != null)
+		{
+			DbRowUpdate stepContextUpdate = createStepContextUpdate(step, matrix, context);
+			if (stepContextUpdate == null)
+				return null;
+			result.add(stepContextUpdate);
+		}
+		result.add(createMatrixUpdate(matrix, context));
+		
+		DbRowUpdate successUpdate = createStepSuccessUpdate(matrix, step, context),
+				commentsUpdate = createStepStatusCommentsUpdate(matrix, step, context);
+		if (successUpdate == null || commentsUpdate == null)
+			return null;
+		result.add(successUpdate);
+		result.add(commentsUpdate);
+		
+		result.add(createActionUpdate(actionState, matrix.getName(), context));
+		return result;
+	}
+	
+	/**
+	 * Applies given updates in one transaction
+	 * @param updates to apply
+	 * @throws ExecutorStateException if updates could not be applied. In this case none of them is applied
+	 */
+	public void applyUpdates(Collection<DbRowUpdate> updates) throws ExecutorStateException
+	{
+		prepareQueriesIfNeeded();
+		
+		try
+		{
+			helper.startTransaction();
+		}
+		catch (Exception e)
+		{
+			throw new ExecutorStateException("Could not start transaction", e);
+		}
+		
+		try
+		{
+			for (DbRowUpdate u : updates)
+				applyUpdate(u);
+			
+			helper.commitTransaction();
+		}
+		catch (Exception e)
+		{
+			try
+			{
+				helper.rollbackTransaction();
+			}
+			catch (SQLException e1)
+			{
+				e.addSuppressed(e1);
+			}
+			
+			if (e instanceof ExecutorStateException)
+				throw (ExecutorStateException)e;
+			throw new ExecutorStateException("Error while applying "+updates.size()+" update(s)", e);
+		}
+	}
+	
 	public void update(DbStateContext context, Step lastFinishedStep) throws ExecutorStateException
 	{
 		prepareQueriesIfNeeded();
@@ -303,26 +381,7 @@ public class DbStateUpdater
 	private void updateStep(Step step, DbStateContext context) throws ExecutorStateException
 	{
 		logger.debug("Updating step");
-		
-		try
-		{
-			DateFormat timestampFormat = DbStateUtils.createTimestampFormat();
-			QueryParameterSetter.newInstance(updateStep)
-					.setString(DbStateUtils.formatTimestamp(step.getStarted(), timestampFormat))
-					.setString(DbStateUtils.formatTimestamp(step.getFinished(), timestampFormat))
-					.setInt(step.getExecutionProgress().getSuccessful())
-					.setInt(step.getExecutionProgress().getDone())
-					.setBoolean(step.isAnyActionFailed())
-					.setString(step.getStatusComment())
-					.setBytes(DbStateUtils.saveToXml(step.getError(), allowedClasses))
-					.setBoolean(step.isFailedDueToError())
-					.setInt(context.getStepId(step.getName()));
-			helper.update(updateStep);
-		}
-		catch (Exception e)
-		{
-			throw updatingException("step '"+step.getName()+"'", e);
-		}
+		applyUpdate(createStepUpdate(step, context));
 	}
 	
 	private void updateStepContext(Step step, Matrix matrix, DbStateContext context) throws ExecutorStateException
@@ -333,24 +392,19 @@ public class DbStateUpdater
 		
 		logger.debug("Updating step context");
 		
+		DbRowUpdate update = createStepContextUpdate(step, matrix, context);
+		if (update != null)
+		{
+			applyUpdate(update);
+			return;
+		}
+		
+		//Context might not exist initially, but added during execution
 		String stepName = step.getName(),
 				matrixName = matrix.getName();
 		try
 		{
-			int stepId = context.getStepId(stepName),
-					matrixId = context.getMatrixId(matrixName);
-			
-			Integer id = context.getStepContextIdOrNull(stepId, matrixId);
-			if (id == null)  //Context might not exist initially, but added during execution
-			{
-				saver.saveStepContext(stepContexts.get(matrix), stepId, matrixId, context);
-				return;
-			}
-			
-			QueryParameterSetter.newInstance(updateStepContext)
-					.setBytes(DbStateUtils.saveToXml(stepContexts.get(matrix), allowedClasses))
-					.setInt(id);
-			helper.update(updateStepContext);
+			saver.saveStepContext(stepContexts.get(matrix), context.getStepId(stepName), context.getMatrixId(matrixName), context);
 		}
 		catch (Exception e)
 		{
@@ -361,45 +415,26 @@ public class DbStateUpdater
 	private void updateMatrix(Matrix matrix, DbStateContext context) throws ExecutorStateException
 	{
 		logger.debug("Updating matrix");
-		
-		try
-		{
-			QueryParameterSetter.newInstance(updateMatrix)
-					.setBytes(DbStateUtils.saveToXml(matrix.getMvelVars(), allowedClasses))
-					.setInt(matrix.getActionsDone())
-					.setBoolean(matrix.isSuccessful())
-					.setBytes(DbStateUtils.saveToXml(matrix.getContext(), allowedClasses))
-					.setInt(context.getMatrixId(matrix.getName()));
-			helper.update(updateMatrix);
-		}
-		catch (Exception e)
-		{
-			throw updatingException("matrix '"+matrix.getName()+"'", e);
-		}
+		applyUpdate(createMatrixUpdate(matrix, context));
 	}
 	
 	private void updateStepSuccess(Matrix matrix, Step step, DbStateContext context) throws ExecutorStateException
 	{
 		logger.debug("Updating step success flag");
 		
+		DbRowUpdate update = createStepSuccessUpdate(matrix, step, context);
+		if (update != null)
+		{
+			applyUpdate(update);
+			return;
+		}
+		
+		//Success might not be initialized, but added during execution
 		String matrixName = matrix.getName(),
 				stepName = step.getName();
 		try
 		{
-			int matrixId = context.getMatrixId(matrixName),
-					stepId = context.getStepId(stepName);
-			
-			Integer id = context.getStepSuccessIdOrNull(matrixId, stepId);
-			if (id == null)  //Success might not be initialized, but added during execution
-			{
-				saver.saveStepSuccess(matrix.isStepSuccessful(stepName), matrixId, stepId, context);
-				return;
-			}
-			
-			QueryParameterSetter.newInstance(updateStepSuccess)
-					.setBoolean(matrix.isStepSuccessful(stepName))
-					.setInt(id);
-			helper.update(updateStepSuccess);
+			saver.saveStepSuccess(matrix.isStepSuccessful(stepName), context.getMatrixId(matrixName), context.getStepId(stepName), context);
 		}
 		catch (Exception e)
 		{
@@ -411,24 +446,19 @@ public class DbStateUpdater
 	{
 		logger.debug("Updating step status comments");
 		
+		DbRowUpdate update = createStepStatusCommentsUpdate(matrix, step, context);
+		if (update != null)
+		{
+			applyUpdate(update);
+			return;
+		}
+		
+		//Status comments might not be initialized, but added during execution
 		String matrixName = matrix.getName(),
 				stepName = step.getName();
 		try
 		{
-			int matrixId = context.getMatrixId(matrixName),
-					stepId = context.getStepId(stepName);
-			
-			Integer id = context.getStepStatusCommentsIdOrNull(matrixId, stepId);
-			if (id == null)  //Status comments might not be initialized, but added during execution
-			{
-				saver.saveStepStatusComments(matrix.getStepStatusComments(stepName), matrixId, stepId, context);
-				return;
-			}
-			
-			QueryParameterSetter.newInstance(updateStepStatusComments)
-					.setBytes(DbStateUtils.saveToXml(matrix.getStepStatusComments(stepName), allowedClasses))
-					.setInt(id);
-			helper.update(updateStepStatusComments);
+			saver.saveStepStatusComments(matrix.getStepStatusComments(stepName), context.getMatrixId(matrixName), context.getStepId(stepName), context);
 		}
 		catch (Exception e)
 		{
@@ -439,29 +469,153 @@ public class DbStateUpdater
 	private void updateAction(ActionState action, String matrixName, DbStateContext context) throws ExecutorStateException
 	{
 		logger.debug("Updating action");
-		
+		applyUpdate(createActionUpdate(action, matrixName, context));
+	}
+	
+	private void applyUpdate(DbRowUpdate update) throws ExecutorStateException
+	{
+		try
+		{
+			update.apply(helper);
+		}
+		catch (Exception e)
+		{
+			throw updatingException(update.getEntityName(), e);
+		}
+	}
+	
+	
+	private DbRowUpdate createStepUpdate(Step step, DbStateContext context) throws ExecutorStateException
+	{
+		String entityName = "step '"+step.getName()+"'";
+		try
+		{
+			DateFormat timestampFormat = DbStateUtils.createTimestampFormat();
+			return new DbRowUpdate(updateStep, context.getStepId(step.getName()), entityName,
+					DbStateUtils.formatTimestamp(step.getStarted(), timestampFormat),
+					DbStateUtils.formatTimestamp(step.getFinished(), timestampFormat),
+					step.getExecutionProgress().getSuccessful(),
+					step.getExecutionProgress().getDone(),
+					step.isAnyActionFailed(),
+					step.getStatusComment(),
+					DbStateUtils.saveToXml(step.getError(), allowedClasses),
+					step.isFailedDueToError());
+		}
+		catch (Exception e)
+		{
+			throw updatingException(entityName, e);
+		}
+	}
+	
+	/**
+	 * @return update of step context or null if there is no record for it yet
+	 */
+	private DbRowUpdate createStepContextUpdate(Step step, Matrix matrix, DbStateContext context) throws ExecutorStateException
+	{
+		String stepName = step.getName(),
+				matrixName = matrix.getName(),
+				entityName = "step context of step '"+stepName+"' and matrix '"+matrixName+"'";
+		try
+		{
+			Integer id = context.getStepContextIdOrNull(context.getStepId(stepName), context.getMatrixId(matrixName));
+			if (id == null)
+				return null;
+			
+			return new DbRowUpdate(updateStepContext, id, entityName,
+					DbStateUtils.saveToXml(step.getStepContexts().get(matrix), allowedClasses));
+		}
+		catch (Exception e)
+		{
+			throw updatingException(entityName, e);
+		}
+	}
+	
+	private DbRowUpdate createMatrixUpdate(Matrix matrix, DbStateContext context) throws ExecutorStateException
+	{
+		String entityName = "matrix '"+matrix.getName()+"'";
+		try
+		{
+			return new DbRowUpdate(updateMatrix, context.getMatrixId(matrix.getName()), entityName,
+					DbStateUtils.saveToXml(matrix.getMvelVars(), allowedClasses),
+					matrix.getActionsDone(),
+					matrix.isSuccessful(),
+					DbStateUtils.saveToXml(matrix.getContext(), allowedClasses));
+		}
+		catch (Exception e)
+		{
+			throw updatingException(entityName, e);
+		}
+	}
+	
+	/**
+	 * @return update of step success flag or null if there is no record for it yet
+	 */
+	private DbRowUpdate createStepSuccessUpdate(Matrix matrix, Step step, DbStateContext context) throws ExecutorStateException
+	{
+		String matrixName = matrix.getName(),
+				stepName = step.getName(),
+				entityName = "success of step '"+stepName+"' in matrix '"+matrixName+"'";
+		try
+		{
+			Integer id = context.getStepSuccessIdOrNull(context.getMatrixId(matrixName), context.getStepId(stepName));
+			if (id == null)
+				return null;
+			
+			return new DbRowUpdate(updateStepSuccess, id, entityName, 
+					matrix.isStepSuccessful(stepName));
+		}
+		catch (Exception e)
+		{
+			throw updatingException(entityName, e);
+		}
+	}
+	
+	/**
+	 * @return update of step status comments or null if there is no record for them yet
+	 */
+	private DbRowUpdate createStepStatusCommentsUpdate(Matrix matrix, Step step, DbStateContext context) throws ExecutorStateException
+	{
+		String matrixName = matrix.getName(),
+				stepName = step.getName(),
+				entityName = "status comments of step '"+stepName+"' in matrix '"+matrixName+"'";
+		try
+		{
+			Integer id = context.getStepStatusCommentsIdOrNull(context.getMatrixId(matrixName), context.getStepId(stepName));
+			if (id == null)
+				return null;
+			
+			return new DbRowUpdate(updateStepStatusComments, id, entityName,
+					DbStateUtils.saveToXml(matrix.getStepStatusComments(stepName), allowedClasses));
+		}
+		catch (Exception e)
+		{
+			throw updatingException(entityName, e);
+		}
+	}
+	
+	private DbRowUpdate createActionUpdate(ActionState action, String matrixName, DbStateContext context) throws ExecutorStateException
+	{
+		String entityName = "action '"+action.getIdInMatrix()+"' from matrix '"+matrixName+"'";
 		try
 		{
 			DateFormat timestampFormat = DbStateUtils.createTimestampFormat();
-			QueryParameterSetter.newInstance(updateAction)
-					.setBytes(DbStateUtils.saveToXml(action.getMatrixInputParams(), allowedClasses))
-					.setBytes(DbStateUtils.saveToXml(action.getInputParams(), allowedClasses))
-					.setBytes(DbStateUtils.saveToXml(action.getSpecialParams(), allowedClasses))
-					.setBytes(DbStateUtils.saveToXml(action.getSubActionsData(), allowedClasses))
-					.setString(action.getComment())
-					.setBoolean(action.isExecutable())
-					.setBoolean(action.isInverted())
-					.setBoolean(action.isDone())
-					.setBoolean(action.isPassed())
-					.setBytes(DbStateUtils.saveToXml(action.getResult(), allowedClasses))
-					.setString(DbStateUtils.formatTimestamp(action.getStarted(), timestampFormat))
-					.setString(DbStateUtils.formatTimestamp(action.getFinished(), timestampFormat))
-					.setInt(context.getActionId(new ActionReference(action.getIdInMatrix(), matrixName)));
-			helper.update(updateAction);
+			return new DbRowUpdate(updateAction, context.getActionId(new ActionReference(action.getIdInMatrix(), matrixName)), entityName,
+					DbStateUtils.saveToXml(action.getMatrixInputParams(), allowedClasses),
+					DbStateUtils.saveToXml(action.getInputParams(), allowedClasses),
+					DbStateUtils.saveToXml(action.getSpecialParams(), allowedClasses),
+					DbStateUtils.saveToXml(action.getSubActionsData(), allowedClasses),
+					action.getComment(),
+					action.isExecutable(),
+					action.isInverted(),
+					action.isDone(),
+					action.isPassed(),
+					DbStateUtils.saveToXml(action.getResult(), allowedClasses),
+					DbStateUtils.formatTimestamp(action.getStarted(), timestampFormat),
+					DbStateUtils.formatTimestamp(action.getFinished(), timestampFormat));
 		}
 		catch (Exception e)
 		{
-			throw updatingException("action '"+action.getIdInMatrix()+"' from matrix '"+matrixName+"'", e);
+			throw updatingException(entityName, e);
 		}
 	}
 	
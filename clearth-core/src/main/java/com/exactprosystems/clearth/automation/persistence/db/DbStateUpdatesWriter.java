@@ -0,0 +1,237 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.persistence.db;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactprosystems.clearth.automation.persistence.ExecutorStateException;
+import com.exactprosystems.clearth.utils.Pair;
+
+/**
+ * Writes state updates to DB in background. 
+ * Updates are accumulated and applied in one transaction when the oldest of them waits longer than durability window 
+ * or when number of pending updates reaches the limit. Updates of the same row are merged, so only the latest values are written.
+ * When pending updates limit is reached, {@link #add(Collection)} waits till they are written.
+ */
+public class DbStateUpdatesWriter implements AutoCloseable
+{
+	private static final Logger logger = LoggerFactory.getLogger(DbStateUpdatesWriter.class);
+	
+	private final DbStateUpdater updater;
+	private final Object dbMonitor;
+	private final long durabilityWindow;
+	private final int maxPendingUpdates;
+	private final Thread thread;
+	
+	private final Map<Pair<PreparedStatement, Integer>, DbRowUpdate> pending = new LinkedHashMap<>();
+	private long oldestPendingTime = 0;
+	private boolean closed = false;
+	private ExecutorStateException error;
+	private long transactions = 0,
+			writtenUpdates = 0;
+	
+	/**
+	 * @param updater to apply updates with
+	 * @param dbMonitor object to synchronize on while accessing DB
+	 * @param durabilityWindow max time in milliseconds update can wait before being written
+	 * @param maxPendingUpdates max number of updates waiting to be written
+	 * @param name of the writing thread
+	 */
+	public DbStateUpdatesWriter(DbStateUpdater updater, Object dbMonitor, long durabilityWindow, int maxPendingUpdates, String name)
+	{
+		this.updater = updater;
+		this.dbMonitor = dbMonitor;
+		this.durabilityWindow = durabilityWindow;
+		this.maxPendingUpdates = Math.max(maxPendingUpdates, 1);
+		
+		thread = new Thread(this::run, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	
+	/**
+	 * Adds updates to be written in background. Waits if there are too many pending updates
+	 * @param updates to add
+	 * @throws ExecutorStateException if previous updates could not be written or writer is closed
+	 * @throws InterruptedException if wait for pending updates to be written was interrupted
+	 */
+	public void add(Collection<DbRowUpdate> updates) throws ExecutorStateException, InterruptedException
+	{
+		synchronized (this)
+		{
+			checkState();
+			//If writing thread is stopped, pending updates will be written on flush or close
+			while (pending.size() >= maxPendingUpdates && thread.isAlive())
+			{
+				notifyAll();
+				wait(1000);
+				checkState();
+			}
+			
+			if (pending.isEmpty())
+				oldestPendingTime = System.currentTimeMillis();
+			for (DbRowUpdate u : updates)
+				pending.put(u.getKey(), u);
+			
+			notifyAll();
+		}
+	}
+	
+	/**
+	 * Writes all pending updates in current thread
+	 * @throws ExecutorStateException if pending or previous updates could not be written
+	 */
+	public void flush() throws ExecutorStateException
+	{
+		writePending();
+		synchronized (this)
+		{
+			checkError();
+		}
+	}
+	
+	@Override
+	public void close() throws ExecutorStateException
+	{
+		synchronized (this)
+		{
+			if (closed)
+				return;
+			closed = true;
+			notifyAll();
+		}
+		
+		try
+		{
+			thread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			logger.warn("Wait for writing thread to finish interrupted");
+		}
+		
+		//Writing thread might have been interrupted or failed, so writing the rest here
+		writePending();
+		logger.debug("{} state update(s) written in {} transaction(s)", writtenUpdates, transactions);
+		synchronized (this)
+		{
+			checkError();
+		}
+	}
+	
+	
+	private void run()
+	{
+		try
+		{
+			while (true)
+			{
+				synchronized (this)
+				{
+					long toWait;
+					while ((toWait = getTimeToWait()) > 0)
+						wait(toWait);
+					
+					if (pending.isEmpty())  //Closed and nothing to write
+						return;
+				}
+				
+				writePending();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			logger.warn("Writing of state updates interrupted");
+		}
+	}
+	
+	/**
+	 * @return time to wait before writing pending updates. Not positive value means that they should be written now
+	 */
+	private long getTimeToWait()
+	{
+		if (closed)
+			return 0;
+		if (pending.isEmpty())
+			return durabilityWindow;
+		if (pending.size() >= maxPendingUpdates)
+			return 0;
+		return oldestPendingTime + durabilityWindow - System.currentTimeMillis();
+	}
+	
+	private void writePending()
+	{
+		//Taking pending updates while holding DB monitor, so that batches are applied in order they are taken
+		synchronized (dbMonitor)
+		{
+			List<DbRowUpdate> batch;
+			synchronized (this)
+			{
+				if (pending.isEmpty())
+					return;
+				
+				batch = new ArrayList<>(pending.values());
+				pending.clear();
+				oldestPendingTime = 0;
+				notifyAll();
+			}
+			
+			logger.trace("Writing {} state update(s)", batch.size());
+			try
+			{
+				updater.applyUpdates(batch);
+				transactions++;
+				writtenUpdates += batch.size();
+			}
+			catch (ExecutorStateException e)
+			{
+				logger.error("Could not write {} state update(s)", batch.size(), e);
+				synchronized (this)
+				{
+					if (error == null)
+						error = e;
+					notifyAll();
+				}
+			}
+		}
+	}
+	
+	private void checkState() throws ExecutorStateException
+	{
+		checkError();
+		if (closed)
+			throw new ExecutorStateException("Writer of state updates is closed");
+	}
+	
+	private void checkError() throws ExecutorStateException
+	{
+		if (error != null)
+			throw new ExecutorStateException("Error occurred while writing state updates", error);
+	}
+}
@@ -68,6 +68,23 @@ public class QueryParameterSetter
 		return this;
 	}
 	
+	public QueryParameterSetter setObject(Object value) throws SQLException
+	{
+		if (value instanceof Boolean)
+			return setBoolean((Boolean) value);
+		if (value instanceof Integer)
+			return setInt((Integer) value);
+		if (value instanceof Long)
+			return setLong((Long) value);
+		if (value instanceof String)
+			return setString((String) value);
+		if (value instanceof byte[])
+			return setBytes((byte[]) value);
+		
+		ps.setObject(index++, value);
+		return this;
+	}
+	
 	public PreparedStatement getStatement()
 	{
 		return ps;
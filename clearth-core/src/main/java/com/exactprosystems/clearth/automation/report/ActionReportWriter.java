@@ -35,8 +35,12 @@ import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -44,7 +48,7 @@ import static com.exactprosystems.clearth.ClearThCore.rootRelative;
 import static com.exactprosystems.clearth.automation.report.ReportFormat.HTML;
 import static com.exactprosystems.clearth.automation.report.ReportFormat.JSON;
 
-public class ActionReportWriter
+public class ActionReportWriter implements Closeable
 {
 	private static final Logger logger = LoggerFactory.getLogger(ActionReportWriter.class);
 
@@ -56,19 +60,75 @@ public class ActionReportWriter
     		FAILED_SUFFIX = "_failed",
     		HTML_FAILED_REPORT_NAME = REPORT_FILENAME + FAILED_SUFFIX + HTML_SUFFIX;
 
-	private int actionIndex = 0;
+	private final AtomicInteger actionIndex = new AtomicInteger();
 	private final ReportsConfig reportsConfig;
 	private final ReportTemplatesProcessor templatesProcessor;
+	private final ReportSinks sinks;
+	private final AsyncReportSlots asyncSlots;
+	//Action reports are written under read lock. Report files are updated and merged under write lock
+	private final ReadWriteLock filesLock = new ReentrantReadWriteLock();
 	
 	public ActionReportWriter(ReportsConfig reportsConfig, ReportTemplatesProcessor templatesProcessor)
+	{
+		this(reportsConfig, templatesProcessor, new ReportSinks());
+	}
+	
+	/**
+	 * @param sinks pool of report files to write action reports to. Files are kept open till the end of step
+	 */
+	public ActionReportWriter(ReportsConfig reportsConfig, ReportTemplatesProcessor templatesProcessor, ReportSinks sinks)
 	{
 		this.reportsConfig = reportsConfig;
 		this.templatesProcessor = templatesProcessor;
+		this.sinks = sinks;
+		this.asyncSlots = createAsyncSlots(sinks);
 	}
 	
 	public void reset()
 	{
-		actionIndex = 0;
+		actionIndex.set(0);
+	}
+	
+	/**
+	 * Merges pending updates of asynchronous actions reports and writes all buffered action reports to disk 
+	 * so that report files can be read, e.g. to build current reports
+	 */
+	public void flushReports()
+	{
+		filesLock.writeLock().lock();
+		try
+		{
+			asyncSlots.mergeAll();
+			sinks.flush();
+		}
+		finally
+		{
+			filesLock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Writes all buffered action reports to disk and closes report files. Files will be opened again on next write
+	 */
+	public void closeReports()
+	{
+		sinks.closeAll();
+	}
+	
+	@Override
+	public void close()
+	{
+		sinks.close();
+	}
+	
+	public ReportSinks getSinks()
+	{
+		return sinks;
+	}
+	
+	public AsyncReportSlots getAsyncSlots()
+	{
+		return asyncSlots;
 	}
 	
 	/**
@@ -79,17 +139,26 @@ public class ActionReportWriter
 	 */
 	public void writeReport(Action action, String actionsReportsDir, String stepFileName)
 	{
-		incActionIndex();
+		//Index is taken once as reports of actions from different matrices can be written in parallel
+		int index = incActionIndex();
 		if (action.getResult() != null)
 			action.getResult().processDetails(getReportDir(actionsReportsDir, action), action);
 
-		if (reportsConfig.isCompleteHtmlReport())
-			writeHtmlActionReport(action, actionsReportsDir, stepFileName, false);
-		if (reportsConfig.isFailedHtmlReport() && (!action.isPassed() || action.isAsync()))
-			writeHtmlActionReport(action, actionsReportsDir, stepFileName, true);
-
-		if (reportsConfig.isCompleteJsonReport())
-			writeJsonActionReport(action, actionsReportsDir, stepFileName);
+		filesLock.readLock().lock();
+		try
+		{
+			if (reportsConfig.isCompleteHtmlReport())
+				writeHtmlActionReport(action, actionsReportsDir, stepFileName, false, index);
+			if (reportsConfig.isFailedHtmlReport() && (!action.isPassed() || action.isAsync()))
+				writeHtmlActionReport(action, actionsReportsDir, stepFileName, true, index);
+	
+			if (reportsConfig.isCompleteJsonReport())
+				writeJsonActionReport(action, actionsReportsDir, stepFileName);
+		}
+		finally
+		{
+			filesLock.readLock().unlock();
+		}
 	}
 	
 	/**
@@ -112,39 +181,36 @@ public class ActionReportWriter
 	{
 		File reportFile = getJsonStepReport(actionsReportsDir, action.getMatrix().getShortFileName(), actionsReportFile);
 		
-		PrintWriter writer = null;
 		try
 		{
-			writer = createReportWriter(reportFile);
-			if (reportFile.length() == 0)
-				writer.println("[");
-			else
-				writer.println(",");
+			String separator = sinks.isEmpty(reportFile) ? "[" : ",";
 			
 			ActionReport actionReport = createActionReport(action);
 			String jsonActionReport = new JsonMarshaller<ActionReport>().marshal(actionReport);
 			
+			StringWriter buffer = new StringWriter();
+			PrintWriter writer = new PrintWriter(buffer);
 			if (!action.isAsync() || action.isPayloadFinished())
+			{
+				writer.println(separator);
 				writer.println(jsonActionReport);
+				writer.flush();
+				sinks.write(reportFile, buffer.toString());
+			}
 			else
 			{
+				sinks.write(reportFile, separator + System.lineSeparator());
 				writePreReportData(writer, action, JSON);
 				writer.println(jsonActionReport);
 				writePostReportData(writer, action, JSON);
+				writer.flush();
+				asyncSlots.reserve(reportFile, buildAsyncActionStartComment(action, JSON), buffer.toString());
 			}
 		}
 		catch (Exception e)
 		{
 			getLogger().error("Error occurred while writing JSON action report", e);
 		}
-		finally
-		{
-			if (writer != null)
-			{
-				writer.flush();
-				writer.close();
-			}
-		}
 	}
 
 	/**
@@ -156,6 +222,19 @@ public class ActionReportWriter
 	{
 		getLogger().debug("Updating reports for {} action(s)", actions.size());
 		
+		filesLock.writeLock().lock();
+		try
+		{
+			doUpdateReports(actions, actionsReportsDir);
+		}
+		finally
+		{
+			filesLock.writeLock().unlock();
+		}
+	}
+	
+	private void doUpdateReports(Collection<Action> actions, String actionsReportsDir)
+	{
 		Map<MatrixStep, Collection<ActionUpdate>> actionsByMatrixStep = prepareActionsToUpdate(actions);
 		for (Entry<MatrixStep, Collection<ActionUpdate>> group : actionsByMatrixStep.entrySet())
 		{
@@ -196,6 +275,11 @@ public class ActionReportWriter
 	{
 		File reportFile = new File(reportDir, actionsReportFile+".swp"),
 				originalReportFile = getReportFile(reportDir, actionsReportFile, onlyFailed);
+		actions = patchReport(originalReportFile, actions, actionsReportFile, HTML, reportDir, onlyFailed);
+		if (actions.isEmpty())
+			return;
+		
+		prepareReportToRewrite(originalReportFile);
 		if (!updateReport(originalReportFile, actions, actionsReportFile, reportFile, HTML, reportDir, onlyFailed))
 			return;
 		replaceReportFile(reportFile, originalReportFile);
@@ -205,10 +289,81 @@ public class ActionReportWriter
 	{
 		File reportFile = new File(reportDir, actionsReportFile+".swp"),
 				originalReportFile = getJsonStepReport(reportDir, actionsReportFile);
+		actions = patchReport(originalReportFile, actions, "", JSON, reportDir, false);
+		if (actions.isEmpty())
+			return;
+		
+		prepareReportToRewrite(originalReportFile);
 		if (!updateReport(originalReportFile, actions, "", reportFile, JSON, reportDir, false))
 			return;
 		replaceReportFile(reportFile, originalReportFile);
 	}
+	
+	/**
+	 * Stores actual reports of actions as patches for slots reserved in report file. Report file itself is not changed
+	 * @return actions whose slots were not found, e.g. because reports were written before scheduler state was restored.
+	 * Report file should be rewritten for them
+	 */
+	protected Collection<ActionUpdate> patchReport(File reportFile, Collection<ActionUpdate> actions, String actionsReportFile,
+			ReportFormat reportFormat, File reportDir, boolean onlyFailed)
+	{
+		if (!asyncSlots.hasSlots(reportFile))
+			return actions;
+		
+		List<ActionUpdate> notPatched = new ArrayList<>();
+		for (ActionUpdate au : actions)
+		{
+			Action action = au.getAction();
+			String content;
+			try
+			{
+				content = (!onlyFailed || !action.isPassed())
+						? buildActionReport(action, reportFormat, buildResultId(actionsReportFile, au.getIndex()), reportDir, onlyFailed)
+						: "";
+			}
+			catch (IOException e)
+			{
+				getLogger().error("Could not write action report", e);
+				continue;  //Report of the action will remain as it is
+			}
+			
+			if (!asyncSlots.patch(reportFile, buildAsyncActionStartComment(action, reportFormat), content))
+				notPatched.add(au);
+		}
+		return notPatched;
+	}
+	
+	/**
+	 * Applies pending patches to report file and closes it so that the file can be rewritten. 
+	 * Slots reserved in the file are not tracked anymore after that
+	 */
+	protected void prepareReportToRewrite(File reportFile)
+	{
+		try
+		{
+			asyncSlots.merge(reportFile);
+		}
+		catch (IOException e)
+		{
+			getLogger().error("Could not merge patches into report file '{}'", reportFile, e);
+		}
+		asyncSlots.forget(reportFile);
+		sinks.close(reportFile);
+	}
+	
+	protected String buildActionReport(Action action, ReportFormat format, String containerId, File reportDir, boolean onlyFailed) throws IOException
+	{
+		StringWriter buffer = new StringWriter();
+		PrintWriter writer = new PrintWriter(buffer);
+		writeActionReport(action, format, writer, containerId, reportDir, onlyFailed);
+		writer.flush();
+		return buffer.toString();
+	}
+	
+	protected AsyncReportSlots createAsyncSlots(ReportSinks sinks)
+	{
+		return new AsyncReportSlots(sinks);
+	}
 
 	private void replaceReportFile(File reportFile, File originalReportFile)
 	{
@@ -241,19 +396,18 @@ public class ActionReportWriter
 	
 	public int getActionIndex()
 	{
-		return actionIndex;
+		return actionIndex.get();
 	}
 	
 	public int incActionIndex()
 	{
-		actionIndex++;
-		return actionIndex;
+		return actionIndex.incrementAndGet();
 	}
 	
 	
 	protected String buildResultId(String actionsReportFile)
 	{
-		return buildResultId(actionsReportFile, actionIndex);
+		return buildResultId(actionsReportFile, getActionIndex());
 	}
 	
 	protected String buildResultId(String actionsReportFile, int index)
@@ -348,41 +502,44 @@ public class ActionReportWriter
 	}
 
 	protected void writeHtmlActionReport(Action action, String actionsReportsDir, String actionsReportFile, boolean onlyFailed)
+	{
+		writeHtmlActionReport(action, actionsReportsDir, actionsReportFile, onlyFailed, getActionIndex());
+	}
+	
+	protected void writeHtmlActionReport(Action action, String actionsReportsDir, String actionsReportFile, boolean onlyFailed, int index)
 	{
 		if (getLogger().isTraceEnabled())
 			getLogger().trace(action.getDescForLog("Writing report for"));
-		String resultId = buildResultId(actionsReportFile);
+		String resultId = buildResultId(actionsReportFile, index);
 		File reportDir = getReportDir(actionsReportsDir, action),
 				reportFile = getReportFile(reportDir, actionsReportFile, onlyFailed);
-		PrintWriter writer = null;
 		try
 		{
-			writer = createReportWriter(reportFile);
+			//Report is built in memory and then passed to the sink that keeps report file open till the end of step
+			StringWriter buffer = new StringWriter();
+			PrintWriter writer = new PrintWriter(buffer);
 			HtmlActionReport report = createHtmlActionReport();
 
 			if (!action.isAsync() || action.isPayloadFinished())
 			{
 				report.write(writer, action, resultId, reportDir, onlyFailed);
+				writer.flush();
+				sinks.write(reportFile, buffer.toString());
 			}
 			else
 			{
+				//Reserving slot in report file to put actual action report into when action is finished
 				writePreReportData(writer, action, HTML);
 				report.write(writer, action, resultId, reportDir, onlyFailed);
 				writePostReportData(writer, action, HTML);
+				writer.flush();
+				asyncSlots.reserve(reportFile, buildAsyncActionStartComment(action, HTML), buffer.toString());
 			}
 		}
 		catch (IOException e)
 		{
 			getLogger().error("Could not write action report", e);
 		}
-		finally
-		{
-			if (writer != null)
-			{
-				writer.flush();
-				writer.close();
-			}
-		}
 	}
 	
 	protected boolean updateReport(File originalReportFile, Collection<ActionUpdate> actions, String actionsReportFile, File updatedReportFile,
@@ -509,6 +666,10 @@ public class ActionReportWriter
 
 	public void makeReportsEnding(String actionsReportsDir, String stepSafeName)
 	{
+		//Step is over, so its report files are not needed to be open anymore.
+		//Reserved slots stay valid as step report ending is appended after them
+		closeReports();
+		
 		File[] files = new File(rootRelative(actionsReportsDir)).listFiles();
 		if (files == null || files.length == 0)
 			return;
@@ -551,8 +712,9 @@ public class ActionReportWriter
 	
 	private void prepareJsonReportToUpdate(String actionsReportsDir, String matrixReportsDir, String stepFileName) throws IOException
 	{
-		File reportFile = getJsonStepReport(actionsReportsDir, matrixReportsDir, stepFileName),
-				tempFile = File.createTempFile(reportFile.getName()+"_", ".tmp", reportFile.getParentFile());
+		File reportFile = getJsonStepReport(actionsReportsDir, matrixReportsDir, stepFileName);
+		prepareReportToRewrite(reportFile);
+		File tempFile = File.createTempFile(reportFile.getName()+"_", ".tmp", reportFile.getParentFile());
 		try (BufferedReader reader = new BufferedReader(new FileReader(reportFile));
 				BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile)))
 		{
@@ -0,0 +1,317 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Slots reserved in report files for reports of asynchronous actions that are not finished yet.
+ * For each slot its byte range in the file is recorded. When action is finished, its actual report is appended to patch log 
+ * of the report file instead of rewriting the report file itself.
+ * Patches are applied to the report file by {@link #merge(File)}, which copies unchanged parts of the file as is 
+ * and replaces slots with data from patch log.
+ */
+public class AsyncReportSlots
+{
+	private static final Logger logger = LoggerFactory.getLogger(AsyncReportSlots.class);
+	
+	public static final String PATCHES_SUFFIX = ".patches";
+	
+	private final ReportSinks sinks;
+	private final Map<File, FileSlots> files = new ConcurrentHashMap<>();
+	
+	public AsyncReportSlots(ReportSinks sinks)
+	{
+		this.sinks = sinks;
+	}
+	
+	
+	/**
+	 * Writes data to end of report file, reserving the written range as slot to replace later
+	 * @param file to write data to
+	 * @param slotId identifier of slot, unique within the file
+	 * @param data initial content of the slot
+	 */
+	public void reserve(File file, String slotId, String data)
+	{
+		byte[] bytes = data.getBytes(sinks.getCharset());
+		FileSlots fileSlots = files.computeIfAbsent(file, f -> new FileSlots());
+		synchronized (fileSlots)
+		{
+			long start = sinks.write(file, bytes);
+			fileSlots.slots.put(slotId, new Slot(start, start + bytes.length));
+		}
+	}
+	
+	/**
+	 * Stores new content of the slot in patch log of report file
+	 * @return true if patch is stored, false if there is no such slot in the file
+	 */
+	public boolean patch(File file, String slotId, String data)
+	{
+		FileSlots fileSlots = files.get(file);
+		if (fileSlots == null)
+			return false;
+		
+		synchronized (fileSlots)
+		{
+			if (!fileSlots.slots.containsKey(slotId))
+				return false;
+			
+			sinks.write(getPatchLog(file), encodePatch(slotId, data.getBytes(sinks.getCharset())));
+			fileSlots.patched = true;
+			return true;
+		}
+	}
+	
+	/**
+	 * @return true if given file has slots that may be patched
+	 */
+	public boolean hasSlots(File file)
+	{
+		FileSlots fileSlots = files.get(file);
+		return fileSlots != null && !fileSlots.slots.isEmpty();
+	}
+	
+	/**
+	 * Discards information about slots in given file, e.g. when the file is going to be rewritten by other means.
+	 * Pending patches must be merged before that
+	 */
+	public void forget(File file)
+	{
+		files.remove(file);
+	}
+	
+	/**
+	 * Applies all pending patches to given report file. Slots that are not patched yet remain valid
+	 * @throws IOException if report file could not be updated. In this case the file remains intact
+	 */
+	public void merge(File file) throws IOException
+	{
+		FileSlots fileSlots = files.get(file);
+		if (fileSlots == null)
+			return;
+		
+		synchronized (fileSlots)
+		{
+			if (!fileSlots.patched)
+				return;
+			
+			File patchLog = getPatchLog(file);
+			sinks.close(file);
+			sinks.close(patchLog);
+			
+			Map<String, byte[]> patches = readPatches(patchLog);
+			List<Replacement> replacements = new ArrayList<>(patches.size());
+			for (Map.Entry<String, byte[]> p : patches.entrySet())
+			{
+				Slot slot = fileSlots.slots.remove(p.getKey());
+				if (slot != null)
+					replacements.add(new Replacement(slot, p.getValue()));
+				else
+					getLogger().warn("Slot '{}' not found in report file '{}', patch is skipped", p.getKey(), file);
+			}
+			replacements.sort(Comparator.comparingLong(r -> r.slot.start));
+			
+			applyReplacements(file.toPath(), replacements);
+			shiftSlots(fileSlots.slots.values(), replacements);
+			
+			Files.deleteIfExists(patchLog.toPath());
+			fileSlots.patched = false;
+		}
+	}
+	
+	/**
+	 * Applies pending patches to all report files. Errors are logged, affected files remain intact
+	 */
+	public void mergeAll()
+	{
+		for (File file : new ArrayList<>(files.keySet()))
+		{
+			try
+			{
+				merge(file);
+			}
+			catch (IOException e)
+			{
+				getLogger().error("Could not merge patches into report file '{}'", file, e);
+			}
+		}
+	}
+	
+	public File getPatchLog(File file)
+	{
+		return new File(file.getParentFile(), file.getName() + PATCHES_SUFFIX);
+	}
+	
+	
+	protected Logger getLogger()
+	{
+		return logger;
+	}
+	
+	
+	private byte[] encodePatch(String slotId, byte[] data)
+	{
+		ByteArrayOutputStream result = new ByteArrayOutputStream(data.length + slotId.length() + 8);
+		try (DataOutputStream out = new DataOutputStream(result))
+		{
+			out.writeUTF(slotId);
+			out.writeInt(data.length);
+			out.write(data);
+		}
+		catch (IOException e)
+		{
+			//Not expected for in-memory stream
+			throw new UncheckedIOException(e);
+		}
+		return result.toByteArray();
+	}
+	
+	private Map<String, byte[]> readPatches(File patchLog) throws IOException
+	{
+		//If slot is patched several times, the latest patch wins
+		Map<String, byte[]> result = new LinkedHashMap<>();
+		if (!patchLog.isFile())
+			return result;
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(patchLog))))
+		{
+			while (true)
+			{
+				String slotId;
+				try
+				{
+					slotId = in.readUTF();
+				}
+				catch (EOFException e)
+				{
+					break;
+				}
+				
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				result.put(slotId, data);
+			}
+		}
+		return result;
+	}
+	
+	private void applyReplacements(Path file, List<Replacement> replacements) throws IOException
+	{
+		Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString()+"_", ".tmp");
+		try
+		{
+			try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+					FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE))
+			{
+				long position = 0;
+				for (Replacement r : replacements)
+				{
+					transfer(in, position, r.slot.start - position, out);
+					ByteBuffer data = ByteBuffer.wrap(r.data);
+					while (data.hasRemaining())
+						out.write(data);
+					position = r.slot.end;
+				}
+				transfer(in, position, in.size() - position, out);
+			}
+			
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException e)
+		{
+			Files.deleteIfExists(tempFile);
+			throw e;
+		}
+	}
+	
+	private void transfer(FileChannel in, long position, long count, FileChannel out) throws IOException
+	{
+		while (count > 0)
+		{
+			long transferred = in.transferTo(position, count, out);
+			if (transferred <= 0)
+				throw new EOFException("Report file is shorter than expected");
+			position += transferred;
+			count -= transferred;
+		}
+	}
+	
+	private void shiftSlots(Collection<Slot> slots, List<Replacement> replacements)
+	{
+		if (slots.isEmpty())
+			return;
+		
+		for (Slot s : slots)
+		{
+			long delta = 0;
+			for (Replacement r : replacements)
+			{
+				if (r.slot.end > s.start)
+					break;
+				delta += r.data.length - (r.slot.end - r.slot.start);
+			}
+			s.start += delta;
+			s.end += delta;
+		}
+	}
+	
+	
+	private static class FileSlots
+	{
+		final Map<String, Slot> slots = new HashMap<>();
+		boolean patched = false;
+	}
+	
+	private static class Slot
+	{
+		long start,
+				end;
+		
+		Slot(long start, long end)
+		{
+			this.start = start;
+			this.end = end;
+		}
+	}
+	
+	private static class Replacement
+	{
+		final Slot slot;
+		final byte[] data;
+		
+		Replacement(Slot slot, byte[] data)
+		{
+			this.slot = slot;
+			this.data = data;
+		}
+	}
+}
@@ -0,0 +1,323 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.report;
+
+import com.exactprosystems.clearth.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of report files kept open for writing while step is being executed.
+ * Each file gets one buffered writer that is created on first write and stays open until the file is explicitly closed,
+ * so that action reports are appended without opening and closing the file for every action.
+ * Files are to be flushed or closed before being read or rewritten.
+ * <p>
+ * Optionally, data can be written by dedicated background thread. In this case write methods only enqueue the data,
+ * while flush and close methods wait for all enqueued data to be written.
+ * <p>
+ * Text is written in default charset, like it is done by {@link FileWriter}. 
+ * Sinks keep track of file size so that callers can know byte offsets of written data.
+ */
+public class ReportSinks implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(ReportSinks.class);
+	
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	
+	private final Map<File, Sink> sinks = new ConcurrentHashMap<>();
+	private final boolean background;
+	private final int bufferSize;
+	private final Charset charset = Charset.defaultCharset();
+	private ExecutorService writingThread;  //Guarded by this
+	private boolean closed = false;  //Guarded by this
+	
+	public ReportSinks()
+	{
+		this(false, DEFAULT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * @param background true to write data by dedicated background thread
+	 * @param bufferSize size of buffer kept for each open file
+	 */
+	public ReportSinks(boolean background, int bufferSize)
+	{
+		this.background = background;
+		this.bufferSize = bufferSize;
+	}
+	
+	
+	/**
+	 * Appends text to end of given file, opening it if needed
+	 * @return byte offset in file at which the text starts
+	 */
+	public long write(File file, String text)
+	{
+		return write(file, text.getBytes(charset));
+	}
+	
+	/**
+	 * Appends data to end of given file, opening it if needed
+	 * @return byte offset in file at which the data starts
+	 */
+	public long write(File file, byte[] data)
+	{
+		Sink sink = sinks.computeIfAbsent(file, Sink::new);
+		//Offset reservation and enqueuing are done atomically to keep offsets in line with data order
+		synchronized (sink)
+		{
+			long offset = sink.reserve(data.length);
+			execute(() -> sink.write(data));
+			return offset;
+		}
+	}
+	
+	/**
+	 * @return true if given file has no data and nothing was written to it yet
+	 */
+	public boolean isEmpty(File file)
+	{
+		Sink sink = sinks.get(file);
+		return sink != null ? sink.isEmpty() : file.length() == 0;
+	}
+	
+	/**
+	 * Writes buffered data of all open files to disk. Files stay open
+	 */
+	public void flush()
+	{
+		List<Sink> toFlush = new ArrayList<>(sinks.values());
+		await(() -> {
+			for (Sink s : toFlush)
+				s.flush();
+		});
+	}
+	
+	/**
+	 * Writes buffered data of given file to disk and closes the file. Next write to the file will open it again
+	 */
+	public void close(File file)
+	{
+		Sink sink = sinks.remove(file);
+		if (sink != null)
+			await(sink::close);
+	}
+	
+	/**
+	 * Writes buffered data of all open files to disk and closes them
+	 */
+	public void closeAll()
+	{
+		List<Sink> toClose = new ArrayList<>(sinks.values());
+		sinks.values().removeAll(toClose);
+		if (toClose.isEmpty())
+			return;
+		
+		await(() -> {
+			for (Sink s : toClose)
+				s.close();
+		});
+	}
+	
+	public int getOpenFilesCount()
+	{
+		return sinks.size();
+	}
+	
+	public boolean isBackground()
+	{
+		return background;
+	}
+	
+	public Charset getCharset()
+	{
+		return charset;
+	}
+	
+	/**
+	 * Closes all open files and stops background writing thread, if any
+	 */
+	@Override
+	public void close()
+	{
+		closeAll();
+		
+		ExecutorService thread;
+		synchronized (this)
+		{
+			thread = writingThread;
+			writingThread = null;
+			closed = true;
+		}
+		if (thread != null)
+			thread.shutdown();
+	}
+	
+	
+	protected Logger getLogger()
+	{
+		return logger;
+	}
+	
+	protected OutputStream createStream(File file) throws IOException
+	{
+		return new BufferedOutputStream(new FileOutputStream(file, true), bufferSize);
+	}
+	
+	
+	private void execute(Runnable task)
+	{
+		ExecutorService thread = getWritingThread();
+		if (thread == null)
+		{
+			task.run();
+			return;
+		}
+		
+		try
+		{
+			thread.execute(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			//Sinks are being closed, no need to keep data order anymore
+			task.run();
+		}
+	}
+	
+	private void await(Runnable task)
+	{
+		ExecutorService thread = getWritingThread();
+		if (thread == null)
+		{
+			task.run();
+			return;
+		}
+		
+		Future<?> f;
+		try
+		{
+			f = thread.submit(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			task.run();
+			return;
+		}
+		
+		try
+		{
+			f.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			getLogger().warn("Wait for report files to be written has been interrupted");
+		}
+		catch (ExecutionException e)
+		{
+			getLogger().error("Error while writing report files", e.getCause());
+		}
+	}
+	
+	private synchronized ExecutorService getWritingThread()
+	{
+		//After closing, data is written by caller thread
+		if (!background || closed)
+			return null;
+		
+		if (writingThread == null)
+		{
+			String name = Thread.currentThread().getName()+":ReportWriter";
+			writingThread = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, name);
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return writingThread;
+	}
+	
+	
+	private class Sink
+	{
+		private final File file;
+		private final AtomicLong size;  //Includes data enqueued for writing
+		private OutputStream stream;
+		
+		Sink(File file)
+		{
+			this.file = file;
+			this.size = new AtomicLong(file.length());
+		}
+		
+		long reserve(int length)
+		{
+			return size.getAndAdd(length);
+		}
+		
+		boolean isEmpty()
+		{
+			return size.get() == 0;
+		}
+		
+		synchronized void write(byte[] data)
+		{
+			try
+			{
+				if (stream == null)
+					stream = createStream(file);
+				stream.write(data);
+			}
+			catch (IOException e)
+			{
+				getLogger().error("Could not write to report file '{}'", file, e);
+			}
+		}
+		
+		synchronized void flush()
+		{
+			if (stream == null)
+				return;
+			
+			try
+			{
+				stream.flush();
+			}
+			catch (IOException e)
+			{
+				getLogger().error("Could not flush report file '{}'", file, e);
+			}
+		}
+		
+		synchronized void close()
+		{
+			Utils.closeResource(stream);
+			stream = null;
+		}
+	}
+}
@@ -130,6 +130,9 @@ public class ReportsWriter
 			logger.debug("Writing 'only-failed' HTML report for matrix '{}'...", matrix.getName());
 			report_failed = createHtmlReport(matrix, reportsPath, userName, "report_failed",
 					startTime, endTime, testHandlerName, matrixExecutionId);
+			//Both reports are stored in the same directory, so resource files are copied only once
+			if (report != null)
+				report_failed.setCopyResourceFiles(false);
 			
 			report_failed.writeReport(executor.getSteps(), matrixSteps, actionsReports, true);
 		}
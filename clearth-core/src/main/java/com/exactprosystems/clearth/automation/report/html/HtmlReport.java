@@ -58,6 +58,7 @@ public class HtmlReport
 	protected HandledTestExecutionId matrixExecutionId;
 	protected String testHandlerName;
 	protected ReportTemplatesProcessor templatesProcessor;
+	protected boolean copyResourceFiles = true;
 	
 	static
 	{
@@ -115,10 +116,24 @@ public class HtmlReport
 	{
 		return log;
 	}
+	
+	/**
+	 * @param copyResourceFiles false if resource files are already in report directory, e.g. copied by another report of the same matrix
+	 */
+	public void setCopyResourceFiles(boolean copyResourceFiles)
+	{
+		this.copyResourceFiles = copyResourceFiles;
+	}
+	
+	public boolean isCopyResourceFiles()
+	{
+		return copyResourceFiles;
+	}
 
 	public void writeReport(List<Step> allSteps, List<String> matrixSteps, File actionsReportsDir, boolean onlyFailed) throws IOException, ReportException
 	{
-		copyReportFiles();
+		if (copyResourceFiles)
+			copyReportFiles();
 		Map<String, Object> parameters = initTemplateParameters(allSteps, matrixSteps, actionsReportsDir, onlyFailed);
 
 		try (Writer writer = new BufferedWriter(new FileWriter(reportFilePath)))
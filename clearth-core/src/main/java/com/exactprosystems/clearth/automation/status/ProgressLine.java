@@ -0,0 +1,65 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.status;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Status line for long operation that processes known number of items.
+ * Its value changes as items are done, so the line is added to status once and shows actual progress when read.
+ */
+public class ProgressLine implements StatusLine
+{
+	private final String operation;
+	private final int total;
+	private final AtomicInteger done = new AtomicInteger();
+	
+	public ProgressLine(String operation, int total)
+	{
+		this.operation = operation;
+		this.total = total;
+	}
+	
+	public int itemDone()
+	{
+		return done.incrementAndGet();
+	}
+	
+	public int getDone()
+	{
+		return done.get();
+	}
+	
+	public int getTotal()
+	{
+		return total;
+	}
+	
+	@Override
+	public String getValue()
+	{
+		return operation + ": " + done.get() + " of " + total + " done";
+	}
+	
+	@Override
+	public String toString()
+	{
+		return getValue();
+	}
+}
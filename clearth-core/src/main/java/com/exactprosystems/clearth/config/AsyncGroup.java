@@ -0,0 +1,90 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.config;
+
+import javax.xml.bind.annotation.XmlType;
+
+@XmlType(name = "asyncGroup")
+public class AsyncGroup
+{
+	private String name;
+	private int concurrencyLimit = 1;
+	private boolean ordered = false;
+
+	public AsyncGroup(){}
+
+	public AsyncGroup(String name, int concurrencyLimit, boolean ordered)
+	{
+		this.name = name;
+		this.concurrencyLimit = concurrencyLimit;
+		this.ordered = ordered;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+
+	/**
+	 * @return max number of actions of the group executed at the same time. 0 means no limit
+	 */
+	public int getConcurrencyLimit()
+	{
+		return concurrencyLimit;
+	}
+
+	public void setConcurrencyLimit(int concurrencyLimit)
+	{
+		this.concurrencyLimit = concurrencyLimit;
+	}
+
+	/**
+	 * @return true if actions of the group must be executed one by one in order they were started, regardless of concurrency limit
+	 */
+	public boolean isOrdered()
+	{
+		return ordered;
+	}
+
+	public void setOrdered(boolean ordered)
+	{
+		this.ordered = ordered;
+	}
+
+	/**
+	 * @return concurrency limit to actually apply to the group
+	 */
+	public int getEffectiveLimit()
+	{
+		return ordered ? 1 : concurrencyLimit;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "name = " + this.name +
+				", concurrencyLimit = " + this.concurrencyLimit +
+				", ordered = " + this.ordered;
+	}
+}
@@ -0,0 +1,110 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.config;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Settings of asynchronous actions execution. Groups not listed here are executed with default concurrency limit.
+ * Default limit of 1 makes every group execute its actions one by one, as they are started
+ */
+@XmlType(name = "asyncGroups")
+@XmlAccessorType(XmlAccessType.NONE)
+public class AsyncGroups
+{
+	@XmlElement(name = "defaultConcurrencyLimit")
+	private int defaultConcurrencyLimit = 1;
+	@XmlElement(name = "group")
+	private List<AsyncGroup> groups;
+
+	public AsyncGroups() {}
+
+
+	public int getDefaultConcurrencyLimit()
+	{
+		return defaultConcurrencyLimit;
+	}
+
+	public void setDefaultConcurrencyLimit(int defaultConcurrencyLimit)
+	{
+		this.defaultConcurrencyLimit = defaultConcurrencyLimit;
+	}
+
+
+	public List<AsyncGroup> getGroups()
+	{
+		if (groups == null)
+			groups = new ArrayList<>();
+		return groups;
+	}
+
+	public void setGroups(List<AsyncGroup> groups)
+	{
+		this.groups = groups;
+	}
+
+
+	/**
+	 * @param name of async group. null or empty string stands for default group
+	 * @return settings of given group, null if group is not configured
+	 */
+	public AsyncGroup getGroup(String name)
+	{
+		if (groups == null)
+			return null;
+
+		String groupName = name != null ? name : "";
+		for (AsyncGroup g : groups)
+		{
+			String n = g.getName() != null ? g.getName() : "";
+			if (n.equals(groupName))
+				return g;
+		}
+		return null;
+	}
+
+	/**
+	 * @param name of async group. null or empty string stands for default group
+	 * @return max number of actions of given group executed at the same time. 0 means no limit
+	 */
+	public int getConcurrencyLimit(String name)
+	{
+		AsyncGroup g = getGroup(name);
+		return g != null ? g.getEffectiveLimit() : defaultConcurrencyLimit;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		StringJoiner result = new StringJoiner("; ", "defaultConcurrencyLimit = " + defaultConcurrencyLimit + "; groups: ", "");
+		if (groups != null)
+		{
+			for (AsyncGroup g : groups)
+				result.add("[" + g + "]");
+		}
+		return result.toString();
+	}
+}
@@ -24,9 +24,15 @@ import javax.xml.bind.annotation.*;
 public class Automation
 {
 	private volatile boolean userSchedulersAllowed = true;
+	private int matrixCompilationThreads = 1;
+	private boolean matrixCacheEnabled = false;
+	private int matrixLanes = 1;
+	private boolean backgroundReportWriting = false;
+	private int reportThreads = 1;
 
 	private MatrixFatalErrors matrixFatalErrors;
 	private SpecialActionParameters specialActionParameters;
+	private AsyncGroups asyncGroups;
 
 	public Automation(){}
 
@@ -40,6 +46,71 @@ public class Automation
 		this.userSchedulersAllowed = userSchedulersAllowed;
 	}
 
+	/**
+	 * @return number of threads to compile scheduler matrices with. 1 means sequential compilation, 0 means number of available processors
+	 */
+	public int getMatrixCompilationThreads()
+	{
+		return matrixCompilationThreads;
+	}
+
+	public void setMatrixCompilationThreads(int matrixCompilationThreads)
+	{
+		this.matrixCompilationThreads = matrixCompilationThreads;
+	}
+
+	/**
+	 * @return true if parsed matrices should be cached in scheduler directory to not parse unchanged matrix files again
+	 */
+	public boolean isMatrixCacheEnabled()
+	{
+		return matrixCacheEnabled;
+	}
+
+	public void setMatrixCacheEnabled(boolean matrixCacheEnabled)
+	{
+		this.matrixCacheEnabled = matrixCacheEnabled;
+	}
+
+	/**
+	 * @return max number of matrices whose actions are executed in parallel within a step. 1 means actions of all matrices are executed one by one
+	 */
+	public int getMatrixLanes()
+	{
+		return matrixLanes;
+	}
+
+	public void setMatrixLanes(int matrixLanes)
+	{
+		this.matrixLanes = matrixLanes;
+	}
+
+	/**
+	 * @return true if action reports should be written to disk by dedicated thread to not block actions execution
+	 */
+	public boolean isBackgroundReportWriting()
+	{
+		return backgroundReportWriting;
+	}
+
+	public void setBackgroundReportWriting(boolean backgroundReportWriting)
+	{
+		this.backgroundReportWriting = backgroundReportWriting;
+	}
+
+	/**
+	 * @return number of threads to make final reports of scheduler matrices with. 1 means sequential making, 0 means number of available processors
+	 */
+	public int getReportThreads()
+	{
+		return reportThreads;
+	}
+
+	public void setReportThreads(int reportThreads)
+	{
+		this.reportThreads = reportThreads;
+	}
+
 	public void setMatrixFatalErrors(MatrixFatalErrors matrixFatalErrors)
 	{
 		this.matrixFatalErrors = matrixFatalErrors;
@@ -64,12 +135,30 @@ public class Automation
 		this.specialActionParameters = specialActionParameters;
 	}
 
+	public AsyncGroups getAsyncGroups()
+	{
+		if (asyncGroups == null)
+			asyncGroups = new AsyncGroups();
+		return asyncGroups;
+	}
+
+	public void setAsyncGroups(AsyncGroups asyncGroups)
+	{
+		this.asyncGroups = asyncGroups;
+	}
+
 	@Override
 	public String toString()
 	{
 		return "[userSchedulersAllowed = " + this.isUserSchedulersAllowed() +
+				"; matrixCompilationThreads = " + this.getMatrixCompilationThreads() +
+				"; matrixCacheEnabled = " + this.isMatrixCacheEnabled() +
+				"; matrixLanes = " + this.getMatrixLanes() +
+				"; backgroundReportWriting = " + this.isBackgroundReportWriting() +
+				"; reportThreads = " + this.getReportThreads() +
 				"; matrixFatalErrors: " + this.getMatrixFatalErrors().toString() +
 				"; specialActionParameters: " + this.getSpecialActionParameters().toString() +
+				"; asyncGroups: " + this.getAsyncGroups().toString() +
 				"]";
 	}
 }
@@ -27,6 +27,7 @@ public class ConnectionType
 			connectionClass,
 			directory;
 	private ValidationRulesConfig validationRules;
+	private int decodeThreads = 0;
 	
 	public ConnectionType() {}
 	
@@ -36,7 +37,8 @@ public class ConnectionType
 		return "[name = " + getName() + 
 				"; connectionClass = " + getConnectionClass() + 
 				"; directory = " + getDirectory() + 
-				"; validationRules = " + getValidationRules() + "]";
+				"; validationRules = " + getValidationRules() + 
+				"; decodeThreads = " + getDecodeThreads() + "]";
 	}
 	
 	
@@ -84,4 +86,19 @@ public class ConnectionType
 	{
 		this.validationRules = validationRules;
 	}
+	
+	
+	/**
+	 * @return number of threads to decode received messages in parallel for connections of this type. 
+	 * 0 means that messages are decoded one by one by the thread that passes them to listeners
+	 */
+	public int getDecodeThreads()
+	{
+		return decodeThreads;
+	}
+	
+	public void setDecodeThreads(int decodeThreads)
+	{
+		this.decodeThreads = decodeThreads;
+	}
 }
@@ -47,4 +47,20 @@ public interface ClearThClient extends PlainMessageSender
 	long getSent();
 	
 	long getReceived();
+	
+	/**
+	 * @return number of received messages that are not passed to listeners yet
+	 */
+	default long getReceivedBacklog()
+	{
+		return 0;
+	}
+	
+	/**
+	 * @return number of messages received from source per second, measured by receiver thread
+	 */
+	default double getReceiveRate()
+	{
+		return 0;
+	}
 }
@@ -92,7 +92,7 @@ public class MessageProcessorThread extends Thread
 		logger.info("MessageProcessor Thread finished");
 	}
 	
-	private void handleMessage(EncodedClearThMessage message)
+	protected void handleMessage(EncodedClearThMessage message)
 	{
 		try
 		{
@@ -112,7 +112,7 @@ public class MessageProcessorThread extends Thread
 		}
 	}
 	
-	private void notifyListeners(EncodedClearThMessage message)
+	protected void notifyListeners(EncodedClearThMessage message)
 	{
 		for (MessageListener listener : listeners)
 		{
@@ -133,6 +133,22 @@ public class MessageProcessorThread extends Thread
 		return processed.get();
 	}
 	
+	/**
+	 * @return number of messages waiting in queue to be taken by this thread
+	 */
+	public int getQueueSize()
+	{
+		return messageQueue.size();
+	}
+	
+	/**
+	 * @return number of messages that are received, but not passed to listeners yet
+	 */
+	public int getBacklog()
+	{
+		return getQueueSize();
+	}
+	
 	
 	private HandledMessageId addId(EncodedClearThMessage message)
 	{
@@ -0,0 +1,330 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
+import com.exactprosystems.clearth.data.MessageHandler;
+
+/**
+ * Processor thread that prepares messages for {@link PreparingMessageListener}s (i.e. decodes them) in parallel by pool of decode threads. 
+ * Prepared messages are passed to message handler and listeners one by one in order they were taken from the queue, 
+ * so listeners get messages in the same order as with {@link MessageProcessorThread}.
+ * Number of messages being prepared at once is limited to not take too many messages from the queue when listeners are slow.
+ */
+public class ParallelMessageProcessorThread extends MessageProcessorThread
+{
+	public static final int MAX_IN_FLIGHT_PER_THREAD = 64;
+	
+	private final int decodeThreads,
+			maxInFlight;
+	private final ExecutorService decoders;
+	private final Deque<PendingMessage> inFlight = new ArrayDeque<>();
+	private volatile int inFlightCount = 0;
+	private final AtomicLong decoded = new AtomicLong(0),
+			decodeNanos = new AtomicLong(0),
+			maxDecodeNanos = new AtomicLong(0);
+	
+	public ParallelMessageProcessorThread(String name, BlockingQueue<EncodedClearThMessage> messageQueue,
+			MessageHandler handler, List<MessageListener> listeners, int decodeThreads)
+	{
+		this(name, messageQueue, handler, listeners, decodeThreads, decodeThreads * MAX_IN_FLIGHT_PER_THREAD);
+	}
+	
+	public ParallelMessageProcessorThread(String name, BlockingQueue<EncodedClearThMessage> messageQueue,
+			MessageHandler handler, List<MessageListener> listeners, int decodeThreads, int maxInFlight)
+	{
+		super(name, messageQueue, handler, listeners);
+		if (decodeThreads < 1)
+			throw new IllegalArgumentException("Number of decode threads must be positive, got "+decodeThreads);
+		if (maxInFlight < 1)
+			throw new IllegalArgumentException("Max number of messages being decoded must be positive, got "+maxInFlight);
+		
+		this.decodeThreads = decodeThreads;
+		this.maxInFlight = maxInFlight;
+		
+		AtomicInteger threadIndex = new AtomicInteger(0);
+		decoders = Executors.newFixedThreadPool(decodeThreads, r -> {
+			Thread t = new Thread(r, name+" (decoder "+threadIndex.incrementAndGet()+")");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+	
+	@Override
+	public void run()
+	{
+		logger.info("MessageProcessor Thread started with {} decode thread(s)", decodeThreads);
+		
+		try
+		{
+			while (!terminated.get())
+			{
+				try
+				{
+					submitMessages();
+					deliverMessages();
+				}
+				catch (InterruptedException e)
+				{
+					logger.warn("Interrupted", e);
+					terminated.set(true);
+				}
+				
+				if (this.isInterrupted())
+				{
+					logger.warn("Thread is interrupted");
+					terminated.set(true);
+				}
+			}
+		}
+		finally
+		{
+			//Messages taken from the queue can't be returned there without breaking their order, so passing them to listeners before exit
+			deliverRemaining();
+			decoders.shutdown();
+		}
+		
+		logger.info("MessageProcessor Thread finished. {}", getStatistics());
+	}
+	
+	
+	private void submitMessages() throws InterruptedException
+	{
+		while (inFlight.size() < maxInFlight)
+		{
+			//Waiting for new message only if there is nothing to deliver
+			EncodedClearThMessage message = inFlight.isEmpty() ? messageQueue.poll(1000, TimeUnit.MILLISECONDS) : messageQueue.poll();
+			if (message == null)
+				break;
+			
+			inFlight.add(new PendingMessage(message, submitPreparation(message)));
+			inFlightCount = inFlight.size();
+		}
+	}
+	
+	private Future<Map<MessageListener, Object>> submitPreparation(EncodedClearThMessage message)
+	{
+		List<PreparingMessageListener<?>> preparing = null;
+		for (MessageListener listener : listeners)
+		{
+			if (!(listener instanceof PreparingMessageListener))
+				continue;
+			
+			if (preparing == null)
+				preparing = new ArrayList<>();
+			preparing.add((PreparingMessageListener<?>) listener);
+		}
+		
+		if (preparing == null)
+			return CompletableFuture.completedFuture(Collections.emptyMap());
+		
+		List<PreparingMessageListener<?>> toNotify = preparing;
+		return decoders.submit(() -> prepareMessage(message, toNotify));
+	}
+	
+	private Map<MessageListener, Object> prepareMessage(EncodedClearThMessage message, List<PreparingMessageListener<?>> preparing)
+	{
+		long start = System.nanoTime();
+		Map<MessageListener, Object> result = new IdentityHashMap<>();
+		for (PreparingMessageListener<?> listener : preparing)
+		{
+			try
+			{
+				result.put(listener, listener.prepareMessage(message));
+			}
+			catch (Exception e)
+			{
+				logger.warn("Listener '{}' ({}) could not prepare message, it will get message as is", listener.getName(), listener.getType(), e);
+			}
+		}
+		
+		long duration = System.nanoTime() - start;
+		decoded.incrementAndGet();
+		decodeNanos.addAndGet(duration);
+		maxDecodeNanos.accumulateAndGet(duration, Math::max);
+		return result;
+	}
+	
+	private void deliverMessages() throws InterruptedException
+	{
+		while (!inFlight.isEmpty())
+		{
+			PendingMessage head = inFlight.peek();
+			//If first message is not prepared yet, it's better to submit more messages for preparation than to wait for it
+			if (!head.prepared.isDone() && inFlight.size() < maxInFlight && !messageQueue.isEmpty())
+				return;
+			
+			Map<MessageListener, Object> prepared = getPrepared(head);
+			inFlight.poll();
+			inFlightCount = inFlight.size();
+			deliverMessage(head.message, prepared);
+		}
+	}
+	
+	private void deliverRemaining()
+	{
+		boolean interrupted = false;
+		while (!inFlight.isEmpty())
+		{
+			PendingMessage head = inFlight.peek();
+			try
+			{
+				Map<MessageListener, Object> prepared = getPrepared(head);
+				inFlight.poll();
+				inFlightCount = inFlight.size();
+				deliverMessage(head.message, prepared);
+			}
+			catch (InterruptedException e)
+			{
+				//Preparation takes limited time, so waiting for it anyway
+				interrupted = true;
+			}
+		}
+		
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+	
+	private Map<MessageListener, Object> getPrepared(PendingMessage pending) throws InterruptedException
+	{
+		try
+		{
+			return pending.prepared.get();
+		}
+		catch (ExecutionException e)
+		{
+			logger.error("Error while preparing message, listeners will get message as is", e);
+			return Collections.emptyMap();
+		}
+	}
+	
+	private void deliverMessage(EncodedClearThMessage message, Map<MessageListener, Object> prepared)
+	{
+		handleMessage(message);
+		notifyListeners(message, prepared);
+		processed.incrementAndGet();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void notifyListeners(EncodedClearThMessage message, Map<MessageListener, Object> prepared)
+	{
+		if (prepared.isEmpty())
+		{
+			notifyListeners(message);
+			return;
+		}
+		
+		for (MessageListener listener : listeners)
+		{
+			try
+			{
+				logger.trace("Notifying listener '{}' ({})", listener.getName(), listener.getType());
+				if (prepared.containsKey(listener))
+					((PreparingMessageListener<Object>) listener).onPreparedMessage(message, prepared.get(listener));
+				else
+					listener.onMessage(message);
+			}
+			catch (Exception e)
+			{
+				logger.error("Listener '{}' ({}) thrown exception while handling message", listener.getName(), listener.getType(), e);
+			}
+		}
+	}
+	
+	
+	public int getDecodeThreads()
+	{
+		return decodeThreads;
+	}
+	
+	public int getMaxInFlight()
+	{
+		return maxInFlight;
+	}
+	
+	/**
+	 * @return number of messages taken from the queue that are being prepared or wait to be passed to listeners
+	 */
+	public int getInFlight()
+	{
+		return inFlightCount;
+	}
+	
+	@Override
+	public int getBacklog()
+	{
+		return getQueueSize() + getInFlight();
+	}
+	
+	public long getDecoded()
+	{
+		return decoded.get();
+	}
+	
+	public long getAverageDecodeTimeMicros()
+	{
+		long count = decoded.get();
+		return count > 0 ? TimeUnit.NANOSECONDS.toMicros(decodeNanos.get() / count) : 0;
+	}
+	
+	public long getMaxDecodeTimeMicros()
+	{
+		return TimeUnit.NANOSECONDS.toMicros(maxDecodeNanos.get());
+	}
+	
+	public String getStatistics()
+	{
+		return "Processed: "+getProcessed()
+				+", queue size: "+getQueueSize()
+				+", in flight: "+getInFlight()
+				+", decoded: "+getDecoded()
+				+", average decode time (us): "+getAverageDecodeTimeMicros()
+				+", max decode time (us): "+getMaxDecodeTimeMicros();
+	}
+	
+	
+	private static class PendingMessage
+	{
+		private final EncodedClearThMessage message;
+		private final Future<Map<MessageListener, Object>> prepared;
+		
+		PendingMessage(EncodedClearThMessage message, Future<Map<MessageListener, Object>> prepared)
+		{
+			this.message = message;
+			this.prepared = prepared;
+		}
+	}
+}
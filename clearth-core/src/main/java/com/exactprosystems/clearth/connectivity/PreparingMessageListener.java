@@ -0,0 +1,49 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity;
+
+import java.io.IOException;
+
+import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
+
+/**
+ * Message listener that can split message handling into two stages: 
+ * preparation (decoding, for instance) and handling of prepared message.
+ * 
+ * Preparation doesn't depend on messages handled before, so {@link ParallelMessageProcessorThread} calls {@link #prepareMessage(EncodedClearThMessage)} 
+ * for several messages in parallel. Prepared messages are passed to {@link #onPreparedMessage(EncodedClearThMessage, Object)} in order of their arrival.
+ * @param <T> type of prepared message
+ */
+public interface PreparingMessageListener<T> extends MessageListener
+{
+	/**
+	 * Prepares message for handling. Can be called by several threads at once
+	 * @param message to prepare
+	 * @return prepared message to pass to {@link #onPreparedMessage(EncodedClearThMessage, Object)}
+	 * @throws Exception if message cannot be prepared. In this case message will be passed to {@link #onMessage(EncodedClearThMessage)}
+	 */
+	T prepareMessage(EncodedClearThMessage message) throws Exception;
+	
+	/**
+	 * Handles message prepared by {@link #prepareMessage(EncodedClearThMessage)}. Messages are passed one by one in order of their arrival
+	 * @param message original message
+	 * @param prepared result of message preparation
+	 */
+	void onPreparedMessage(EncodedClearThMessage message, T prepared) throws IOException, IllegalArgumentException;
+}
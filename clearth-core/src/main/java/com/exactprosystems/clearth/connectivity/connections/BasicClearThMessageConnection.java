@@ -336,4 +336,20 @@ public abstract class BasicClearThMessageConnection extends BasicClearThRunnable
 	{
 		return client == null ? 0 : client.getReceived();
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * @return number of received messages that are not passed to listeners yet
+	 */
+	public long getReceivedBacklog()
+	{
+		return client == null ? 0 : client.getReceivedBacklog();
+	}
+	
+	/**
+	 * @return number of messages received from source per second
+	 */
+	public double getReceiveRate()
+	{
+		return client == null ? 0 : client.getReceiveRate();
+	}
+}
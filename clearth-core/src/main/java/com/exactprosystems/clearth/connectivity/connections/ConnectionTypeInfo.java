@@ -32,6 +32,7 @@ public class ConnectionTypeInfo
 	private final Class<? extends ClearThConnection> connectionClass;
 	private final Class<? extends ClearThConnectionSettings> settingsClass;
 	private final Path directory;
+	private final int decodeThreads;
 
 	private final Set<ClearThConnectionValidationRule> rules;
 
@@ -47,12 +48,22 @@ public class ConnectionTypeInfo
 	                          Class<? extends ClearThConnection> connectionClass,
 	                          Path directory,
 	                          Set<ClearThConnectionValidationRule> rules)
+	{
+		this(name, connectionClass, directory, rules, 0);
+	}
+
+	public ConnectionTypeInfo(String name,
+	                          Class<? extends ClearThConnection> connectionClass,
+	                          Path directory,
+	                          Set<ClearThConnectionValidationRule> rules,
+	                          int decodeThreads)
 	{
 		this.name = name;
 		this.connectionClass = connectionClass;
 		this.settingsClass = fetchSettingsClass(this.connectionClass);
 		this.directory = directory;
 		this.rules =  rules != null ? Collections.unmodifiableSet(new HashSet<>(rules)) : Collections.emptySet();
+		this.decodeThreads = Math.max(decodeThreads, 0);
 	}
 
 	private Class<? extends ClearThConnectionSettings> fetchSettingsClass(
@@ -96,4 +107,12 @@ public class ConnectionTypeInfo
 	{
 		return rules;
 	}
+
+	/**
+	 * @return number of threads to decode received messages in parallel. 0 means parallel decoding is off
+	 */
+	public int getDecodeThreads()
+	{
+		return decodeThreads;
+	}
 }
\ No newline at end of file
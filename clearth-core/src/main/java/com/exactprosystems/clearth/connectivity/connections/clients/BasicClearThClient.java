@@ -21,6 +21,7 @@ package com.exactprosystems.clearth.connectivity.connections.clients;
 import com.exactprosystems.clearth.connectivity.*;
 import com.exactprosystems.clearth.connectivity.connections.ClearThConnectionSettings;
 import com.exactprosystems.clearth.connectivity.connections.ClearThMessageConnection;
+import com.exactprosystems.clearth.connectivity.connections.ConnectionTypeInfo;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessageDirection;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessageMetadata;
 import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
@@ -180,8 +181,23 @@ public abstract class BasicClearThClient implements ClearThClient
 
 	protected MessageProcessorThread createReceivedProcessorThread()
 	{
+		int decodeThreads = getDecodeThreads();
+		if (decodeThreads > 0)
+		{
+			logger.debug("{}: received messages will be decoded by {} thread(s)", name, decodeThreads);
+			return new ParallelMessageProcessorThread(name+" (Received processor thread)", receivedMessageQueue, messageHandler, receiveListeners, decodeThreads);
+		}
 		return new MessageProcessorThread(name+" (Received processor thread)", receivedMessageQueue, messageHandler, receiveListeners);
 	}
+	
+	/**
+	 * @return number of threads to decode received messages in parallel, 0 to decode them in received processor thread
+	 */
+	protected int getDecodeThreads()
+	{
+		ConnectionTypeInfo typeInfo = owner.getTypeInfo();
+		return typeInfo != null ? typeInfo.getDecodeThreads() : 0;
+	}
 
 	protected MessageProcessorThread createSentProcessorThread()
 	{
@@ -411,6 +427,24 @@ public abstract class BasicClearThClient implements ClearThClient
 	{
 		return receivedProcessorThread != null ? receivedProcessorThread.getProcessed() : 0;
 	}
+	
+	@Override
+	public long getReceivedBacklog()
+	{
+		return receivedProcessorThread != null ? receivedProcessorThread.getBacklog() : receivedMessageQueue.size();
+	}
+	
+	@Override
+	public double getReceiveRate()
+	{
+		MessageReceiverThread thread = receiverThread;
+		return thread != null ? thread.getReceiveMetrics().getRate() : 0;
+	}
+	
+	public MessageProcessorThread getReceivedProcessorThread()
+	{
+		return receivedProcessorThread;
+	}
 
 	protected BlockingQueue<EncodedClearThMessage> createMessageQueue()
 	{
@@ -0,0 +1,36 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.connections.clients;
+
+import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
+
+/**
+ * Receiver that can read messages one by one without waiting between them. 
+ * {@link MessageReceiverThread} implementing this interface can work in drain mode
+ */
+public interface DrainableReceiver
+{
+	/**
+	 * Reads one message from source
+	 * @param wait true to wait for message for some time if source is empty, false to return immediately
+	 * @return received message or null if source has no messages
+	 * @throws Exception if error occurred while reading message
+	 */
+	EncodedClearThMessage receiveMessage(boolean wait) throws Exception;
+}
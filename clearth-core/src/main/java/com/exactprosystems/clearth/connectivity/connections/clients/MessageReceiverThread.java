@@ -24,6 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -33,17 +35,31 @@ public abstract class MessageReceiverThread extends Thread
 	protected final ClearThMessageConnection owner;
 	protected final BlockingQueue<EncodedClearThMessage> receivedMessageQueue;
 	protected final long readDelay;
+	protected final int drainBatchSize;
+	protected final ReceiveMetrics receiveMetrics = new ReceiveMetrics();
 	protected volatile LocalDateTime startTime, endTime;
 	protected AtomicBoolean terminated = new AtomicBoolean(false);
 
 	public MessageReceiverThread(String name, ClearThMessageConnection owner,
 	                             BlockingQueue<EncodedClearThMessage> receivedMessageQueue, long readDelay)
+	{
+		this(name, owner, receivedMessageQueue, readDelay, 0);
+	}
+	
+	/**
+	 * @param drainBatchSize max number of messages to read from source before passing them to queue of received messages. 
+	 * Values greater than 0 turn on drain mode if the thread implements {@link DrainableReceiver}: 
+	 * messages are read till source is empty or batch is full and read delay is applied only when source has no messages
+	 */
+	public MessageReceiverThread(String name, ClearThMessageConnection owner,
+	                             BlockingQueue<EncodedClearThMessage> receivedMessageQueue, long readDelay, int drainBatchSize)
 	{
 		super(name);
 
 		this.owner = owner;
 		this.receivedMessageQueue = receivedMessageQueue;
 		this.readDelay = readDelay;
+		this.drainBatchSize = drainBatchSize;
 	}
 
 	@Override
@@ -52,16 +68,28 @@ public abstract class MessageReceiverThread extends Thread
 		terminated.set(false);
 		startTime = LocalDateTime.now();
 		beforeRun();
+		boolean drain = isDrainMode();
+		if (drain)
+			logger.debug("Receiver thread '{}' works in drain mode with batches of up to {} messages", getName(), drainBatchSize);
 		try
 		{
 			while (!terminated.get())
 			{
 				try
 				{
-					getAndHandleMessage();
-					
-					if (!terminated.get())
-						sleep(readDelay);
+					if (drain)
+					{
+						//Backing off only if source is idle, else reading next batch right away
+						if (drainMessages() == 0 && !terminated.get())
+							sleep(readDelay);
+					}
+					else
+					{
+						getAndHandleMessage();
+						
+						if (!terminated.get())
+							sleep(readDelay);
+					}
 				}
 				catch (Exception e)
 				{
@@ -73,6 +101,7 @@ public abstract class MessageReceiverThread extends Thread
 		{
 			endTime = LocalDateTime.now();
 			afterRun();
+			logger.debug("Receiver thread '{}' stopped, {}", getName(), receiveMetrics);
 		}
 	}
 	
@@ -85,8 +114,65 @@ public abstract class MessageReceiverThread extends Thread
 	{
 		return endTime;
 	}
+	
+	public ReceiveMetrics getReceiveMetrics()
+	{
+		return receiveMetrics;
+	}
+	
+	public int getDrainBatchSize()
+	{
+		return drainBatchSize;
+	}
+	
+	public boolean isDrainMode()
+	{
+		return drainBatchSize > 0 && this instanceof DrainableReceiver;
+	}
 
 	protected abstract void getAndHandleMessage() throws Exception;
+	
+	/**
+	 * Reads messages from source till it is empty or drain batch size is reached, then passes them to queue of received messages
+	 * @return number of received messages
+	 * @throws Exception if error occurred while reading messages
+	 */
+	protected int drainMessages() throws Exception
+	{
+		DrainableReceiver receiver = (DrainableReceiver) this;
+		List<EncodedClearThMessage> batch = new ArrayList<>();
+		try
+		{
+			EncodedClearThMessage message = receiver.receiveMessage(true);
+			while (message != null)
+			{
+				batch.add(message);
+				if (batch.size() >= drainBatchSize || terminated.get())
+					break;
+				message = receiver.receiveMessage(false);
+			}
+		}
+		finally
+		{
+			//Messages read before error are passed to queue too, they are already taken from source
+			int added = 0;
+			for (EncodedClearThMessage m : batch)
+			{
+				if (receivedMessageQueue.offer(m))
+					added++;
+				else
+					logger.warn("It is not possible to add message to queue due to capacity restrictions");
+			}
+			receiveMetrics.messagesReceived(added);
+		}
+		return batch.size();
+	}
+	
+	protected void addReceivedMessage(EncodedClearThMessage message)
+	{
+		receivedMessageQueue.add(message);
+		receiveMetrics.messagesReceived(1);
+	}
 
 	protected void handleException(Exception e)
 	{
@@ -0,0 +1,126 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.connections.clients;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of messages received by {@link MessageReceiverThread}. 
+ * Counters are updated by receiver thread only and can be read from any thread
+ */
+public class ReceiveMetrics
+{
+	public static final long DEFAULT_RATE_INTERVAL = 1000;
+	
+	private final long rateIntervalNanos;
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong received = new AtomicLong(),
+			batches = new AtomicLong();
+	
+	private long rateSince = startNanos,
+			rateSinceReceived = 0;
+	private double rate = 0;
+	
+	public ReceiveMetrics()
+	{
+		this(DEFAULT_RATE_INTERVAL);
+	}
+	
+	/**
+	 * @param rateInterval minimal interval in milliseconds to calculate current receive rate for
+	 */
+	public ReceiveMetrics(long rateInterval)
+	{
+		this.rateIntervalNanos = TimeUnit.MILLISECONDS.toNanos(rateInterval);
+	}
+	
+	
+	/**
+	 * Registers messages received by one read from source
+	 * @param count number of received messages
+	 */
+	public void messagesReceived(int count)
+	{
+		if (count <= 0)
+			return;
+		
+		received.addAndGet(count);
+		batches.incrementAndGet();
+	}
+	
+	
+	public long getReceived()
+	{
+		return received.get();
+	}
+	
+	/**
+	 * @return number of reads from source that brought at least one message
+	 */
+	public long getBatches()
+	{
+		return batches.get();
+	}
+	
+	public double getAverageBatchSize()
+	{
+		long b = batches.get();
+		return b > 0 ? (double) received.get() / b : 0;
+	}
+	
+	/**
+	 * @return average number of messages received per second since receiver start
+	 */
+	public double getAverageRate()
+	{
+		return perSecond(received.get(), System.nanoTime() - startNanos);
+	}
+	
+	/**
+	 * Returns number of messages received per second since previous rate calculation. 
+	 * Rate is re-calculated if more than rate interval passed after previous calculation, else previous value is returned
+	 * @return current receive rate
+	 */
+	public synchronized double getRate()
+	{
+		long now = System.nanoTime(),
+				elapsed = now - rateSince;
+		if (elapsed >= rateIntervalNanos)
+		{
+			long currentReceived = received.get();
+			rate = perSecond(currentReceived - rateSinceReceived, elapsed);
+			rateSince = now;
+			rateSinceReceived = currentReceived;
+		}
+		return rate;
+	}
+	
+	
+	private double perSecond(long count, long nanos)
+	{
+		return nanos > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / nanos : 0;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.format("received=%d, batches=%d, rate=%.1f msg/s", getReceived(), getBatches(), getRate());
+	}
+}
@@ -26,6 +26,7 @@ import com.exactprosystems.clearth.connectivity.ConnectivityException;
 import com.exactprosystems.clearth.connectivity.FavoriteConnectionManager;
 import com.exactprosystems.clearth.connectivity.connections.*;
 import com.exactprosystems.clearth.connectivity.connections.settings.Processor;
+import com.exactprosystems.clearth.connectivity.db.DbConnection;
 import com.exactprosystems.clearth.connectivity.connections.settings.SettingsModel;
 import com.exactprosystems.clearth.connectivity.validation.ConnectionStartValidator;
 import com.exactprosystems.clearth.connectivity.validation.DefaultConnectionStartValidator;
@@ -514,6 +515,7 @@ public class DefaultClearThConnectionStorage implements ClearThConnectionStorage
 			}
 			
 			removeLink(connection);
+			releaseResources(connection);
 			
 			FavoriteConnectionManager fcManager = ClearThCore.getInstance().getFavoriteConnections();
 			fcManager.changeName(connectionName, null);
@@ -526,6 +528,12 @@ public class DefaultClearThConnectionStorage implements ClearThConnectionStorage
 		connectionFileOperator.delete(connectionName, info);
 	}
 
+	protected void releaseResources(ClearThConnection connection)
+	{
+		if (connection instanceof DbConnection)
+			((DbConnection) connection).closePool();
+	}
+
 	protected void checkConnectionType(String connectionName, ConnectionTypeInfo info) throws ConnectivityException
 	{
 		if (info == null)
@@ -575,6 +583,7 @@ public class DefaultClearThConnectionStorage implements ClearThConnectionStorage
 		try
 		{
 			stopAllConnections();
+			connections.forEach(this::releaseResources);
 
 			connections.clear();
 			connectionsByName.clear();
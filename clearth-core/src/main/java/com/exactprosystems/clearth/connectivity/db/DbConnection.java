@@ -21,9 +21,11 @@ package com.exactprosystems.clearth.connectivity.db;
 import com.exactprosystems.clearth.connectivity.ConnectionException;
 import com.exactprosystems.clearth.connectivity.ConnectivityException;
 import com.exactprosystems.clearth.connectivity.connections.BasicClearThConnection;
+import com.exactprosystems.clearth.connectivity.connections.ClearThConnection;
 import com.exactprosystems.clearth.connectivity.connections.ClearThCheckableConnection;
 import com.exactprosystems.clearth.connectivity.connections.SettingsClass;
 import com.exactprosystems.clearth.utils.SettingsException;
+import com.exactprosystems.clearth.utils.Utils;
 import org.apache.commons.lang.StringUtils;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -38,6 +40,8 @@ public class DbConnection extends BasicClearThConnection implements ClearThCheck
 {
 	private static final String EXCEPTION_MESSAGE = "Could not start connection ";
 
+	private DbConnectionPool pool;
+
 	public DbConnection () {}
 
 	@Override
@@ -46,11 +50,62 @@ public class DbConnection extends BasicClearThConnection implements ClearThCheck
 		return (DbConnectionSettings) settings;
 	}
 
+	@Override
+	public void copyFrom(ClearThConnection other)
+	{
+		super.copyFrom(other);
+		closePool();  //Pool will be created again with new settings
+	}
+
+	/**
+	 * @return connection to database. If pooling is enabled in settings, connection is taken from the pool and closing it returns it back
+	 */
 	public Connection getConnection() throws ConnectivityException, SettingsException
 	{
-		if (StringUtils.isBlank(getSettings().getJdbcUrl()))
-			throw new SettingsException(EXCEPTION_MESSAGE + "'" + name + "'" + ". URL is empty");
+		checkSettings();
+
+		if (getSettings().isPoolEnabled())
+			return obtainPool().getConnection();
+		return createConnection();
+	}
+
+	@Override
+	public void check() throws SettingsException, ConnectivityException
+	{
+		checkSettings();
+
+		try (Connection conn = createConnection())
+		{}
+		catch (SQLException e)
+		{
+			throw new ConnectionException("Could not close connection '" + name + "'", e);
+		}
+	}
+
+	/**
+	 * @return pool of connections or null if it is not created yet
+	 */
+	public synchronized DbConnectionPool getPool()
+	{
+		return pool;
+	}
+
+	public synchronized void closePool()
+	{
+		if (pool == null)
+			return;
 
+		pool.close();
+		pool = null;
+	}
+
+	protected DbConnectionPool createPool()
+	{
+		return new DbConnectionPool(name, new DbConnectionSettings(getSettings()), this::createConnection);
+	}
+
+	protected Connection createConnection() throws ConnectivityException
+	{
 		Connection connection = getConnectionFromDriverManager();
 
 		String query = getSettings().getInitializationQuery();
@@ -63,23 +118,13 @@ public class DbConnection extends BasicClearThConnection implements ClearThCheck
 			}
 			catch (Exception e)
 			{
+				Utils.closeResource(connection);
 				throw new ConnectionException("Error occurred while executing initialization query", e);
 			}
 		}
 		return connection;
 	}
 
-	@Override
-	public void check() throws SettingsException, ConnectivityException
-	{
-		try (Connection conn = getConnection())
-		{}
-		catch (SQLException e)
-		{
-			throw new ConnectionException("Could not close connection '" + name + "'", e);
-		}
-	}
-
 	protected Connection getConnectionFromDriverManager() throws ConnectionException
 	{
 		DbConnectionSettings conSettings = getSettings();
@@ -99,4 +144,29 @@ public class DbConnection extends BasicClearThConnection implements ClearThCheck
 			throw new ConnectionException(EXCEPTION_MESSAGE + "'" + name + "'", e);
 		}
 	}
+
+	private void checkSettings() throws SettingsException
+	{
+		if (StringUtils.isBlank(getSettings().getJdbcUrl()))
+			throw new SettingsException(EXCEPTION_MESSAGE + "'" + name + "'" + ". URL is empty");
+	}
+
+	private synchronized DbConnectionPool obtainPool() throws ConnectivityException
+	{
+		if (pool == null)
+		{
+			DbConnectionPool newPool = createPool();
+			try
+			{
+				newPool.fill();
+			}
+			catch (ConnectivityException e)
+			{
+				newPool.close();
+				throw e;
+			}
+			pool = newPool;
+		}
+		return pool;
+	}
 }
\ No newline at end of file
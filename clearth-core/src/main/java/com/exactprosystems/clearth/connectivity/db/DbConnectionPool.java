@@ -0,0 +1,435 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.db;
+
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactprosystems.clearth.connectivity.ConnectionException;
+import com.exactprosystems.clearth.connectivity.ConnectivityException;
+import com.exactprosystems.clearth.utils.javaFunction.SupplierWithException;
+
+/**
+ * Pool of JDBC connections of one {@link DbConnection}. 
+ * Closing connection obtained from the pool returns it to the pool, statements left open by the user are closed at that moment. 
+ * Idle connections are evicted after idle timeout, keeping at least minimum number of connections. 
+ * Connections held longer than leak detection threshold are reported to log together with stack trace of code that has borrowed them. 
+ * Eviction and leak detection are done by pool timer as well as when connection is borrowed.
+ */
+public class DbConnectionPool implements AutoCloseable
+{
+	private static final Logger logger = LoggerFactory.getLogger(DbConnectionPool.class);
+	private static final long MIN_HOUSEKEEPING_PERIOD = 10;
+	
+	private final String name;
+	private final int maxSize,
+			minSize,
+			statementCacheSize;
+	private final long idleTimeout,
+			waitTimeout,
+			leakDetectionThreshold;
+	private final String validationQuery;
+	private final SupplierWithException<Connection, ConnectivityException> connectionFactory;
+	private final ScheduledExecutorService housekeeper;
+	
+	//Most recently used connections are at the head
+	private final Deque<PooledConnection> idle = new ArrayDeque<>();
+	private final Set<PooledConnection> active = new HashSet<>();
+	private int pending = 0;
+	private boolean closed = false;
+	
+	private final AtomicLong connectionsCreated = new AtomicLong(),
+			statementCacheHits = new AtomicLong(),
+			statementCacheMisses = new AtomicLong(),
+			leaksDetected = new AtomicLong();
+	
+	public DbConnectionPool(String name, DbConnectionSettings settings, SupplierWithException<Connection, ConnectivityException> connectionFactory)
+	{
+		this.name = name;
+		this.maxSize = Math.max(settings.getPoolMaxSize(), 1);
+		this.minSize = Math.min(Math.max(settings.getPoolMinSize(), 0), maxSize);
+		this.statementCacheSize = Math.max(settings.getStatementCacheSize(), 0);
+		this.idleTimeout = settings.getPoolIdleTimeout();
+		this.waitTimeout = Math.max(settings.getPoolWaitTimeout(), 0);
+		this.leakDetectionThreshold = settings.getLeakDetectionThreshold();
+		this.validationQuery = settings.getValidationQuery();
+		this.connectionFactory = connectionFactory;
+		this.housekeeper = startHousekeeper();
+	}
+	
+	
+	/**
+	 * Opens connections to have minimum number of them in the pool
+	 * @throws ConnectivityException if connection could not be opened
+	 */
+	public void fill() throws ConnectivityException
+	{
+		while (true)
+		{
+			synchronized (this)
+			{
+				if (closed || idle.size() + active.size() + pending >= minSize)
+					return;
+				pending++;
+			}
+			
+			PooledConnection connection = null;
+			try
+			{
+				connection = createConnection();
+			}
+			finally
+			{
+				synchronized (this)
+				{
+					pending--;
+					if (connection != null)
+					{
+						if (closed)
+							connection.destroy();
+						else
+							idle.addLast(connection);
+					}
+					notifyAll();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Borrows connection from the pool, opening new one if there are no idle connections and pool is not full. 
+	 * If pool is full, waits for connection to be returned
+	 * @return connection to use. It must be closed to return it to the pool
+	 * @throws ConnectivityException if connection could not be opened or pool has no free connections during wait timeout
+	 */
+	public Connection getConnection() throws ConnectivityException
+	{
+		long deadline = System.currentTimeMillis() + waitTimeout;
+		while (true)
+		{
+			PooledConnection connection;
+			List<PooledConnection> evicted;
+			synchronized (this)
+			{
+				checkOpen();
+				evicted = evictIdle();
+				detectLeaks();
+				
+				connection = idle.pollFirst();
+				if (connection != null)
+					active.add(connection);
+				else if (idle.size() + active.size() + pending < maxSize)
+					pending++;
+				else  //Nothing is evicted here: eviction leaves free space in the pool
+				{
+					waitForConnection(deadline);
+					continue;
+				}
+			}
+			
+			destroy(evicted);
+			if (connection == null)
+				return lend(createActiveConnection());
+			
+			if (connection.validate(validationQuery))
+				return lend(connection);
+			discard(connection);
+		}
+	}
+	
+	/**
+	 * Closes idle connections. Connections in use are closed when returned to the pool
+	 */
+	@Override
+	public void close()
+	{
+		Set<PooledConnection> toClose;
+		synchronized (this)
+		{
+			if (closed)
+				return;
+			closed = true;
+			toClose = new HashSet<>(idle);
+			idle.clear();
+			notifyAll();
+		}
+		
+		if (housekeeper != null)
+			housekeeper.shutdownNow();
+		destroy(toClose);
+		logger.debug("Pool of connection '{}' is closed", name);
+	}
+	
+	
+	public synchronized boolean isClosed()
+	{
+		return closed;
+	}
+	
+	public synchronized int getIdleCount()
+	{
+		return idle.size();
+	}
+	
+	public synchronized int getActiveCount()
+	{
+		return active.size();
+	}
+	
+	public long getConnectionsCreated()
+	{
+		return connectionsCreated.get();
+	}
+	
+	public long getStatementCacheHits()
+	{
+		return statementCacheHits.get();
+	}
+	
+	public long getStatementCacheMisses()
+	{
+		return statementCacheMisses.get();
+	}
+	
+	public long getLeaksDetected()
+	{
+		return leaksDetected.get();
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "[name = " + name +
+				"; idle = " + getIdleCount() +
+				"; active = " + getActiveCount() +
+				"; created = " + getConnectionsCreated() +
+				"; statement cache hits = " + getStatementCacheHits() +
+				"; statement cache misses = " + getStatementCacheMisses() +
+				"; leaks detected = " + getLeaksDetected() + "]";
+	}
+	
+	
+	void release(PooledConnection connection)
+	{
+		boolean reusable = connection.reset();
+		synchronized (this)
+		{
+			active.remove(connection);
+			if (reusable && !closed)
+			{
+				connection.touch();
+				idle.addFirst(connection);
+				notifyAll();
+				return;
+			}
+			notifyAll();
+		}
+		connection.destroy();
+	}
+	
+	void statementCacheHit()
+	{
+		statementCacheHits.incrementAndGet();
+	}
+	
+	void statementCacheMiss()
+	{
+		statementCacheMisses.incrementAndGet();
+	}
+	
+	
+	private ScheduledExecutorService startHousekeeper()
+	{
+		if (idleTimeout <= 0 && leakDetectionThreshold <= 0)
+			return null;
+		
+		long period = Long.MAX_VALUE;
+		if (idleTimeout > 0)
+			period = idleTimeout;
+		if (leakDetectionThreshold > 0)
+			period = Math.min(period, leakDetectionThreshold);
+		period = Math.max(period / 2, MIN_HOUSEKEEPING_PERIOD);
+		
+		ScheduledExecutorService result = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, name + " (poolHousekeeper)");
+			t.setDaemon(true);
+			return t;
+		});
+		result.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+		return result;
+	}
+	
+	private void housekeep()
+	{
+		try
+		{
+			List<PooledConnection> evicted;
+			synchronized (this)
+			{
+				if (closed)
+					return;
+				evicted = evictIdle();
+				detectLeaks();
+			}
+			destroy(evicted);
+		}
+		catch (Exception e)
+		{
+			logger.error("Error while maintaining pool of '{}'", name, e);
+		}
+	}
+	
+	private PooledConnection createConnection() throws ConnectivityException
+	{
+		Connection physical = connectionFactory.get();
+		connectionsCreated.incrementAndGet();
+		logger.trace("New connection opened for pool of '{}'", name);
+		return new PooledConnection(this, physical, statementCacheSize);
+	}
+	
+	private PooledConnection createActiveConnection() throws ConnectivityException
+	{
+		PooledConnection connection = null;
+		try
+		{
+			connection = createConnection();
+			return connection;
+		}
+		finally
+		{
+			synchronized (this)
+			{
+				pending--;
+				if (connection != null)
+					active.add(connection);
+				else
+					notifyAll();
+			}
+		}
+	}
+	
+	private synchronized Connection lend(PooledConnection connection)
+	{
+		return connection.lend(leakDetectionThreshold > 0);
+	}
+	
+	private void discard(PooledConnection connection)
+	{
+		synchronized (this)
+		{
+			active.remove(connection);
+			notifyAll();
+		}
+		connection.destroy();
+	}
+	
+	private void checkOpen() throws ConnectivityException
+	{
+		if (closed)
+			throw new ConnectionException("Pool of connection '" + name + "' is closed");
+	}
+	
+	private void waitForConnection(long deadline) throws ConnectivityException
+	{
+		long timeout = deadline - System.currentTimeMillis();
+		if (timeout <= 0)
+			throw new ConnectionException("No free connection in pool of '" + name + "' during " + waitTimeout + " ms. " +
+					"All " + maxSize + " connections are in use");
+		
+		try
+		{
+			wait(timeout);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ConnectionException("Wait for free connection in pool of '" + name + "' interrupted", e);
+		}
+	}
+	
+	/**
+	 * Removes connections idle for too long from the pool. Must be called under pool lock
+	 * @return removed connections. They should be destroyed outside of the lock
+	 */
+	private List<PooledConnection> evictIdle()
+	{
+		if (idleTimeout <= 0)
+			return null;
+		
+		List<PooledConnection> result = null;
+		long threshold = System.currentTimeMillis() - idleTimeout;
+		int total = idle.size() + active.size() + pending;
+		Iterator<PooledConnection> it = idle.descendingIterator();  //Least recently used connections first
+		while (it.hasNext() && total > minSize)
+		{
+			PooledConnection c = it.next();
+			if (c.getLastUsed() > threshold)
+				break;
+			
+			it.remove();
+			total--;
+			if (result == null)
+				result = new ArrayList<>();
+			result.add(c);
+		}
+		return result;
+	}
+	
+	private void destroy(Iterable<PooledConnection> connections)
+	{
+		if (connections == null)
+			return;
+		
+		for (PooledConnection c : connections)
+		{
+			c.destroy();
+			logger.trace("Connection removed from pool of '{}' is closed", name);
+		}
+	}
+	
+	private void detectLeaks()
+	{
+		if (leakDetectionThreshold <= 0)
+			return;
+		
+		long threshold = System.currentTimeMillis() - leakDetectionThreshold;
+		for (PooledConnection c : active)
+		{
+			if (c.isLeakReported() || c.getBorrowTrace() == null || c.getBorrowedAt() > threshold)
+				continue;
+			
+			c.setLeakReported(true);
+			leaksDetected.incrementAndGet();
+			logger.warn("Connection from pool of '{}' is in use for more than {} ms, it may be leaked", name, leakDetectionThreshold, c.getBorrowTrace());
+		}
+	}
+}
@@ -34,7 +34,8 @@ import static java.lang.String.format;
 
 @XmlRootElement
 @XmlAccessorType(XmlAccessType.NONE)
-@ConnectionSettings(order = {"jdbcUrl", "username", "password", "initializationQuery"},
+@ConnectionSettings(order = {"jdbcUrl", "username", "password", "initializationQuery", 
+		"poolMaxSize", "poolMinSize", "poolIdleTimeout", "poolWaitTimeout", "validationQuery", "leakDetectionThreshold", "statementCacheSize"},
 		columns = {"jdbcUrl", "username"})
 public class DbConnectionSettings implements ClearThConnectionSettings
 {
@@ -54,12 +55,48 @@ public class DbConnectionSettings implements ClearThConnectionSettings
 	@ConnectionSetting(name = "Initialization query", inputType = InputType.TEXTAREA)
 	private String initializationQuery;
 
+	//Pooling is turned off if max size is 0
+	@XmlElement
+	@ConnectionSetting(name = "Pool max size")
+	private int poolMaxSize;
+
+	@XmlElement
+	@ConnectionSetting(name = "Pool min size")
+	private int poolMinSize;
+
+	@XmlElement
+	@ConnectionSetting(name = "Pool idle timeout, ms")
+	private long poolIdleTimeout;
+
+	@XmlElement
+	@ConnectionSetting(name = "Pool wait timeout, ms")
+	private long poolWaitTimeout;
+
+	@XmlElement
+	@ConnectionSetting(name = "Validation query", inputType = InputType.TEXTAREA)
+	private String validationQuery;
+
+	@XmlElement
+	@ConnectionSetting(name = "Leak detection threshold, ms")
+	private long leakDetectionThreshold;
+
+	@XmlElement
+	@ConnectionSetting(name = "Statement cache size")
+	private int statementCacheSize;
+
 	public DbConnectionSettings()
 	{
 		jdbcUrl = "";
 		username = "";
 		password = "";
 		initializationQuery = "";
+		poolMaxSize = 0;
+		poolMinSize = 0;
+		poolIdleTimeout = 600000;
+		poolWaitTimeout = 30000;
+		validationQuery = "";
+		leakDetectionThreshold = 0;
+		statementCacheSize = 0;
 	}
 
 	public DbConnectionSettings(DbConnectionSettings settings)
@@ -106,6 +143,81 @@ public class DbConnectionSettings implements ClearThConnectionSettings
 	{
 		this.initializationQuery = initializationQuery;
 	}
+
+	public int getPoolMaxSize()
+	{
+		return poolMaxSize;
+	}
+
+	public void setPoolMaxSize(int poolMaxSize)
+	{
+		this.poolMaxSize = poolMaxSize;
+	}
+
+	public int getPoolMinSize()
+	{
+		return poolMinSize;
+	}
+
+	public void setPoolMinSize(int poolMinSize)
+	{
+		this.poolMinSize = poolMinSize;
+	}
+
+	public long getPoolIdleTimeout()
+	{
+		return poolIdleTimeout;
+	}
+
+	public void setPoolIdleTimeout(long poolIdleTimeout)
+	{
+		this.poolIdleTimeout = poolIdleTimeout;
+	}
+
+	public long getPoolWaitTimeout()
+	{
+		return poolWaitTimeout;
+	}
+
+	public void setPoolWaitTimeout(long poolWaitTimeout)
+	{
+		this.poolWaitTimeout = poolWaitTimeout;
+	}
+
+	public String getValidationQuery()
+	{
+		return validationQuery;
+	}
+
+	public void setValidationQuery(String validationQuery)
+	{
+		this.validationQuery = validationQuery;
+	}
+
+	public long getLeakDetectionThreshold()
+	{
+		return leakDetectionThreshold;
+	}
+
+	public void setLeakDetectionThreshold(long leakDetectionThreshold)
+	{
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	public int getStatementCacheSize()
+	{
+		return statementCacheSize;
+	}
+
+	public void setStatementCacheSize(int statementCacheSize)
+	{
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	public boolean isPoolEnabled()
+	{
+		return poolMaxSize > 0;
+	}
 	
 	@Override
 	public String toString()
@@ -115,6 +227,13 @@ public class DbConnectionSettings implements ClearThConnectionSettings
 		lb.append("username = " + username);
 		lb.append("password = " + (StringUtils.isEmpty(password) ? "null" : "*****"));
 		lb.append("initialization query = " + initializationQuery);
+		lb.append("pool max size = " + poolMaxSize);
+		lb.append("pool min size = " + poolMinSize);
+		lb.append("pool idle timeout = " + poolIdleTimeout);
+		lb.append("pool wait timeout = " + poolWaitTimeout);
+		lb.append("validation query = " + validationQuery);
+		lb.append("leak detection threshold = " + leakDetectionThreshold);
+		lb.append("statement cache size = " + statementCacheSize);
 		return lb.toString();
 	}
 
@@ -139,5 +258,12 @@ public class DbConnectionSettings implements ClearThConnectionSettings
 		this.username = settings.username;
 		this.password = settings.password;
 		this.initializationQuery = settings.initializationQuery;
+		this.poolMaxSize = settings.poolMaxSize;
+		this.poolMinSize = settings.poolMinSize;
+		this.poolIdleTimeout = settings.poolIdleTimeout;
+		this.poolWaitTimeout = settings.poolWaitTimeout;
+		this.validationQuery = settings.validationQuery;
+		this.leakDetectionThreshold = settings.leakDetectionThreshold;
+		this.statementCacheSize = settings.statementCacheSize;
 	}
 }
\ No newline at end of file
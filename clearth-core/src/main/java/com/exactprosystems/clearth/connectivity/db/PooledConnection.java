@@ -0,0 +1,553 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Physical JDBC connection owned by {@link DbConnectionPool}. 
+ * Connection is lent to one user at a time as proxy that returns it to the pool on close. 
+ * Prepared statements created by {@link Connection#prepareStatement(String)} are cached by SQL text and closing them just makes them available for reuse. 
+ * Connection and cached statement properties changed by user are restored when they are returned. 
+ * Those that can't be restored make connection or statement to be discarded
+ */
+class PooledConnection
+{
+	private static final Logger logger = LoggerFactory.getLogger(PooledConnection.class);
+	
+	private final DbConnectionPool pool;
+	private final Connection physical;
+	private final int statementCacheSize;
+	//Access order makes iteration start from least recently used statement
+	private final Map<String, CachedStatement> statements;
+	
+	private volatile LentConnection lent;
+	private volatile long borrowedAt;
+	private volatile Throwable borrowTrace;
+	private volatile boolean leakReported;
+	private long lastUsed;
+	
+	PooledConnection(DbConnectionPool pool, Connection physical, int statementCacheSize)
+	{
+		this.pool = pool;
+		this.physical = physical;
+		this.statementCacheSize = statementCacheSize;
+		this.statements = new LinkedHashMap<>(16, 0.75f, true);
+		this.lastUsed = System.currentTimeMillis();
+	}
+	
+	
+	Connection lend(boolean traceBorrow)
+	{
+		borrowedAt = System.currentTimeMillis();
+		borrowTrace = traceBorrow ? new Exception("Connection borrowed") : null;
+		leakReported = false;
+		lent = new LentConnection();
+		return (Connection) Proxy.newProxyInstance(PooledConnection.class.getClassLoader(), new Class<?>[]{Connection.class}, lent);
+	}
+	
+	/**
+	 * Closes statements left open by user, rolls back uncommitted changes and restores connection properties changed by user
+	 * @return true if connection can be lent again
+	 */
+	boolean reset()
+	{
+		LentConnection current = lent;
+		lent = null;
+		borrowTrace = null;
+		if (current != null)
+			current.closeStatements();
+		
+		try
+		{
+			if (physical.isClosed())
+				return false;
+			
+			if (!physical.getAutoCommit())
+			{
+				physical.rollback();
+				physical.setAutoCommit(true);
+			}
+			
+			if (current != null && !current.changedState.restore(physical))
+			{
+				logger.trace("Connection properties changed by user can't be restored, connection will be discarded");
+				return false;
+			}
+			return true;
+		}
+		catch (SQLException e)
+		{
+			logger.warn("Could not reset connection, it will be discarded", e);
+			return false;
+		}
+	}
+	
+	boolean validate(String validationQuery)
+	{
+		try
+		{
+			if (physical.isClosed())
+				return false;
+			if (StringUtils.isBlank(validationQuery))
+				return true;
+			
+			try (Statement statement = physical.createStatement())
+			{
+				statement.execute(validationQuery);
+			}
+			return true;
+		}
+		catch (SQLException e)
+		{
+			logger.warn("Validation of pooled connection failed, it will be discarded", e);
+			return false;
+		}
+	}
+	
+	void destroy()
+	{
+		synchronized (statements)
+		{
+			for (CachedStatement s : statements.values())
+				closeQuietly(s.statement);
+			statements.clear();
+		}
+		
+		try
+		{
+			physical.close();
+		}
+		catch (SQLException e)
+		{
+			logger.warn("Error while closing pooled connection", e);
+		}
+	}
+	
+	
+	void touch()
+	{
+		lastUsed = System.currentTimeMillis();
+	}
+	
+	long getLastUsed()
+	{
+		return lastUsed;
+	}
+	
+	long getBorrowedAt()
+	{
+		return borrowedAt;
+	}
+	
+	Throwable getBorrowTrace()
+	{
+		return borrowTrace;
+	}
+	
+	boolean isLeakReported()
+	{
+		return leakReported;
+	}
+	
+	void setLeakReported(boolean leakReported)
+	{
+		this.leakReported = leakReported;
+	}
+	
+	int getCachedStatementsCount()
+	{
+		synchronized (statements)
+		{
+			return statements.size();
+		}
+	}
+	
+	
+	private PreparedStatement prepareCached(String sql, Connection owner) throws SQLException
+	{
+		CachedStatement cached;
+		synchronized (statements)
+		{
+			cached = statements.get(sql);
+			if (cached != null && !cached.inUse)
+			{
+				if (!cached.statement.isClosed())
+				{
+					cached.inUse = true;
+					pool.statementCacheHit();
+					return wrapStatement(cached.statement, cached, owner, PreparedStatement.class);
+				}
+				statements.remove(sql);
+			}
+		}
+		
+		pool.statementCacheMiss();
+		PreparedStatement statement = physical.prepareStatement(sql);
+		if (cached != null && cached.inUse)  //Same query is already being executed by this connection, this statement won't be cached
+			return wrapStatement(statement, null, owner, PreparedStatement.class);
+		
+		cached = new CachedStatement(statement);
+		cached.inUse = true;
+		synchronized (statements)
+		{
+			statements.put(sql, cached);
+			evictStatements();
+		}
+		return wrapStatement(statement, cached, owner, PreparedStatement.class);
+	}
+	
+	private void evictStatements()
+	{
+		Iterator<CachedStatement> it = statements.values().iterator();
+		while (statements.size() > statementCacheSize && it.hasNext())
+		{
+			CachedStatement s = it.next();
+			it.remove();
+			s.evicted = true;
+			if (!s.inUse)
+				closeQuietly(s.statement);
+		}
+	}
+	
+	private <S extends Statement> S wrapStatement(Statement statement, CachedStatement cached, Connection owner, Class<S> type)
+	{
+		LentStatement handler = new LentStatement(statement, cached, owner);
+		LentConnection current = lent;
+		if (current != null)
+			current.addStatement(handler);
+		return type.cast(Proxy.newProxyInstance(PooledConnection.class.getClassLoader(), new Class<?>[]{type}, handler));
+	}
+	
+	private void releaseCached(CachedStatement cached)
+	{
+		synchronized (statements)
+		{
+			cached.inUse = false;
+			boolean reusable;
+			try
+			{
+				cached.statement.clearParameters();
+				reusable = cached.changedState.restore(cached.statement);
+			}
+			catch (SQLException e)
+			{
+				reusable = false;
+			}
+			
+			if (!reusable)
+			{
+				cached.evicted = true;
+				statements.values().remove(cached);
+			}
+			
+			if (cached.evicted)
+				closeQuietly(cached.statement);
+		}
+	}
+	
+	
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable
+	{
+		try
+		{
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e)
+		{
+			throw e.getCause();
+		}
+	}
+	
+	private static Object invokeForState(Object target, Method method, Object[] args) throws SQLException
+	{
+		try
+		{
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof SQLException)
+				throw (SQLException) cause;
+			throw new SQLException("Error while calling "+method.getName(), cause);
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new SQLException("Could not call "+method.getName(), e);
+		}
+	}
+	
+	private static void closeQuietly(Statement statement)
+	{
+		try
+		{
+			statement.close();
+		}
+		catch (SQLException e)
+		{
+			logger.debug("Error while closing statement", e);
+		}
+	}
+	
+	
+	private static class CachedStatement
+	{
+		final PreparedStatement statement;
+		final ChangedState changedState = new ChangedState(PreparedStatement.class);
+		boolean inUse = false,
+				evicted = false;
+		
+		CachedStatement(PreparedStatement statement)
+		{
+			this.statement = statement;
+		}
+	}
+	
+	/**
+	 * Initial values of properties changed via setters. 
+	 * Value is read by matching getter before first change to set it back later. 
+	 * Properties without such getter can't be restored
+	 */
+	private static class ChangedState
+	{
+		private final Class<?> type;
+		private final Map<Method, Object> initialValues = new LinkedHashMap<>();
+		private boolean unrestorable = false;
+		
+		ChangedState(Class<?> type)
+		{
+			this.type = type;
+		}
+		
+		synchronized void beforeChange(Object target, Method setter) throws SQLException
+		{
+			if (unrestorable || initialValues.containsKey(setter))
+				return;
+			
+			Method getter = findGetter(setter);
+			if (getter == null)
+				unrestorable = true;
+			else
+				initialValues.put(setter, invokeForState(target, getter, null));
+		}
+		
+		/**
+		 * @return false if some properties can't be restored
+		 */
+		synchronized boolean restore(Object target) throws SQLException
+		{
+			if (unrestorable)
+				return false;
+			
+			try
+			{
+				for (Map.Entry<Method, Object> value : initialValues.entrySet())
+					invokeForState(target, value.getKey(), new Object[]{value.getValue()});
+			}
+			finally
+			{
+				initialValues.clear();
+			}
+			return true;
+		}
+		
+		private Method findGetter(Method setter)
+		{
+			if (setter.getParameterCount() != 1)
+				return null;
+			
+			String property = setter.getName().substring(3);
+			for (String prefix : new String[]{"get", "is"})
+			{
+				try
+				{
+					Method getter = type.getMethod(prefix+property);
+					if (getter.getReturnType() == setter.getParameterTypes()[0])
+						return getter;
+				}
+				catch (NoSuchMethodException e)
+				{
+					//Trying next prefix
+				}
+			}
+			return null;
+		}
+	}
+	
+	
+	private class LentConnection implements InvocationHandler
+	{
+		private final List<LentStatement> openStatements = new ArrayList<>();
+		private final ChangedState changedState = new ChangedState(Connection.class);
+		private volatile boolean closed = false;
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			switch (method.getName())
+			{
+				case "close":
+					close();
+					return null;
+				case "isClosed":
+					return closed;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Pooled connection "+physical;
+			}
+			
+			if (closed)
+				throw new SQLException("Connection is closed");
+			
+			if (statementCacheSize > 0 && "prepareStatement".equals(method.getName()) && args.length == 1)
+				return prepareCached((String)args[0], (Connection)proxy);
+			if (isStateSetter(method))
+				changedState.beforeChange(physical, method);
+			
+			Object result = PooledConnection.invoke(physical, method, args);
+			if (result instanceof Statement)
+				return wrapStatement((Statement)result, null, (Connection)proxy, method.getReturnType().asSubclass(Statement.class));
+			return result;
+		}
+		
+		private void close()
+		{
+			if (closed)
+				return;
+			closed = true;
+			pool.release(PooledConnection.this);
+		}
+		
+		private boolean isStateSetter(Method method)
+		{
+			//Auto-commit mode is restored together with rollback, savepoints belong to transaction
+			String name = method.getName();
+			return name.startsWith("set") && !"setAutoCommit".equals(name) && !"setSavepoint".equals(name);
+		}
+		
+		private void addStatement(LentStatement statement)
+		{
+			synchronized (openStatements)
+			{
+				openStatements.add(statement);
+			}
+		}
+		
+		private void removeStatement(LentStatement statement)
+		{
+			synchronized (openStatements)
+			{
+				openStatements.remove(statement);
+			}
+		}
+		
+		private void closeStatements()
+		{
+			List<LentStatement> toClose;
+			synchronized (openStatements)
+			{
+				toClose = new ArrayList<>(openStatements);
+				openStatements.clear();
+			}
+			
+			for (LentStatement s : toClose)
+				s.close(false);
+		}
+	}
+	
+	private class LentStatement implements InvocationHandler
+	{
+		private final Statement statement;
+		private final CachedStatement cached;
+		private final Connection owner;
+		private final LentConnection lentTo;
+		private volatile boolean closed = false;
+		
+		LentStatement(Statement statement, CachedStatement cached, Connection owner)
+		{
+			this.statement = statement;
+			this.cached = cached;
+			this.owner = owner;
+			this.lentTo = lent;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			switch (method.getName())
+			{
+				case "close":
+					close(true);
+					return null;
+				case "isClosed":
+					return closed || statement.isClosed();
+				case "getConnection":
+					return owner;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return statement.toString();
+			}
+			
+			if (closed)
+				throw new SQLException("Statement is closed");
+			//Statement properties are set by methods with one argument, parameters of prepared statement are set by methods with two or more
+			if (cached != null && method.getName().startsWith("set") && method.getParameterCount() == 1)
+				cached.changedState.beforeChange(statement, method);
+			return PooledConnection.invoke(statement, method, args);
+		}
+		
+		private void close(boolean unregister)
+		{
+			if (closed)
+				return;
+			closed = true;
+			
+			if (unregister && lentTo != null)
+				lentTo.removeStatement(this);
+			
+			if (cached != null)
+				releaseCached(cached);
+			else
+				closeQuietly(statement);
+		}
+	}
+}
@@ -24,6 +24,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import org.apache.commons.lang.ObjectUtils;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static java.util.Collections.emptySet;
 
@@ -40,7 +41,8 @@ public abstract class ClearThMessage<T extends ClearThMessage<T>>
 	private List<T> subMessages = null;
 	private ClearThMessageMetadata metadata = null;
 	
-	private String encodedMessage;
+	private volatile String encodedMessage;
+	private volatile Supplier<String> encodedMessageSource;
 
 	/**
 	 * Add field to message
@@ -108,7 +110,16 @@ public abstract class ClearThMessage<T extends ClearThMessage<T>>
 	 */
 	public String getEncodedMessage()
 	{
-		return encodedMessage;
+		//Reading source first: it is cleared only after encodedMessage is set
+		Supplier<String> source = encodedMessageSource;
+		String result = encodedMessage;
+		if (result == null && source != null)
+		{
+			result = source.get();
+			encodedMessage = result;
+			encodedMessageSource = null;
+		}
+		return result;
 	}
 
 	/**
@@ -118,6 +129,30 @@ public abstract class ClearThMessage<T extends ClearThMessage<T>>
 	public void setEncodedMessage(String encodedMessage)
 	{
 		this.encodedMessage = encodedMessage;
+		this.encodedMessageSource = null;
+	}
+	
+	/**
+	 * Set supplier of the source message to call when the source message is requested for the first time. 
+	 * Used by codecs that decode already parsed messages, so that string representation is created only when needed.
+	 * @param encodedMessageSource supplier of the source message
+	 */
+	@JsonIgnore
+	public void setEncodedMessageSource(Supplier<String> encodedMessageSource)
+	{
+		this.encodedMessage = null;
+		this.encodedMessageSource = encodedMessageSource;
+	}
+	
+	/**
+	 * Get supplier of the source message without calling it.
+	 * @return supplier set by {@link #setEncodedMessageSource(Supplier)} if the source message hasn't been requested yet, null otherwise
+	 */
+	@JsonIgnore
+	public Supplier<String> getEncodedMessageSource()
+	{
+		Supplier<String> source = encodedMessageSource;
+		return encodedMessage == null ? source : null;
 	}
 
 	private void checkExist()
@@ -0,0 +1,267 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.iface;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Compact form of {@link SimpleClearThMessage} to keep many received messages in memory. 
+ * Field names are stored once per {@link MessageSchema}, field values are packed into one byte array, 
+ * encoded message text can be compressed or created only when requested. 
+ * Full message is created only when requested and is cached while something references it, 
+ * so that all callers get the same message object
+ */
+public class CompactClearThMessage
+{
+	private final MessageSchema schema;
+	//Values in order of schema fields. Each value is UTF-8 bytes with length prefix, length 0 stands for null value
+	private final byte[] values;
+	private final CompactClearThMessage[] subMessages;
+	private final byte[] compressedEncodedMessage;
+	private volatile String encodedMessage;
+	private volatile Supplier<String> encodedMessageSource;
+	private final ClearThMessageMetadata metadata;
+	
+	private WeakReference<SimpleClearThMessage> inflated;
+	
+	CompactClearThMessage(MessageSchema schema, byte[] values, CompactClearThMessage[] subMessages,
+			String encodedMessage, byte[] compressedEncodedMessage, Supplier<String> encodedMessageSource,
+			ClearThMessageMetadata metadata)
+	{
+		this.schema = schema;
+		this.values = values;
+		this.subMessages = subMessages;
+		this.encodedMessage = encodedMessage;
+		this.compressedEncodedMessage = compressedEncodedMessage;
+		this.encodedMessageSource = encodedMessageSource;
+		this.metadata = metadata;
+	}
+	
+	
+	public MessageSchema getSchema()
+	{
+		return schema;
+	}
+	
+	/**
+	 * Gets field value without creating full message
+	 * @param name of field to get
+	 * @return field value or null if message doesn't have such field
+	 */
+	public String getField(String name)
+	{
+		int position = schema.getPosition(name);
+		if (position < 0)
+			return null;
+		
+		int offset = 0;
+		for (int i = 0; i < position; i++)
+			offset = skipValue(offset);
+		return readValue(offset);
+	}
+	
+	/**
+	 * @return encoded message text, decompressed or created from its source if needed
+	 */
+	public String getEncodedMessage()
+	{
+		if (compressedEncodedMessage != null)
+			return decompress(compressedEncodedMessage);
+		
+		//Reading source first: it is cleared only after encodedMessage is set
+		Supplier<String> source = encodedMessageSource;
+		String result = encodedMessage;
+		if (result == null && source != null)
+		{
+			result = source.get();
+			encodedMessage = result;
+			encodedMessageSource = null;
+		}
+		return result;
+	}
+	
+	public boolean isEncodedMessageCompressed()
+	{
+		return compressedEncodedMessage != null;
+	}
+	
+	public ClearThMessageMetadata getMetadata()
+	{
+		return metadata;
+	}
+	
+	public int getSubMessagesCount()
+	{
+		return subMessages != null ? subMessages.length : 0;
+	}
+	
+	/**
+	 * @return full message. The same object is returned while it is referenced by anybody, else message is created again
+	 */
+	public synchronized SimpleClearThMessage getMessage()
+	{
+		SimpleClearThMessage result = inflated != null ? inflated.get() : null;
+		if (result == null)
+		{
+			result = inflate(true);
+			inflated = new WeakReference<>(result);
+		}
+		return result;
+	}
+	
+	/**
+	 * @return true if full message has been created and is still referenced by anybody
+	 */
+	public synchronized boolean isInflated()
+	{
+		return inflated != null && inflated.get() != null;
+	}
+	
+	/**
+	 * Checks if given object is the full message created from this compact message. Doesn't create full message
+	 * @param message to check
+	 * @return true if given message has been returned by {@link #getMessage()} and is still referenced
+	 */
+	public synchronized boolean isInflatedTo(ClearThMessage<?> message)
+	{
+		return message != null && inflated != null && inflated.get() == message;
+	}
+	
+	
+	protected SimpleClearThMessage inflate(boolean withEncodedMessage)
+	{
+		SimpleClearThMessage result = new SimpleClearThMessage();
+		int offset = 0;
+		for (int i = 0; i < schema.size(); i++)
+		{
+			result.addField(schema.getFieldName(i), readValue(offset));
+			offset = skipValue(offset);
+		}
+		
+		if (subMessages != null)
+		{
+			for (CompactClearThMessage sub : subMessages)
+				result.addSubMessage(sub.inflate(true));
+		}
+		
+		if (withEncodedMessage)
+		{
+			if (encodedMessageSource != null)
+				result.setEncodedMessageSource(this::getEncodedMessage);
+			else
+				result.setEncodedMessage(getEncodedMessage());
+		}
+		result.setMetadata(metadata);
+		return result;
+	}
+	
+	
+	private int readLength(int offset, int[] lengthHolder)
+	{
+		int result = 0,
+				shift = 0;
+		byte b;
+		do
+		{
+			b = values[offset++];
+			result |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		lengthHolder[0] = result;
+		return offset;
+	}
+	
+	private int skipValue(int offset)
+	{
+		int[] length = new int[1];
+		offset = readLength(offset, length);
+		return length[0] > 0 ? offset + length[0] - 1 : offset;
+	}
+	
+	private String readValue(int offset)
+	{
+		int[] length = new int[1];
+		offset = readLength(offset, length);
+		if (length[0] == 0)
+			return null;
+		return new String(values, offset, length[0] - 1, StandardCharsets.UTF_8);
+	}
+	
+	
+	static byte[] packValues(String[] fieldValues)
+	{
+		ByteArrayOutputStream result = new ByteArrayOutputStream(fieldValues.length * 8);
+		for (String value : fieldValues)
+		{
+			if (value == null)
+			{
+				writeLength(result, 0);
+				continue;
+			}
+			
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeLength(result, bytes.length + 1);
+			result.write(bytes, 0, bytes.length);
+		}
+		return result.toByteArray();
+	}
+	
+	private static void writeLength(ByteArrayOutputStream out, int length)
+	{
+		while ((length & ~0x7F) != 0)
+		{
+			out.write((length & 0x7F) | 0x80);
+			length >>>= 7;
+		}
+		out.write(length);
+	}
+	
+	private static String decompress(byte[] data)
+	{
+		Inflater inflater = new Inflater();
+		try
+		{
+			inflater.setInput(data);
+			ByteArrayOutputStream result = new ByteArrayOutputStream(data.length * 4);
+			byte[] buffer = new byte[4096];
+			while (!inflater.finished())
+			{
+				int count = inflater.inflate(buffer);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					break;
+				result.write(buffer, 0, count);
+			}
+			return new String(result.toByteArray(), StandardCharsets.UTF_8);
+		}
+		catch (DataFormatException e)
+		{
+			throw new IllegalStateException("Could not decompress encoded message", e);
+		}
+		finally
+		{
+			inflater.end();
+		}
+	}
+}
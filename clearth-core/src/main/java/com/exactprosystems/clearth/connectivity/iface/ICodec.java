@@ -47,4 +47,50 @@ public interface ICodec
 	 * @throws DecodeException if message cannot be decoded (if message type is not described in dictionary, for instance) or error occurred while decoding
 	 */
 	public ClearThMessage<?> decode(String message, String type) throws DecodeException;
+	
+	/**
+	 * Decodes payload of {@link EncodedClearThMessage} to ClearThMessage. 
+	 * Codecs that can decode structured payloads, e.g. messages already parsed by connection, override this method 
+	 * to not convert payload to string and parse it again
+	 * @param payload of encoded message
+	 * @return ClearThMessage with message fields stored separately
+	 * @throws DecodeException if message cannot be decoded or error occurred while decoding
+	 */
+	default ClearThMessage<?> decodePayload(Object payload) throws DecodeException
+	{
+		return decode(payload.toString());
+	}
+	
+	/**
+	 * Gets type of encoded message without decoding it, e.g. by reading the field that contains message type. 
+	 * Used to skip messages of unneeded types before decoding them. 
+	 * Implementations should be cheap and must be safe to call from several threads at once
+	 * @param message String representation of message
+	 * @return type that {@link #decode(String)} would put in {@link ClearThMessage#MSGTYPE} field of decoded message 
+	 * or null if type cannot be obtained without decoding
+	 */
+	default String peekMessageType(String message)
+	{
+		return null;
+	}
+	
+	/**
+	 * Gets type of payload of {@link EncodedClearThMessage} without decoding it. 
+	 * Codecs that override {@link #decodePayload(Object)} should override this method as well
+	 * @param payload of encoded message
+	 * @return type that {@link #decodePayload(Object)} would put in {@link ClearThMessage#MSGTYPE} field of decoded message 
+	 * or null if type cannot be obtained without decoding
+	 */
+	default String peekPayloadType(Object payload)
+	{
+		return peekMessageType(payload.toString());
+	}
+	
+	/**
+	 * @return true if codec can decode messages in several threads at once without external synchronization
+	 */
+	default boolean isThreadSafe()
+	{
+		return false;
+	}
 }
@@ -0,0 +1,190 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.iface;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+
+/**
+ * Converts {@link SimpleClearThMessage} objects into {@link CompactClearThMessage}. 
+ * Keeps registry of field name schemas to share them between messages with the same fields
+ */
+public class MessageCompactor
+{
+	public static final int DEFAULT_MAX_SCHEMAS = 10000,
+			DEFAULT_COMPRESSION_THRESHOLD = 256;
+	
+	private final Map<List<String>, MessageSchema> schemas = new ConcurrentHashMap<>();
+	private final int maxSchemas;
+	private final boolean compressEncoded;
+	private final int compressionThreshold;
+	
+	public MessageCompactor(boolean compressEncoded)
+	{
+		this(compressEncoded, DEFAULT_COMPRESSION_THRESHOLD, DEFAULT_MAX_SCHEMAS);
+	}
+	
+	/**
+	 * @param compressEncoded whether to compress encoded message text
+	 * @param compressionThreshold minimum length of encoded message to compress it
+	 * @param maxSchemas maximum number of schemas to keep in registry. Messages with other sets of fields get own schemas
+	 */
+	public MessageCompactor(boolean compressEncoded, int compressionThreshold, int maxSchemas)
+	{
+		this.compressEncoded = compressEncoded;
+		this.compressionThreshold = compressionThreshold;
+		this.maxSchemas = maxSchemas;
+	}
+	
+	
+	/**
+	 * Checks if message can be compacted without loss of data. 
+	 * Only messages of exactly {@link SimpleClearThMessage} class are supported, 
+	 * because subclasses may have own data
+	 * @param message to check
+	 * @return true if message and all its sub-messages can be compacted
+	 */
+	public boolean isCompactable(ClearThMessage<?> message)
+	{
+		if (message == null || message.getClass() != SimpleClearThMessage.class)
+			return false;
+		
+		if (message.hasSubMessages())
+		{
+			for (ClearThMessage<?> sub : message.getSubMessages())
+			{
+				if (!isCompactable(sub))
+					return false;
+			}
+		}
+		return true;
+	}
+	
+	public CompactClearThMessage compact(SimpleClearThMessage message)
+	{
+		return compact(message, true);
+	}
+	
+	/**
+	 * @param message to compact. Must be compactable, see {@link #isCompactable(ClearThMessage)}
+	 * @return new object with the same ID and receiving time, but with compact message
+	 */
+	public ReceivedClearThMessage compact(ReceivedClearThMessage message)
+	{
+		CompactClearThMessage compact = compact((SimpleClearThMessage) message.getMessage());
+		return new ReceivedClearThMessage(message.getId(), message.getReceived(), compact);
+	}
+	
+	public int getSchemasCount()
+	{
+		return schemas.size();
+	}
+	
+	public boolean isCompressEncoded()
+	{
+		return compressEncoded;
+	}
+	
+	
+	protected CompactClearThMessage compact(SimpleClearThMessage message, boolean topLevel)
+	{
+		Map<String, String> fields = message.getFields();
+		String[] names = new String[fields.size()],
+				values = new String[fields.size()];
+		int i = 0;
+		for (Map.Entry<String, String> field : fields.entrySet())
+		{
+			names[i] = field.getKey();
+			values[i] = field.getValue();
+			i++;
+		}
+		
+		CompactClearThMessage[] subMessages = null;
+		if (message.hasSubMessages())
+		{
+			List<SimpleClearThMessage> subs = message.getSubMessages();
+			subMessages = new CompactClearThMessage[subs.size()];
+			for (int j = 0; j < subMessages.length; j++)
+				subMessages[j] = compact(subs.get(j), false);
+		}
+		
+		//Encoded message that is not created yet is kept as supplier to not create it when storing the message
+		Supplier<String> encodedSource = message.getEncodedMessageSource();
+		String encoded = encodedSource == null ? message.getEncodedMessage() : null;
+		byte[] compressed = null;
+		if (compressEncoded && encoded != null && encoded.length() >= compressionThreshold)
+		{
+			compressed = compress(encoded);
+			if (compressed != null)
+				encoded = null;
+		}
+		
+		return new CompactClearThMessage(getSchema(names), CompactClearThMessage.packValues(values), subMessages,
+				encoded, compressed, encodedSource, message.getMetadata());
+	}
+	
+	protected MessageSchema getSchema(String[] fieldNames)
+	{
+		List<String> key = Arrays.asList(fieldNames);
+		MessageSchema result = schemas.get(key);
+		if (result != null)
+			return result;
+		
+		result = new MessageSchema(fieldNames);
+		if (schemas.size() >= maxSchemas)
+			return result;
+		
+		MessageSchema existing = schemas.putIfAbsent(key, result);
+		return existing != null ? existing : result;
+	}
+	
+	/**
+	 * @return compressed text or null if compression doesn't make it smaller
+	 */
+	protected byte[] compress(String text)
+	{
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try
+		{
+			deflater.setInput(bytes);
+			deflater.finish();
+			ByteArrayOutputStream result = new ByteArrayOutputStream(bytes.length / 2);
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished())
+			{
+				int count = deflater.deflate(buffer);
+				result.write(buffer, 0, count);
+				if (result.size() >= bytes.length)
+					return null;
+			}
+			return result.toByteArray();
+		}
+		finally
+		{
+			deflater.end();
+		}
+	}
+}
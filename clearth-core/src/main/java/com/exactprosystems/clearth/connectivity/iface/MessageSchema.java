@@ -0,0 +1,76 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.iface;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable ordered set of field names shared by compact messages with the same fields. 
+ * Used by {@link CompactClearThMessage} to not store field names in each message
+ */
+public class MessageSchema
+{
+	private final String[] fieldNames;
+	private final Map<String, Integer> positions;
+	
+	public MessageSchema(String[] fieldNames)
+	{
+		this.fieldNames = fieldNames.clone();
+		Map<String, Integer> pos = new HashMap<>(fieldNames.length * 2);
+		for (int i = 0; i < fieldNames.length; i++)
+			pos.putIfAbsent(fieldNames[i], i);
+		this.positions = pos;
+	}
+	
+	
+	public int size()
+	{
+		return fieldNames.length;
+	}
+	
+	public String getFieldName(int position)
+	{
+		return fieldNames[position];
+	}
+	
+	/**
+	 * @param fieldName name of field to find
+	 * @return position of field in schema or -1 if schema doesn't contain such field
+	 */
+	public int getPosition(String fieldName)
+	{
+		Integer result = positions.get(fieldName);
+		return result != null ? result : -1;
+	}
+	
+	public List<String> getFieldNames()
+	{
+		return Collections.unmodifiableList(Arrays.asList(fieldNames));
+	}
+	
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(fieldNames);
+	}
+}
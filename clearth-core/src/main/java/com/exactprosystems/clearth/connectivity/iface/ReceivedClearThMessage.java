@@ -25,22 +25,81 @@ package com.exactprosystems.clearth.connectivity.iface;
 public class ReceivedClearThMessage extends ReceivedMessage<ClearThMessage<?>>
 {
 	private final ClearThMessage<?> message;
+	private final CompactClearThMessage compact;
 	
 	public ReceivedClearThMessage(long id, long received, ClearThMessage<?> message)
 	{
 		super(id, received);
 		this.message = message;
+		this.compact = null;
+	}
+	
+	public ReceivedClearThMessage(long id, long received, CompactClearThMessage compact)
+	{
+		super(id, received);
+		this.message = null;
+		this.compact = compact;
 	}
 	
 	public ReceivedClearThMessage(ReceivedClearThMessage msg)
 	{
 		super(msg.getId(), msg.getReceived());
-		this.message = msg.getMessage();
+		this.message = msg.message;
+		this.compact = msg.compact;
 	}
 
+	/**
+	 * @return received message. If message is stored in compact form, full message is created on first call
+	 */
 	@Override
 	public ClearThMessage<?> getMessage()
 	{
-		return message;
+		return compact != null ? compact.getMessage() : message;
+	}
+	
+	/**
+	 * @param name of field to get
+	 * @return value of field of received message. Doesn't create full message if it is stored in compact form
+	 */
+	public String getMessageField(String name)
+	{
+		if (compact != null)
+			return compact.getField(name);
+		return message != null ? message.getField(name) : null;
+	}
+	
+	/**
+	 * @return encoded text of received message. Doesn't create full message if it is stored in compact form
+	 */
+	public String getEncodedMessage()
+	{
+		if (compact != null)
+			return compact.getEncodedMessage();
+		return message != null ? message.getEncodedMessage() : null;
+	}
+	
+	/**
+	 * Checks if this object holds given message instance. Doesn't create full message if it is stored in compact form
+	 * @param message to check
+	 * @return true if {@link #getMessage()} returns given message instance
+	 */
+	public boolean holds(ClearThMessage<?> message)
+	{
+		if (compact != null)
+			return compact.isInflatedTo(message);
+		return this.message == message;
+	}
+	
+	public boolean isCompact()
+	{
+		return compact != null;
+	}
+	
+	/**
+	 * @return true if message is stored in compact form and full message has been created and is still referenced
+	 */
+	public boolean isInflated()
+	{
+		return compact != null && compact.isInflated();
 	}
 }
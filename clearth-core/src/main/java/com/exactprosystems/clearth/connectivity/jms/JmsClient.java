@@ -22,6 +22,7 @@ import com.exactprosystems.clearth.connectivity.ConnectionException;
 import com.exactprosystems.clearth.connectivity.ConnectivityException;
 import com.exactprosystems.clearth.connectivity.connections.ClearThMessageConnection;
 import com.exactprosystems.clearth.connectivity.connections.clients.BasicClearThClient;
+import com.exactprosystems.clearth.connectivity.connections.clients.DrainableReceiver;
 import com.exactprosystems.clearth.connectivity.connections.clients.MessageReceiverThread;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessageMetadata;
 import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
@@ -175,10 +176,12 @@ public abstract class JmsClient extends BasicClearThClient
 	@Override
 	protected JmsReceiverThread createReceiverThread()
 	{
+		JmsConnectionSettings settings = (JmsConnectionSettings) storedSettings;
 		return new JmsReceiverThread(name + " (Receiver thread)",
 				consumer,
 				owner,
-				((JmsConnectionSettings) storedSettings).getReadDelay(),
+				settings.getReadDelay(),
+				settings.getDrainBatchSize(),
 				receivedMessageQueue);
 	}
 	
@@ -222,14 +225,22 @@ public abstract class JmsClient extends BasicClearThClient
 	}
 	
 	
-	static class JmsReceiverThread extends MessageReceiverThread
+	static class JmsReceiverThread extends MessageReceiverThread implements DrainableReceiver
 	{
+		protected static final long RECEIVE_TIMEOUT = 1000;
+		
 		private final MessageConsumer consumer;
 		
 		public JmsReceiverThread(String name, MessageConsumer consumer, ClearThMessageConnection owner, long readDelay,
 		                         BlockingQueue<EncodedClearThMessage> receivedMessageQueue)
 		{
-			super(name, owner, receivedMessageQueue, readDelay);
+			this(name, consumer, owner, readDelay, 0, receivedMessageQueue);
+		}
+		
+		public JmsReceiverThread(String name, MessageConsumer consumer, ClearThMessageConnection owner, long readDelay,
+		                         int drainBatchSize, BlockingQueue<EncodedClearThMessage> receivedMessageQueue)
+		{
+			super(name, owner, receivedMessageQueue, readDelay, drainBatchSize);
 			
 			this.consumer = consumer;
 		}
@@ -240,17 +251,9 @@ public abstract class JmsClient extends BasicClearThClient
 		{
 			try
 			{
-				Message message = consumer.receive(1000);
-				if (message == null)
-					return;
-				
-				if (message instanceof TextMessage)
-				{
-					String body = ((TextMessage) message).getText();
-					receivedMessageQueue.add(EncodedClearThMessage.newReceivedMessage(body));
-				}
-				else
-					logger.warn("Received non-text message, skipping it as not supported:{}{}", EOL, message);
+				EncodedClearThMessage message = receiveMessage(true);
+				if (message != null)
+					addReceivedMessage(message);
 			}
 			catch (Exception e)
 			{
@@ -258,6 +261,21 @@ public abstract class JmsClient extends BasicClearThClient
 			}
 		}
 		
+		@Override
+		public EncodedClearThMessage receiveMessage(boolean wait) throws JMSException
+		{
+			Message message = wait ? consumer.receive(RECEIVE_TIMEOUT) : consumer.receiveNoWait();
+			while (message != null && !(message instanceof TextMessage))
+			{
+				logger.warn("Received non-text message, skipping it as not supported:{}{}", EOL, message);
+				message = consumer.receiveNoWait();
+			}
+			
+			if (message == null)
+				return null;
+			return EncodedClearThMessage.newReceivedMessage(((TextMessage) message).getText());
+		}
+		
 		@Override
 		protected void handleException(Exception e)
 		{
@@ -27,7 +27,7 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement
 @XmlAccessorType(XmlAccessType.NONE)
-@ConnectionSettings(order = {"hostname", "port", "receiveQueue", "useReceiveQueue", "sendQueue", "readDelay"},
+@ConnectionSettings(order = {"hostname", "port", "receiveQueue", "useReceiveQueue", "sendQueue", "readDelay", "drainBatchSize"},
 		columns = {"hostname", "sendQueue", "receiveQueue"})
 public class JmsConnectionSettings extends ClearThBasicMqConnectionSettings
 {
@@ -20,6 +20,7 @@ package com.exactprosystems.clearth.connectivity.listeners;
 
 import com.exactprosystems.clearth.connectivity.ListenerDescription;
 import com.exactprosystems.clearth.connectivity.ListenerProperties;
+import com.exactprosystems.clearth.connectivity.PreparingMessageListener;
 import com.exactprosystems.clearth.connectivity.ReceiveListener;
 import com.exactprosystems.clearth.connectivity.SettingsDetails;
 import com.exactprosystems.clearth.connectivity.iface.AbstractMessageListener;
@@ -28,10 +29,13 @@ import com.exactprosystems.clearth.connectivity.iface.ClearThMessageDirection;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessageMetadata;
 import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
 import com.exactprosystems.clearth.connectivity.iface.ICodec;
+import com.exactprosystems.clearth.connectivity.iface.MessageCompactor;
 import com.exactprosystems.clearth.connectivity.iface.ReceivedClearThMessage;
 import com.exactprosystems.clearth.connectivity.iface.ReceivedMessage;
 import com.exactprosystems.clearth.connectivity.iface.ReceivedStringMessage;
 import com.exactprosystems.clearth.connectivity.iface.SimpleClearThMessage;
+import com.exactprosystems.clearth.connectivity.listeners.storage.CompactMemoryContentStorage;
+import com.exactprosystems.clearth.connectivity.listeners.storage.ContentIndex;
 import com.exactprosystems.clearth.connectivity.listeners.storage.ContentStorage;
 import com.exactprosystems.clearth.connectivity.listeners.storage.DefaultFileContentStorage;
 import com.exactprosystems.clearth.connectivity.listeners.storage.FileContentStorage;
@@ -41,6 +45,7 @@ import com.exactprosystems.clearth.messages.MessageFileReader;
 import com.exactprosystems.clearth.utils.SettingsException;
 import com.exactprosystems.clearth.utils.Utils;
 import com.exactprosystems.clearth.utils.inputparams.InputParamsHandler;
+import com.exactprosystems.clearth.utils.javaFunction.SupplierWithException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +56,7 @@ import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 @ListenerDescription(description = "ClearTH message collector")
@@ -66,8 +72,13 @@ import java.util.concurrent.atomic.AtomicLong;
 		+ "<li><b>storeFailed=&lt;true/false&gt;</b> &mdash; indicates if failed-to-parse messages should be stored in collector for further analysis. <br/>Please note that they occupy memory if stored. Default value is 'true'.</li>"
 		+ "<li><b>allowedTypes=&lt;type&gt;</b> &mdash; If it exists messages of other types are ignored. Separate allowed types with comma (,).</li>"
 		+ "<li><b>forbiddenTypes=&lt;type&gt;</b> &mdash; If it exists messages of specified types are ignored. Separate forbidden types with comma (,).</li>"
+		+ "<li><b>indexedFields=&lt;field&gt;</b> &mdash; names of fields to build indexes for, e.g. MsgType,ClOrdID. <br/>"
+		+   "Receive actions which key fields contain indexed field use the index instead of checking all messages in collector. Separate field names with comma (,).</li>"
+		+ "<li><b>compactStorage=&lt;true/false&gt;</b> &mdash; If set as 'true' messages are kept in memory in compact form, which takes less heap. <br/>"
+		+   "Not used if contentsFileName is specified. Default value is 'false'.</li>"
+		+ "<li><b>compressEncoded=&lt;true/false&gt;</b> &mdash; If set as 'true' and compactStorage is used, long encoded messages are compressed. Default value is 'false'.</li>"
 		+ "</ul>" + "All settings are optional.")
-public class ClearThMessageCollector extends AbstractMessageListener implements ReceiveListener
+public class ClearThMessageCollector extends AbstractMessageListener implements ReceiveListener, PreparingMessageListener<ClearThMessageCollector.DecodedMessage>
 {
 	private static final Logger logger = LoggerFactory.getLogger(ClearThMessageCollector.class);
 	
@@ -82,6 +93,9 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 	public static final String DEFAULT_MESSAGE_END_INDICATOR = Utils.EOL + Utils.EOL;
 	public static final String ALLOWED_TYPES = "allowedtypes";
 	public static final String FORBIDDEN_TYPES = "forbiddentypes";
+	public static final String INDEXED_FIELDS = "indexedfields";
+	public static final String COMPACT_STORAGE_SETTING = "compactstorage";
+	public static final String COMPRESS_ENCODED_SETTING = "compressencoded";
 	private static final String STORE_THREAD_NAME = "FileContentStorage";
 
 	private static final String DELIMITER = ",";
@@ -91,6 +105,12 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 	private static final double DEFAULT_FAILED_MAX_AGE = 6;
 
 	private final Object codecMonitor = new Object();
+	//Codecs used by threads that decode messages in parallel
+	private final ThreadLocal<ICodec> threadCodecs = new ThreadLocal<>();
+	//Used to notify threads waiting for new messages
+	private final Object arrivalMonitor = new Object();
+	private final AtomicInteger arrivalWaiters = new AtomicInteger(0);
+	private volatile long lastArrivedId = -1;
 
 	private volatile String connectionName;
 	protected volatile boolean active = true;
@@ -98,11 +118,13 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
  	protected final AtomicLong messageId;
 
 	protected volatile ICodec codec;
+	protected volatile SupplierWithException<ICodec, SettingsException> codecFactory;
 	protected ContentStorage<ReceivedClearThMessage, ReceivedStringMessage> contentStorage;
 	private final boolean storeFailedMessages;
 	private final boolean storeTimestamp;
 
 	private Set<String> filteredTypes;
+	private Set<String> indexedFields = Collections.emptySet();
 	private boolean filterForAllowedTypes = true;
 	private Instant lastMessageTime = Instant.MIN;
 
@@ -173,8 +195,13 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 		if (this.contentStorage == null)
 		{
 			logger.trace("Content will be stored in memory");
-			this.contentStorage = new MemoryContentStorage<ReceivedClearThMessage, ReceivedStringMessage>();
+			if (handler.getBoolean(COMPACT_STORAGE_SETTING, false))
+				this.contentStorage = new CompactMemoryContentStorage(new MessageCompactor(handler.getBoolean(COMPRESS_ENCODED_SETTING, false)));
+			else
+				this.contentStorage = new MemoryContentStorage<ReceivedClearThMessage, ReceivedStringMessage>();
 		}
+		
+		initIndexes(handler.getSet(INDEXED_FIELDS, DELIMITER));
 
 		this.messageId = new AtomicLong(0);
 		
@@ -197,8 +224,25 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 	@Override
 	public void onMessage(EncodedClearThMessage message) throws IllegalArgumentException
 	{
-		String payload = message.getPayload().toString();
-		logReceivedMessage(payload);
+		onPreparedMessage(message, decodeMessage(message, false));
+	}
+	
+	/**
+	 * Decodes message so that it can be passed to {@link #onPreparedMessage(EncodedClearThMessage, DecodedMessage)} later. 
+	 * Can be called by several threads at once. If codec factory is set and codec is not thread-safe, each thread uses its own codec instance
+	 */
+	@Override
+	public DecodedMessage prepareMessage(EncodedClearThMessage message)
+	{
+		return decodeMessage(message, true);
+	}
+	
+	@Override
+	public void onPreparedMessage(EncodedClearThMessage message, DecodedMessage decoded) throws IllegalArgumentException
+	{
+		//Payload may be a structured message which string representation is created on demand
+		if (logger.isDebugEnabled())
+			logReceivedMessage(message.getPayload().toString());
 		long id = messageId.getAndIncrement();
 		Instant timestamp = message.getMetadata().getTimestamp();
 		
@@ -212,21 +256,16 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 
 		try
 		{
-			ClearThMessage<?> cthMessage;
-			if (codec == null)
+			if (decoded.isSkipped())
 			{
-				cthMessage = new SimpleClearThMessage();
-				cthMessage.addField(MESSAGE, payload);
-				cthMessage.setEncodedMessage(payload);
-			}
-			else
-			{
-				synchronized (codecMonitor)
-				{
-					cthMessage = codec.decode(payload);
-				}
+				logger.trace("Skipped message of type '{}' without decoding", decoded.getSkippedType());
+				return;
 			}
 			
+			if (decoded.getError() != null)
+				throw decoded.getError();
+			
+			ClearThMessage<?> cthMessage = decoded.getMessage();
 			cthMessage.setMetadata(message.getMetadata());
 			
 			if (!validateType(cthMessage.getField(ClearThMessage.MSGTYPE)))
@@ -239,14 +278,83 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 			logger.trace("Adding message: {}, \r\ntimestamp: {}", cthMessage, timestamp);
 			ReceivedClearThMessage receivedMessage = new ReceivedClearThMessage(id, timestamp.toEpochMilli(), cthMessage);
 			contentStorage.insertPassed(id, receivedMessage);
+			notifyArrival(id);
 		}
 		catch (Exception e)
 		{
 			if(storeFailedMessages)
-				contentStorage.insertFailed(id, new ReceivedStringMessage(id, timestamp.toEpochMilli(), payload));
+				contentStorage.insertFailed(id, new ReceivedStringMessage(id, timestamp.toEpochMilli(), message.getPayload().toString()));
 			logger.warn("Error while decoding message: {}", message, e);
 		}
 	}
+	
+	protected DecodedMessage decodeMessage(EncodedClearThMessage message, boolean parallel)
+	{
+		Object payload = message.getPayload();
+		try
+		{
+			ClearThMessage<?> cthMessage;
+			ICodec currentCodec = codec;
+			if (currentCodec == null)
+			{
+				String payloadText = payload.toString();
+				cthMessage = new SimpleClearThMessage();
+				cthMessage.addField(MESSAGE, payloadText);
+				cthMessage.setEncodedMessage(payloadText);
+			}
+			else
+			{
+				//Checking type before decoding to not spend time on messages that will be skipped anyway
+				String type = filteredTypes.isEmpty() ? null : currentCodec.peekPayloadType(payload);
+				if (type != null && !validateType(type))
+					return DecodedMessage.skipped(type);
+				
+				if (currentCodec.isThreadSafe())
+					cthMessage = currentCodec.decodePayload(payload);
+				else
+				{
+					ICodec ownCodec = parallel ? getThreadCodec() : null;
+					if (ownCodec != null)
+						cthMessage = ownCodec.decodePayload(payload);
+					else
+					{
+						synchronized (codecMonitor)
+						{
+							cthMessage = currentCodec.decodePayload(payload);
+						}
+					}
+				}
+			}
+			return new DecodedMessage(cthMessage, null);
+		}
+		catch (Exception e)
+		{
+			return new DecodedMessage(null, e);
+		}
+	}
+	
+	private ICodec getThreadCodec()
+	{
+		if (codecFactory == null)
+			return null;
+		
+		ICodec result = threadCodecs.get();
+		if (result != null)
+			return result;
+		
+		try
+		{
+			result = codecFactory.get();
+		}
+		catch (SettingsException e)
+		{
+			logger.warn("Could not create codec for thread '{}', shared codec will be used", Thread.currentThread().getName(), e);
+			codecFactory = null;
+			return null;
+		}
+		threadCodecs.set(result);
+		return result;
+	}
 
 	@Override
 	public void dispose()
@@ -308,6 +416,78 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 		return result;
 	}
 	
+	/**
+	 * Gets from collector data about messages received after message with given ID and having given value in indexed field.
+	 * If given field is not indexed, all messages received after message with given ID are returned
+	 * 
+	 * @param afterId ID of message after which needed messages were received
+	 * @param indexedField name of indexed field
+	 * @param value of indexed field to get messages for
+	 * @return list of messages received after message with given ID
+	 */
+	public Collection<ReceivedClearThMessage> getMessagesData(long afterId, String indexedField, String value)
+	{
+		Map<Long, ReceivedClearThMessage> found = indexedFields.contains(indexedField) 
+				? contentStorage.getContentPassedByIndex(indexedField, value, afterId) 
+				: null;
+		if (found == null)
+			return getMessagesData(afterId);
+		
+		logger.trace("Got {} message(s) with ID > {} and {}={} from index", found.size(), afterId, indexedField, value);
+		return new ArrayDeque<ReceivedClearThMessage>(found.values());
+	}
+	
+	/**
+	 * @return ID of last message stored in collector or -1 if no messages have been stored yet
+	 */
+	public long getLastArrivedId()
+	{
+		return lastArrivedId;
+	}
+	
+	/**
+	 * Waits until message with ID greater than given one is stored in collector
+	 * 
+	 * @param afterId ID of message after which to wait for new messages
+	 * @param timeoutMs maximum time to wait (in milliseconds)
+	 * @return true if new message has arrived, false if timeout elapsed
+	 * @throws InterruptedException if waiting was interrupted
+	 */
+	public boolean awaitMessagesAfter(long afterId, long timeoutMs) throws InterruptedException
+	{
+		if (lastArrivedId > afterId)
+			return true;
+		
+		long deadline = System.currentTimeMillis() + timeoutMs;
+		arrivalWaiters.incrementAndGet();
+		try
+		{
+			synchronized (arrivalMonitor)
+			{
+				while (lastArrivedId <= afterId)
+				{
+					long timeLeft = deadline - System.currentTimeMillis();
+					if (timeLeft <= 0)
+						return false;
+					arrivalMonitor.wait(timeLeft);
+				}
+				return true;
+			}
+		}
+		finally
+		{
+			arrivalWaiters.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * @return names of fields that have index in collector
+	 */
+	public Set<String> getIndexedFields()
+	{
+		return indexedFields;
+	}
+	
 	/**
 	 * Gets message data for given ID
 	 * @param id of message
@@ -330,7 +510,7 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 	{
 		for (ReceivedClearThMessage msg : contentStorage.getContentPassed().values())
 		{
-			if (msg.getMessage() == message)
+			if (msg.holds(message))
 				return new ReceivedClearThMessage(msg);
 		}
 		return null;
@@ -378,10 +558,9 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 		{
 			ReceivedClearThMessage v = it.next();
 			//Doing so we should be able to remove only the message object which is got from collector, not the similar one in the meaning of fields. This is correct
-			if (v.getMessage() == message)
+			if (v.holds(message))
 			{
-				it.remove();
-				contentStorage.removePassed(v);
+				contentStorage.removePassed(v.getId());  //Removing by ID to update indexes as well
 				break;
 			}
 		}
@@ -417,6 +596,16 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 		this.codec = codec;
 	}
 	
+	/**
+	 * Sets factory of codecs equivalent to one used by collector. 
+	 * It is used to create separate codec for each thread that decodes messages in parallel, so that they don't wait for each other
+	 * @param codecFactory to create codecs with
+	 */
+	public void setCodecFactory(SupplierWithException<ICodec, SettingsException> codecFactory)
+	{
+		this.codecFactory = codecFactory;
+	}
+	
 	
 	public String getConnectionName()
 	{
@@ -530,7 +719,7 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 				{
 					ReceivedClearThMessage elem = itr.next();
 					if (elem != null && currentTime - elem.getReceived() > maxAgeMillis)
-						itr.remove();
+						contentStorage.removePassed(elem.getId());  //Not using iterator to keep indexes up to date
 				}
 			}
 			
@@ -571,6 +760,39 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 			((WritingContentStorage<?,?>) contentStorage).setWriteBeforeDispose(writeBeforeDispose);
 	}
 
+	private void notifyArrival(long id)
+	{
+		if (id > lastArrivedId)
+			lastArrivedId = id;
+		
+		//Taking lock only if somebody waits for messages. Waiters check lastArrivedId inside the lock, so notification won't be lost
+		if (arrivalWaiters.get() > 0)
+		{
+			synchronized (arrivalMonitor)
+			{
+				arrivalMonitor.notifyAll();
+			}
+		}
+	}
+	
+	private void initIndexes(Set<String> fields)
+	{
+		if (fields.isEmpty())
+			return;
+		
+		Set<String> result = new LinkedHashSet<>();
+		for (String field : fields)
+		{
+			ContentIndex<ReceivedClearThMessage> index = new ContentIndex<>(field, m -> m.getMessageField(field));
+			if (contentStorage.addIndex(index))
+				result.add(field);
+			else
+				logger.warn("Content storage of collector doesn't support indexes, field '{}' won't be indexed", field);
+		}
+		indexedFields = Collections.unmodifiableSet(result);
+		logger.debug("Indexed fields: {}", indexedFields);
+	}
+	
 	private void processFilteredTypes(Set<String> allowedTypes, Set<String> forbiddenTypes)
 		throws SettingsException
 	{
@@ -595,4 +817,53 @@ public class ClearThMessageCollector extends AbstractMessageListener implements
 
 		return filterForAllowedTypes || !filteredTypes.contains(messageType);
 	}
+	
+	
+	/**
+	 * Result of message decoding: either decoded message, error occurred while decoding 
+	 * or type of message that was skipped without decoding because of type filter
+	 */
+	public static class DecodedMessage
+	{
+		private final ClearThMessage<?> message;
+		private final Exception error;
+		private final String skippedType;
+		
+		public DecodedMessage(ClearThMessage<?> message, Exception error)
+		{
+			this(message, error, null);
+		}
+		
+		private DecodedMessage(ClearThMessage<?> message, Exception error, String skippedType)
+		{
+			this.message = message;
+			this.error = error;
+			this.skippedType = skippedType;
+		}
+		
+		public static DecodedMessage skipped(String messageType)
+		{
+			return new DecodedMessage(null, null, messageType);
+		}
+		
+		public boolean isSkipped()
+		{
+			return skippedType != null;
+		}
+		
+		public String getSkippedType()
+		{
+			return skippedType;
+		}
+		
+		public ClearThMessage<?> getMessage()
+		{
+			return message;
+		}
+		
+		public Exception getError()
+		{
+			return error;
+		}
+	}
 }
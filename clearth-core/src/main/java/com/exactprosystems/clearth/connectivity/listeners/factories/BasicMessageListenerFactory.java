@@ -175,7 +175,11 @@ public class BasicMessageListenerFactory implements MessageListenerFactory
 			return new ClearThMessageCollector(properties, connection.getName(), settings, messageEndIndicator);
 
 
-		return new ClearThMessageCollector(properties, connection.getName(), createCodec(type), settings, messageEndIndicator);
+		ClearThMessageCollector collector = new ClearThMessageCollector(properties, connection.getName(), createCodec(type), settings, messageEndIndicator);
+		//Codecs are not guaranteed to be thread-safe, so each thread that decodes messages in parallel gets its own codec instance
+		if (connection.getTypeInfo() != null && connection.getTypeInfo().getDecodeThreads() > 0)
+			collector.setCodecFactory(() -> createCodec(type));
+		return collector;
 	}
 
 	protected MessageListener createListenerEx(ClearThConnection connection, ListenerConfiguration configuration)
@@ -0,0 +1,70 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.listeners.storage;
+
+import com.exactprosystems.clearth.connectivity.iface.MessageCompactor;
+import com.exactprosystems.clearth.connectivity.iface.ReceivedClearThMessage;
+import com.exactprosystems.clearth.connectivity.iface.ReceivedStringMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory storage that keeps parsed messages in compact form to reduce heap usage. 
+ * Full message is created when requested by {@link ReceivedClearThMessage#getMessage()}. 
+ * Messages that can't be compacted are stored as is
+ */
+public class CompactMemoryContentStorage extends MemoryContentStorage<ReceivedClearThMessage, ReceivedStringMessage>
+{
+	private static final Logger logger = LoggerFactory.getLogger(CompactMemoryContentStorage.class);
+	
+	private final MessageCompactor compactor;
+	
+	public CompactMemoryContentStorage(MessageCompactor compactor)
+	{
+		this.compactor = compactor;
+	}
+	
+	
+	@Override
+	public void start()
+	{
+		logger.info("Content will be stored in memory in compact form{}", compactor.isCompressEncoded() ? ", encoded messages will be compressed" : "");
+	}
+	
+	@Override
+	public void dispose()
+	{
+		logger.info("Disposing content storage, {} message schema(s) registered", compactor.getSchemasCount());
+		clearMemory();
+	}
+	
+	@Override
+	public void insertPassed(long id, ReceivedClearThMessage item)
+	{
+		if (item != null && !item.isCompact() && compactor.isCompactable(item.getMessage()))
+			item = compactor.compact(item);
+		super.insertPassed(id, item);
+	}
+	
+	
+	public MessageCompactor getCompactor()
+	{
+		return compactor;
+	}
+}
@@ -0,0 +1,110 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.listeners.storage;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Secondary index of content storage. Maps key extracted from stored item to IDs of items with such key.
+ * Items without key (i.e. extractor returned null) are not indexed.
+ * @param <P> type of indexed items
+ */
+public class ContentIndex<P>
+{
+	private final String name;
+	private final Function<P, String> keyExtractor;
+	private final Map<String, NavigableSet<Long>> ids = new ConcurrentHashMap<>();
+
+	public ContentIndex(String name, Function<P, String> keyExtractor)
+	{
+		this.name = name;
+		this.keyExtractor = keyExtractor;
+	}
+
+
+	public String getName()
+	{
+		return name;
+	}
+
+
+	public void add(long id, P item)
+	{
+		String key = getKey(item);
+		if (key == null)
+			return;
+
+		//Set is updated inside compute() to not race with removal of empty sets
+		ids.compute(key, (k, set) -> {
+			if (set == null)
+				set = new ConcurrentSkipListSet<>();
+			set.add(id);
+			return set;
+		});
+	}
+
+	public void remove(long id, P item)
+	{
+		String key = getKey(item);
+		if (key != null)
+			remove(key, id);
+	}
+
+	public void remove(String key, long id)
+	{
+		ids.computeIfPresent(key, (k, set) -> {
+			set.remove(id);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	public void clear()
+	{
+		ids.clear();
+	}
+
+	/**
+	 * @param key to get item IDs for
+	 * @param afterId ID after which to return IDs
+	 * @return read-only set of ascending IDs of items with given key. Set may contain IDs of items that were already removed from storage
+	 */
+	public NavigableSet<Long> getIds(String key, long afterId)
+	{
+		NavigableSet<Long> result = ids.get(key);
+		if (result == null)
+			return Collections.emptyNavigableSet();
+		return Collections.unmodifiableNavigableSet(result.tailSet(afterId, false));
+	}
+
+	public int getKeysCount()
+	{
+		return ids.size();
+	}
+
+
+	protected String getKey(P item)
+	{
+		return item != null ? keyExtractor.apply(item) : null;
+	}
+}
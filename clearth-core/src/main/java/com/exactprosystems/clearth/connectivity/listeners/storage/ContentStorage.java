@@ -55,4 +55,27 @@ public interface ContentStorage<P, F>
 	Map<Long, F> getContentFailed();
 	
 	Map<Long, F> getContentFailedAfterId(long id);
+	
+	
+	/**
+	 * Adds secondary index for parsed items. Index is updated when items are inserted into or removed from storage
+	 * @param index to add
+	 * @return true if index has been added, false if storage doesn't support indexes
+	 */
+	default boolean addIndex(ContentIndex<P> index)
+	{
+		return false;
+	}
+	
+	/**
+	 * Gets parsed items by secondary index
+	 * @param indexName name of index to use
+	 * @param key of items to get
+	 * @param id ID after which to get items
+	 * @return items with given key stored after item with given ID, ordered by ID, or null if there is no such index
+	 */
+	default Map<Long, P> getContentPassedByIndex(String indexName, String key, long id)
+	{
+		return null;
+	}
 }
@@ -44,9 +44,11 @@ public class DefaultFileContentStorage extends FileContentStorage<ReceivedClearT
 	@Override
 	protected String extractContentPassed(ReceivedClearThMessage item)
 	{
-		if (item == null || item.getMessage() == null)
+		if (item == null)
 			return "";
-		return item.getMessage().getEncodedMessage();
+		//Not using getMessage() to not inflate compact messages
+		String result = item.getEncodedMessage();
+		return result != null ? result : "";
 	}
 
 	@Override
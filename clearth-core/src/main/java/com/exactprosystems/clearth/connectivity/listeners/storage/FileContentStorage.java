@@ -205,6 +205,18 @@ public abstract class FileContentStorage<P, F> extends WritingContentStorage<P,
 		return memoryStorage.getContentFailedAfterId(id);
 	}
 	
+	@Override
+	public boolean addIndex(ContentIndex<P> index)
+	{
+		return memoryStorage.addIndex(index);
+	}
+	
+	@Override
+	public Map<Long, P> getContentPassedByIndex(String indexName, String key, long id)
+	{
+		return memoryStorage.getContentPassedByIndex(indexName, key, id);
+	}
+	
 	
 	@Override
 	protected void writeContent()
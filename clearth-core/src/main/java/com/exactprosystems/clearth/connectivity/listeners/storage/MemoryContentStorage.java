@@ -18,9 +18,14 @@
 
 package com.exactprosystems.clearth.connectivity.listeners.storage;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +38,8 @@ public class MemoryContentStorage<P, F> implements ContentStorage<P, F>
 	protected final NavigableMap<Long, P> contentPassed = new ConcurrentSkipListMap<Long, P>();
 	//Storage for messages which couldn't be parsed. Key - message ID in collector
 	protected final NavigableMap<Long, F> contentFailed = new ConcurrentSkipListMap<Long, F>();
+	//Secondary indexes for parsed messages
+	protected final List<ContentIndex<P>> indexes = new CopyOnWriteArrayList<ContentIndex<P>>();
 	
 	
 	@Override
@@ -53,6 +60,8 @@ public class MemoryContentStorage<P, F> implements ContentStorage<P, F>
 	public void insertPassed(long id, P item)
 	{
 		contentPassed.put(id, item);
+		for (ContentIndex<P> index : indexes)
+			index.add(id, item);
 	}
 	
 	@Override
@@ -65,13 +74,32 @@ public class MemoryContentStorage<P, F> implements ContentStorage<P, F>
 	@Override
 	public void removePassed(P item)
 	{
-		contentPassed.values().remove(item);
+		if (indexes.isEmpty())
+		{
+			contentPassed.values().remove(item);
+			return;
+		}
+		
+		//Need ID of removed item to update indexes
+		Iterator<Map.Entry<Long, P>> it = contentPassed.entrySet().iterator();
+		while (it.hasNext())
+		{
+			Map.Entry<Long, P> entry = it.next();
+			if (Objects.equals(entry.getValue(), item))
+			{
+				it.remove();
+				removeFromIndexes(entry.getKey(), item);
+				break;
+			}
+		}
 	}
 	
 	@Override
 	public void removePassed(long id)
 	{
-		contentPassed.remove(id);
+		P removed = contentPassed.remove(id);
+		if (removed != null)
+			removeFromIndexes(id, removed);
 	}
 	
 	@Override
@@ -98,6 +126,8 @@ public class MemoryContentStorage<P, F> implements ContentStorage<P, F>
 	public void clearPassed()
 	{
 		contentPassed.clear();
+		for (ContentIndex<P> index : indexes)
+			index.clear();
 	}
 	
 	@Override
@@ -130,4 +160,49 @@ public class MemoryContentStorage<P, F> implements ContentStorage<P, F>
 	{
 		return contentFailed.tailMap(id, false);
 	}
+	
+	
+	@Override
+	public boolean addIndex(ContentIndex<P> index)
+	{
+		for (Map.Entry<Long, P> entry : contentPassed.entrySet())
+			index.add(entry.getKey(), entry.getValue());
+		indexes.add(index);
+		return true;
+	}
+	
+	@Override
+	public NavigableMap<Long, P> getContentPassedByIndex(String indexName, String key, long afterId)
+	{
+		ContentIndex<P> index = getIndex(indexName);
+		if (index == null)
+			return null;
+		
+		NavigableMap<Long, P> result = new TreeMap<Long, P>();
+		for (Long id : index.getIds(key, afterId))
+		{
+			P item = contentPassed.get(id);
+			if (item != null)
+				result.put(id, item);
+			else  //Item was removed bypassing storage, e.g. via iterator of getContentPassed()
+				index.remove(key, id);
+		}
+		return result;
+	}
+	
+	protected ContentIndex<P> getIndex(String name)
+	{
+		for (ContentIndex<P> index : indexes)
+		{
+			if (index.getName().equals(name))
+				return index;
+		}
+		return null;
+	}
+	
+	protected void removeFromIndexes(long id, P item)
+	{
+		for (ContentIndex<P> index : indexes)
+			index.remove(id, item);
+	}
 }
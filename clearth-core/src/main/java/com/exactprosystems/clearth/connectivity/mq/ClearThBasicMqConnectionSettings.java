@@ -51,6 +51,10 @@ public abstract class ClearThBasicMqConnectionSettings implements ClearThConnect
 	@XmlElement
 	@ConnectionSetting(name = "Read delay")
 	private int readDelay;
+	
+	@XmlElement
+	@ConnectionSetting(name = "Drain batch size")
+	private int drainBatchSize;
 
 	public ClearThBasicMqConnectionSettings()
 	{
@@ -60,6 +64,7 @@ public abstract class ClearThBasicMqConnectionSettings implements ClearThConnect
 		hostname = null;
 		port = -1;
 		readDelay = 1000;
+		drainBatchSize = 0;
 	}
 
 
@@ -127,6 +132,19 @@ public abstract class ClearThBasicMqConnectionSettings implements ClearThConnect
 		this.readDelay = readDelay;
 	}
 
+	/**
+	 * @return max number of messages to read from queue in one go. 0 means that read delay is applied after each message
+	 */
+	public int getDrainBatchSize()
+	{
+		return drainBatchSize;
+	}
+
+	public void setDrainBatchSize(int drainBatchSize)
+	{
+		this.drainBatchSize = drainBatchSize;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -138,6 +156,7 @@ public abstract class ClearThBasicMqConnectionSettings implements ClearThConnect
 		sb.add("Host = ").append(hostname);
 		sb.add("Port = ").append(port);
 		sb.add("Read delay = ").append(readDelay);
+		sb.add("Drain batch size = ").append(drainBatchSize);
 		
 		return sb.toString();
 	}
@@ -162,5 +181,6 @@ public abstract class ClearThBasicMqConnectionSettings implements ClearThConnect
 		this.hostname = settings.hostname;
 		this.port = settings.port;
 		this.readDelay = settings.readDelay;
+		this.drainBatchSize = settings.drainBatchSize;
 	}
 }
\ No newline at end of file
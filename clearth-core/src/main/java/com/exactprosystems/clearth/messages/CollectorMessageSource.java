@@ -46,6 +46,9 @@ public class CollectorMessageSource implements MessageSource, StringMessageSourc
 	protected Deque<ReceivedClearThMessage> messagesBuffer;
 	protected boolean canReadEarlyMessages;
 	protected final boolean directOrder;
+	protected final String indexedField, indexedValue;
+	//ID of last message in collector at the moment of last messages retrieval. Used to wait for new messages
+	protected long lastSeenCollectorId = -1;
 	
 	/**
 	 * Creates message source that will return messages, starting from first one, in direct or reversed order
@@ -53,9 +56,24 @@ public class CollectorMessageSource implements MessageSource, StringMessageSourc
 	 * @param directOrder flag that defines if messages, retrieved from collector, should be returned in direct or reversed order
 	 */
 	public CollectorMessageSource(ClearThMessageCollector collector, boolean directOrder)
+	{
+		this(collector, null, null, directOrder);
+	}
+	
+	/**
+	 * Creates message source that will return messages having given value in indexed field, starting from first one, in direct or reversed order.
+	 * If collector has no index for given field, all messages are returned
+	 * @param collector to get messages from
+	 * @param indexedField name of field indexed in collector
+	 * @param indexedValue value of indexed field that returned messages should have
+	 * @param directOrder flag that defines if messages, retrieved from collector, should be returned in direct or reversed order
+	 */
+	public CollectorMessageSource(ClearThMessageCollector collector, String indexedField, String indexedValue, boolean directOrder)
 	{
 		this.collector = collector;
 		this.directOrder = directOrder;
+		this.indexedField = indexedField;
+		this.indexedValue = indexedValue;
 		canReadEarlyMessages = false;
 		currentId = -1;
 		lastMessageId = -1;
@@ -72,6 +90,8 @@ public class CollectorMessageSource implements MessageSource, StringMessageSourc
 	{
 		this.collector = collector;
 		this.directOrder = directOrder;
+		this.indexedField = null;
+		this.indexedValue = null;
 		currentId = -1;
 		lastMessageId = -1;
 		messagesBuffer = getMessagesAfterTime(lastMessageId, afterTime);
@@ -118,6 +138,18 @@ public class CollectorMessageSource implements MessageSource, StringMessageSourc
 		return stringMessage;
 	}
 	
+	@Override
+	public boolean isNotifyingAboutMessages()
+	{
+		return true;
+	}
+	
+	@Override
+	public void awaitNewMessages(long timeoutMs) throws InterruptedException
+	{
+		collector.awaitMessagesAfter(lastSeenCollectorId, timeoutMs);
+	}
+	
 	@Override
 	public void removeMessage()
 	{
@@ -154,21 +186,24 @@ public class CollectorMessageSource implements MessageSource, StringMessageSourc
 	
 	protected Deque<ReceivedClearThMessage> getAllMessages()
 	{
-		Deque<ReceivedClearThMessage> result = prepareMessages(collector.getMessagesData());
+		lastSeenCollectorId = collector.getLastArrivedId();
+		Deque<ReceivedClearThMessage> result = prepareMessages(indexedField != null 
+				? collector.getMessagesData(-1, indexedField, indexedValue) 
+				: collector.getMessagesData());
 		updateLastId(result);
 		return result;
 	}
 	
 	protected Deque<ReceivedClearThMessage> getMessages(long afterId)
 	{
-		Deque<ReceivedClearThMessage> result = prepareMessages(collector.getMessagesData(afterId));
+		Deque<ReceivedClearThMessage> result = prepareMessages(getMessagesData(afterId));
 		updateLastId(result);
 		return result;
 	}
 
 	protected Deque<ReceivedClearThMessage> getMessagesAfterTime(long afterId, long afterTime)
 	{
-		Deque<ReceivedClearThMessage> result = prepareMessages(collector.getMessagesData(afterId));
+		Deque<ReceivedClearThMessage> result = prepareMessages(getMessagesData(afterId));
 		updateLastId(result);
 		ReceivedClearThMessage firstMessage = result.peekFirst();
 		while (firstMessage != null) {
@@ -180,4 +215,12 @@ public class CollectorMessageSource implements MessageSource, StringMessageSourc
 		}
 		return result;
 	}
+	
+	protected Collection<ReceivedClearThMessage> getMessagesData(long afterId)
+	{
+		lastSeenCollectorId = collector.getLastArrivedId();
+		if (indexedField != null)
+			return collector.getMessagesData(afterId, indexedField, indexedValue);
+		return collector.getMessagesData(afterId);
+	}
 }
@@ -81,7 +81,7 @@ public class MatchesByMainKeys<T extends ClearThMessage<T>> implements MessageMa
 			return false;
 		}
 		
-		if (!cu.compareValues(expectedValue, messageValue))
+		if (!cu.getExpectedValuePredicate(expectedValue, true).test(messageValue))
 		{
 			logger.debug("Checking of key field '{}' failed: expected '{}', actual '{}'", name, expectedValue, messageValue);
 			return false;
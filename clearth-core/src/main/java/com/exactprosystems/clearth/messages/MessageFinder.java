@@ -144,9 +144,17 @@ public class MessageFinder<T extends ClearThMessage<T>>
 					if (timeLeft <= 0)
 						return messages;
 					
-					long timeToSleep = Math.min(searchDelayMs, timeLeft);
-					logger.trace("Pause for {} ms", timeToSleep);
-					Thread.sleep(timeToSleep);
+					if (messageSource.isNotifyingAboutMessages())
+					{
+						logger.trace("Waiting for new messages for up to {} ms", timeLeft);
+						messageSource.awaitNewMessages(timeLeft);
+					}
+					else
+					{
+						long timeToSleep = Math.min(searchDelayMs, timeLeft);
+						logger.trace("Pause for {} ms", timeToSleep);
+						Thread.sleep(timeToSleep);
+					}
 				}
 				catch (IOException e)
 				{
@@ -41,4 +41,24 @@ public interface MessageSource
 	 * Removes given message from source if this operation is supported. Else does nothing
 	 */
 	public void removeMessage(ClearThMessage<?> message);
+	
+	/**
+	 * @return true if source is able to notify about new messages via {@link #awaitNewMessages(long)}, 
+	 * false if it should be polled periodically
+	 */
+	default boolean isNotifyingAboutMessages()
+	{
+		return false;
+	}
+	
+	/**
+	 * Waits for new messages to appear in underlying source after ones already returned by {@link #nextMessage()}.
+	 * By default, just sleeps for given time
+	 * @param timeoutMs maximum time to wait (in milliseconds)
+	 * @throws InterruptedException if waiting was interrupted
+	 */
+	default void awaitNewMessages(long timeoutMs) throws InterruptedException
+	{
+		Thread.sleep(timeoutMs);
+	}
 }
@@ -23,19 +23,25 @@ import com.exactprosystems.clearth.automation.functions.SpecialDataModel;
 import com.exactprosystems.clearth.automation.report.ResultDetail;
 import com.exactprosystems.clearth.automation.report.results.DetailedResult;
 import com.exactprosystems.clearth.automation.report.results.complex.ComparisonRow;
+import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -254,6 +260,16 @@ public class ComparisonUtils
 	public static final String ERROR = "Error";
 	public static final String IS_CASE_SENSITIVE = "IsCaseSensitive";
 	public static final String IS_IGNORE_SPACES = "IsIgnoreSpaces";
+	
+	public static final int PREDICATES_CACHE_SIZE = 10000;
+	//Methods used by compareValues() to check actual values. Compiled predicates don't call most of them, so they are not used if any is overridden
+	private static final Set<String> COMPARISON_METHODS = new HashSet<>(Arrays.asList("compareValues", "compareByPattern", "isTimeStamp",
+			"compareDates", "isBeforeDate", "isAfterDate", "isBetweenDates", "isGreaterThan", "isGreaterOrEq", "isLessThan", "isLessOrEq",
+			"isBetween", "compareAsNumber", "compareAsAbsNumber", "isNotEqualNumber", "numbersEqual", "isNotEqualText", "compareTexts"));
+	
+	private final Map<String, ExpectedValuePredicate> caseSensitivePredicates = Collections.synchronizedMap(new LRUMap<>(PREDICATES_CACHE_SIZE)),
+			caseInsensitivePredicates = Collections.synchronizedMap(new LRUMap<>(PREDICATES_CACHE_SIZE));
+	private final boolean comparisonOverridden = isComparisonOverridden();
 
 	@SpecialDataModel(
 			name = "pattern",
@@ -573,6 +589,208 @@ public class ComparisonUtils
 		return compareValues(expectedValue, actualValue, false);
 	}
 	
+	/**
+	 * Returns predicate to check actual values against given expected value, taking it from cache if the same
+	 * expression has been already compiled. Plain values (i.e. not containing special values and functions) are not
+	 * cached as their comparison doesn't need any preparation, unless {@link #compareValues(String, String, boolean)}
+	 * or methods it uses are overridden and thus may handle them in a special way.
+	 * 
+	 * @param expectedValue expected value or expression to compare actual values with
+	 * @param isCaseSensitive flag to compare plain values case-sensitively
+	 * @return predicate that gives the same result as {@link #compareValues(String, String, boolean)} for given expected value
+	 */
+	public ExpectedValuePredicate getExpectedValuePredicate(String expectedValue, boolean isCaseSensitive)
+	{
+		//All special values and functions contain '{', other values are compared as is unless subclass handles them
+		if (!comparisonOverridden && (expectedValue == null || expectedValue.indexOf('{') < 0))
+			return createEqualityPredicate(expectedValue, isCaseSensitive);
+		
+		Map<String, ExpectedValuePredicate> cache = isCaseSensitive ? caseSensitivePredicates : caseInsensitivePredicates;
+		return cache.computeIfAbsent(expectedValue, v -> compileExpectedValue(v, isCaseSensitive));
+	}
+	
+	/**
+	 * Parses expected value once to apply it to many actual values. 
+	 * If expected value contains invalid function parameters, resulting predicate will throw the same exception 
+	 * as {@link #compareValues(String, String, boolean)} does on each check.
+	 * 
+	 * @param expectedValue expected value or expression to compare actual values with
+	 * @param isCaseSensitive flag to compare plain values case-sensitively
+	 * @return immutable predicate that gives the same result as {@link #compareValues(String, String, boolean)} for given expected value
+	 */
+	public ExpectedValuePredicate compileExpectedValue(String expectedValue, boolean isCaseSensitive)
+	{
+		try
+		{
+			ExpectedValuePredicate result = doCompileExpectedValue(expectedValue, isCaseSensitive);
+			if (result != null)
+				return result;
+		}
+		catch (ParametersException | RuntimeException e)
+		{
+			logger.trace("Could not compile expression '{}', it will be evaluated on each comparison", expectedValue, e);
+		}
+		return actualValue -> compareValues(expectedValue, actualValue, isCaseSensitive);
+	}
+	
+	/**
+	 * Prepares predicate for given expected value. 
+	 * Checks are done in the same order as in {@link #compareValues(String, String, boolean)}.
+	 * If subclass overrides any of comparison methods, all values are evaluated by {@link #compareValues(String, String, boolean)}.
+	 * @return prepared predicate or null if expected value should be evaluated by {@link #compareValues(String, String, boolean)} on each check
+	 */
+	protected ExpectedValuePredicate doCompileExpectedValue(String expectedValue, boolean isCaseSensitive) throws ParametersException
+	{
+		if (comparisonOverridden)
+			return null;
+		
+		if (contains(expectedValue, PATTERN_START))
+		{
+			Pattern pattern = Pattern.compile(preparePattern(expectedValue));
+			return actualValue -> pattern.matcher(actualValue != null ? actualValue : "").matches();
+		}
+		
+		if (StringUtils.startsWith(expectedValue, IS_TIMESTAMP_START)
+				|| StringUtils.startsWith(expectedValue, IS_BEFORE_DATE)
+				|| StringUtils.startsWith(expectedValue, IS_AFTER_DATE)
+				|| StringUtils.startsWith(expectedValue, IS_BETWEEN_DATES))
+			return null;  //Date formats are not thread-safe, so they are created on each comparison
+		
+		if (StringUtils.startsWith(expectedValue, IS_GREATER_THAN))
+		{
+			BigDecimal expected = getExpectedBigDecimal(expectedValue, IS_GREATER_THAN_NAME);
+			return actualValue -> isNumberWithoutQualifier(actualValue) && new BigDecimal(actualValue).compareTo(expected) > 0;
+		}
+		if (StringUtils.startsWith(expectedValue, IS_GREATER_OR_EQUAL))
+		{
+			BigDecimal expected = getExpectedBigDecimal(expectedValue, IS_GREATER_OR_EQUAL_NAME);
+			return actualValue -> isNumberWithoutQualifier(actualValue) && new BigDecimal(actualValue).compareTo(expected) >= 0;
+		}
+		if (StringUtils.startsWith(expectedValue, IS_LESS_THAN))
+		{
+			BigDecimal expected = getExpectedBigDecimal(expectedValue, IS_LESS_THAN_NAME);
+			return actualValue -> isNumberWithoutQualifier(actualValue) && new BigDecimal(actualValue).compareTo(expected) < 0;
+		}
+		if (StringUtils.startsWith(expectedValue, IS_LESS_OR_EQUAL))
+		{
+			BigDecimal expected = getExpectedBigDecimal(expectedValue, IS_LESS_THAN_OR_EQUAL_NAME);
+			return actualValue -> isNumberWithoutQualifier(actualValue) && new BigDecimal(actualValue).compareTo(expected) <= 0;
+		}
+		if (StringUtils.startsWith(expectedValue, IS_BETWEEN))
+			return compileIsBetween(expectedValue);
+		if (StringUtils.startsWith(expectedValue, AS_NUMBER_START))
+			return compileNumbersEqual(expectedValue, false, false, AS_NUMBER_NAME);
+		if (StringUtils.startsWith(expectedValue, AS_ABS_NUMBER_START))
+			return compileNumbersEqual(expectedValue, true, false, AS_ABS_NUMBER_NAME);
+		
+		String trimmedExpectedValue = trim(expectedValue);
+		if (SPECIAL_VALUES.contains(trimmedExpectedValue))
+			return compileSpecialValue(trimmedExpectedValue);
+		
+		if (StringUtils.startsWith(expectedValue, IS_NOT_EQUAL_NUMBER))
+			return compileNumbersEqual(expectedValue, false, true, IS_NOT_EQUAL_NUMBER_NAME);
+		if (StringUtils.startsWith(expectedValue, IS_NOT_EQUAL_TEXT))
+			return null;
+		
+		//Unknown expressions are evaluated by compareValues()
+		if (expectedValue != null && expectedValue.indexOf('{') >= 0)
+			return null;
+		return createEqualityPredicate(expectedValue, isCaseSensitive);
+	}
+	
+	private boolean isComparisonOverridden()
+	{
+		for (Class<?> c = getClass(); c != ComparisonUtils.class; c = c.getSuperclass())
+		{
+			for (Method method : c.getDeclaredMethods())
+			{
+				if (!COMPARISON_METHODS.contains(method.getName()) || Modifier.isStatic(method.getModifiers()))
+					continue;
+				
+				try
+				{
+					ComparisonUtils.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+					logger.debug("Method '{}' is overridden in {}, expected values will be evaluated by compareValues()", method.getName(), c.getName());
+					return true;
+				}
+				catch (NoSuchMethodException e)
+				{
+					//Not an override, it's a new method of subclass
+				}
+			}
+		}
+		return false;
+	}
+	
+	protected ExpectedValuePredicate createEqualityPredicate(String expectedValue, boolean isCaseSensitive)
+	{
+		return isCaseSensitive
+				? actualValue -> StringUtils.equals(expectedValue, actualValue)
+				: actualValue -> StringUtils.equalsIgnoreCase(expectedValue, actualValue);
+	}
+	
+	protected ExpectedValuePredicate compileSpecialValue(String specialValue)
+	{
+		if (NULL_VALUES.contains(specialValue))
+			return actualValue -> actualValue == null;
+		if (NOT_NULL_VALUES.contains(specialValue))
+			return actualValue -> actualValue != null;
+		if (IS_EMPTY.equals(specialValue))
+			return actualValue -> actualValue != null && actualValue.isEmpty();
+		if (IS_NOT_EMPTY.equals(specialValue))
+			return StringUtils::isNotEmpty;
+		if (NULL_OR_EMPTY_VALUES.contains(specialValue))
+			return StringUtils::isEmpty;
+		if (IS_ANY_VALUE.equals(specialValue))
+			return actualValue -> true;
+		if (IS_NUMBER.equals(specialValue))
+			return NumberUtils::isNumber;
+		if (IS_FLOAT.equals(specialValue))
+			return actualValue -> FLOAT_PATTERN.matcher(actualValue).matches();
+		return actualValue -> INTEGER_PATTERN.matcher(actualValue).matches();  // @{isInteger}
+	}
+	
+	protected ExpectedValuePredicate compileNumbersEqual(String expectedExpression, boolean abs, boolean invert,
+			String functionName) throws ParametersException
+	{
+		String paramsLine = prepareExpectedValue(expectedExpression);
+		if (isEmpty(paramsLine))
+			throw new ParametersException(format("Parameters in function '%s' are missing.", functionName));
+		
+		String[] params = removeQuotesAndSpaces(split(paramsLine,','));
+		checkNumberOfParams(functionName, params, 1, 3);
+		
+		BigDecimal expected = getBigDecimalValue(params, 0, functionName, EXPECTED_VALUE);
+		BigDecimal error = getBigDecimalValue(params, 1, functionName, ERROR);
+		Integer scale = getIntegerValue(params, 2, functionName, SCALE);
+		
+		return actualValue -> isNumberWithoutQualifier(actualValue)
+				&& invert != numbersEqual(expected, new BigDecimal(actualValue), scale, error, abs);
+	}
+	
+	protected ExpectedValuePredicate compileIsBetween(String expectedExpression) throws ParametersException
+	{
+		String paramsLine = prepareExpectedValue(expectedExpression);
+		String[] params = split(paramsLine, ',');
+		ParametersUtils.checkNumberOfParams(IS_BETWEEN_NAME, params, 2, 3);
+		ParametersUtils.removeQuotesAndSpaces(params);
+		
+		BigDecimal leftBound = getBigDecimalValue(params, 0, IS_BETWEEN_NAME, "leftBound");
+		BigDecimal rightBound = getBigDecimalValue(params, 1, IS_BETWEEN_NAME, "rightBound");
+		String inclusion = params.length == 3 ? StringUtils.strip(params[2], "'") : null;
+		if (StringUtils.isNotEmpty(inclusion) && !INCLUDE_LEFT.equals(inclusion) && !INCLUDE_RIGHT.equals(inclusion) && !INCLUDE_BOTH.equals(inclusion))
+			return null;  //Invalid inclusion will be reported by isBetween() for numeric actual values
+		
+		return actualValue -> {
+			if (!isNumberWithoutQualifier(actualValue))
+			{
+				logger.warn("Unable to parse actual value '{}' in function '{}'", actualValue, IS_BETWEEN_NAME);
+				return false;
+			}
+			return isBetween(leftBound, rightBound, new BigDecimal(StringUtils.strip(actualValue, "'")), inclusion);
+		};
+	}
+	
 	@SpecialDataModel(
 			name = "isGreaterOrEqual",
 			value = "BigDecimal number",
@@ -33,7 +33,7 @@ public class StringCache
 		this.maxStringLength = maxStringLength;
 	}
 	
-	public String get(String value)
+	public synchronized String get(String value)
 	{
 		if (value == null)
 			return null;
@@ -44,7 +44,7 @@ public class StringCache
 		return cache.computeIfAbsent(value, k -> value);
 	}
 	
-	public void clear()
+	public synchronized void clear()
 	{
 		cache.clear();
 	}
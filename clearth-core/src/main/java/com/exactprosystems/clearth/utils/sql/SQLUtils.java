@@ -356,6 +356,18 @@ public class SQLUtils
 		return getDbValue(rs, rsColumnName, OBJECT_TRANSFORMER);
 	}
 	
+	public static String getDbValue(ResultSet rs, int rsColumnIndex, ObjectToStringTransformer objectTransformer)
+			throws SQLException, IOException
+	{
+		Object value = rs.getObject(rsColumnIndex);
+		return objectTransformer.transform(value);
+	}
+	
+	public static String getDbValue(ResultSet rs, int rsColumnIndex) throws SQLException, IOException
+	{
+		return getDbValue(rs, rsColumnIndex, OBJECT_TRANSFORMER);
+	}
+	
 	public static boolean tableExists(Connection connection, String tableName) throws SQLException
 	{
 		if (isEmpty(tableName))
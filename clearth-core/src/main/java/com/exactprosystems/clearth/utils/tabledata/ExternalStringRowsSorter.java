@@ -0,0 +1,343 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata;
+
+import com.exactprosystems.clearth.utils.Utils;
+import com.exactprosystems.clearth.utils.tabledata.primarykeys.PrimaryKey;
+import com.exactprosystems.clearth.utils.tabledata.rowMatchers.TableRowMatcher;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * External sort of string table rows by their primary keys.
+ * Rows are collected in memory and written to disk as sorted runs when their number reaches the limit.
+ * Sorted rows are obtained by merging all runs, which requires only one row per run to be kept in memory.
+ * Sort is stable, i.e. rows with equal primary keys are returned in order they were added.
+ * Sorter must be closed to remove temporary files.
+ * @param <C> class of primary key
+ */
+public class ExternalStringRowsSorter<C extends PrimaryKey> implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(ExternalStringRowsSorter.class);
+	
+	public static final int DEFAULT_ROWS_IN_RUN = 100000,
+			DEFAULT_MERGE_WIDTH = 64;
+	
+	private final TableHeader<String> header;
+	private final TableRowMatcher<String, String, C> matcher;
+	private final Comparator<C> keyComparator;
+	private final Path directory;
+	private final int maxRowsInRun,
+			mergeWidth;
+	
+	private final List<KeyedRow<C>> buffer = new ArrayList<>();
+	private final List<Run> runs = new ArrayList<>();
+	private final List<Closeable> openedRuns = new ArrayList<>();
+	private int runsCreated;
+	private boolean sorted;
+	
+	public ExternalStringRowsSorter(TableHeader<String> header, TableRowMatcher<String, String, C> matcher, Comparator<C> keyComparator,
+			Path parentDir) throws IOException
+	{
+		this(header, matcher, keyComparator, parentDir, DEFAULT_ROWS_IN_RUN, DEFAULT_MERGE_WIDTH);
+	}
+	
+	/**
+	 * @param parentDir directory to create temporary directory for sorted runs in
+	 * @param maxRowsInRun number of rows to keep in memory before writing them to disk as sorted run
+	 * @param mergeWidth max number of runs to merge at once. If there are more runs, they are merged in several passes
+	 */
+	public ExternalStringRowsSorter(TableHeader<String> header, TableRowMatcher<String, String, C> matcher, Comparator<C> keyComparator,
+			Path parentDir, int maxRowsInRun, int mergeWidth) throws IOException
+	{
+		if (maxRowsInRun < 1)
+			throw new IllegalArgumentException("Number of rows in run must be positive, got "+maxRowsInRun);
+		if (mergeWidth < 2)
+			throw new IllegalArgumentException("Merge width must be at least 2, got "+mergeWidth);
+		
+		this.header = header;
+		this.matcher = matcher;
+		this.keyComparator = keyComparator;
+		this.maxRowsInRun = maxRowsInRun;
+		this.mergeWidth = mergeWidth;
+		
+		Files.createDirectories(parentDir);
+		this.directory = Files.createTempDirectory(parentDir, "sorted_rows_");
+	}
+	
+	
+	public void add(TableRow<String, String> row) throws IOException
+	{
+		if (sorted)
+			throw new IllegalStateException("Rows are already sorted");
+		
+		buffer.add(new KeyedRow<>(matcher.createPrimaryKey(row), row));
+		if (buffer.size() >= maxRowsInRun)
+			writeRun();
+	}
+	
+	/**
+	 * Finishes adding of rows and returns them sorted by primary key.
+	 * Iterator throws {@link UncheckedIOException} if rows cannot be read from disk
+	 * @return iterator over all added rows, sorted by primary key
+	 * @throws IOException if sorted runs could not be written or merged
+	 */
+	public Iterator<TableRow<String, String>> sort() throws IOException
+	{
+		if (sorted)
+			throw new IllegalStateException("Rows are already sorted");
+		sorted = true;
+		
+		if (runs.isEmpty())
+		{
+			//All rows fit into memory, no need to use disk
+			buffer.sort(this::compareRows);
+			return new Iterator<TableRow<String, String>>()
+			{
+				private int index = 0;
+				
+				@Override
+				public boolean hasNext()
+				{
+					return index < buffer.size();
+				}
+				
+				@Override
+				public TableRow<String, String> next()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					
+					//Releasing returned rows so that they can be garbage collected
+					return buffer.set(index++, null).row;
+				}
+			};
+		}
+		
+		if (!buffer.isEmpty())
+			writeRun();
+		
+		while (runs.size() > mergeWidth)
+			mergePass();
+		return merge(new ArrayList<>(runs));
+	}
+	
+	public int getRunsCount()
+	{
+		return runs.size();
+	}
+	
+	public Path getDirectory()
+	{
+		return directory;
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		buffer.clear();
+		for (Closeable c : openedRuns)
+			Utils.closeResource(c);
+		openedRuns.clear();
+		runs.clear();
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+	
+	
+	protected int compareRows(KeyedRow<C> row1, KeyedRow<C> row2)
+	{
+		return keyComparator.compare(row1.key, row2.key);
+	}
+	
+	private void writeRun() throws IOException
+	{
+		//List.sort() is stable, so rows with equal keys keep their order
+		buffer.sort(this::compareRows);
+		Run run = newRun();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run.file))))
+		{
+			for (KeyedRow<C> r : buffer)
+				StringTableRowsIO.writeRow(out, r.row);
+		}
+		run.rowsCount = buffer.size();
+		runs.add(run);
+		buffer.clear();
+		logger.trace("Written sorted run #{} with {} rows", runsCreated, run.rowsCount);
+	}
+	
+	/**
+	 * Merges consecutive groups of runs into bigger runs. Order of runs is kept to keep the sort stable
+	 */
+	private void mergePass() throws IOException
+	{
+		logger.debug("Merging {} sorted runs by {}", runs.size(), mergeWidth);
+		List<Run> merged = new ArrayList<>();
+		for (int i = 0; i < runs.size(); i += mergeWidth)
+		{
+			List<Run> group = runs.subList(i, Math.min(i + mergeWidth, runs.size()));
+			if (group.size() == 1)
+			{
+				merged.add(group.get(0));
+				continue;
+			}
+			
+			Run run = newRun();
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run.file))))
+			{
+				Iterator<TableRow<String, String>> it = merge(group);
+				while (it.hasNext())
+				{
+					StringTableRowsIO.writeRow(out, it.next());
+					run.rowsCount++;
+				}
+			}
+			catch (UncheckedIOException e)
+			{
+				throw e.getCause();
+			}
+			
+			for (Run r : group)
+				Files.delete(r.file);
+			merged.add(run);
+		}
+		
+		for (Closeable c : openedRuns)
+			Utils.closeResource(c);
+		openedRuns.clear();
+		runs.clear();
+		runs.addAll(merged);
+	}
+	
+	private Run newRun()
+	{
+		return new Run(directory.resolve((++runsCreated)+".run"));
+	}
+	
+	private Iterator<TableRow<String, String>> merge(List<Run> toMerge) throws IOException
+	{
+		PriorityQueue<RunReader> queue = new PriorityQueue<>((r1, r2) -> {
+			int result = compareRows(r1.current, r2.current);
+			//For equal keys rows from earlier run go first, this keeps the sort stable
+			return result != 0 ? result : Integer.compare(r1.index, r2.index);
+		});
+		
+		for (int i = 0; i < toMerge.size(); i++)
+		{
+			RunReader reader = new RunReader(toMerge.get(i), i);
+			openedRuns.add(reader);
+			if (reader.advance())
+				queue.add(reader);
+		}
+		
+		return new Iterator<TableRow<String, String>>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return !queue.isEmpty();
+			}
+			
+			@Override
+			public TableRow<String, String> next()
+			{
+				RunReader reader = queue.poll();
+				if (reader == null)
+					throw new NoSuchElementException();
+				
+				TableRow<String, String> result = reader.current.row;
+				try
+				{
+					if (reader.advance())
+						queue.add(reader);
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException("Could not read sorted rows from disk", e);
+				}
+				return result;
+			}
+		};
+	}
+	
+	
+	protected static class KeyedRow<C>
+	{
+		private final C key;
+		private final TableRow<String, String> row;
+		
+		public KeyedRow(C key, TableRow<String, String> row)
+		{
+			this.key = key;
+			this.row = row;
+		}
+	}
+	
+	private static class Run
+	{
+		private final Path file;
+		private int rowsCount;
+		
+		public Run(Path file)
+		{
+			this.file = file;
+		}
+	}
+	
+	private class RunReader implements Closeable
+	{
+		private final DataInputStream in;
+		private final int index;
+		private int rowsLeft;
+		private KeyedRow<C> current;
+		
+		public RunReader(Run run, int index) throws IOException
+		{
+			this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file)));
+			this.index = index;
+			this.rowsLeft = run.rowsCount;
+		}
+		
+		public boolean advance() throws IOException
+		{
+			if (rowsLeft <= 0)
+			{
+				current = null;
+				close();
+				return false;
+			}
+			
+			rowsLeft--;
+			TableRow<String, String> row = StringTableRowsIO.readRow(in, header);
+			current = new KeyedRow<>(matcher.createPrimaryKey(row), row);
+			return true;
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			in.close();
+		}
+	}
+}
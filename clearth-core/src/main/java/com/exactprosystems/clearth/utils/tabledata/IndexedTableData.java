@@ -163,6 +163,18 @@ public class IndexedTableData<A, B, C extends PrimaryKey> extends BasicTableData
 		return find(row, true);
 	}
 
+	/**
+	 * Finds in table a row that matches given row and removes that row from table. 
+	 * Implementations that keep part of rows outside of memory don't look for the row there, 
+	 * so this method can be used to quickly match rows while table is being filled
+	 * @param row to find corresponding row for
+	 * @return row found in table, null if no row in memory matches both primary and secondary keys of given row
+	 */
+	public TableRow<A, B> findAndRemoveInMemory(TableRow<A, B> row)
+	{
+		return find(row, true);
+	}
+
 	/**
 	 * Finds bucket of rows that correspond to given primary key
 	 * @param primaryKey to find bucket by
@@ -0,0 +1,361 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata;
+
+import com.exactprosystems.clearth.utils.MemoryAndSpaceMonitor;
+import com.exactprosystems.clearth.utils.tabledata.primarykeys.PrimaryKey;
+import com.exactprosystems.clearth.utils.tabledata.rowMatchers.TableRowMatcher;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Indexed storage of string table data that moves rows to disk when memory is low.
+ * Rows moved to disk are stored in partition files by hash of their primary key.
+ * When rows of some primary key are requested, the whole partition containing that key is read back into memory.
+ * {@link #findAndRemoveInMemory(TableRow)} doesn't read partitions, so it can be used to quickly check for matching row while data is being added.
+ * Storage must be closed to remove partition files.
+ */
+public class SpillingIndexedStringTableData<C extends PrimaryKey> extends IndexedStringTableData<C> implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(SpillingIndexedStringTableData.class);
+	
+	public static final int DEFAULT_PARTITIONS_COUNT = 64,
+			MIN_ROWS_TO_SPILL = 10000,
+			MEMORY_CHECK_INTERVAL = 1000;
+	
+	private final Path directory;
+	private final int[] spilledCounts;
+	private final BooleanSupplier memoryLow;
+	private final int maxRowsInMemory;
+	private int spilledRows,
+			addedSinceCheck;
+	
+	/**
+	 * Creates storage that moves rows to disk when memory usage breaches given limit
+	 * @param parentDir directory to create temporary directory for partition files in
+	 * @param memoryLimitPercent limit of used memory in percents of max memory available to JVM
+	 */
+	public SpillingIndexedStringTableData(TableHeader<String> header, TableRowMatcher<String, String, C> matcher,
+			Path parentDir, int memoryLimitPercent) throws IOException
+	{
+		this(header, matcher, parentDir, DEFAULT_PARTITIONS_COUNT, 0, () -> MemoryAndSpaceMonitor.isMemoryBreachLimit(memoryLimitPercent));
+	}
+	
+	/**
+	 * @param parentDir directory to create temporary directory for partition files in
+	 * @param partitionsCount number of files to distribute rows on disk
+	 * @param maxRowsInMemory number of rows in memory to move them to disk after. 0 means no limit, i.e. only memoryLow condition is checked
+	 * @param memoryLow condition to move rows to disk. Is checked periodically when rows are added
+	 */
+	public SpillingIndexedStringTableData(TableHeader<String> header, TableRowMatcher<String, String, C> matcher,
+			Path parentDir, int partitionsCount, int maxRowsInMemory, BooleanSupplier memoryLow) throws IOException
+	{
+		super(header, matcher);
+		if (partitionsCount < 1)
+			throw new IllegalArgumentException("Number of partitions must be positive, got "+partitionsCount);
+		
+		Files.createDirectories(parentDir);
+		this.directory = Files.createTempDirectory(parentDir, "spilled_rows_");
+		this.spilledCounts = new int[partitionsCount];
+		this.maxRowsInMemory = maxRowsInMemory;
+		this.memoryLow = memoryLow;
+	}
+	
+	
+	@Override
+	public void add(TableRow<String, String> row) throws IllegalArgumentException
+	{
+		super.add(row);
+		
+		int inMemory = getRowsInMemory();
+		if (maxRowsInMemory > 0 && inMemory >= maxRowsInMemory)
+			spill(-1);
+		else if (++addedSinceCheck >= MEMORY_CHECK_INTERVAL)
+		{
+			addedSinceCheck = 0;
+			if (inMemory >= MIN_ROWS_TO_SPILL && memoryLow.getAsBoolean())
+				spill(-1);
+		}
+	}
+	
+	@Override
+	public TableRow<String, String> find(TableRow<String, String> row, boolean remove)
+	{
+		restore(partition(matcher.createPrimaryKey(row)));
+		return super.find(row, remove);
+	}
+	
+	@Override
+	public TableRow<String, String> findAndRemoveInMemory(TableRow<String, String> row)
+	{
+		return super.find(row, true);
+	}
+	
+	@Override
+	public List<TableRow<String, String>> findAll(C primaryKey)
+	{
+		restore(partition(primaryKey));
+		return super.findAll(primaryKey);
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		return rows.isEmpty() && spilledRows == 0;
+	}
+	
+	@Override
+	public void clear()
+	{
+		super.clear();
+		removePartitions();
+	}
+	
+	/**
+	 * Iterates over primary keys of rows in memory first. Then partitions stored on disk are read one by one and their keys are returned.
+	 * Key can be returned twice if its rows were both in memory and on disk
+	 */
+	@Override
+	public Iterator<C> iterator()
+	{
+		return new SpillingIterator();
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		rows.clear();
+		rowsCount = 0;
+		removePartitions();
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+	
+	
+	public int getRowsInMemory()
+	{
+		return rowsCount - spilledRows;
+	}
+	
+	public int getSpilledRows()
+	{
+		return spilledRows;
+	}
+	
+	public Path getDirectory()
+	{
+		return directory;
+	}
+	
+	
+	protected int partition(C primaryKey)
+	{
+		return (primaryKey.hashCode() & Integer.MAX_VALUE) % spilledCounts.length;
+	}
+	
+	protected Path partitionFile(int partition)
+	{
+		return directory.resolve(partition+".rows");
+	}
+	
+	/**
+	 * Moves rows from memory to partition files
+	 * @param partitionToKeep partition whose rows must stay in memory, -1 to move all rows
+	 */
+	protected void spill(int partitionToKeep)
+	{
+		logger.debug("Moving {} rows to disk, {} rows are already there", getRowsInMemory(), spilledRows);
+		Map<Integer, DataOutputStream> outputs = new HashMap<>();
+		try
+		{
+			Iterator<Map.Entry<C, List<TableRow<String, String>>>> it = rows.entrySet().iterator();
+			while (it.hasNext())
+			{
+				Map.Entry<C, List<TableRow<String, String>>> bucket = it.next();
+				int partition = partition(bucket.getKey());
+				if (partition == partitionToKeep)
+					continue;
+				
+				DataOutputStream out = outputs.get(partition);
+				if (out == null)
+				{
+					out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partitionFile(partition),
+							StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+					outputs.put(partition, out);
+				}
+				
+				for (TableRow<String, String> row : bucket.getValue())
+					writeRow(out, row);
+				
+				int count = bucket.getValue().size();
+				spilledCounts[partition] += count;
+				spilledRows += count;
+				it.remove();
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Could not move rows to disk", e);
+		}
+		finally
+		{
+			for (DataOutputStream out : outputs.values())
+			{
+				try
+				{
+					out.close();
+				}
+				catch (IOException e)
+				{
+					logger.warn("Error while closing partition file", e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Reads rows of given partition from disk back to memory. Rows from disk are placed before rows with the same primary key that are already in memory
+	 * @return primary keys of restored rows
+	 */
+	protected Collection<C> restore(int partition)
+	{
+		if (spilledCounts[partition] == 0)
+			return Collections.emptyList();
+		
+		if (memoryLow.getAsBoolean())
+			spill(partition);
+		
+		Path file = partitionFile(partition);
+		Map<C, List<TableRow<String, String>>> restored = new LinkedHashMap<>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			for (int i = spilledCounts[partition]; i > 0; i--)
+			{
+				TableRow<String, String> row = readRow(in);
+				restored.computeIfAbsent(matcher.createPrimaryKey(row), k -> rowsListFactory.createRowsList()).add(row);
+			}
+			Files.delete(file);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Could not read rows from disk", e);
+		}
+		
+		for (Map.Entry<C, List<TableRow<String, String>>> bucket : restored.entrySet())
+		{
+			List<TableRow<String, String>> inMemory = rows.get(bucket.getKey());
+			if (inMemory != null)
+				bucket.getValue().addAll(inMemory);
+			rows.put(bucket.getKey(), bucket.getValue());
+		}
+		
+		spilledRows -= spilledCounts[partition];
+		spilledCounts[partition] = 0;
+		return restored.keySet();
+	}
+	
+	protected void writeRow(DataOutputStream out, TableRow<String, String> row) throws IOException
+	{
+		StringTableRowsIO.writeRow(out, row);
+	}
+	
+	protected TableRow<String, String> readRow(DataInputStream in) throws IOException
+	{
+		return StringTableRowsIO.readRow(in, header);
+	}
+	
+	private void removePartitions()
+	{
+		for (int i = 0; i < spilledCounts.length; i++)
+		{
+			if (spilledCounts[i] == 0)
+				continue;
+			
+			try
+			{
+				Files.deleteIfExists(partitionFile(i));
+			}
+			catch (IOException e)
+			{
+				logger.warn("Could not remove partition file", e);
+			}
+			spilledCounts[i] = 0;
+		}
+		spilledRows = 0;
+	}
+	
+	
+	private class SpillingIterator implements Iterator<C>
+	{
+		private Iterator<C> keys = rows.keySet().iterator();
+		private boolean inMemory = true;
+		private int nextPartition = 0;
+		private C currentKey;
+		
+		@Override
+		public boolean hasNext()
+		{
+			while (!keys.hasNext())
+			{
+				while (nextPartition < spilledCounts.length && spilledCounts[nextPartition] == 0)
+					nextPartition++;
+				if (nextPartition >= spilledCounts.length)
+					return false;
+				
+				keys = new ArrayList<>(restore(nextPartition++)).iterator();
+				inMemory = false;
+			}
+			return true;
+		}
+		
+		@Override
+		public C next()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			currentKey = keys.next();
+			return currentKey;
+		}
+		
+		@Override
+		public void remove()
+		{
+			if (inMemory)
+			{
+				List<TableRow<String, String>> bucket = rows.get(currentKey);
+				if (bucket != null)
+					rowsCount -= bucket.size();
+				keys.remove();
+				return;
+			}
+			
+			//Restored keys are iterated over a copy, so removing directly from the map
+			List<TableRow<String, String>> bucket = rows.remove(currentKey);
+			if (bucket != null)
+				rowsCount -= bucket.size();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format of string table rows stored in temporary files.
+ * Only row values are written, header is given when rows are read back.
+ */
+public class StringTableRowsIO
+{
+	private StringTableRowsIO()
+	{
+	}
+	
+	
+	public static void writeRow(DataOutputStream out, TableRow<String, String> row) throws IOException
+	{
+		out.writeInt(row.size());
+		for (String value : row)
+		{
+			if (value == null)
+				out.writeInt(-1);
+			else
+			{
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+	
+	public static TableRow<String, String> readRow(DataInputStream in, TableHeader<String> header) throws IOException
+	{
+		int size = in.readInt();
+		List<String> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			int length = in.readInt();
+			if (length < 0)
+				values.add(null);
+			else
+			{
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				values.add(new String(bytes, StandardCharsets.UTF_8));
+			}
+		}
+		return new TableRow<>(header, values);
+	}
+}
@@ -30,6 +30,7 @@ import org.apache.commons.collections4.MapUtils;
 
 import java.io.File;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -50,6 +51,10 @@ public class ComparisonConfiguration
 			CHECK_DUPLICATES = "CheckDuplicates",
 			LIST_FAILED_COLUMNS = "ListFailedColumnsInReport",
 			FAIL_UNEXPECTED_COLUMNS = "FailUnexpectedColumns",
+			SPILL_MEMORY_LIMIT = "SpillToDiskMemoryLimit",
+			COMPARISON_MODE = "ComparisonMode",
+			MODE_INDEXED = "Indexed",
+			MODE_SORT_MERGE = "SortMerge",
 			PASSED = "Passed",
 			FAILED = "Failed",
 			NOT_FOUND = "NotFound",
@@ -80,6 +85,8 @@ public class ComparisonConfiguration
 			listFailedColumns,
 			keyValuesInHeader,
 			failUnexpectedColumns;
+	protected int spillMemoryLimit;
+	protected boolean sortMerge;
 	
 	protected ComparisonRowsConfiguration passedRowsConfig,
 			failedRowsConfig,
@@ -115,6 +122,12 @@ public class ComparisonConfiguration
 		listFailedColumns = handler.getBoolean(LIST_FAILED_COLUMNS, false);
 		keyValuesInHeader = handler.getBoolean(KEY_VALUES_IN_HEADER, false);
 		failUnexpectedColumns = handler.getBoolean(FAIL_UNEXPECTED_COLUMNS, false);
+		spillMemoryLimit = handler.getInteger(SPILL_MEMORY_LIMIT, 0);
+		if (spillMemoryLimit < 0 || spillMemoryLimit > 100)
+			throw new ParametersException("Parameter '" + SPILL_MEMORY_LIMIT + "' must be in range 0-100, got " + spillMemoryLimit);
+		sortMerge = MODE_SORT_MERGE.equals(handler.getString(COMPARISON_MODE, MODE_INDEXED, Arrays.asList(MODE_INDEXED, MODE_SORT_MERGE)));
+		if (sortMerge && CollectionUtils.isEmpty(keyColumns))
+			throw new ParametersException("Comparison mode '" + MODE_SORT_MERGE + "' requires key columns to be specified");
 		
 		passedRowsConfig = new ComparisonRowsConfiguration(handler.getInteger(MIN_PASSED_ROWS_TO_STORE, DEFAULT_MIN_STORED_ROWS_COUNT),
 				handler.getInteger(MAX_PASSED_ROWS_TO_STORE, DEFAULT_MAX_STORED_ROWS_COUNT),
@@ -232,4 +245,20 @@ public class ComparisonConfiguration
 	{
 		return failUnexpectedColumns;
 	}
+	
+	/**
+	 * @return limit of used memory in percents of max memory, after which unmatched rows are moved to disk. 0 means rows are always kept in memory
+	 */
+	public int getSpillMemoryLimit()
+	{
+		return spillMemoryLimit;
+	}
+	
+	/**
+	 * @return true if data sets should be sorted by key columns and compared in a single merge pass instead of keeping unmatched rows in memory
+	 */
+	public boolean isSortMerge()
+	{
+		return sortMerge;
+	}
 }
@@ -29,6 +29,7 @@ import com.exactprosystems.clearth.utils.Stopwatch;
 import com.exactprosystems.clearth.utils.Utils;
 import com.exactprosystems.clearth.utils.tabledata.TableRow;
 import com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators.IndexedTableDataComparator;
+import com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators.SortMergeStringTableDataComparator;
 import com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators.TableDataComparator;
 import com.exactprosystems.clearth.utils.tabledata.comparison.result.ColumnComparisonDetail;
 import com.exactprosystems.clearth.utils.tabledata.comparison.result.RowComparisonData;
@@ -106,8 +107,7 @@ public class ComparisonProcessor<A, B, C extends PrimaryKey>
 	public Result compareTables(TableDataComparator<A, B> comparator, KeyColumnsRowsCollector<A, B, C> keyColumnsRowsCollector,
 			long timeout) throws ComparisonException
 	{
-		TableRowMatcher<A, B, C> rowMatcher = comparator instanceof IndexedTableDataComparator ?
-				((IndexedTableDataComparator<A, B, C>)comparator).getRowMatcher() : null;
+		TableRowMatcher<A, B, C> rowMatcher = getRowMatcher(comparator);
 		ContainerResult result = null;
 		Stopwatch stopwatch = timeout > 0 ? Stopwatch.createAndStart(timeout) : null;
 		
@@ -164,6 +164,20 @@ public class ComparisonProcessor<A, B, C extends PrimaryKey>
 		}
 	}
 	
+	/**
+	 * Returns {@link TableRowMatcher} used by comparator to match rows by key columns.
+	 * @return row matcher or null if comparator compares rows line by line.
+	 */
+	@SuppressWarnings("unchecked")
+	protected TableRowMatcher<A, B, C> getRowMatcher(TableDataComparator<A, B> comparator)
+	{
+		if (comparator instanceof IndexedTableDataComparator)
+			return ((IndexedTableDataComparator<A, B, C>)comparator).getRowMatcher();
+		if (comparator instanceof SortMergeStringTableDataComparator)
+			return (TableRowMatcher<A, B, C>)((SortMergeStringTableDataComparator)comparator).getRowMatcher();
+		return null;
+	}
+	
 	/**
 	 * Starts comparison process using {@link TableDataComparator} without the time limit.
 	 * Could collect rows by key columns and find duplicates of them.
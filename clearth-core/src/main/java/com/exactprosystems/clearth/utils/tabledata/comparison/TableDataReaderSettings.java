@@ -28,11 +28,13 @@ import java.util.Map;
 
 public class TableDataReaderSettings
 {
+	public static final int DEFAULT_FETCH_SIZE = 1000;
 	public static final String SOURCE_TYPE = "Format", SOURCE_DATA = "Source",
 			COMMON_PARAM = "Common", EXPECTED_PARAM = "Expected", ACTUAL_PARAM = "Actual",
 			
 			CSV_DELIMITER = "CsvDelimiter", SCRIPT_FILE_PARAMS = "ScriptFileParams",
 			SCRIPT_SHELL_NAME = "ScriptShellName", SCRIPT_SHELL_OPTION = "ScriptShellOption",
+			FETCH_SIZE = "FetchSize", PREFETCH = "Prefetch",
 			EXPECTED_CONNECTION_PARAM_NAME = "ExpectedConnectionName",
 			ACTUAL_CONNECTION_PARAM_NAME = "ActualConnectionName";
 	
@@ -44,6 +46,8 @@ public class TableDataReaderSettings
 	protected char csvDelimiter;
 	protected String scriptFileParams, shellName, shellOption;
 	protected Map<String, String> sqlQueryParams;
+	protected int fetchSize;
+	protected boolean prefetch;
 	protected DbConnectionSupplier dbConnectionSupplier;
 	
 	public TableDataReaderSettings(Map<String, String> params, boolean forExpectedData, DbConnectionSupplier dbConnectionSupplier)
@@ -95,6 +99,11 @@ public class TableDataReaderSettings
 				handler.getString(SCRIPT_SHELL_NAME + (forExpectedData ? EXPECTED_PARAM : ACTUAL_PARAM), "bash"));
 		shellOption = handler.getString(SCRIPT_SHELL_OPTION + COMMON_PARAM,
 				handler.getString(SCRIPT_SHELL_OPTION + (forExpectedData ? EXPECTED_PARAM : ACTUAL_PARAM), "-c"));
+		
+		fetchSize = handler.getInteger(FETCH_SIZE + COMMON_PARAM,
+				handler.getInteger(FETCH_SIZE + (forExpectedData ? EXPECTED_PARAM : ACTUAL_PARAM), DEFAULT_FETCH_SIZE));
+		prefetch = handler.getBoolean(PREFETCH + COMMON_PARAM,
+				handler.getBoolean(PREFETCH + (forExpectedData ? EXPECTED_PARAM : ACTUAL_PARAM), false));
 	}
 
 	public String getDbConName()
@@ -142,6 +151,16 @@ public class TableDataReaderSettings
 		return shellOption;
 	}
 	
+	public int getFetchSize()
+	{
+		return fetchSize;
+	}
+	
+	public boolean isPrefetch()
+	{
+		return prefetch;
+	}
+	
 	public Map<String, String> getSqlQueryParams()
 	{
 		return sqlQueryParams;
@@ -20,8 +20,10 @@ package com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators;
 
 import com.exactprosystems.clearth.automation.exceptions.ParametersException;
 import com.exactprosystems.clearth.utils.ComparisonUtils;
+import com.exactprosystems.clearth.utils.Utils;
 import com.exactprosystems.clearth.utils.tabledata.IndexedStringTableData;
 import com.exactprosystems.clearth.utils.tabledata.IndexedTableData;
+import com.exactprosystems.clearth.utils.tabledata.SpillingIndexedStringTableData;
 import com.exactprosystems.clearth.utils.tabledata.TableHeader;
 import com.exactprosystems.clearth.utils.tabledata.comparison.rowsComparators.TableRowsComparator;
 import com.exactprosystems.clearth.utils.tabledata.comparison.valuesComparators.StringValuesComparator;
@@ -31,6 +33,7 @@ import com.exactprosystems.clearth.utils.tabledata.readers.BasicTableDataReader;
 import com.exactprosystems.clearth.utils.tabledata.rowMatchers.TableRowMatcher;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Comparator for indexed data sets which works with columns and row values represented as strings.
@@ -55,6 +58,31 @@ public class IndexedStringTableDataComparator<C extends PrimaryKey> extends Inde
 	}
 	
 	
+	/**
+	 * Makes comparator keep unmatched rows in storages that move rows to disk when memory is low. 
+	 * Must be called before comparison is started
+	 * @param directory to store rows moved out of memory
+	 * @param memoryLimitPercent limit of used memory in percents of max memory available to JVM
+	 * @throws IOException if storages could not be created
+	 */
+	public void useSpillingStorages(Path directory, int memoryLimitPercent) throws IOException
+	{
+		if (!expectedStorage.isEmpty() || !actualStorage.isEmpty())
+			throw new IllegalStateException("Comparison is already in progress");
+		
+		SpillingIndexedStringTableData<C> expected = new SpillingIndexedStringTableData<>(expectedHeader, rowMatcher, directory, memoryLimitPercent);
+		try
+		{
+			actualStorage = new SpillingIndexedStringTableData<>(actualHeader, rowMatcher, directory, memoryLimitPercent);
+		}
+		catch (IOException e)
+		{
+			Utils.closeResource(expected);
+			throw e;
+		}
+		expectedStorage = expected;
+	}
+	
 	@Override
 	protected IndexedTableData<String, String, C> createExpectedStorage(TableHeader<String> header,
 			TableRowMatcher<String, String, C> rowMatcher) throws IOException
@@ -19,6 +19,7 @@
 package com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators;
 
 import com.exactprosystems.clearth.automation.exceptions.ParametersException;
+import com.exactprosystems.clearth.utils.Utils;
 import com.exactprosystems.clearth.utils.tabledata.primarykeys.PrimaryKey;
 import com.exactprosystems.clearth.utils.tabledata.readers.BasicTableDataReader;
 import com.exactprosystems.clearth.utils.tabledata.IndexedTableData;
@@ -30,6 +31,7 @@ import com.exactprosystems.clearth.utils.tabledata.comparison.valuesComparators.
 import com.exactprosystems.clearth.utils.tabledata.converters.ValueParser;
 import com.exactprosystems.clearth.utils.tabledata.rowMatchers.TableRowMatcher;
 
+import java.io.Closeable;
 import java.io.IOException;
 
 /**
@@ -178,7 +180,8 @@ public abstract class IndexedTableDataComparator<A, B, C extends PrimaryKey> ext
 
 	protected TableRow<A, B> findAndRemoveFromStorage(IndexedTableData<A, B, C> storage, TableRow<A, B> row, boolean isExpectedRow)
 	{
-		return storage.findAndRemove(row);
+		// Rows moved out of memory are matched when sources are read completely
+		return storage.findAndRemoveInMemory(row);
 	}
 
 	/**
@@ -194,6 +197,19 @@ public abstract class IndexedTableDataComparator<A, B, C extends PrimaryKey> ext
 		return foundRow;
 	}
 	
+	/**
+	 * Closes table data readers and storages used by comparator.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		super.close();
+		if (expectedStorage instanceof Closeable)
+			Utils.closeResource((Closeable) expectedStorage);
+		if (actualStorage instanceof Closeable)
+			Utils.closeResource((Closeable) actualStorage);
+	}
+	
 	/**
 	 * Creates expected table data to store non-compared yet rows.
 	 * @param header of the storage.
@@ -0,0 +1,249 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators;
+
+import com.exactprosystems.clearth.automation.exceptions.ParametersException;
+import com.exactprosystems.clearth.utils.Pair;
+import com.exactprosystems.clearth.utils.Utils;
+import com.exactprosystems.clearth.utils.tabledata.ExternalStringRowsSorter;
+import com.exactprosystems.clearth.utils.tabledata.TableHeader;
+import com.exactprosystems.clearth.utils.tabledata.TableRow;
+import com.exactprosystems.clearth.utils.tabledata.comparison.result.RowComparisonData;
+import com.exactprosystems.clearth.utils.tabledata.comparison.rowsComparators.TableRowsComparator;
+import com.exactprosystems.clearth.utils.tabledata.converters.StringValueParser;
+import com.exactprosystems.clearth.utils.tabledata.primarykeys.CollectionPrimaryKey;
+import com.exactprosystems.clearth.utils.tabledata.readers.BasicTableDataReader;
+import com.exactprosystems.clearth.utils.tabledata.rowMatchers.TableRowMatcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Comparator for data sets with key columns which doesn't keep unmatched rows in memory.
+ * Both data sets are read completely and sorted by primary key using external sort, i.e. with sorted runs stored on disk.
+ * After that, sorted rows are matched in a single merge pass.
+ * Only rows with the same primary key are kept in memory during comparison.
+ */
+public class SortMergeStringTableDataComparator extends TableDataComparator<String, String>
+{
+	private static final Comparator<String> VALUE_COMPARATOR = Comparator.nullsFirst(Comparator.naturalOrder());
+	/**
+	 * Orders primary keys by their values, null values go first
+	 */
+	public static final Comparator<CollectionPrimaryKey<String>> KEY_COMPARATOR = (key1, key2) -> {
+		List<String> values1 = key1.toList(),
+				values2 = key2.toList();
+		for (int i = 0, size = Math.min(values1.size(), values2.size()); i < size; i++)
+		{
+			int result = VALUE_COMPARATOR.compare(values1.get(i), values2.get(i));
+			if (result != 0)
+				return result;
+		}
+		return Integer.compare(values1.size(), values2.size());
+	};
+	
+	protected final TableRowMatcher<String, String, CollectionPrimaryKey<String>> rowMatcher;
+	protected final ExternalStringRowsSorter<CollectionPrimaryKey<String>> expectedSorter, actualSorter;
+	
+	private Iterator<TableRow<String, String>> expectedRows, actualRows;
+	private TableRow<String, String> nextExpected, nextActual;
+	private final Deque<Pair<TableRow<String, String>, TableRow<String, String>>> matchedRows = new ArrayDeque<>();
+	
+	public SortMergeStringTableDataComparator(BasicTableDataReader<String, String, ?> expectedReader,
+			BasicTableDataReader<String, String, ?> actualReader,
+			TableRowMatcher<String, String, CollectionPrimaryKey<String>> rowMatcher,
+			TableRowsComparator<String, String> rowsComparator, Path tempDir) throws IOException, ParametersException
+	{
+		this(expectedReader, actualReader, rowMatcher, rowsComparator, tempDir, ExternalStringRowsSorter.DEFAULT_ROWS_IN_RUN);
+	}
+	
+	/**
+	 * @param tempDir directory to store sorted runs in
+	 * @param maxRowsInRun number of rows from each data set to keep in memory while sorting
+	 */
+	public SortMergeStringTableDataComparator(BasicTableDataReader<String, String, ?> expectedReader,
+			BasicTableDataReader<String, String, ?> actualReader,
+			TableRowMatcher<String, String, CollectionPrimaryKey<String>> rowMatcher,
+			TableRowsComparator<String, String> rowsComparator, Path tempDir, int maxRowsInRun) throws IOException, ParametersException
+	{
+		super(expectedReader, actualReader, rowsComparator, new StringValueParser());
+		this.rowMatcher = rowMatcher;
+		checkHeader(expectedHeader, true);
+		checkHeader(actualHeader, false);
+		
+		expectedSorter = new ExternalStringRowsSorter<>(expectedHeader, rowMatcher, KEY_COMPARATOR, tempDir,
+				maxRowsInRun, ExternalStringRowsSorter.DEFAULT_MERGE_WIDTH);
+		try
+		{
+			actualSorter = new ExternalStringRowsSorter<>(actualHeader, rowMatcher, KEY_COMPARATOR, tempDir,
+					maxRowsInRun, ExternalStringRowsSorter.DEFAULT_MERGE_WIDTH);
+		}
+		catch (IOException e)
+		{
+			Utils.closeResource(expectedSorter);
+			throw e;
+		}
+	}
+	
+	protected void checkHeader(TableHeader<String> header, boolean forExpected) throws ParametersException
+	{
+		try
+		{
+			rowMatcher.checkHeader(header);
+		}
+		catch (ParametersException e)
+		{
+			throw new ParametersException("Problem occurred while validating " +
+					(forExpected ? "expected" : "actual") +
+					" header " + header + ": " + e.getMessage(), e);
+		}
+	}
+	
+	
+	/**
+	 * Sorts both data sets on first call. Then checks if there are more rows to compare.
+	 */
+	@Override
+	public boolean hasMoreRows() throws IOException
+	{
+		if (expectedRows == null)
+			sortSources();
+		return !matchedRows.isEmpty() || nextExpected != null || nextActual != null;
+	}
+	
+	/**
+	 * Compares next pair of rows. Pairs are made of rows with the same primary key that also match by secondary key.
+	 * Rows are returned in order of their primary keys.
+	 */
+	@Override
+	public RowComparisonData<String, String> compareRows() throws IOException
+	{
+		if (matchedRows.isEmpty())
+			matchNextKey();
+		
+		Pair<TableRow<String, String>, TableRow<String, String>> pair = matchedRows.poll();
+		if (pair == null)
+			throw new IllegalStateException("No more rows to compare");
+		
+		TableRow<String, String> expectedRow = pair.getFirst(),
+				actualRow = pair.getSecond();
+		currentRow = expectedRow != null ? expectedRow : actualRow;
+		return rowsComparator.compareRows(expectedRow, actualRow, commonHeader);
+	}
+	
+	public TableRowMatcher<String, String, CollectionPrimaryKey<String>> getRowMatcher()
+	{
+		return rowMatcher;
+	}
+	
+	/**
+	 * Closes table data readers and removes sorted runs.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		super.close();
+		Utils.closeResource(expectedSorter);
+		Utils.closeResource(actualSorter);
+	}
+	
+	
+	protected void sortSources() throws IOException
+	{
+		while (expectedReader.hasMoreData())
+			expectedSorter.add(expectedReader.readRow());
+		while (actualReader.hasMoreData())
+			actualSorter.add(actualReader.readRow());
+		
+		expectedRows = expectedSorter.sort();
+		actualRows = actualSorter.sort();
+		nextExpected = nextRow(expectedRows);
+		nextActual = nextRow(actualRows);
+	}
+	
+	/**
+	 * Takes all rows with the smallest primary key from both data sets and pairs them in order they appeared in data sets.
+	 * Rows are paired only if they match by secondary key. Rows without pair are compared with null.
+	 */
+	protected void matchNextKey() throws IOException
+	{
+		CollectionPrimaryKey<String> expectedKey = nextExpected != null ? rowMatcher.createPrimaryKey(nextExpected) : null,
+				actualKey = nextActual != null ? rowMatcher.createPrimaryKey(nextActual) : null;
+		int order;
+		if (expectedKey == null)
+			order = 1;
+		else if (actualKey == null)
+			order = -1;
+		else
+			order = KEY_COMPARATOR.compare(expectedKey, actualKey);
+		
+		List<TableRow<String, String>> expectedGroup = order <= 0 ? takeGroup(expectedKey, true) : Collections.emptyList(),
+				actualGroup = order >= 0 ? takeGroup(actualKey, false) : new ArrayList<>();
+		for (TableRow<String, String> expectedRow : expectedGroup)
+		{
+			TableRow<String, String> actualRow = null;
+			for (Iterator<TableRow<String, String>> it = actualGroup.iterator(); it.hasNext(); )
+			{
+				TableRow<String, String> row = it.next();
+				if (rowMatcher.matchBySecondaryKey(expectedRow, row))
+				{
+					actualRow = row;
+					it.remove();
+					break;
+				}
+			}
+			matchedRows.add(new Pair<>(expectedRow, actualRow));
+		}
+		
+		for (TableRow<String, String> actualRow : actualGroup)
+			matchedRows.add(new Pair<>(null, actualRow));
+	}
+	
+	private List<TableRow<String, String>> takeGroup(CollectionPrimaryKey<String> key, boolean expected) throws IOException
+	{
+		List<TableRow<String, String>> result = new ArrayList<>();
+		TableRow<String, String> row = expected ? nextExpected : nextActual;
+		Iterator<TableRow<String, String>> rows = expected ? expectedRows : actualRows;
+		while (row != null && key.equals(rowMatcher.createPrimaryKey(row)))
+		{
+			result.add(row);
+			row = nextRow(rows);
+		}
+		
+		if (expected)
+			nextExpected = row;
+		else
+			nextActual = row;
+		return result;
+	}
+	
+	private TableRow<String, String> nextRow(Iterator<TableRow<String, String>> rows) throws IOException
+	{
+		try
+		{
+			return rows.hasNext() ? rows.next() : null;
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+}
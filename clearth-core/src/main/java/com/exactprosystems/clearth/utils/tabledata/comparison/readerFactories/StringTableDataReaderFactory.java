@@ -123,6 +123,8 @@ public class StringTableDataReaderFactory implements TableDataReaderFactory<Stri
 		DbDataReader dbDataReader = new DbDataReader(statement, settings.isNeedCloseDbConnection());
 		dbDataReader.setQueryDescription("for " + (forExpectedData ? "expected" : "actual") + " data");
 		dbDataReader.setValueTransformer(getValueTransformer());
+		dbDataReader.setFetchSize(settings.getFetchSize());
+		dbDataReader.setPrefetch(settings.isPrefetch());
 		return dbDataReader;
 	}
 	
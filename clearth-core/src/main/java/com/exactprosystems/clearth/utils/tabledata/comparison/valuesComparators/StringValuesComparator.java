@@ -33,7 +33,7 @@ public class StringValuesComparator implements ValuesComparator<String, String>
 	@Override
 	public ComparisonResult compareValues(String expectedValue, String actualValue, String column) throws Exception
 	{
-		return ComparisonResult.from(comparisonUtils.compareValues(expectedValue, actualValue));
+		return ComparisonResult.from(comparisonUtils.getExpectedValuePredicate(expectedValue, true).test(actualValue));
 	}
 	
 	@Override
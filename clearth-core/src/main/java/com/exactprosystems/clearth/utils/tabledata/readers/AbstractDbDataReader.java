@@ -22,6 +22,7 @@ import com.exactprosystems.clearth.utils.IValueTransformer;
 import com.exactprosystems.clearth.utils.ObjectToStringTransformer;
 import com.exactprosystems.clearth.utils.sql.SQLUtils;
 import com.exactprosystems.clearth.utils.tabledata.BasicTableData;
+import com.exactprosystems.clearth.utils.tabledata.TableHeader;
 import com.exactprosystems.clearth.utils.tabledata.TableRow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +30,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -37,6 +40,10 @@ import java.util.concurrent.TimeUnit;
 public abstract class AbstractDbDataReader<C extends BasicTableData<String, String>> extends BasicTableDataReader<String, String, C>
 {
 	private static final Logger logger = LoggerFactory.getLogger(AbstractDbDataReader.class);
+	public static final int DEFAULT_PREFETCH_BLOCK_SIZE = 1000;
+	
+	//Produces the same strings as default object transformer for character values, but without creating intermediate objects
+	private static final DbValueConverter STRING_CONVERTER = ResultSet::getString;
 	
 	protected final PreparedStatement statement;
 	protected ResultSet resultSet = null;
@@ -46,6 +53,14 @@ public abstract class AbstractDbDataReader<C extends BasicTableData<String, Stri
 	protected ObjectToStringTransformer objectTransformer;
 	protected String queryDescription = null;
 	protected boolean needCloseDbConnection;
+	protected int fetchSize = 0;
+	protected boolean prefetch = false;
+	protected int prefetchBlockSize = DEFAULT_PREFETCH_BLOCK_SIZE;
+	
+	private DbColumn[] columns;
+	private Boolean nameBasedAccess;
+	private DbRowsPrefetcher prefetcher;
+	private String[] prefetchedRow;
 	
 	public AbstractDbDataReader(PreparedStatement preparedStatement)
 	{
@@ -80,6 +95,15 @@ public abstract class AbstractDbDataReader<C extends BasicTableData<String, Stri
 		if (resultSet == null)
 			executeStatement();
 		
+		if (prefetcher == null && isPrefetchApplicable())
+			startPrefetch();
+		
+		if (prefetcher != null)
+		{
+			prefetchedRow = prefetcher.next();
+			return prefetchedRow != null;
+		}
+		
 		try
 		{
 			return resultSet.next();
@@ -99,22 +123,29 @@ public abstract class AbstractDbDataReader<C extends BasicTableData<String, Stri
 	@Override
 	protected void fillRow(TableRow<String, String> row) throws IOException
 	{
-		for (String column : row.getHeader())
+		if (prefetcher != null)
 		{
-			try
-			{
-				row.setValue(column, getValueFromResultSet(column, resultSet));
-			}
-			catch (SQLException e)
-			{
-				throw new IOException("Error while getting value for column '" + column + "'", e);
-			}
+			for (int i = 0; i < prefetchedRow.length; i++)
+				row.setValue(i, prefetchedRow[i]);
+			return;
 		}
+		
+		if (isNameBasedAccess())
+		{
+			fillRowByNames(row);
+			return;
+		}
+		
+		for (DbColumn column : getColumns(row.getHeader()))
+			row.setValue(column.getTableIndex(), readValue(column));
 	}
 	
 	@Override
 	public void close() throws IOException
 	{
+		if (prefetcher != null)
+			prefetcher.close();
+		
 		try
 		{
 			statement.close(); // This should close appropriate ResultSet object too
@@ -131,6 +162,8 @@ public abstract class AbstractDbDataReader<C extends BasicTableData<String, Stri
 	{
 		try
 		{
+			applyFetchHints();
+			
 			long startTime = System.currentTimeMillis();
 			if (!statement.execute())
 				throw new IOException("No data in DB result set. Probably an update query has been used or there is no result at all");
@@ -144,13 +177,34 @@ public abstract class AbstractDbDataReader<C extends BasicTableData<String, Stri
 		}
 	}
 	
+	/**
+	 * Sets fetch size and forward fetch direction for statement to execute. 
+	 * These are hints for JDBC driver, so errors are just logged
+	 */
+	protected void applyFetchHints()
+	{
+		try
+		{
+			if (fetchSize > 0)
+				statement.setFetchSize(fetchSize);
+			statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+		}
+		catch (SQLException e)
+		{
+			getLogger().debug("Could not apply fetch hints to statement", e);
+		}
+	}
+	
 	/**
 	 * Extracts value from current ResultSet row by specified table header. Note: table header can differ from SQL result table header.
 	 * @param tableHeader header of created table data instance.
 	 * @return value from current ResultSet row by specified table header, specially transformed if needed.
 	 * @throws SQLException if some SQL error occurred.
 	 * @throws IOException if some IO error occurred.
+	 * @deprecated values are read by column index, override {@link #getValueFromResultSet(DbColumn, ResultSet)} instead. 
+	 * If this method is overridden, reader will access values by names as before
 	 */
+	@Deprecated
 	protected String getValueFromResultSet(String tableHeader, ResultSet resultSet) throws SQLException, IOException
 	{
 		String value = objectTransformer != null ?
@@ -158,11 +212,188 @@ public abstract class AbstractDbDataReader<C extends BasicTableData<String, Stri
 		return valueTransformer != null ? valueTransformer.transform(value) : value;
 	}
 	
+	/**
+	 * Extracts value from current ResultSet row by column index resolved once for the whole result set. 
+	 * If object transformer is not set, value is read by converter chosen for column type.
+	 * @param column table column and its position in ResultSet.
+	 * @return value from current ResultSet row, specially transformed if needed.
+	 * @throws SQLException if some SQL error occurred.
+	 * @throws IOException if some IO error occurred.
+	 */
+	protected String getValueFromResultSet(DbColumn column, ResultSet resultSet) throws SQLException, IOException
+	{
+		int index = column.getResultSetIndex();
+		String value;
+		if (objectTransformer != null)
+			value = SQLUtils.getDbValue(resultSet, index, objectTransformer);
+		else if (column.getConverter() != null)
+			value = column.getConverter().convert(resultSet, index);
+		else
+			value = SQLUtils.getDbValue(resultSet, index);
+		return valueTransformer != null ? valueTransformer.transform(value) : value;
+	}
+	
+	/**
+	 * @param tableHeader header of created table data instance.
+	 * @return name of ResultSet column to get value for given table header from
+	 */
+	protected String getDbColumnName(String tableHeader)
+	{
+		return tableHeader;
+	}
+	
+	/**
+	 * @param sqlType column type from {@link ResultSetMetaData}, one of {@link Types} constants
+	 * @return converter to read values of given type or null to read them via {@link ResultSet#getObject(int)}. 
+	 * Numeric types are always read as objects: databases with dynamic typing (e.g. SQLite) report declared column type, 
+	 * but can store value of other type in it
+	 */
+	protected DbValueConverter getConverter(int sqlType)
+	{
+		switch (sqlType)
+		{
+			case Types.CHAR :
+			case Types.VARCHAR :
+			case Types.LONGVARCHAR :
+			case Types.NCHAR :
+			case Types.NVARCHAR :
+			case Types.LONGNVARCHAR :
+				return STRING_CONVERTER;
+			default :
+				return null;
+		}
+	}
+	
+	/**
+	 * Resolves positions and value converters of table columns in ResultSet. This is done once, all rows are read by these positions
+	 * @param header of created table data instance
+	 * @return table columns with their positions in ResultSet
+	 * @throws IOException if ResultSet doesn't contain some column
+	 */
+	protected DbColumn[] getColumns(TableHeader<String> header) throws IOException
+	{
+		if (columns != null)
+			return columns;
+		
+		ResultSetMetaData metaData;
+		try
+		{
+			metaData = resultSet.getMetaData();
+		}
+		catch (SQLException e)
+		{
+			throw new IOException("Error while getting query result metadata", e);
+		}
+		
+		DbColumn[] result = new DbColumn[header.size()];
+		int i = 0;
+		for (String tableHeader : header)
+		{
+			String dbColumn = getDbColumnName(tableHeader);
+			try
+			{
+				int index = resultSet.findColumn(dbColumn);
+				result[i] = new DbColumn(tableHeader, i, dbColumn, index, getConverter(metaData.getColumnType(index)));
+			}
+			catch (SQLException e)
+			{
+				throw new IOException("Error while getting value for column '" + tableHeader + "'", e);
+			}
+			i++;
+		}
+		columns = result;
+		return columns;
+	}
+	
+	/**
+	 * @return true if rows can be read in background thread. 
+	 * This is possible if prefetch is enabled and neither row filter nor name-based value access need current ResultSet row
+	 */
+	protected boolean isPrefetchApplicable()
+	{
+		return prefetch && tableData != null && dbRowFilter == null && !isNameBasedAccess();
+	}
+	
 	protected Logger getLogger()
 	{
 		return logger;
 	}
 	
+	
+	private void startPrefetch() throws IOException
+	{
+		DbColumn[] prefetchColumns = getColumns(tableData.getHeader());
+		prefetcher = new DbRowsPrefetcher(new DbRowsPrefetcher.RowSource()
+		{
+			@Override
+			public boolean next() throws Exception
+			{
+				return resultSet.next();
+			}
+			
+			@Override
+			public String[] read() throws Exception
+			{
+				String[] values = new String[prefetchColumns.length];
+				for (int i = 0; i < prefetchColumns.length; i++)
+					values[i] = readValue(prefetchColumns[i]);
+				return values;
+			}
+		}, prefetchBlockSize, 2, "Prefetch of query result" + (queryDescription != null ? " " + queryDescription : ""));
+		prefetcher.start();
+	}
+	
+	private String readValue(DbColumn column) throws IOException
+	{
+		try
+		{
+			return getValueFromResultSet(column, resultSet);
+		}
+		catch (SQLException e)
+		{
+			throw new IOException("Error while getting value for column '" + column.getTableHeader() + "'", e);
+		}
+	}
+	
+	private void fillRowByNames(TableRow<String, String> row) throws IOException
+	{
+		for (String column : row.getHeader())
+		{
+			try
+			{
+				row.setValue(column, getValueFromResultSet(column, resultSet));
+			}
+			catch (SQLException e)
+			{
+				throw new IOException("Error while getting value for column '" + column + "'", e);
+			}
+		}
+	}
+	
+	private boolean isNameBasedAccess()
+	{
+		if (nameBasedAccess == null)
+			nameBasedAccess = isNameBasedAccessOverridden();
+		return nameBasedAccess;
+	}
+	
+	private boolean isNameBasedAccessOverridden()
+	{
+		for (Class<?> c = getClass(); c != AbstractDbDataReader.class; c = c.getSuperclass())
+		{
+			try
+			{
+				c.getDeclaredMethod("getValueFromResultSet", String.class, ResultSet.class);
+				return true;
+			}
+			catch (NoSuchMethodException e)
+			{
+				//Not overridden in this class, checking parent
+			}
+		}
+		return false;
+	}
+	
 
 	public void setDbRowFilter(DbRowFilter dbRowFilter)
 	{
@@ -188,4 +419,96 @@ public abstract class AbstractDbDataReader<C extends BasicTableData<String, Stri
 	{
 		return queryDescription;
 	}
+	
+	/**
+	 * @param fetchSize number of rows JDBC driver should fetch from database at once. 0 means driver default
+	 */
+	public void setFetchSize(int fetchSize)
+	{
+		this.fetchSize = fetchSize;
+	}
+	
+	public int getFetchSize()
+	{
+		return fetchSize;
+	}
+	
+	/**
+	 * @param prefetch if true, next block of rows is read in background thread while current block is processed. 
+	 * Not applicable if {@link DbRowFilter} is set
+	 */
+	public void setPrefetch(boolean prefetch)
+	{
+		this.prefetch = prefetch;
+	}
+	
+	public boolean isPrefetch()
+	{
+		return prefetch;
+	}
+	
+	public void setPrefetchBlockSize(int prefetchBlockSize)
+	{
+		this.prefetchBlockSize = prefetchBlockSize;
+	}
+	
+	public int getPrefetchBlockSize()
+	{
+		return prefetchBlockSize;
+	}
+	
+	
+	/**
+	 * Column of created table data, its position in ResultSet and converter to read its values
+	 */
+	public static class DbColumn
+	{
+		private final String tableHeader,
+				dbColumn;
+		private final int tableIndex,
+				resultSetIndex;
+		private final DbValueConverter converter;
+		
+		public DbColumn(String tableHeader, int tableIndex, String dbColumn, int resultSetIndex)
+		{
+			this(tableHeader, tableIndex, dbColumn, resultSetIndex, null);
+		}
+		
+		public DbColumn(String tableHeader, int tableIndex, String dbColumn, int resultSetIndex, DbValueConverter converter)
+		{
+			this.tableHeader = tableHeader;
+			this.tableIndex = tableIndex;
+			this.dbColumn = dbColumn;
+			this.resultSetIndex = resultSetIndex;
+			this.converter = converter;
+		}
+		
+		public String getTableHeader()
+		{
+			return tableHeader;
+		}
+		
+		public int getTableIndex()
+		{
+			return tableIndex;
+		}
+		
+		public String getDbColumn()
+		{
+			return dbColumn;
+		}
+		
+		public int getResultSetIndex()
+		{
+			return resultSetIndex;
+		}
+		
+		/**
+		 * @return converter for column values or null if they are read as objects
+		 */
+		public DbValueConverter getConverter()
+		{
+			return converter;
+		}
+	}
 }
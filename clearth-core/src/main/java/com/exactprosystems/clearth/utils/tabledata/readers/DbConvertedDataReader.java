@@ -57,12 +57,17 @@ public class DbConvertedDataReader extends AbstractDbDataReader<StringTableData>
 	}
 	
 	@Override
-	protected String getValueFromResultSet(String tableHeader, ResultSet resultSet) throws SQLException, IOException
+	protected String getDbColumnName(String tableHeader)
 	{
-		// result set header might not be equal to table header so converted value should be gotten by corresponding DB header
-		String dbHeader = conversionSettings.getDBHeader(tableHeader),
-				valueFromResultSet = super.getValueFromResultSet(dbHeader, resultSet);
-		return conversionSettings.getConvertedDBValue(dbHeader, valueFromResultSet);
+		// result set header might not be equal to table header so value should be gotten by corresponding DB header
+		return conversionSettings.getDBHeader(tableHeader);
+	}
+	
+	@Override
+	protected String getValueFromResultSet(DbColumn column, ResultSet resultSet) throws SQLException, IOException
+	{
+		String valueFromResultSet = super.getValueFromResultSet(column, resultSet);
+		return conversionSettings.getConvertedDBValue(column.getDbColumn(), valueFromResultSet);
 	}
 	
 	@Override
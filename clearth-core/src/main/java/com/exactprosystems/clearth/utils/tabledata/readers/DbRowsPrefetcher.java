@@ -0,0 +1,163 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata.readers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads rows from database in background thread, keeping next blocks of rows ready while current block is being processed
+ */
+class DbRowsPrefetcher implements AutoCloseable
+{
+	private static final Logger logger = LoggerFactory.getLogger(DbRowsPrefetcher.class);
+	private static final List<String[]> END = Collections.emptyList();
+	
+	private final RowSource source;
+	private final int blockSize;
+	private final BlockingQueue<List<String[]>> blocks;
+	private final Thread thread;
+	private volatile boolean stopped = false;
+	private volatile Exception error;
+	
+	private Iterator<String[]> currentBlock = Collections.emptyIterator();
+	private boolean finished = false;
+	
+	DbRowsPrefetcher(RowSource source, int blockSize, int blocksAhead, String name)
+	{
+		this.source = source;
+		this.blockSize = Math.max(blockSize, 1);
+		this.blocks = new ArrayBlockingQueue<>(Math.max(blocksAhead, 1));
+		this.thread = new Thread(this::fetch, name);
+		thread.setDaemon(true);
+	}
+	
+	
+	void start()
+	{
+		thread.start();
+	}
+	
+	/**
+	 * @return values of next row or null if there are no more rows
+	 * @throws IOException if error occurred while reading rows
+	 */
+	String[] next() throws IOException
+	{
+		while (!currentBlock.hasNext())
+		{
+			if (finished)
+				return null;
+			
+			List<String[]> block;
+			try
+			{
+				block = blocks.take();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IOException("Wait for query result rows interrupted", e);
+			}
+			
+			if (block == END)
+			{
+				finished = true;
+				if (error != null)
+					throw new IOException("Error while getting next query result row", error);
+				return null;
+			}
+			currentBlock = block.iterator();
+		}
+		return currentBlock.next();
+	}
+	
+	@Override
+	public void close()
+	{
+		stopped = true;
+		thread.interrupt();
+		try
+		{
+			thread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			logger.warn("Wait for prefetch thread to stop interrupted");
+		}
+	}
+	
+	
+	private void fetch()
+	{
+		try
+		{
+			List<String[]> block = new ArrayList<>(blockSize);
+			while (!stopped && source.next())
+			{
+				block.add(source.read());
+				if (block.size() >= blockSize)
+				{
+					blocks.put(block);
+					block = new ArrayList<>(blockSize);
+				}
+			}
+			
+			if (!block.isEmpty() && !stopped)
+				blocks.put(block);
+		}
+		catch (InterruptedException e)
+		{
+			if (!stopped)
+				error = e;
+		}
+		catch (Exception e)
+		{
+			error = e;
+		}
+		
+		if (stopped)
+			return;
+		
+		try
+		{
+			blocks.put(END);
+		}
+		catch (InterruptedException e)
+		{
+			//Reader is being closed, nobody waits for the end marker
+		}
+	}
+	
+	
+	interface RowSource
+	{
+		boolean next() throws Exception;
+		String[] read() throws Exception;
+	}
+}
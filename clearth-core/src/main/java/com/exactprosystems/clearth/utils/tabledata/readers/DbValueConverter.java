@@ -0,0 +1,36 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata.readers;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface DbValueConverter
+{
+	/**
+	 * Reads value of current ResultSet row as string
+	 * @param resultSet to read value from
+	 * @param index position of column in ResultSet
+	 * @return value as string or null if it is SQL NULL
+	 * @throws SQLException if some SQL error occurred
+	 * @throws IOException if some IO error occurred
+	 */
+	String convert(ResultSet resultSet, int index) throws SQLException, IOException;
+}
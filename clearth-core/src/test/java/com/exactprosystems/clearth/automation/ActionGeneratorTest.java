@@ -169,4 +169,51 @@ public class ActionGeneratorTest
 		allSoft.assertNull(actionWithAllSpecial.getInputParam(groupParam), "Special parameter "+groupParam+" among regular parameters");
 		allSoft.assertAll();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void parallelBuildSameAsSequential() throws SettingsException, IOException
+	{
+		Path parentDir = Paths.get("src", "test", "resources", "ActionGenerator");
+		List<MatrixData> matricesData = new ArrayList<>();
+		for (int i = 1; i <= 3; i++)
+		{
+			MatrixData matrixData = new MatrixData();
+			matrixData.setName("Matrix"+i);
+			matrixData.setFile(parentDir.resolve("parallel").resolve("matrix"+i+".csv").toFile());
+			matricesData.add(matrixData);
+		}
+
+		List<String> sequential = buildMatrices(parentDir, matricesData, 1),
+				parallel = buildMatrices(parentDir, matricesData, 3);
+		Assert.assertEquals(parallel, sequential);
+	}
+
+	private List<String> buildMatrices(Path parentDir, List<MatrixData> matricesData, int threads) throws SettingsException, IOException
+	{
+		Map<String, Step> steps = new LinkedHashMap<>();
+		for (String stepName : Arrays.asList("Step1", "Step2"))
+			steps.put(stepName, new DefaultStep(stepName, null, null, StartAtType.DEFAULT, false, null, false, false, true, null));
+
+		ActionFactory actionFactory = new ActionFactory();
+		actionFactory.loadActionsMapping(parentDir.resolve("actionsmapping.cfg"));
+		ActionGeneratorResources resources = new ActionGeneratorResources(new SpecialActionParameters(), actionFactory,
+				new MvelVariablesFactory(null, null), new MatrixFunctions(null, null, null, false, null), new MatrixFatalErrors(), threads);
+
+		List<Matrix> matrices = new ArrayList<>();
+		ActionGenerator generator = new DefaultActionGenerator(steps, matrices, new HashMap<>(), resources);
+		Assert.assertFalse(generator.build(matricesData, false), "Action generation result");
+
+		List<String> result = new ArrayList<>();
+		for (Step step : steps.values())
+		{
+			for (Action action : step.getActions())
+				result.add(step.getName()+": "+action.getMatrix().getName()+"/"+action.getIdInMatrix());
+		}
+		for (Matrix matrix : matrices)
+		{
+			for (ActionGeneratorMessage message : matrix.getGeneratorMessages())
+				result.add(matrix.getName()+": "+message.type+" "+message.kind+" "+message.message);
+		}
+		return result;
+	}
+}
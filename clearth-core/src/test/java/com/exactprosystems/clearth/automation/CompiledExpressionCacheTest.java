@@ -0,0 +1,118 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation;
+
+import com.exactprosystems.clearth.BasicTestNgTest;
+import com.exactprosystems.clearth.utils.ClearThException;
+import com.exactprosystems.clearth.utils.ObjectWrapper;
+import org.mvel2.ParserContext;
+import org.testng.annotations.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public class CompiledExpressionCacheTest extends BasicTestNgTest
+{
+	@Test
+	public void sameFormulaCompiledOnce() throws Exception
+	{
+		CompiledExpressionCache cache = new CompiledExpressionCache(10);
+		ParserContext context = new ParserContext();
+
+		Serializable first = cache.getExpression("1 + 2", context, null),
+				second = cache.getExpression("1 + 2", context, null);
+
+		assertSame(second, first);
+		assertEquals(cache.getMisses(), 1);
+		assertEquals(cache.getHits(), 1);
+		assertEquals(cache.getSize(), 1);
+	}
+
+	@Test
+	public void differentContextsCachedSeparately() throws Exception
+	{
+		CompiledExpressionCache cache = new CompiledExpressionCache(10);
+
+		Serializable first = cache.getExpression("1 + 2", new ParserContext(), null),
+				second = cache.getExpression("1 + 2", new ParserContext(), null);
+
+		assertNotSame(second, first);
+		assertEquals(cache.getMisses(), 2);
+		assertEquals(cache.getHits(), 0);
+	}
+
+	@Test
+	public void leastRecentlyUsedEvicted() throws Exception
+	{
+		CompiledExpressionCache cache = new CompiledExpressionCache(2);
+		ParserContext context = new ParserContext();
+
+		cache.getExpression("1", context, null);
+		cache.getExpression("2", context, null);
+		cache.getExpression("1", context, null);
+		cache.getExpression("3", context, null);  //"2" should be evicted
+		cache.getExpression("1", context, null);
+
+		assertEquals(cache.getSize(), 2);
+		assertEquals(cache.getEvictions(), 1);
+		assertEquals(cache.getHits(), 2);
+		assertEquals(cache.getMisses(), 3);
+	}
+
+	@Test
+	public void invalidExpressionNotCached()
+	{
+		CompiledExpressionCache cache = new CompiledExpressionCache(10);
+		ParserContext context = new ParserContext();
+		MvelExpressionValidator validator = new MvelExpressionValidator();
+
+		for (int i = 0; i < 2; i++)
+		{
+			try
+			{
+				cache.getExpression("id.A id.B", context, validator);
+				fail("Invalid expression should not be accepted");
+			}
+			catch (Exception e)
+			{
+				assertTrue(e instanceof ClearThException, "Unexpected exception: "+e);
+			}
+		}
+
+		assertEquals(cache.getSize(), 0);
+		assertEquals(cache.getMisses(), 2);
+	}
+
+	@Test
+	public void matrixFunctionsReuseCompiledExpressions() throws Exception
+	{
+		MatrixFunctions functions = new MatrixFunctions(null, null, null, false, null);
+		Map<String, Object> vars = new HashMap<>();
+
+		for (int i = 0; i < 3; i++)
+			assertEquals(functions.calculateExpression("@{abs('-5')}", "Param", vars, null, null, new ObjectWrapper(0)), "5");
+
+		CompiledExpressionCache cache = functions.getExpressionCache();
+		assertEquals(cache.getMisses(), 1);
+		assertEquals(cache.getHits(), 2);
+	}
+}
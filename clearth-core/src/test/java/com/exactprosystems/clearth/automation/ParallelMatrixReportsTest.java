@@ -0,0 +1,189 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation;
+
+import com.exactprosystems.clearth.ApplicationManager;
+import com.exactprosystems.clearth.automation.report.AssertReports;
+import com.exactprosystems.clearth.automation.report.ReportException;
+import com.exactprosystems.clearth.automation.report.ReportsConfig;
+import com.exactprosystems.clearth.automation.report.ReportsWriter;
+import com.exactprosystems.clearth.automation.report.html.template.ReportTemplatesProcessor;
+import com.exactprosystems.clearth.automation.status.ProgressLine;
+import com.exactprosystems.clearth.utils.ClearThException;
+import com.exactprosystems.clearth.utils.FileOperationUtils;
+import freemarker.template.TemplateModelException;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.exactprosystems.clearth.ApplicationManager.USER_DIR;
+
+public class ParallelMatrixReportsTest
+{
+	private static final String USER = "user", STEP = "Step1",
+			FAILED_MATRIX_NAME = "test1_failed.csv", PASSED_MATRIX_NAME = "test2_passed.csv", BROKEN_MATRIX_NAME = "broken.csv";
+	private static final Path TEST_OUTPUT = USER_DIR.resolve("testOutput").resolve(ParallelMatrixReportsTest.class.getSimpleName());
+	private static final ReportsConfig REPORTS_CONFIG = new ReportsConfig(true, true, true);
+	
+	private ApplicationManager manager;
+	private Path resDir;
+	private Scheduler scheduler;
+	
+	@BeforeClass
+	public void init() throws ClearThException, IOException
+	{
+		manager = new ApplicationManager();
+		//Using action reports prepared for ReportsWriterTest
+		resDir = Path.of(FileOperationUtils.resourceToAbsoluteFilePath("ReportsWriterTest"));
+		scheduler = manager.getScheduler(USER, USER);
+		
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+	}
+	
+	@AfterClass
+	public void dispose() throws IOException
+	{
+		if (manager != null)
+			manager.dispose();
+	}
+	
+	@Test
+	public void reportsOfAllMatricesMade() throws Exception
+	{
+		Path reportsDir = TEST_OUTPUT.resolve("all");
+		TestExecutor executor = createExecutor(FAILED_MATRIX_NAME, PASSED_MATRIX_NAME);
+		executor.makeReports(reportsDir.toString(), resDir.resolve("actions").toString());
+		
+		assertMatrixReports(reportsDir);
+	}
+	
+	@Test
+	public void errorInOneMatrixDoesNotStopOthers() throws Exception
+	{
+		Path reportsDir = TEST_OUTPUT.resolve("withError");
+		TestExecutor executor = createExecutor(BROKEN_MATRIX_NAME, FAILED_MATRIX_NAME, PASSED_MATRIX_NAME);
+		try
+		{
+			executor.makeReports(reportsDir.toString(), resDir.resolve("actions").toString());
+			Assert.fail("Error while making reports of matrix is not thrown");
+		}
+		catch (ReportException e)
+		{
+			Assert.assertEquals(e.getMessage(), "Broken matrix");
+		}
+		
+		Assert.assertEquals(executor.reportedMatrices, Set.of(FAILED_MATRIX_NAME, PASSED_MATRIX_NAME), "Matrices with reports");
+		assertMatrixReports(reportsDir);
+	}
+	
+	
+	private TestExecutor createExecutor(String... matrixNames) throws TemplateModelException, IOException
+	{
+		Matrix[] matrices = new Matrix[matrixNames.length];
+		for (int i = 0; i < matrixNames.length; i++)
+			matrices[i] = createMatrix(matrixNames[i], !FAILED_MATRIX_NAME.equals(matrixNames[i]));
+		
+		return new TestExecutor(scheduler, Collections.singletonList(createStep()), Arrays.asList(matrices),
+				new GlobalContext(new Date(), false, Collections.emptyMap(), null, USER, null),
+				new ReportTemplatesProcessor(resDir.resolve("templates")));
+	}
+	
+	private void assertMatrixReports(Path reportsDir) throws IOException
+	{
+		AssertReports.assertAllReports(reportsDir.resolve(FAILED_MATRIX_NAME), resDir.resolve("expected_failed"), true, true, true);
+		AssertReports.assertAllReports(reportsDir.resolve(PASSED_MATRIX_NAME), resDir.resolve("expected_passed"), true, true, true);
+	}
+	
+	private Matrix createMatrix(String matrixName, boolean successful)
+	{
+		Matrix matrix = new Matrix(new MvelVariablesFactory(null, null));
+		matrix.setName(matrixName);
+		matrix.setFileName(matrixName);
+		matrix.setSuccessful(successful);
+		matrix.setStepSuccessful(STEP, successful);
+		return matrix;
+	}
+	
+	private Step createStep()
+	{
+		Step step = new DefaultStep();
+		step.setSafeName(STEP);
+		step.setName(STEP);
+		step.setKind(CoreStepKind.Default.getLabel());
+		step.setExecute(true);
+		step.setFinished(new Date());
+		step.setExecutionProgress(new ActionsExecutionProgress(1, 1));
+		return step;
+	}
+	
+	
+	private static class TestExecutor extends DefaultSimpleExecutor
+	{
+		private final ReportTemplatesProcessor templatesProcessor;
+		private final Set<String> reportedMatrices = ConcurrentHashMap.newKeySet();
+		
+		TestExecutor(Scheduler scheduler, List<Step> steps, List<Matrix> matrices, GlobalContext globalContext,
+				ReportTemplatesProcessor templatesProcessor)
+		{
+			super(scheduler, steps, matrices, globalContext, null, null, REPORTS_CONFIG);
+			this.templatesProcessor = templatesProcessor;
+		}
+		
+		@Override
+		protected int getReportThreads()
+		{
+			return 3;
+		}
+		
+		@Override
+		protected ReportsWriter initReportsWriter(String pathToStoreReports, String pathToActionsReports)
+		{
+			return new ReportsWriter(this, pathToStoreReports, pathToActionsReports, reportsConfig, templatesProcessor);
+		}
+		
+		@Override
+		public List<String> getMatrixSteps(String matrixName)
+		{
+			return List.of(STEP, STEP + "_failed", STEP + ".json");
+		}
+		
+		@Override
+		protected void makeMatrixReports(ReportsWriter reportsWriter, Matrix matrix, ProgressLine progress) throws IOException, ReportException
+		{
+			if (BROKEN_MATRIX_NAME.equals(matrix.getName()))
+				throw new ReportException("Broken matrix");
+			
+			super.makeMatrixReports(reportsWriter, matrix, progress);
+			reportedMatrices.add(matrix.getName());
+		}
+	}
+}
@@ -0,0 +1,322 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation;
+
+import com.exactprosystems.clearth.ApplicationManager;
+import com.exactprosystems.clearth.ClearThCore;
+import com.exactprosystems.clearth.automation.exceptions.AutomationException;
+import com.exactprosystems.clearth.automation.report.ActionReportWriter;
+import com.exactprosystems.clearth.utils.ClearThException;
+import com.exactprosystems.clearth.xmldata.XmlSchedulerLaunchInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static com.exactprosystems.clearth.ApplicationManager.ADMIN;
+import static com.exactprosystems.clearth.ApplicationManager.USER_DIR;
+
+public class TestMatrixLanes
+{
+	private static final Path TEST_DATA = USER_DIR.resolve("src/test/resources/Scheduler/MatrixLanes");
+	private static final Path MATRICES_DIR = TEST_DATA.resolve("matrices");
+	private static final Path CONFIG = TEST_DATA.resolve("configs").resolve("config.cfg");
+	private static final int MATRICES = 4;
+	private static final long WAIT_TIMEOUT = 5000;
+	
+	private static ApplicationManager clearThManager;
+	
+	@Test
+	public void matricesExecutedInLanes() throws ClearThException, AutomationException, IOException
+	{
+		ClearThCore.config().getAutomation().setMatrixLanes(MATRICES);
+		Scheduler scheduler = TestActionUtils.runScheduler(clearThManager, ADMIN, ADMIN, CONFIG, MATRICES_DIR, 10000);
+		
+		Assert.assertTrue("Scheduler is successful", scheduler.isSuccessful());
+		
+		ActionsExecutionProgress progress1 = scheduler.getSteps().get(0).getExecutionProgress(),
+				progress2 = scheduler.getSteps().get(1).getExecutionProgress();
+		Assert.assertEquals("Done actions of Step1", 3 * MATRICES, progress1.getDone());
+		Assert.assertEquals("Successful actions of Step1", 3 * MATRICES, progress1.getSuccessful());
+		Assert.assertEquals("Done actions of Step2", MATRICES, progress2.getDone());
+		Assert.assertEquals("Successful actions of Step2", MATRICES, progress2.getSuccessful());
+		
+		List<XmlSchedulerLaunchInfo> launches = scheduler.getSchedulerData().getLaunches().getLaunchesInfo();
+		Assert.assertFalse("Launches info is empty", launches.isEmpty());
+		for (Matrix matrix : scheduler.getMatrices())
+		{
+			Assert.assertEquals("Actions done in matrix "+matrix.getName(), 4, matrix.getActionsDone());
+			
+			Path report = Paths.get(ClearThCore.reportsPath(), launches.get(0).getReportsPath(), matrix.getName(), ActionReportWriter.JSON_REPORT_NAME);
+			Map<String, List<String>> expectedOrder = new LinkedHashMap<>();
+			expectedOrder.put("Step1", Arrays.asList("id1", "id2", "id3"));
+			expectedOrder.put("Step2", Collections.singletonList("id4"));
+			Assert.assertEquals("Actions in report of matrix "+matrix.getName(), expectedOrder, readReportOrder(report));
+		}
+	}
+	
+	@Test
+	public void lanesExecutedConcurrently() throws Exception
+	{
+		//Each lane waits for others on its first action, so this passes only if all lanes run at the same time
+		CyclicBarrier allStarted = new CyclicBarrier(3);
+		LanesStep step = new LanesStep();
+		for (String matrix : Arrays.asList("m1", "m2", "m3"))
+		{
+			step.addLaneAction(matrix, matrix+"_1", () -> allStarted.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS));
+			step.addLaneAction(matrix, matrix+"_2", null);
+		}
+		
+		step.executeLanes(3);
+		
+		Assert.assertEquals("Executed actions", new HashSet<>(Arrays.asList("m1_1", "m1_2", "m2_1", "m2_2", "m3_1", "m3_2")), 
+				new HashSet<>(step.executed));
+	}
+	
+	@Test
+	public void otherLanesStoppedOnError() throws Exception
+	{
+		CountDownLatch failedLaneFinished = new CountDownLatch(1);
+		LanesStep step = new LanesStep();
+		step.onLaneFinished = failedLaneFinished::countDown;
+		step.addLaneAction("m1", "m1_1", () -> {
+			throw new IllegalStateException("Action failed");
+		});
+		step.addLaneAction("m1", "m1_2", null);
+		step.addLaneAction("m2", "m2_1", () -> Assert.assertTrue("Failed lane is finished", failedLaneFinished.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS)));
+		step.addLaneAction("m2", "m2_2", null);
+		
+		try
+		{
+			step.executeLanes(2);
+			Assert.fail("Error of lane is not thrown");
+		}
+		catch (IllegalStateException e)
+		{
+			Assert.assertEquals("Error of lane", "Action failed", e.getMessage());
+		}
+		
+		Assert.assertEquals("Executed actions", new HashSet<>(Arrays.asList("m1_1", "m2_1")), new HashSet<>(step.executed));
+	}
+	
+	@Test
+	public void stepSuspendedWhenAllLanesPaused() throws Exception
+	{
+		CountDownLatch releaseSecondLane = new CountDownLatch(1);
+		LanesStep step = new LanesStep();
+		SchedulerSuspension suspension = new SchedulerSuspension(false, false, false);
+		step.suspension = suspension;
+		step.addLaneAction("m1", "m1_1", step::pause);
+		step.addLaneAction("m1", "m1_2", null);
+		step.addLaneAction("m2", "m2_1", () -> releaseSecondLane.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS));
+		step.addLaneAction("m2", "m2_2", null);
+		
+		AtomicReference<Exception> error = new AtomicReference<>();
+		Thread execution = new Thread(() -> {
+			try
+			{
+				step.executeLanes(2);
+			}
+			catch (Exception e)
+			{
+				error.set(e);
+			}
+		});
+		execution.start();
+		try
+		{
+			waitFor("First lane paused", () -> {
+				synchronized (step.lanesPauseMonitor)
+				{
+					return step.pausedLanes == 1;
+				}
+			});
+			Assert.assertFalse("Step is suspended while second lane is running", isSuspended(suspension));
+			
+			releaseSecondLane.countDown();
+			waitFor("Step suspended", () -> isSuspended(suspension));
+			Assert.assertEquals("Actions executed before pause", new HashSet<>(Arrays.asList("m1_1", "m2_1")), new HashSet<>(step.executed));
+			
+			synchronized (suspension)
+			{
+				suspension.setSuspended(false);
+				suspension.notifyAll();
+			}
+		}
+		finally
+		{
+			releaseSecondLane.countDown();
+			execution.join(WAIT_TIMEOUT);
+		}
+		
+		Assert.assertFalse("Execution is finished", execution.isAlive());
+		Assert.assertNull("Execution error", error.get());
+		Assert.assertEquals("Executed actions", new HashSet<>(Arrays.asList("m1_1", "m1_2", "m2_1", "m2_2")), new HashSet<>(step.executed));
+	}
+	
+	@BeforeClass
+	public static void startTestApp() throws ClearThException
+	{
+		clearThManager = new ApplicationManager();
+	}
+	
+	@After
+	public void clearSchedulerData()
+	{
+		ClearThCore.config().getAutomation().setMatrixLanes(1);
+		TestActionUtils.resetUserSchedulers(ADMIN);
+	}
+	
+	@AfterClass
+	public static void disposeTestApp() throws IOException
+	{
+		if (clearThManager != null)
+			clearThManager.dispose();
+	}
+	
+	
+	private Map<String, List<String>> readReportOrder(Path report) throws IOException
+	{
+		Map<String, List<String>> result = new LinkedHashMap<>();
+		JsonNode root = new ObjectMapper().readTree(report.toFile());
+		for (JsonNode stepReport : root.get("stepReports"))
+		{
+			List<String> ids = new ArrayList<>();
+			for (JsonNode actionReport : stepReport.get("actionReports"))
+				ids.add(actionReport.get("actionId").asText());
+			result.put(stepReport.get("stepName").asText(), ids);
+		}
+		return result;
+	}
+	
+	private boolean isSuspended(SchedulerSuspension suspension)
+	{
+		synchronized (suspension)
+		{
+			return suspension.isSuspended();
+		}
+	}
+	
+	private void waitFor(String condition, BooleanSupplier check) throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + WAIT_TIMEOUT;
+		while (!check.getAsBoolean())
+		{
+			if (System.currentTimeMillis() > deadline)
+				Assert.fail(condition + ": condition is not met during " + WAIT_TIMEOUT + " ms");
+			Thread.sleep(10);
+		}
+	}
+	
+	
+	private interface LaneActionBody
+	{
+		void run() throws Exception;
+	}
+	
+	/**
+	 * Step whose actions just run given code, to check how lanes are executed
+	 */
+	private static class LanesStep extends DefaultStep
+	{
+		private final Map<String, Matrix> matrices = new HashMap<>();
+		private final Map<Action, LaneActionBody> bodies = new HashMap<>();
+		private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		private Runnable onLaneFinished = null;
+		
+		LanesStep()
+		{
+			setName("Step1");
+			setSafeName("Step1");
+			setKind(CoreStepKind.Default.getLabel());
+			setExecute(true);
+		}
+		
+		void addLaneAction(String matrixName, String actionId, LaneActionBody body)
+		{
+			Matrix matrix = matrices.computeIfAbsent(matrixName, name -> {
+				Matrix m = new Matrix(new MvelVariablesFactory(null, null));
+				m.setName(name);
+				m.setFileName(name);
+				return m;
+			});
+			
+			ActionSettings settings = new ActionSettings();
+			settings.setMatrix(matrix);
+			settings.setStep(this);
+			settings.setActionId(actionId);
+			settings.setParams(Collections.emptyMap());
+			
+			Action action = new Compare2Values();
+			action.preInit(null, "Compare2Values", Collections.emptyMap());
+			action.init(settings);
+			addAction(action);
+			if (body != null)
+				bodies.put(action, body);
+		}
+		
+		void executeLanes(int maxLanes) throws Exception
+		{
+			executeLanes(null, null, null, null, null, maxLanes);
+		}
+		
+		@Override
+		protected boolean executeAction(Action action, ActionExecutor actionExec, GlobalContext globalContext, BooleanObject replay,
+				AtomicBoolean canReplay, ExecutorStateUpdater<?> stateUpdater) throws Exception
+		{
+			if (paused)
+				pauseExecution();
+			
+			executed.add(action.getIdInMatrix());
+			LaneActionBody body = bodies.get(action);
+			if (body != null)
+				body.run();
+			return true;
+		}
+		
+		@Override
+		protected void finishLane()
+		{
+			super.finishLane();
+			if (onLaneFinished != null)
+				onLaneFinished.run();
+		}
+	}
+}
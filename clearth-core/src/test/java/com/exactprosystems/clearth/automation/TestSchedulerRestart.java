@@ -91,6 +91,15 @@ public class TestSchedulerRestart
 		};
 	}
 	
+	@DataProvider(name = "dataForWriteBehind")
+	public Object[][] dataForWriteBehindProvider()
+	{
+		return new Object[][] {
+			{ TEST_CONFIG_DIR.resolve("RestartWithAutoSave"), 13 },
+			{ TEST_CONFIG_DIR.resolve("RestartAfterPauseStepContexts"), 5 }
+		};
+	}
+	
 	
 	@Test
 	public void testRestart() throws ClearThException, AutomationException, IOException, IllegalArgumentException,
@@ -165,6 +174,43 @@ public class TestSchedulerRestart
 		}
 	}
 	
+	@Test(dataProvider = "dataForWriteBehind")
+	public void testRestartWithWriteBehind(Path dataDir, int expectedActions) throws ClearThException, AutomationException,
+			IOException, IllegalArgumentException, SecurityException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException, DataHandlingException, ExecutorStateException
+	{
+		Scheduler scheduler = clearThManager.getScheduler(SCHEDULER, ADMIN);
+		clearThManager.loadSteps(scheduler, dataDir.resolve(CONFIG_DIR).resolve(CONFIG_FILE).toFile());
+		clearThManager.loadMatrices(scheduler, dataDir.resolve(MATRICES_DIR).toFile());
+		try
+		{
+			//Big durability window makes sure that state is written on step end and scheduler stop
+			scheduler.setStateConfig(new StateConfig(true, 60000, StateConfig.DEFAULT_MAX_PENDING_UPDATES));
+			
+			scheduler.start(ADMIN);
+			ApplicationManager.waitForSchedulerToSuspend(scheduler, BASE_SLEEP_LENGTH, 3000);
+			
+			scheduler.stop();
+			ApplicationManager.waitForSchedulerToStop(scheduler, BASE_SLEEP_LENGTH, 1000);
+			
+			scheduler.restoreState(ADMIN);
+			
+			ApplicationManager.waitForSchedulerToStop(scheduler, BASE_SLEEP_LENGTH, 3000);
+			
+			Assert.assertTrue(scheduler.isSuccessful());
+			int actualActions = scheduler.getSteps().stream()
+					.collect(Collectors.summingInt(s -> s.getExecutionProgress().getDone()));
+			Assert.assertEquals(actualActions, expectedActions);
+			
+			//After scheduler end the saved state should be removed and, thus, expected to be not restored
+			Assert.assertThrows(AutomationException.class,  () -> scheduler.restoreState(ADMIN));
+		}
+		finally
+		{
+			scheduler.setStateConfig(new StateConfig(false));
+		}
+	}
+	
 	@Test
 	public void testReportsUpdate() throws Exception
 	{
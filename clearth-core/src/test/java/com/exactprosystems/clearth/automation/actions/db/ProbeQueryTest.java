@@ -0,0 +1,83 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.actions.db;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class ProbeQueryTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(ProbeQueryTest.class.getSimpleName());
+	private static final String DB_FILE = TEST_OUTPUT.resolve("file.db").toString();
+	
+	private Connection connection;
+	
+	@BeforeClass
+	public void init() throws IOException, SQLException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+		
+		connection = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+		execute("create table orders (id INTEGER PRIMARY KEY, status TEXT)");
+		execute("insert into orders (id, status) values (1, 'New')");
+	}
+	
+	@AfterClass
+	public void dispose() throws SQLException
+	{
+		if (connection != null)
+			connection.close();
+	}
+	
+	@Test
+	public void changesDetected() throws SQLException, IOException
+	{
+		try (ProbeQuery probe = new ProbeQuery(connection.prepareStatement("select count(*), max(id) from orders")))
+		{
+			Assert.assertTrue(probe.isChanged(), "First execution");
+			Assert.assertFalse(probe.isChanged(), "Execution without changes");
+			
+			execute("insert into orders (id, status) values (2, 'New')");
+			Assert.assertTrue(probe.isChanged(), "Execution after insert");
+			Assert.assertFalse(probe.isChanged(), "Execution after insert, repeated");
+		}
+	}
+	
+	
+	private void execute(String query) throws SQLException
+	{
+		try (Statement statement = connection.createStatement())
+		{
+			statement.execute(query);
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.actions.db;
+
+import com.exactprosystems.clearth.automation.exceptions.ResultException;
+import com.exactprosystems.clearth.automation.report.Result;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class VerifySQLActionTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(VerifySQLActionTest.class.getSimpleName());
+	private static final String DB_FILE = TEST_OUTPUT.resolve("file.db").toString(),
+			QUERY = "select id from orders where status = 'Done'",
+			PROBE_QUERY = "select count(*) from events";
+	private static final long WAIT_PERIOD = 10,
+			MAX_WAIT_PERIOD = 40,
+			TIMEOUT = 300;
+	
+	private Connection connection;
+	
+	@BeforeClass
+	public void init() throws IOException, SQLException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+		
+		connection = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+		executeStatement("create table orders (id INTEGER PRIMARY KEY, status TEXT)");
+		executeStatement("create table events (id INTEGER PRIMARY KEY)");
+		executeStatement("insert into orders (id, status) values (1, 'New')");
+	}
+	
+	@AfterClass
+	public void dispose() throws SQLException
+	{
+		if (connection != null)
+			connection.close();
+	}
+	
+	@BeforeMethod
+	public void clearEvents() throws SQLException
+	{
+		executeStatement("delete from events");
+	}
+	
+	@Test
+	public void unchangedProbeSkipsQuery() throws Exception
+	{
+		TestVerifySQLAction action = createAction(-1);
+		Result result = action.executeQuery();
+		
+		Assert.assertFalse(result.isSuccess(), "Verification result");
+		Assert.assertEquals(action.executions, 1, "Main query executions");
+		assertPeriods(action.periods, Arrays.asList(10L, 20L, 40L, 40L));
+	}
+	
+	@Test
+	public void changedProbeRerunsQuery() throws Exception
+	{
+		TestVerifySQLAction action = createAction(3);
+		Result result = action.executeQuery();
+		
+		Assert.assertFalse(result.isSuccess(), "Verification result");
+		Assert.assertEquals(action.executions, 2, "Main query executions");
+		//Period is reset after data change is detected by probe query on 3rd check
+		assertPeriods(action.periods, Arrays.asList(10L, 20L, 40L, 10L, 20L, 40L));
+	}
+	
+	
+	private TestVerifySQLAction createAction(int changeOnWait)
+	{
+		Map<String, String> params = new HashMap<>();
+		params.put(VerifySQLAction.PARAM_PROBE_QUERY, PROBE_QUERY);
+		params.put(VerifySQLAction.PARAM_MAX_WAIT_PERIOD, Long.toString(MAX_WAIT_PERIOD));
+		
+		TestVerifySQLAction action = new TestVerifySQLAction(changeOnWait);
+		action.preInit(null, "VerifySQL", params);
+		return action;
+	}
+	
+	private void assertPeriods(List<Long> actual, List<Long> expectedStart)
+	{
+		Assert.assertTrue(actual.size() > expectedStart.size(), "Number of waits: " + actual);
+		Assert.assertEquals(actual.subList(0, expectedStart.size()), expectedStart, "First wait periods");
+		for (long period : actual)
+			Assert.assertTrue(period <= MAX_WAIT_PERIOD, "Wait period " + period + " exceeds maximum");
+	}
+	
+	private void executeStatement(String query) throws SQLException
+	{
+		try (Statement statement = connection.createStatement())
+		{
+			statement.executeStatement(query);
+		}
+	}
+	
+	
+	private class TestVerifySQLAction extends VerifySQLAction
+	{
+		private final int changeOnWait;
+		private final List<Long> periods = new ArrayList<>();
+		private int executions = 0;
+		
+		TestVerifySQLAction(int changeOnWait)
+		{
+			this.changeOnWait = changeOnWait;
+		}
+		
+		@Override
+		public long getTimeOut()
+		{
+			return TIMEOUT;
+		}
+		
+		@Override
+		protected long getWaitPeriod()
+		{
+			return WAIT_PERIOD;
+		}
+		
+		@Override
+		protected String getQuery()
+		{
+			return QUERY;
+		}
+		
+		@Override
+		protected Connection getDBConnection()
+		{
+			return connection;
+		}
+		
+		@Override
+		protected boolean isNeedCloseDbConnection()
+		{
+			return false;
+		}
+		
+		@Override
+		protected PreparedStatement prepareStatement(String query, String[] keys, Connection con) throws SQLException
+		{
+			return con.prepareStatement(query);
+		}
+		
+		@Override
+		protected Result processResultSet(ResultSet rs, String[] keys) throws SQLException, IOException, ResultException
+		{
+			executions++;
+			return super.processResultSet(rs, keys);
+		}
+		
+		@Override
+		protected void waitForNextCheck(long period) throws InterruptedException
+		{
+			periods.add(period);
+			if (periods.size() == changeOnWait)
+			{
+				try
+				{
+					executeStatement("insert into events (id) values (1)");
+				}
+				catch (SQLException e)
+				{
+					throw new IllegalStateException(e);
+				}
+			}
+			super.waitForNextCheck(period);
+		}
+	}
+}
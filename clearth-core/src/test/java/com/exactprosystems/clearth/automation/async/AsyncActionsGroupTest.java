@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.async;
+
+import com.exactprosystems.clearth.automation.Action;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AsyncActionsGroupTest
+{
+	private ExecutorService executor;
+	
+	@BeforeMethod
+	public void init()
+	{
+		executor = Executors.newCachedThreadPool();
+	}
+	
+	@AfterMethod
+	public void dispose()
+	{
+		executor.shutdownNow();
+	}
+	
+	
+	@Test
+	public void concurrencyLimitRespected() throws InterruptedException
+	{
+		int actionsCount = 10;
+		CountDownLatch finished = new CountDownLatch(actionsCount);
+		TestGroup group = new TestGroup(3, executor, a -> finished.countDown());
+		for (int i = 0; i < actionsCount; i++)
+			group.addAction(createActionData());
+		
+		assertTrue(finished.await(10, TimeUnit.SECONDS), "All actions should finish");
+		assertEquals(group.maxRunning.get(), 3);
+	}
+	
+	@Test
+	public void unlimitedGroupRunsAllActionsAtOnce() throws InterruptedException
+	{
+		int actionsCount = 8;
+		CountDownLatch finished = new CountDownLatch(actionsCount);
+		TestGroup group = new TestGroup(0, executor, a -> finished.countDown());
+		for (int i = 0; i < actionsCount; i++)
+			group.addAction(createActionData());
+		
+		assertTrue(finished.await(10, TimeUnit.SECONDS), "All actions should finish");
+		assertEquals(group.maxRunning.get(), actionsCount);
+	}
+	
+	@Test
+	public void sequentialGroupKeepsOrder() throws InterruptedException
+	{
+		int actionsCount = 20;
+		CountDownLatch finished = new CountDownLatch(actionsCount);
+		List<AsyncActionData> added = new ArrayList<>(),
+				completed = Collections.synchronizedList(new ArrayList<>());
+		TestGroup group = new TestGroup(1, executor, a -> {
+			completed.add(a);
+			finished.countDown();
+		});
+		for (int i = 0; i < actionsCount; i++)
+		{
+			AsyncActionData data = createActionData();
+			added.add(data);
+			group.addAction(data);
+		}
+		
+		assertTrue(finished.await(10, TimeUnit.SECONDS), "All actions should finish");
+		assertEquals(completed, added);
+		assertEquals(group.maxRunning.get(), 1);
+	}
+	
+	@Test
+	public void queuedActionsDroppedOnInterruption() throws InterruptedException
+	{
+		CountDownLatch finished = new CountDownLatch(1);
+		TestGroup group = new TestGroup(1, executor, a -> finished.countDown());
+		for (int i = 0; i < 5; i++)
+			group.addAction(createActionData());
+		group.interruptExecution();
+		
+		assertTrue(finished.await(10, TimeUnit.SECONDS), "Running action should finish");
+		assertEquals(group.getQueuedActions(), 0);
+		assertEquals(group.executed.get(), 1);
+	}
+	
+	
+	private AsyncActionData createActionData()
+	{
+		return new AsyncActionData(mock(Action.class), null, null);
+	}
+	
+	
+	private static class TestGroup extends AsyncActionsGroup
+	{
+		final AtomicInteger running = new AtomicInteger(),
+				maxRunning = new AtomicInteger(),
+				executed = new AtomicInteger();
+		
+		TestGroup(int concurrencyLimit, Executor executor, ActionMonitor monitor)
+		{
+			super("Test", "Test", concurrencyLimit, executor, null, monitor);
+		}
+		
+		@Override
+		protected void executeAction(AsyncActionData actionData) throws Exception
+		{
+			int current = running.incrementAndGet();
+			maxRunning.accumulateAndGet(current, Math::max);
+			try
+			{
+				Thread.sleep(100);
+			}
+			finally
+			{
+				running.decrementAndGet();
+				executed.incrementAndGet();
+			}
+		}
+	}
+}
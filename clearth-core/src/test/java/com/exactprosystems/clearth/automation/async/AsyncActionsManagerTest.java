@@ -0,0 +1,117 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.async;
+
+import com.exactprosystems.clearth.automation.Action;
+import com.exactprosystems.clearth.automation.Step;
+import com.exactprosystems.clearth.automation.report.Result;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.*;
+
+public class AsyncActionsManagerTest
+{
+	private static final String STEP_NAME = "Step1";
+	
+	private CountDownLatch release;
+	private AsyncActionsManager manager;
+	
+	@BeforeMethod
+	public void init()
+	{
+		release = new CountDownLatch(1);
+		manager = new AsyncActionsManager(null, a -> {})
+		{
+			@Override
+			protected AsyncActionsGroup createGroup(String name, String threadName)
+			{
+				return new AsyncActionsGroup(name, threadName, 0, getExecutor(), globalContext, this)
+				{
+					@Override
+					protected void executeAction(AsyncActionData actionData) throws Exception
+					{
+						release.await();
+						actionData.setFinished(new Date());
+					}
+				};
+			}
+		};
+	}
+	
+	@AfterMethod
+	public void dispose() throws IOException
+	{
+		manager.close();
+	}
+	
+	
+	@Test
+	public void completionSignalledAfterResultIsAvailable() throws Exception
+	{
+		AsyncActionData first = createActionData(),
+				second = createActionData();
+		manager.addAsyncAction(first);
+		manager.addAsyncAction(second);
+		
+		Set<AsyncActionData> stepActions = manager.getStepActions(STEP_NAME);
+		assertEquals(stepActions.size(), 2);
+		assertFalse(first.isCompleted());
+		
+		release.countDown();
+		CompletableFuture.allOf(first.getCompletion(), second.getCompletion()).get(5, TimeUnit.SECONDS);
+		
+		assertTrue(manager.isActionFinished(first));
+		assertTrue(manager.isActionFinished(second));
+		assertEquals(manager.getFinishedActionsToProcess(), 2);
+	}
+	
+	@Test
+	public void interruptedActionsCompleted() throws Exception
+	{
+		AsyncActionData data = createActionData();
+		manager.addAsyncAction(data);
+		manager.interruptExecution();
+		
+		assertTrue(data.isCompleted());
+		Result result = data.getResult();
+		assertNotNull(result);
+		assertFalse(result.isSuccess());
+	}
+	
+	
+	private AsyncActionData createActionData()
+	{
+		Action action = mock(Action.class);
+		when(action.getWaitAsyncEnd()).thenReturn(WaitAsyncEnd.STEP);
+		when(action.getStepName()).thenReturn(STEP_NAME);
+		when(action.getStep()).thenReturn(mock(Step.class));
+		return new AsyncActionData(action, null, null);
+	}
+}
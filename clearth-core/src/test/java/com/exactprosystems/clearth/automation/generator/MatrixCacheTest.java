@@ -0,0 +1,201 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.generator;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+public class MatrixCacheTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(MatrixCacheTest.class.getSimpleName());
+	private static final String MATRIX = "//Description:\n"
+			+ "//Test matrix\n"
+			+ "#ID,#GlobalStep,#Action,#Value\n"
+			+ "id1,Step1,SetStatic, 1 \n"
+			+ ",,,\n"
+			+ "//id2,Step1,SetStatic,2\n"
+			+ "id3,Step1,SetStatic,\"_3,4\"\n";
+	
+	private Path cacheDir,
+			matrixFile;
+	
+	@BeforeMethod
+	public void init() throws IOException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+		cacheDir = TEST_OUTPUT.resolve("cache");
+		matrixFile = TEST_OUTPUT.resolve("matrix.csv");
+		Files.write(matrixFile, MATRIX.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	@Test
+	public void cachedMatrixReadAsOriginal() throws IOException
+	{
+		MatrixCache cache = new MatrixCache(cacheDir);
+		String fileName = matrixFile.toString();
+		
+		List<String> expected = readLines(new CsvActionReader(fileName, true));
+		
+		ParsedMatrix parsed = cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true)),
+				cached = cache.getMatrix(fileName, true, () -> {
+					throw new IOException("Cached matrix should not be parsed again");
+				});
+		
+		assertEquals(readLines(new ParsedMatrixReader(fileName, true, parsed)), expected);
+		assertEquals(readLines(new ParsedMatrixReader(fileName, true, cached)), expected);
+		assertEquals(cache.getMisses(), 1);
+		assertEquals(cache.getHits(), 1);
+	}
+	
+	@Test
+	public void changedMatrixParsedAgain() throws IOException
+	{
+		MatrixCache cache = new MatrixCache(cacheDir);
+		String fileName = matrixFile.toString();
+		
+		cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true));
+		Files.write(matrixFile, (MATRIX+"id4,Step1,SetStatic,5\n").getBytes(StandardCharsets.UTF_8));
+		ParsedMatrix changed = cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true));
+		//Trimming flag affects parsed values, so matrix is cached separately
+		cache.getMatrix(fileName, false, () -> new CsvActionReader(fileName, false));
+		
+		assertEquals(readLines(new ParsedMatrixReader(fileName, true, changed)), readLines(new CsvActionReader(fileName, true)));
+		assertEquals(cache.getMisses(), 3);
+		assertEquals(cache.getHits(), 0);
+	}
+	
+	@Test
+	public void unusedMatricesRemoved() throws IOException
+	{
+		MatrixCache cache = new MatrixCache(cacheDir);
+		String fileName = matrixFile.toString();
+		
+		cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true));
+		cache.getMatrix(fileName, false, () -> new CsvActionReader(fileName, false));
+		cache.removeUnused();
+		assertEquals(countFiles(), 2);
+		
+		cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true));
+		cache.removeUnused();
+		assertEquals(countFiles(), 1);
+	}
+	
+	@Test
+	public void keyOfChangedMatrixReplaced() throws IOException
+	{
+		MatrixCache cache = new MatrixCache(cacheDir);
+		String fileName = matrixFile.toString();
+		
+		cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true));
+		Files.write(matrixFile, (MATRIX+"id4,Step1,SetStatic,5\n").getBytes(StandardCharsets.UTF_8));
+		cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true));
+		cache.removeUnused();
+		assertEquals(countFiles(), 1);
+	}
+	
+	@Test
+	public void lineErrorReportedForThatLine() throws IOException
+	{
+		MatrixCache cache = new MatrixCache(cacheDir);
+		String fileName = matrixFile.toString();
+		
+		ParsedMatrix parsed = cache.getMatrix(fileName, true, () -> new CsvActionReader(fileName, true)
+		{
+			@Override
+			public List<String> parseLine(boolean header) throws IOException
+			{
+				List<String> result = super.parseLine(header);
+				if (result.contains("id1"))
+					throw new IOException("Broken line");
+				return result;
+			}
+		});
+		
+		ParsedMatrixReader reader = new ParsedMatrixReader(fileName, true, parsed);
+		int failed = 0,
+				parsedLines = 0;
+		while (reader.readNextLine())
+		{
+			if (reader.isCommentLine() || reader.isEmptyLine())
+				continue;
+			
+			try
+			{
+				reader.parseLine(reader.isHeaderLine());
+				parsedLines++;
+			}
+			catch (IOException e)
+			{
+				assertEquals(e.getMessage(), "Broken line");
+				failed++;
+			}
+		}
+		assertEquals(failed, 1);
+		assertEquals(parsedLines, 2);
+		
+		//Matrix with errors is not cached to report the same errors next time
+		assertFalse(Files.exists(cacheDir) && countFiles() > 0);
+	}
+	
+	
+	private List<String> readLines(ActionReader reader) throws IOException
+	{
+		List<String> result = new ArrayList<>();
+		try
+		{
+			while (reader.readNextLine())
+			{
+				if (reader.isCommentLine())
+					result.add("comment: "+reader.getRawLine());
+				else if (reader.isHeaderLine())
+					result.add("header: "+reader.parseLine(true));
+				else if (reader.isEmptyLine())
+					result.add("empty");
+				else
+					result.add("values: "+reader.parseLine(false));
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return result;
+	}
+	
+	private long countFiles() throws IOException
+	{
+		try (Stream<Path> files = Files.list(cacheDir))
+		{
+			return files.count();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.report;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.testng.Assert.*;
+
+public class AsyncReportSlotsTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(AsyncReportSlotsTest.class.getSimpleName());
+	
+	@BeforeClass
+	public void init() throws IOException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+	}
+	
+	@Test
+	public void patchesMergedIntoSlots() throws IOException
+	{
+		File file = TEST_OUTPUT.resolve("merge").toFile();
+		try (ReportSinks sinks = new ReportSinks())
+		{
+			AsyncReportSlots slots = new AsyncReportSlots(sinks);
+			sinks.write(file, "head\n");
+			slots.reserve(file, "a1", "<a1 pending>\n");
+			sinks.write(file, "middle\n");
+			slots.reserve(file, "a2", "<a2 pending>\n");
+			sinks.write(file, "tail\n");
+			
+			assertTrue(slots.patch(file, "a2", "a2 finished with long result\n"));
+			assertTrue(slots.patch(file, "a1", ""));
+			assertTrue(slots.getPatchLog(file).exists());
+			
+			slots.merge(file);
+			assertEquals(readFile(file), "head\nmiddle\na2 finished with long result\ntail\n");
+			assertFalse(slots.getPatchLog(file).exists());
+			assertFalse(slots.hasSlots(file));
+		}
+	}
+	
+	@Test
+	public void remainingSlotsShiftedAfterMerge() throws IOException
+	{
+		File file = TEST_OUTPUT.resolve("shift").toFile();
+		try (ReportSinks sinks = new ReportSinks())
+		{
+			AsyncReportSlots slots = new AsyncReportSlots(sinks);
+			slots.reserve(file, "a1", "<a1>\n");
+			slots.reserve(file, "a2", "<a2>\n");
+			slots.reserve(file, "a3", "<a3>\n");
+			
+			slots.patch(file, "a1", "a1 is done\n");
+			slots.merge(file);
+			
+			//Writing after merge continues the updated file
+			sinks.write(file, "after merge\n");
+			slots.patch(file, "a3", "a3 is done\n");
+			slots.patch(file, "a2", "a2\n");
+			slots.merge(file);
+			
+			assertEquals(readFile(file), "a1 is done\na2\na3 is done\nafter merge\n");
+		}
+	}
+	
+	@Test
+	public void latestPatchWins() throws IOException
+	{
+		File file = TEST_OUTPUT.resolve("latest").toFile();
+		try (ReportSinks sinks = new ReportSinks())
+		{
+			AsyncReportSlots slots = new AsyncReportSlots(sinks);
+			slots.reserve(file, "a1", "<a1>\n");
+			slots.patch(file, "a1", "first\n");
+			slots.patch(file, "a1", "second\n");
+			slots.mergeAll();
+			
+			assertEquals(readFile(file), "second\n");
+		}
+	}
+	
+	@Test
+	public void unknownSlotNotPatched()
+	{
+		File file = TEST_OUTPUT.resolve("unknown").toFile();
+		try (ReportSinks sinks = new ReportSinks())
+		{
+			AsyncReportSlots slots = new AsyncReportSlots(sinks);
+			assertFalse(slots.patch(file, "a1", "data"));
+			
+			slots.reserve(file, "a1", "<a1>\n");
+			assertFalse(slots.patch(file, "a2", "data"));
+		}
+	}
+	
+	
+	private String readFile(File file) throws IOException
+	{
+		return FileUtils.readFileToString(file, Charset.defaultCharset());
+	}
+}
@@ -0,0 +1,116 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.automation.report;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.testng.Assert.*;
+
+public class ReportSinksTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(ReportSinksTest.class.getSimpleName());
+	
+	@BeforeClass
+	public void init() throws IOException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+	}
+	
+	@DataProvider(name = "modes")
+	public Object[][] modes()
+	{
+		return new Object[][]
+		{
+			{false},
+			{true}
+		};
+	}
+	
+	@Test(dataProvider = "modes")
+	public void dataWrittenOnFlush(boolean background) throws IOException
+	{
+		File file = TEST_OUTPUT.resolve("flush_"+background).toFile();
+		try (ReportSinks sinks = new ReportSinks(background, 1024))
+		{
+			assertTrue(sinks.isEmpty(file));
+			sinks.write(file, "line1\n");
+			sinks.write(file, "line2\n");
+			assertFalse(sinks.isEmpty(file));
+			
+			sinks.flush();
+			assertEquals(readFile(file), "line1\nline2\n");
+			assertEquals(sinks.getOpenFilesCount(), 1);
+		}
+	}
+	
+	@Test(dataProvider = "modes")
+	public void closedFileReopenedForAppend(boolean background) throws IOException
+	{
+		File file = TEST_OUTPUT.resolve("reopen_"+background).toFile();
+		try (ReportSinks sinks = new ReportSinks(background, 1024))
+		{
+			sinks.write(file, "first\n");
+			sinks.close(file);
+			assertEquals(sinks.getOpenFilesCount(), 0);
+			assertEquals(readFile(file), "first\n");
+			
+			sinks.write(file, "second\n");
+			sinks.closeAll();
+			assertEquals(readFile(file), "first\nsecond\n");
+		}
+	}
+	
+	@Test(dataProvider = "modes")
+	public void orderKeptForManyWrites(boolean background) throws IOException
+	{
+		File file1 = TEST_OUTPUT.resolve("many1_"+background).toFile(),
+				file2 = TEST_OUTPUT.resolve("many2_"+background).toFile();
+		StringBuilder expected = new StringBuilder();
+		try (ReportSinks sinks = new ReportSinks(background, 16))
+		{
+			for (int i = 0; i < 1000; i++)
+			{
+				String line = "Action "+i+"\n";
+				sinks.write(file1, line);
+				sinks.write(file2, line);
+				expected.append(line);
+			}
+		}
+		
+		assertEquals(readFile(file1), expected.toString());
+		assertEquals(readFile(file2), expected.toString());
+	}
+	
+	
+	private String readFile(File file) throws IOException
+	{
+		return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+	}
+}
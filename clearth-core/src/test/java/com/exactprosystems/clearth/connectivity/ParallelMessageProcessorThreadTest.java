@@ -0,0 +1,123 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity;
+
+import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
+import com.exactprosystems.clearth.data.DefaultMessageHandler;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.testng.Assert.*;
+
+public class ParallelMessageProcessorThreadTest
+{
+	private static final int MESSAGES_COUNT = 200;
+	
+	@Test
+	public void messagesDeliveredInArrivalOrder() throws Exception
+	{
+		BlockingQueue<EncodedClearThMessage> queue = new LinkedBlockingQueue<>();
+		for (int i = 0; i < MESSAGES_COUNT; i++)
+			queue.add(EncodedClearThMessage.newReceivedMessage(Integer.toString(i)));
+		
+		SlowPreparingListener listener = new SlowPreparingListener();
+		ParallelMessageProcessorThread thread = new ParallelMessageProcessorThread("Test", queue, new DefaultMessageHandler(), 
+				Collections.singletonList(listener), 4, 16);
+		thread.start();
+		try
+		{
+			long end = System.currentTimeMillis() + 10000;
+			while (thread.getProcessed() < MESSAGES_COUNT && System.currentTimeMillis() < end)
+				Thread.sleep(50);
+		}
+		finally
+		{
+			thread.terminate();
+			thread.join(5000);
+		}
+		
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < MESSAGES_COUNT; i++)
+			expected.add(i+" prepared");
+		
+		assertEquals(listener.handled, expected);
+		assertTrue(listener.preparingThreads.size() > 1, "Messages should be prepared by several threads");
+		assertFalse(listener.preparingThreads.contains(thread.getName()), "Messages should not be prepared by processor thread");
+		assertEquals(thread.getDecoded(), MESSAGES_COUNT);
+		assertEquals(thread.getBacklog(), 0);
+	}
+	
+	
+	private static class SlowPreparingListener implements PreparingMessageListener<String>
+	{
+		private final Random random = new Random();
+		private final List<String> handled = new ArrayList<>();
+		private final Set<String> preparingThreads = ConcurrentHashMap.newKeySet();
+		
+		@Override
+		public String prepareMessage(EncodedClearThMessage message) throws Exception
+		{
+			preparingThreads.add(Thread.currentThread().getName());
+			Thread.sleep(random.nextInt(5));
+			return message.getPayload()+" prepared";
+		}
+		
+		@Override
+		public void onPreparedMessage(EncodedClearThMessage message, String prepared)
+		{
+			handled.add(prepared);
+		}
+		
+		@Override
+		public void onMessage(EncodedClearThMessage message)
+		{
+			handled.add(message.getPayload().toString());
+		}
+		
+		@Override
+		public void start()
+		{
+		}
+		
+		@Override
+		public void dispose()
+		{
+		}
+		
+		@Override
+		public String getName()
+		{
+			return "SlowPreparingListener";
+		}
+		
+		@Override
+		public String getType()
+		{
+			return "Test";
+		}
+	}
+}
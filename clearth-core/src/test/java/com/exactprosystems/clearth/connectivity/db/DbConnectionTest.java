@@ -30,6 +30,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class DbConnectionTest
@@ -100,4 +102,181 @@ public class DbConnectionTest
 		dbConn.getSettings().setInitializationQuery("sel 1");
 		dbConn.check();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void pooledConnectionsReused() throws SQLException, ConnectivityException, SettingsException
+	{
+		DbConnection dbConn = createPooledConnection(2, 0);
+		try
+		{
+			for (int i = 0; i < 5; i++)
+			{
+				try (Connection connection = dbConn.getConnection())
+				{
+					Assert.assertTrue(connection.isValid(100));
+				}
+			}
+			
+			DbConnectionPool pool = dbConn.getPool();
+			Assert.assertEquals(pool.getConnectionsCreated(), 1, "Connections created");
+			Assert.assertEquals(pool.getIdleCount(), 1, "Idle connections");
+			Assert.assertEquals(pool.getActiveCount(), 0, "Active connections");
+		}
+		finally
+		{
+			dbConn.closePool();
+		}
+	}
+
+	@Test(expectedExceptions = ConnectivityException.class, expectedExceptionsMessageRegExp = "No free connection in pool.*")
+	public void poolExhausted() throws SQLException, ConnectivityException, SettingsException
+	{
+		DbConnection dbConn = createPooledConnection(1, 0);
+		try (Connection connection = dbConn.getConnection())
+		{
+			dbConn.getConnection();
+		}
+		finally
+		{
+			dbConn.closePool();
+		}
+	}
+
+	@Test
+	public void preparedStatementsCached() throws SQLException, ConnectivityException, SettingsException
+	{
+		DbConnection dbConn = createPooledConnection(1, 10);
+		try
+		{
+			for (int i = 0; i < 3; i++)
+			{
+				try (Connection connection = dbConn.getConnection();
+						PreparedStatement statement = connection.prepareStatement("select ?"))
+				{
+					statement.setInt(1, i);
+					try (ResultSet rs = statement.executeQuery())
+					{
+						Assert.assertTrue(rs.next());
+						Assert.assertEquals(rs.getInt(1), i);
+					}
+					Assert.assertSame(statement.getConnection(), connection);
+				}
+			}
+			
+			DbConnectionPool pool = dbConn.getPool();
+			Assert.assertEquals(pool.getStatementCacheMisses(), 1, "Statement cache misses");
+			Assert.assertEquals(pool.getStatementCacheHits(), 2, "Statement cache hits");
+		}
+		finally
+		{
+			dbConn.closePool();
+		}
+	}
+
+	@Test
+	public void poolRecreatedOnSettingsChange() throws SQLException, ConnectivityException, SettingsException
+	{
+		DbConnection dbConn = createPooledConnection(2, 0);
+		try
+		{
+			try (Connection connection = dbConn.getConnection())
+			{}
+			DbConnectionPool oldPool = dbConn.getPool();
+			
+			DbConnection newSettings = createPooledConnection(3, 0);
+			dbConn.copyFrom(newSettings);
+			Assert.assertTrue(oldPool.isClosed(), "Old pool is closed");
+			Assert.assertNull(dbConn.getPool(), "Pool after settings change");
+		}
+		finally
+		{
+			dbConn.closePool();
+		}
+	}
+
+	@Test
+	public void connectionStateRestored() throws SQLException, ConnectivityException, SettingsException
+	{
+		DbConnection dbConn = createPooledConnection(1, 0);
+		try
+		{
+			try (Connection connection = dbConn.getConnection())
+			{
+				connection.setTransactionIsolation(Connection.TRANSACTION_READ_UNCOMMITTED);
+				connection.setAutoCommit(false);
+			}
+			
+			try (Connection connection = dbConn.getConnection())
+			{
+				Assert.assertEquals(connection.getTransactionIsolation(), Connection.TRANSACTION_SERIALIZABLE, "Transaction isolation");
+				Assert.assertTrue(connection.getAutoCommit(), "Auto-commit");
+			}
+			Assert.assertEquals(dbConn.getPool().getConnectionsCreated(), 1, "Connections created");
+		}
+		finally
+		{
+			dbConn.closePool();
+		}
+	}
+
+	@Test
+	public void cachedStatementStateRestored() throws SQLException, ConnectivityException, SettingsException
+	{
+		DbConnection dbConn = createPooledConnection(1, 10);
+		try
+		{
+			try (Connection connection = dbConn.getConnection();
+					PreparedStatement statement = connection.prepareStatement("select 1"))
+			{
+				statement.setMaxRows(1);
+				statement.setQueryTimeout(5);
+			}
+			
+			try (Connection connection = dbConn.getConnection();
+					PreparedStatement statement = connection.prepareStatement("select 1"))
+			{
+				Assert.assertEquals(statement.getMaxRows(), 0, "Max rows");
+				Assert.assertEquals(statement.getQueryTimeout(), 0, "Query timeout");
+			}
+			Assert.assertEquals(dbConn.getPool().getStatementCacheHits(), 1, "Statement cache hits");
+		}
+		finally
+		{
+			dbConn.closePool();
+		}
+	}
+
+	@Test
+	public void leakDetectedWithoutOtherBorrowers() throws SQLException, ConnectivityException, SettingsException, InterruptedException
+	{
+		DbConnection dbConn = createPooledConnection(1, 0);
+		dbConn.getSettings().setLeakDetectionThreshold(50);
+		try (Connection connection = dbConn.getConnection())
+		{
+			DbConnectionPool pool = dbConn.getPool();
+			long deadline = System.currentTimeMillis() + 2000;
+			while (pool.getLeaksDetected() == 0 && System.currentTimeMillis() < deadline)
+				Thread.sleep(10);
+			Assert.assertEquals(pool.getLeaksDetected(), 1, "Leaks detected");
+		}
+		finally
+		{
+			dbConn.closePool();
+		}
+	}
+
+
+	private DbConnection createPooledConnection(int poolSize, int statementCacheSize)
+	{
+		DbConnection dbConn = new DbConnection();
+		dbConn.setName("pooledConn");
+		DbConnectionSettings settings = dbConn.getSettings();
+		settings.setJdbcUrl("jdbc:sqlite:" + dbFile);
+		settings.setInitializationQuery("select 1");
+		settings.setPoolMaxSize(poolSize);
+		settings.setPoolWaitTimeout(100);
+		settings.setValidationQuery("select 1");
+		settings.setStatementCacheSize(statementCacheSize);
+		return dbConn;
+	}
+}
@@ -0,0 +1,153 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.iface;
+
+import com.exactprosystems.clearth.connectivity.listeners.storage.CompactMemoryContentStorage;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class CompactClearThMessageTest
+{
+	@Test
+	public void compactMessageInflatedWithSameContent()
+	{
+		SimpleClearThMessage message = createMessage("D", "order1", "\u00c9t\u00e9 \u20ac"),
+				sub = createMessage("Party", null, "P1");
+		message.addSubMessage(sub);
+		message.addField("Empty", "");
+		message.setEncodedMessage("8=FIX.4.4|35=D|11=order1|");
+		message.addMetaField("Source", "test");
+		
+		CompactClearThMessage compact = new MessageCompactor(false).compact(message);
+		SimpleClearThMessage inflated = compact.getMessage();
+		
+		assertEquals(inflated.getFields(), message.getFields());
+		assertEquals(new ArrayList<>(inflated.getFieldNames()), new ArrayList<>(message.getFieldNames()));
+		assertEquals(inflated.getSubMessages().size(), 1);
+		assertEquals(inflated.getSubMessage(0).getFields(), sub.getFields());
+		assertEquals(inflated.getEncodedMessage(), message.getEncodedMessage());
+		assertEquals(inflated.getMetaField("Source"), "test");
+	}
+	
+	@Test
+	public void fieldReadWithoutInflation()
+	{
+		CompactClearThMessage compact = new MessageCompactor(false).compact(createMessage("D", null, "Value"));
+		
+		assertEquals(compact.getField(ClearThMessage.MSGTYPE), "D");
+		assertNull(compact.getField("ClOrdID"));
+		assertEquals(compact.getField("Text"), "Value");
+		assertNull(compact.getField("Unknown"));
+		assertFalse(compact.isInflated());
+	}
+	
+	@Test
+	public void inflatedMessageReusedWhileReferenced()
+	{
+		ReceivedClearThMessage received = new ReceivedClearThMessage(1, 100, new MessageCompactor(false).compact(createMessage("D", "order1", "Value")));
+		
+		ClearThMessage<?> first = received.getMessage();
+		assertSame(received.getMessage(), first);
+		assertSame(new ReceivedClearThMessage(received).getMessage(), first);
+	}
+	
+	@Test
+	public void schemaSharedBetweenMessagesWithSameFields()
+	{
+		MessageCompactor compactor = new MessageCompactor(false);
+		CompactClearThMessage first = compactor.compact(createMessage("D", "order1", "Value1")),
+				second = compactor.compact(createMessage("8", "order2", "Value2")),
+				third = compactor.compact(new SimpleClearThMessage());
+		
+		assertSame(second.getSchema(), first.getSchema());
+		assertNotSame(third.getSchema(), first.getSchema());
+		assertEquals(compactor.getSchemasCount(), 2);
+	}
+	
+	@Test
+	public void longEncodedMessageCompressed()
+	{
+		char[] chars = new char[1000];
+		Arrays.fill(chars, 'A');
+		String encoded = new String(chars);
+		
+		SimpleClearThMessage message = createMessage("D", "order1", "Value");
+		message.setEncodedMessage(encoded);
+		CompactClearThMessage compact = new MessageCompactor(true).compact(message);
+		assertTrue(compact.isEncodedMessageCompressed());
+		assertEquals(compact.getEncodedMessage(), encoded);
+		
+		message.setEncodedMessage("short");
+		compact = new MessageCompactor(true).compact(message);
+		assertFalse(compact.isEncodedMessageCompressed());
+		assertEquals(compact.getEncodedMessage(), "short");
+	}
+	
+	@Test
+	public void lazyEncodedMessageCreatedOnRequest()
+	{
+		AtomicInteger calls = new AtomicInteger();
+		SimpleClearThMessage message = createMessage("D", "order1", "Value");
+		message.setEncodedMessageSource(() -> {
+			calls.incrementAndGet();
+			return "8=FIX.4.4|35=D|";
+		});
+		
+		CompactClearThMessage compact = new MessageCompactor(true, 0, MessageCompactor.DEFAULT_MAX_SCHEMAS).compact(message);
+		assertEquals(calls.get(), 0);
+		
+		SimpleClearThMessage inflated = compact.getMessage();
+		assertEquals(calls.get(), 0);
+		assertEquals(inflated.getEncodedMessage(), "8=FIX.4.4|35=D|");
+		assertEquals(compact.getEncodedMessage(), "8=FIX.4.4|35=D|");
+		assertEquals(calls.get(), 1);
+	}
+	
+	@Test
+	public void onlySimpleMessagesCompacted()
+	{
+		SimpleClearThMessage custom = new SimpleClearThMessage()
+		{
+		};
+		custom.addField(ClearThMessage.MSGTYPE, "D");
+		
+		CompactMemoryContentStorage storage = new CompactMemoryContentStorage(new MessageCompactor(false));
+		storage.insertPassed(1, new ReceivedClearThMessage(1, 100, createMessage("D", "order1", "Value")));
+		storage.insertPassed(2, new ReceivedClearThMessage(2, 100, custom));
+		
+		assertTrue(storage.getContentPassed().get(1L).isCompact());
+		assertFalse(storage.getContentPassed().get(2L).isCompact());
+		assertSame(storage.getContentPassed().get(2L).getMessage(), custom);
+	}
+	
+	
+	static SimpleClearThMessage createMessage(String type, String id, String text)
+	{
+		SimpleClearThMessage result = new SimpleClearThMessage();
+		result.addField(ClearThMessage.MSGTYPE, type);
+		result.addField("ClOrdID", id);
+		result.addField("Text", text);
+		return result;
+	}
+}
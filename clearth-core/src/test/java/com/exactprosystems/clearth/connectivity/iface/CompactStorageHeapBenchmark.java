@@ -0,0 +1,94 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.iface;
+
+import com.exactprosystems.clearth.connectivity.listeners.storage.CompactMemoryContentStorage;
+import com.exactprosystems.clearth.connectivity.listeners.storage.ContentStorage;
+import com.exactprosystems.clearth.connectivity.listeners.storage.MemoryContentStorage;
+
+/**
+ * Measures approximate heap used per message stored in collector content storage, plain and compact. 
+ * Not a unit test, run it via main() with fixed heap size, e.g. -Xms2g -Xmx2g
+ */
+public class CompactStorageHeapBenchmark
+{
+	private static final int MESSAGES = 200_000,
+			FIELDS = 30;
+	
+	public static void main(String[] args)
+	{
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : MESSAGES;
+		
+		report("Plain", count, measure(new MemoryContentStorage<>(), count));
+		report("Compact", count, measure(new CompactMemoryContentStorage(new MessageCompactor(false)), count));
+		report("Compact+compressed", count, measure(new CompactMemoryContentStorage(new MessageCompactor(true)), count));
+	}
+	
+	private static long measure(ContentStorage<ReceivedClearThMessage, ReceivedStringMessage> storage, int count)
+	{
+		long before = usedHeap();
+		for (int i = 0; i < count; i++)
+			storage.insertPassed(i, new ReceivedClearThMessage(i, System.currentTimeMillis(), createMessage(i)));
+		long after = usedHeap();
+		
+		if (storage.getContentPassed().size() != count)  //Keeping storage reachable till measurement is done
+			throw new IllegalStateException("Not all messages stored");
+		storage.dispose();
+		return after - before;
+	}
+	
+	private static void report(String name, int count, long bytes)
+	{
+		System.out.printf("%-20s %,d messages, %,d bytes per message%n", name, count, bytes / count);
+	}
+	
+	private static SimpleClearThMessage createMessage(int index)
+	{
+		SimpleClearThMessage result = new SimpleClearThMessage();
+		result.addField(ClearThMessage.MSGTYPE, index % 2 == 0 ? "D" : "8");
+		StringBuilder encoded = new StringBuilder("8=FIX.4.4|35=").append(result.getField(ClearThMessage.MSGTYPE)).append('|');
+		for (int i = 1; i < FIELDS; i++)
+		{
+			String value = "Value" + index + "_" + i;
+			result.addField("Field" + i, value);
+			encoded.append(1000 + i).append('=').append(value).append('|');
+		}
+		result.setEncodedMessage(encoded.toString());
+		return result;
+	}
+	
+	private static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+		{
+			System.gc();
+			try
+			{
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
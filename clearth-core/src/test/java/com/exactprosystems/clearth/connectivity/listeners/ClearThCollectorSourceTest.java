@@ -41,7 +41,9 @@ import com.exactprosystems.clearth.connectivity.ListenerType;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessage;
 import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
 import com.exactprosystems.clearth.connectivity.iface.ICodec;
+import com.exactprosystems.clearth.connectivity.iface.SimpleClearThMessage;
 import com.exactprosystems.clearth.messages.CollectorMessageSource;
+import com.exactprosystems.clearth.messages.MessageFinder;
 import com.exactprosystems.clearth.utils.SettingsException;
 import com.exactprosystems.clearth.utils.SimpleKeyValueCodec;
 
@@ -110,6 +112,37 @@ public class ClearThCollectorSourceTest {
 		Assert.assertEquals(actual, expectedSecond);
 	}
 
+	@Test(timeOut = 10000)
+	public void checkFinderWakesUpOnNewMessage() throws Exception
+	{
+		String[] messages = getMessagesFromFile(MESSAGES_FILE);
+		ClearThMessageCollector listener = createListener("Waiting", codec, new HashMap<>());
+		listener.onMessage(EncodedClearThMessage.newReceivedMessage(messages[0], Instant.ofEpochMilli(0)));
+		
+		CollectorMessageSource source = new CollectorMessageSource(listener, true);
+		//Search delay is greater than timeout, so message can be found in time only if finder is notified about it
+		MessageFinder<SimpleClearThMessage> finder = new MessageFinder<>(60000);
+		
+		Thread sender = new Thread(() -> {
+			try
+			{
+				Thread.sleep(300);
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+			listener.onMessage(EncodedClearThMessage.newReceivedMessage(messages[1], Instant.ofEpochMilli(1)));
+		});
+		sender.start();
+		
+		SimpleClearThMessage found = finder.find(source, m -> "BBB".equals(m.getField(MSGTYPE)), 5000, false);
+		sender.join();
+		
+		Assert.assertNotNull(found, "Message not found");
+		Assert.assertTrue(finder.getLastSearchDuration() < 5000, "Finder waited for timeout: "+finder.getLastSearchDuration()+" ms");
+	}
+	
 	private CollectorMessageSource createSource(ClearThMessageCollector listener, long afterTime, boolean directOrder) 
 			throws SettingsException
 	{
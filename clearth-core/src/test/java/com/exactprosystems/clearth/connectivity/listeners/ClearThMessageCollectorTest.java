@@ -18,9 +18,12 @@
 
 package com.exactprosystems.clearth.connectivity.listeners;
 
+import com.exactprosystems.clearth.connectivity.DecodeException;
 import com.exactprosystems.clearth.connectivity.ListenerProperties;
 import com.exactprosystems.clearth.connectivity.ListenerType;
+import com.exactprosystems.clearth.connectivity.iface.ClearThMessage;
 import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
+import com.exactprosystems.clearth.connectivity.iface.ReceivedClearThMessage;
 import com.exactprosystems.clearth.connectivity.iface.ICodec;
 import com.exactprosystems.clearth.utils.SettingsException;
 import com.exactprosystems.clearth.utils.SimpleKeyValueCodec;
@@ -43,6 +46,7 @@ import static com.exactprosystems.clearth.connectivity.iface.ClearThMessage.MSGT
 import static com.exactprosystems.clearth.connectivity.listeners.ClearThMessageCollector.DEFAULT_MESSAGE_END_INDICATOR;
 import static com.exactprosystems.clearth.connectivity.listeners.ClearThMessageCollector.ALLOWED_TYPES;
 import static com.exactprosystems.clearth.connectivity.listeners.ClearThMessageCollector.FORBIDDEN_TYPES;
+import static com.exactprosystems.clearth.connectivity.listeners.ClearThMessageCollector.INDEXED_FIELDS;
 
 public class ClearThMessageCollectorTest
 {
@@ -97,6 +101,53 @@ public class ClearThMessageCollectorTest
 		Assert.assertEquals(actual, expected);
 	}
 	
+	@Test
+	public void filteredMessagesNotDecoded() throws IOException, SettingsException
+	{
+		Map<String, String> settings = new HashMap<>();
+		settings.put(ALLOWED_TYPES, "AAA,CCC");
+		PeekingCodec peekingCodec = new PeekingCodec();
+		ClearThMessageCollector listener = createListener("Peeking", peekingCodec, settings);
+		
+		String[] messages = getMessagesFromFile(MESSAGES_FILE);
+		Arrays.stream(messages).forEach(m -> listener.onMessage(EncodedClearThMessage.newReceivedMessage(m)));
+		
+		Set<String> actual = listener.getMessages().stream()
+				.map(msg -> msg.getField(MSGTYPE))
+				.collect(Collectors.toSet());
+		Assert.assertEquals(actual, new HashSet<>(Arrays.asList("AAA", "CCC")));
+		Assert.assertEquals(peekingCodec.decoded, listener.getMessages().size(), "Number of decoded messages");
+		Assert.assertTrue(peekingCodec.decoded < messages.length, "Some messages should be skipped without decoding");
+	}
+	
+	@Test
+	public void compactMessagesNotInflatedByLookups() throws IOException, SettingsException
+	{
+		Map<String, String> settings = new HashMap<>();
+		settings.put(ClearThMessageCollector.COMPACT_STORAGE_SETTING, "true");
+		ClearThMessageCollector listener = createListener("Compact", codec, settings);
+		Arrays.stream(getMessagesFromFile(MESSAGES_FILE))
+				.forEach(m -> listener.onMessage(EncodedClearThMessage.newReceivedMessage(m)));
+		
+		List<ReceivedClearThMessage> stored = new ArrayList<>(listener.getMessagesData());
+		Assert.assertTrue(stored.size() > 2, "Test needs more than 2 messages");
+		ReceivedClearThMessage first = stored.get(0),
+				second = stored.get(1);
+		Assert.assertTrue(first.isCompact());
+		
+		ClearThMessage<?> firstMessage = first.getMessage(),
+				secondMessage = second.getMessage();
+		Assert.assertEquals(listener.getMessageData(secondMessage).getId(), second.getId());
+		listener.removeMessage(firstMessage);
+		
+		Assert.assertNull(listener.getMessageData(first.getId()));
+		for (ReceivedClearThMessage msg : listener.getMessagesData())
+		{
+			if (msg != second)
+				Assert.assertFalse(msg.isInflated(), "Message #"+msg.getId()+" is inflated");
+		}
+	}
+	
 	@Test(expectedExceptions = SettingsException.class)
 	public void checkIfBothFilterParamCannotBeUsedTogether() throws SettingsException
 	{
@@ -127,6 +178,43 @@ public class ClearThMessageCollectorTest
 		simpleListener.onMessage(EncodedClearThMessage.newReceivedMessage("a", null));
 	}
 	
+	@Test
+	public void checkIndexedFieldsLookup() throws IOException, SettingsException
+	{
+		Map<String, String> settings = new HashMap<>();
+		settings.put(INDEXED_FIELDS, MSGTYPE);
+		ClearThMessageCollector listener = createListener("Indexed", codec, settings);
+		Arrays.stream(getMessagesFromFile(MESSAGES_FILE))
+				.forEach(m -> listener.onMessage(EncodedClearThMessage.newReceivedMessage(m)));
+		listener.onMessage(EncodedClearThMessage.newReceivedMessage("MsgType=AAA\nmessage=extra1"));
+		listener.onMessage(EncodedClearThMessage.newReceivedMessage("MsgType=BBB\nmessage=extra2"));
+		listener.onMessage(EncodedClearThMessage.newReceivedMessage("MsgType=AAA\nmessage=extra3"));
+		
+		Assert.assertEquals(listener.getIndexedFields(), Collections.singleton(MSGTYPE));
+		
+		List<ClearThMessage<?>> expected = listener.getMessages().stream()
+				.filter(m -> "AAA".equals(m.getField(MSGTYPE)))
+				.collect(Collectors.toList());
+		Assert.assertEquals(expected.size(), 3);
+		Assert.assertEquals(getIndexedMessages(listener, -1, MSGTYPE, "AAA"), expected);
+		
+		long firstId = listener.getMessagesData(-1, MSGTYPE, "AAA").iterator().next().getId();
+		Assert.assertEquals(getIndexedMessages(listener, firstId, MSGTYPE, "AAA"), expected.subList(1, expected.size()));
+		
+		listener.removeMessage(expected.get(0));
+		Assert.assertEquals(getIndexedMessages(listener, -1, MSGTYPE, "AAA"), expected.subList(1, expected.size()));
+		
+		//Field without index - all messages are returned
+		Assert.assertEquals(listener.getMessagesData(-1, "message", "msg0").size(), listener.getMessages().size());
+	}
+	
+	private List<ClearThMessage<?>> getIndexedMessages(ClearThMessageCollector listener, long afterId, String field, String value)
+	{
+		return listener.getMessagesData(afterId, field, value).stream()
+				.map(ReceivedClearThMessage::getMessage)
+				.collect(Collectors.toList());
+	}
+	
 	private ClearThMessageCollector createListener(String name, ICodec codec, Map<String, String> settings)
 			throws SettingsException
 	{
@@ -134,6 +222,30 @@ public class ClearThMessageCollectorTest
 				"con", codec, settings, DEFAULT_MESSAGE_END_INDICATOR);
 	}
 	
+	private static class PeekingCodec extends SimpleKeyValueCodec
+	{
+		private static final String TYPE_PREFIX = MSGTYPE + "=";
+		
+		private int decoded = 0;
+		
+		@Override
+		public ClearThMessage<?> decode(String encodedMessage, String msgType) throws DecodeException
+		{
+			decoded++;
+			return super.decode(encodedMessage, msgType);
+		}
+		
+		@Override
+		public String peekMessageType(String message)
+		{
+			return Arrays.stream(message.split("\n"))
+					.filter(line -> line.startsWith(TYPE_PREFIX))
+					.map(line -> line.substring(TYPE_PREFIX.length()))
+					.findFirst()
+					.orElse(null);
+		}
+	}
+	
 	private String[] getMessagesFromFile(String fileName) throws IOException
 	{
 		File file = MESSAGE_COLLECTOR_TEST_OUTPUT_DIR.resolve(fileName).toFile();
@@ -0,0 +1,158 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils;
+
+import com.exactprosystems.clearth.automation.exceptions.ParametersException;
+import org.apache.commons.lang.StringUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class ComparisonUtilsTest
+{
+	private final ComparisonUtils cu = new ComparisonUtils();
+
+	@DataProvider(name = "expectedValues")
+	Object[][] expectedValues()
+	{
+		return new Object[][]
+				{
+						// expected, actual
+						{"abc", "abc"},
+						{"abc", "ABC"},
+						{"abc", null},
+						{null, null},
+						{"@{pattern('12:..:..')}", "12:30:45"},
+						{"@{pattern('12:..:..')}", "13:30:45"},
+						{"A.B@{pattern('\\d+')}", "A.B123"},
+						{"A.B@{pattern('\\d+')}", "AxB123"},
+						{"@{pattern('.*')}", null},
+						{"@{isGreaterThan(10)}", "11"},
+						{"@{isGreaterThan(10)}", "10"},
+						{"@{isGreaterThan(10)}", "abc"},
+						{"@{isGreaterOrEqual(10)}", "10"},
+						{"@{isLessThan(10)}", "9.99"},
+						{"@{isLessOrEqual(10)}", "10.01"},
+						{"@{isBetween(2,4)}", "2"},
+						{"@{isBetween(2,4,'includeLeft')}", "2"},
+						{"@{isBetween(2,4,'includeRight')}", "4"},
+						{"@{isBetween(2,4,'includeBoth')}", "3"},
+						{"@{isBetween(2,4)}", null},
+						{"{asNumber('10.10')}", "10.1"},
+						{"{asNumber('10.10', '0.5')}", "10.4"},
+						{"{asNumber('10.15', '0', '1')}", "10.2"},
+						{"{asAbsNumber('-5')}", "5"},
+						{"@{isNotEqualNumber(5)}", "5.0"},
+						{"@{isNotEqualNumber(5)}", "6"},
+						{"@{isNotEqualText('abc')}", "abc"},
+						{"@{isNotEqualText('abc', false)}", "ABC"},
+						{"@{isTimestamp('dd.MM.yyyy')}", "01.02.2003"},
+						{"@{isBeforeDate('01.01.2001', 'dd.MM.yyyy')}", "01.01.2000"},
+						{ComparisonUtils.IS_NULL, null},
+						{ComparisonUtils.IS_NULL, "a"},
+						{ComparisonUtils.IS_SET, "a"},
+						{ComparisonUtils.IS_EMPTY, ""},
+						{ComparisonUtils.IS_NOT_EMPTY, ""},
+						{ComparisonUtils.IS_NULL_OR_EMPTY, null},
+						{ComparisonUtils.IS_ANY_VALUE, null},
+						{ComparisonUtils.IS_NUMBER, "1e5"},
+						{ComparisonUtils.IS_FLOAT, "1.5"},
+						{ComparisonUtils.IS_INTEGER, "1.5"}
+				};
+	}
+
+	@Test(dataProvider = "expectedValues")
+	public void compiledPredicateMatchesCompareValues(String expected, String actual) throws ParametersException
+	{
+		assertEquals(cu.compileExpectedValue(expected, true).test(actual), cu.compareValues(expected, actual, true));
+		assertEquals(cu.compileExpectedValue(expected, false).test(actual), cu.compareValues(expected, actual, false));
+	}
+
+	@Test(expectedExceptions = ParametersException.class,
+			expectedExceptionsMessageRegExp = "In function 'isGreaterThan' expected value 'abc' isn't valid number.")
+	public void invalidExpressionReportedOnCheck() throws ParametersException
+	{
+		ExpectedValuePredicate predicate = cu.compileExpectedValue("@{isGreaterThan(abc)}", true);
+		predicate.test("10");
+	}
+
+	@Test(expectedExceptions = ParametersException.class,
+			expectedExceptionsMessageRegExp = "Parameter 'includeNone' in function 'isBetween' is invalid")
+	public void invalidInclusionReportedOnCheck() throws ParametersException
+	{
+		ExpectedValuePredicate predicate = cu.compileExpectedValue("@{isBetween(2,4,'includeNone')}", true);
+		predicate.test("3");
+	}
+
+	@Test
+	public void compiledExpressionsCached()
+	{
+		ExpectedValuePredicate first = cu.getExpectedValuePredicate("@{isGreaterThan(10)}", true),
+				second = cu.getExpectedValuePredicate("@{isGreaterThan(10)}", true);
+		assertSame(second, first);
+	}
+	
+	@Test
+	public void unknownExpressionComparedAsIs() throws ParametersException
+	{
+		ExpectedValuePredicate predicate = cu.getExpectedValuePredicate("{unknown}", true);
+		assertEquals(predicate.test("{unknown}"), true);
+		assertEquals(predicate.test("unknown"), false);
+	}
+	
+	@Test
+	public void overriddenComparisonUsedByPredicates() throws ParametersException
+	{
+		ComparisonUtils custom = new ComparisonUtils()
+		{
+			@Override
+			public boolean compareValues(String expectedValue, String actualValue, boolean isCaseSensitive) throws ParametersException
+			{
+				if ("{anything}".equals(expectedValue) || "ANY".equals(expectedValue))
+					return true;
+				return super.compareValues(expectedValue, actualValue, isCaseSensitive);
+			}
+		};
+		
+		assertEquals(custom.getExpectedValuePredicate("{anything}", true).test("abc"), true);
+		assertEquals(custom.getExpectedValuePredicate("ANY", true).test("abc"), true);
+		assertEquals(custom.getExpectedValuePredicate("abc", true).test("abc"), true);
+		assertEquals(custom.getExpectedValuePredicate("abc", true).test("ABC"), false);
+	}
+	
+	@Test
+	public void overriddenFunctionUsedByPredicates() throws ParametersException
+	{
+		ComparisonUtils custom = new ComparisonUtils()
+		{
+			@Override
+			public boolean isGreaterThan(String expectedValue, String actualValue) throws ParametersException
+			{
+				//Comparing with absolute value of actual number
+				return super.isGreaterThan(expectedValue, StringUtils.stripStart(actualValue, "-"));
+			}
+		};
+		
+		assertEquals(custom.getExpectedValuePredicate("@{isGreaterThan(5)}", true).test("-10"), true);
+		assertEquals(custom.getExpectedValuePredicate("@{isGreaterThan(5)}", true).test("3"), false);
+		assertEquals(new ComparisonUtils().getExpectedValuePredicate("@{isGreaterThan(5)}", true).test("-10"), false);
+	}
+}
@@ -0,0 +1,138 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata;
+
+import com.exactprosystems.clearth.utils.tabledata.primarykeys.CollectionPrimaryKey;
+import com.exactprosystems.clearth.utils.tabledata.rowMatchers.StringTableRowMatcher;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.testng.Assert.*;
+
+public class SpillingIndexedStringTableDataTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(SpillingIndexedStringTableDataTest.class.getSimpleName());
+	private static final int ROWS = 100;
+	
+	private TableHeader<String> header;
+	
+	@BeforeClass
+	public void init() throws IOException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+		header = new TableHeader<>(new LinkedHashSet<>(Arrays.asList("Key", "Value")));
+	}
+	
+	@Test
+	public void spilledRowsFound() throws IOException
+	{
+		try (SpillingIndexedStringTableData<CollectionPrimaryKey<String>> data = createData(10))
+		{
+			fill(data);
+			assertEquals(data.size(), ROWS);
+			assertTrue(data.getSpilledRows() > 0, "Rows are moved to disk");
+			assertTrue(data.getRowsInMemory() < 10, "Rows in memory are limited");
+			
+			TableRow<String, String> first = createRow(0, null);
+			assertNull(data.findAndRemoveInMemory(first), "Row on disk found in memory");
+			
+			TableRow<String, String> found = data.findAndRemove(first);
+			assertNotNull(found);
+			assertEquals(found.getValue("Value"), "value0");
+			assertNull(data.find(first));
+			assertEquals(data.size(), ROWS-1);
+		}
+	}
+	
+	@Test
+	public void allRowsDrained() throws IOException
+	{
+		try (SpillingIndexedStringTableData<CollectionPrimaryKey<String>> data = createData(10))
+		{
+			fill(data);
+			
+			Set<String> drained = new HashSet<>();
+			while (!data.isEmpty())
+			{
+				//The same way as in IndexedTableDataComparator.getSomeTableRow()
+				TableRow<String, String> row = data.findAll(data.iterator().next()).iterator().next();
+				assertNotNull(data.findAndRemove(row));
+				assertTrue(drained.add(row.getValue("Key")), "Row "+row+" is drained twice");
+			}
+			
+			assertEquals(drained.size(), ROWS);
+			assertEquals(data.size(), 0);
+			assertEquals(data.getSpilledRows(), 0);
+		}
+	}
+	
+	@Test
+	public void rowsOrderKeptForSameKey() throws IOException
+	{
+		try (SpillingIndexedStringTableData<CollectionPrimaryKey<String>> data = createData(3))
+		{
+			for (int i = 0; i < 5; i++)
+				data.add(new TableRow<>(header, Arrays.asList("key", "value"+i)));
+			
+			List<TableRow<String, String>> rows = data.findAll(createRow(0, null));
+			assertEquals(rows.size(), 5);
+			for (int i = 0; i < 5; i++)
+				assertEquals(rows.get(i).getValue("Value"), "value"+i);
+		}
+	}
+	
+	@Test
+	public void filesRemovedOnClose() throws IOException
+	{
+		SpillingIndexedStringTableData<CollectionPrimaryKey<String>> data = createData(10);
+		fill(data);
+		Path dir = data.getDirectory();
+		assertTrue(Files.isDirectory(dir));
+		
+		data.close();
+		assertFalse(Files.exists(dir));
+		assertTrue(data.isEmpty());
+	}
+	
+	
+	private SpillingIndexedStringTableData<CollectionPrimaryKey<String>> createData(int maxRowsInMemory) throws IOException
+	{
+		return new SpillingIndexedStringTableData<>(header, new StringTableRowMatcher(Collections.singleton("Key")),
+				TEST_OUTPUT, 4, maxRowsInMemory, () -> false);
+	}
+	
+	private void fill(SpillingIndexedStringTableData<CollectionPrimaryKey<String>> data)
+	{
+		for (int i = 0; i < ROWS; i++)
+			data.add(createRow(i, "value"+i));
+	}
+	
+	private TableRow<String, String> createRow(int index, String value)
+	{
+		return new TableRow<>(header, Arrays.asList("key"+index, value));
+	}
+}
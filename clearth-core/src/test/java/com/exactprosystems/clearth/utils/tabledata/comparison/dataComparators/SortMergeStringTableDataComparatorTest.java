@@ -0,0 +1,134 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata.comparison.dataComparators;
+
+import com.exactprosystems.clearth.automation.exceptions.ParametersException;
+import com.exactprosystems.clearth.utils.ComparisonUtils;
+import com.exactprosystems.clearth.utils.tabledata.comparison.result.RowComparisonData;
+import com.exactprosystems.clearth.utils.tabledata.comparison.rowsComparators.TableRowsComparator;
+import com.exactprosystems.clearth.utils.tabledata.comparison.valuesComparators.StringValuesComparator;
+import com.exactprosystems.clearth.utils.tabledata.readers.CsvDataReader;
+import com.exactprosystems.clearth.utils.tabledata.rowMatchers.StringTableRowMatcher;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class SortMergeStringTableDataComparatorTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(SortMergeStringTableDataComparatorTest.class.getSimpleName());
+	private static final String EXPECTED = "Key,Value\n3,c\n1,a\n2,b\n2,b2\n5,e\n",
+			ACTUAL = "Key,Value\n2,b\n1,x\n4,d\n3,c\n2,b2\n";
+	
+	@BeforeClass
+	public void init() throws IOException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+	}
+	
+	@DataProvider(name = "rowsInRun")
+	Object[][] rowsInRun()
+	{
+		return new Object[][]
+				{
+						{1},  //Each row goes to separate sorted run
+						{2},
+						{1000}  //All rows are sorted in memory
+				};
+	}
+	
+	@Test(dataProvider = "rowsInRun")
+	public void rowsMatchedByKey(int maxRowsInRun) throws IOException, ParametersException
+	{
+		List<String> results = new ArrayList<>();
+		try (SortMergeStringTableDataComparator comparator = createComparator(EXPECTED, ACTUAL, maxRowsInRun))
+		{
+			while (comparator.hasMoreRows())
+			{
+				RowComparisonData<String, String> data = comparator.compareRows();
+				results.add(comparator.getCurrentRow().getValue("Key")+"-"+data.getResultType());
+			}
+		}
+		
+		assertEquals(results, Arrays.asList("1-FAILED", "2-PASSED", "2-PASSED", "3-PASSED", "4-EXTRA", "5-NOT_FOUND"));
+	}
+	
+	@Test
+	public void sameResultAsIndexedComparator() throws IOException, ParametersException
+	{
+		List<String> sortMerge = new ArrayList<>(),
+				indexed = new ArrayList<>();
+		try (SortMergeStringTableDataComparator comparator = createComparator(EXPECTED, ACTUAL, 2))
+		{
+			while (comparator.hasMoreRows())
+				sortMerge.add(comparator.compareRows().getResultType()+" "+comparator.getCurrentRow());
+		}
+		
+		try (IndexedStringTableDataComparator<?> comparator = new IndexedStringTableDataComparator<>(
+				new CsvDataReader(new StringReader(EXPECTED)), new CsvDataReader(new StringReader(ACTUAL)),
+				new StringTableRowMatcher(Collections.singleton("Key")), new ComparisonUtils()))
+		{
+			while (comparator.hasMoreRows())
+				indexed.add(comparator.compareRows().getResultType()+" "+comparator.getCurrentRow());
+		}
+		
+		Collections.sort(sortMerge);
+		Collections.sort(indexed);
+		assertEquals(sortMerge, indexed);
+	}
+	
+	@Test
+	public void runsRemovedOnClose() throws IOException, ParametersException
+	{
+		try (SortMergeStringTableDataComparator comparator = createComparator(EXPECTED, ACTUAL, 1))
+		{
+			comparator.hasMoreRows();
+		}
+		
+		try (Stream<Path> files = Files.list(TEST_OUTPUT))
+		{
+			assertFalse(files.findAny().isPresent(), "Temporary files are left after comparison");
+		}
+	}
+	
+	
+	private SortMergeStringTableDataComparator createComparator(String expected, String actual, int maxRowsInRun)
+			throws IOException, ParametersException
+	{
+		return new SortMergeStringTableDataComparator(new CsvDataReader(new StringReader(expected)), new CsvDataReader(new StringReader(actual)),
+				new StringTableRowMatcher(Collections.singleton("Key")),
+				new TableRowsComparator<>(new StringValuesComparator(new ComparisonUtils())),
+				TEST_OUTPUT, maxRowsInRun);
+	}
+}
@@ -0,0 +1,272 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.utils.tabledata.readers;
+
+import com.exactprosystems.clearth.utils.tabledata.StringTableData;
+import com.exactprosystems.clearth.utils.tabledata.TableRow;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DbDataReaderTest
+{
+	private static final Path TEST_OUTPUT = Paths.get("testOutput").resolve(DbDataReaderTest.class.getSimpleName());
+	private static final String DB_FILE = TEST_OUTPUT.resolve("file.db").toString(),
+			QUERY = "select id, name, amount from table1 order by id";
+	private static final int ROWS_COUNT = 2500;
+	
+	private Connection connection;
+	
+	@BeforeClass
+	public void init() throws IOException, SQLException
+	{
+		FileUtils.deleteDirectory(TEST_OUTPUT.toFile());
+		Files.createDirectories(TEST_OUTPUT);
+		
+		connection = DriverManager.getConnection("jdbc:sqlite:" + DB_FILE);
+		try (Statement statement = connection.createStatement())
+		{
+			statement.execute("create table table1 (id INTEGER PRIMARY KEY, name TEXT, amount REAL)");
+			//SQLite stores values of any type in declared columns
+			statement.execute("create table mixed (id INTEGER PRIMARY KEY, int_value INTEGER, text_value TEXT, real_value REAL)");
+			statement.execute("insert into mixed (id, int_value, text_value, real_value) values "
+					+ "(1, 10, 'text', 1.5), (2, 1.5, 20, 'abc'), (3, 'abc', 2.5, 30), (4, null, null, null), (5, 12345678901, 'x', 1e20)");
+		}
+		
+		connection.setAutoCommit(false);
+		try (PreparedStatement statement = connection.prepareStatement("insert into table1 (id, name, amount) values (?, ?, ?)"))
+		{
+			for (int i = 1; i <= ROWS_COUNT; i++)
+			{
+				statement.setInt(1, i);
+				statement.setString(2, i % 10 == 0 ? null : "name" + i);
+				statement.setDouble(3, i + 0.5);
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+		connection.commit();
+		connection.setAutoCommit(true);
+	}
+	
+	@AfterClass
+	public void dispose() throws SQLException
+	{
+		if (connection != null)
+			connection.close();
+	}
+	
+	@DataProvider(name = "readingModes")
+	Object[][] readingModes()
+	{
+		return new Object[][]
+				{
+					// fetch size, prefetch
+					{0, false},
+					{100, false},
+					{100, true},
+					{0, true}
+				};
+	}
+	
+	@Test(dataProvider = "readingModes")
+	public void allRowsRead(int fetchSize, boolean prefetch) throws SQLException, IOException
+	{
+		DbDataReader reader = new DbDataReader(connection.prepareStatement(QUERY));
+		reader.setFetchSize(fetchSize);
+		reader.setPrefetch(prefetch);
+		reader.setPrefetchBlockSize(300);
+		
+		StringTableData data;
+		try
+		{
+			data = reader.readAllData();
+		}
+		finally
+		{
+			reader.close();
+		}
+		
+		Assert.assertEquals(new ArrayList<>(data.getHeader().toCollection()), Arrays.asList("id", "name", "amount"), "Header");
+		Assert.assertEquals(data.size(), ROWS_COUNT, "Rows count");
+		
+		int id = 1;
+		for (TableRow<String, String> row : data)
+		{
+			Assert.assertEquals(row.getValue("id"), Integer.toString(id));
+			Assert.assertEquals(row.getValue("name"), id % 10 == 0 ? null : "name" + id);
+			Assert.assertEquals(row.getValue("amount"), Double.toString(id + 0.5));
+			id++;
+		}
+	}
+	
+	@Test
+	public void convertersChosenByColumnType() throws SQLException, IOException
+	{
+		DbDataReader reader = new DbDataReader(connection.prepareStatement(QUERY));
+		try
+		{
+			reader.start();
+			AbstractDbDataReader.DbColumn[] columns = reader.getColumns(reader.getTableData().getHeader());
+			Assert.assertNull(columns[0].getConverter(), "Converter for INTEGER column");
+			Assert.assertNotNull(columns[1].getConverter(), "Converter for TEXT column");
+			Assert.assertNull(columns[2].getConverter(), "Converter for REAL column");
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+	
+	@Test
+	public void indexBasedAccessReadsSameValuesAsNameBased() throws SQLException, IOException
+	{
+		String query = "select id, int_value, text_value, real_value from mixed order by id";
+		List<List<String>> byIndex = readValues(new DbDataReader(connection.prepareStatement(query))),
+				byName = readValues(new DbDataReader(connection.prepareStatement(query))
+				{
+					@Override
+					protected String getValueFromResultSet(String tableHeader, ResultSet resultSet) throws SQLException, IOException
+					{
+						return super.getValueFromResultSet(tableHeader, resultSet);
+					}
+				});
+		
+		Assert.assertEquals(byIndex, byName);
+		Assert.assertEquals(byIndex.get(1), Arrays.asList("2", "1.5", "20", "abc"), "Values of other types in declared columns");
+	}
+	
+	@Test
+	public void objectTransformerUsedInsteadOfConverters() throws SQLException, IOException
+	{
+		DbDataReader reader = new DbDataReader(connection.prepareStatement(QUERY));
+		reader.setObjectToStringTransformer(value -> value == null ? "none" : "value_" + value);
+		StringTableData data;
+		try
+		{
+			data = reader.readAllData();
+		}
+		finally
+		{
+			reader.close();
+		}
+		
+		int id = 1;
+		for (TableRow<String, String> row : data)
+		{
+			Assert.assertEquals(row.getValue("id"), "value_" + id);
+			Assert.assertEquals(row.getValue("name"), id % 10 == 0 ? "none" : "value_name" + id);
+			id++;
+		}
+	}
+	
+	@Test
+	public void prefetchNotUsedWithRowFilter() throws SQLException, IOException
+	{
+		DbDataReader reader = new DbDataReader(connection.prepareStatement(QUERY));
+		reader.setPrefetch(true);
+		reader.setDbRowFilter(rs -> {
+			try
+			{
+				return rs.getInt("id") <= 5;
+			}
+			catch (SQLException e)
+			{
+				throw new IOException(e);
+			}
+		});
+		
+		List<String> ids = new ArrayList<>();
+		try
+		{
+			for (TableRow<String, String> row : reader.readAllData())
+				ids.add(row.getValue("id"));
+		}
+		finally
+		{
+			reader.close();
+		}
+		
+		Assert.assertEquals(ids, Arrays.asList("1", "2", "3", "4", "5"));
+	}
+	
+	@Test(timeOut = 10000)
+	public void readerClosedBeforeAllRowsRead() throws SQLException, IOException
+	{
+		DbDataReader reader = new DbDataReader(connection.prepareStatement(QUERY));
+		reader.setPrefetch(true);
+		reader.setPrefetchBlockSize(10);
+		try
+		{
+			reader.start();
+			for (int i = 0; i < 5; i++)
+			{
+				Assert.assertTrue(reader.hasMoreData());
+				reader.fillRow();
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		
+		Assert.assertEquals(reader.getTableData().size(), 5);
+	}
+	
+	
+	private List<List<String>> readValues(DbDataReader reader) throws IOException
+	{
+		StringTableData data;
+		try
+		{
+			data = reader.readAllData();
+		}
+		finally
+		{
+			reader.close();
+		}
+		
+		List<List<String>> result = new ArrayList<>();
+		for (TableRow<String, String> row : data)
+		{
+			List<String> values = new ArrayList<>();
+			for (String column : data.getHeader())
+				values.add(row.getValue(column));
+			result.add(values);
+		}
+		return result;
+	}
+}
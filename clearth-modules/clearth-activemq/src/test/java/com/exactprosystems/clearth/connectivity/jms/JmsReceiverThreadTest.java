@@ -0,0 +1,217 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.jms;
+
+import com.exactprosystems.clearth.connectivity.connections.clients.ReceiveMetrics;
+import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.jms.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class JmsReceiverThreadTest
+{
+	private static final String BROKER_NAME = "receiverTest",
+			QUEUE = "ReceiverTestQueue";
+	private static final long READ_DELAY = 1000;
+	
+	private BrokerService broker;
+	private Connection connection;
+	private Session producerSession,
+			session;
+	private MessageConsumer consumer;
+	private JmsClient.JmsReceiverThread thread;
+	
+	@BeforeClass
+	public void startBroker() throws Exception
+	{
+		broker = new BrokerService();
+		broker.setBrokerName(BROKER_NAME);
+		broker.setPersistent(false);
+		broker.setUseJmx(false);
+		broker.start();
+		broker.waitUntilStarted();
+		
+		connection = new ActiveMQConnectionFactory("vm://" + BROKER_NAME + "?create=false").createConnection();
+		connection.start();
+		//Sessions are single-threaded, so messages are sent via separate session while receiver thread uses its own one
+		producerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+	}
+	
+	@AfterClass
+	public void stopBroker() throws Exception
+	{
+		if (connection != null)
+			connection.close();
+		if (broker != null)
+		{
+			broker.stop();
+			broker.waitUntilStopped();
+		}
+	}
+	
+	@BeforeMethod
+	public void createConsumer() throws JMSException
+	{
+		session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		consumer = session.createConsumer(session.createQueue(QUEUE));
+	}
+	
+	@AfterMethod
+	public void closeConsumer() throws Exception
+	{
+		if (thread != null)
+		{
+			thread.terminate();
+			thread.join(5000);
+			thread = null;
+		}
+		consumer.close();
+		session.close();
+	}
+	
+	
+	@Test
+	public void queueDrainedWithoutReadDelay() throws Exception
+	{
+		int count = 500;
+		sendMessages(count);
+		
+		BlockingQueue<EncodedClearThMessage> received = new LinkedBlockingQueue<>();
+		thread = startThread(100, received);
+		
+		//With read delay after each message receiving would take 'count' seconds
+		List<String> payloads = takeMessages(received, count, 10000);
+		for (int i = 0; i < count; i++)
+			assertEquals(payloads.get(i), "Message " + i);
+		
+		ReceiveMetrics metrics = thread.getReceiveMetrics();
+		assertEquals(metrics.getReceived(), count);
+		assertTrue(metrics.getBatches() >= count / 100, "At least "+(count / 100)+" batches expected, got "+metrics.getBatches());
+		assertTrue(metrics.getAverageBatchSize() > 1, "Average batch size: "+metrics.getAverageBatchSize());
+	}
+	
+	@Test
+	public void messagesReceivedAfterIdle() throws Exception
+	{
+		BlockingQueue<EncodedClearThMessage> received = new LinkedBlockingQueue<>();
+		thread = startThread(100, received);
+		
+		assertNull(received.poll(READ_DELAY, TimeUnit.MILLISECONDS));
+		assertEquals(thread.getReceiveMetrics().getReceived(), 0);
+		
+		sendMessages(3);
+		List<String> payloads = takeMessages(received, 3, 5000);
+		assertEquals(payloads, List.of("Message 0", "Message 1", "Message 2"));
+	}
+	
+	@Test
+	public void nonTextMessagesSkipped() throws Exception
+	{
+		MessageProducer producer = producerSession.createProducer(producerSession.createQueue(QUEUE));
+		try
+		{
+			producer.send(producerSession.createTextMessage("Text 1"));
+			BytesMessage bytes = producerSession.createBytesMessage();
+			bytes.writeBytes(new byte[] {1, 2, 3});
+			producer.send(bytes);
+			producer.send(producerSession.createTextMessage("Text 2"));
+		}
+		finally
+		{
+			producer.close();
+		}
+		
+		BlockingQueue<EncodedClearThMessage> received = new LinkedBlockingQueue<>();
+		thread = startThread(100, received);
+		
+		assertEquals(takeMessages(received, 2, 5000), List.of("Text 1", "Text 2"));
+	}
+	
+	@Test
+	public void overflowOfBoundedQueueDoesNotStopReceiver() throws Exception
+	{
+		sendMessages(20);
+		
+		BlockingQueue<EncodedClearThMessage> received = new ArrayBlockingQueue<>(5);
+		thread = startThread(100, received);
+		
+		//Messages that don't fit into queue are dropped, the thread keeps working
+		Thread.sleep(READ_DELAY);
+		assertTrue(thread.isAlive());
+		assertEquals(received.size(), 5);
+		assertEquals(thread.getReceiveMetrics().getReceived(), 5);
+		
+		received.clear();
+		sendMessages(3);
+		assertEquals(takeMessages(received, 3, 5000), List.of("Message 0", "Message 1", "Message 2"));
+	}
+	
+	
+	private JmsClient.JmsReceiverThread startThread(int drainBatchSize, BlockingQueue<EncodedClearThMessage> received)
+	{
+		JmsClient.JmsReceiverThread result = new JmsClient.JmsReceiverThread("TestReceiver", consumer, null, READ_DELAY,
+				drainBatchSize, received);
+		assertTrue(result.isDrainMode());
+		result.start();
+		return result;
+	}
+	
+	private void sendMessages(int count) throws JMSException
+	{
+		MessageProducer producer = producerSession.createProducer(producerSession.createQueue(QUEUE));
+		try
+		{
+			for (int i = 0; i < count; i++)
+				producer.send(producerSession.createTextMessage("Message " + i));
+		}
+		finally
+		{
+			producer.close();
+		}
+	}
+	
+	private List<String> takeMessages(BlockingQueue<EncodedClearThMessage> queue, int count, long timeout) throws InterruptedException
+	{
+		List<String> result = new ArrayList<>(count);
+		long end = System.currentTimeMillis() + timeout;
+		while (result.size() < count)
+		{
+			long left = end - System.currentTimeMillis();
+			EncodedClearThMessage message = left > 0 ? queue.poll(left, TimeUnit.MILLISECONDS) : null;
+			if (message == null)
+				fail("Only " + result.size() + " of " + count + " messages received in " + timeout + " ms");
+			result.add(message.getPayload().toString());
+		}
+		return result;
+	}
+}
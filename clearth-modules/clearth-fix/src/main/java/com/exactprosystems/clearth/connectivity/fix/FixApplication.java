@@ -54,6 +54,7 @@ public abstract class FixApplication extends BasicClearThClient implements Appli
 			SENDER_COMP_ID = "SenderCompID",
 			TARGET_COMP_ID = "TargetCompID",
 			DEFAULT_VER_ID = "DefaultApplVerID",
+			USE_DATA_DICT = "UseDataDictionary",
 			ERROR_SETTING_MISSING = "Mandatory setting '%s' is missing in both connection and default settings",
 			ERROR_DICTIONARY_NOT_SET = "Setting '%s' and setting with default value '%s' are missing in both connection and default settings";
 	
@@ -68,6 +69,7 @@ public abstract class FixApplication extends BasicClearThClient implements Appli
 	protected DataDictionary transportDict,
 			appDict;
 	protected int beginStringTag, senderCompIdTag, targetCompIdTag;
+	protected boolean useDataDictionary = true;
 	
 	
 	protected abstract void processConnectionSettings(FixConnectionSettings connectionSettings) throws SettingsException;
@@ -103,6 +105,7 @@ public abstract class FixApplication extends BasicClearThClient implements Appli
 			senderCompId = getSessionSetting(SENDER_COMP_ID, true, fixSettings, defaultSettings);
 			targetCompId = getSessionSetting(TARGET_COMP_ID, true, fixSettings, defaultSettings);
 			appVerID = new ApplVerID(getSessionSetting(DEFAULT_VER_ID, false, fixSettings, defaultSettings));
+			useDataDictionary = !"N".equalsIgnoreCase(getSessionSetting(USE_DATA_DICT, false, fixSettings, defaultSettings));
 			
 			fixSettings.remove(BEGIN_STRING);
 			fixSettings.remove(SENDER_COMP_ID);
@@ -215,7 +218,8 @@ public abstract class FixApplication extends BasicClearThClient implements Appli
 	public void fromApp(Message message, SessionID sessionID) throws FieldNotFound, IncorrectDataFormat, IncorrectTagValue, UnsupportedMessageType
 	{
 		logger.trace("{} received message:{}{}", name, Utils.EOL, message);
-		receivedMessageQueue.add(EncodedClearThMessage.newReceivedMessage(message.toString()));
+		//Passing parsed message so that codec doesn't need to parse it again
+		receivedMessageQueue.add(EncodedClearThMessage.newReceivedMessage(createReceivedPayload(message)));
 	}
 	
 	@Override
@@ -231,6 +235,17 @@ public abstract class FixApplication extends BasicClearThClient implements Appli
 	}
 	
 	
+	/**
+	 * @param message received by FIX session
+	 * @return payload to pass to message listeners. Its string representation is created only if requested
+	 */
+	protected Object createReceivedPayload(Message message)
+	{
+		//Without dictionary session doesn't parse repeating groups, so codec will need to parse message string
+		return new FixPayload(message, useDataDictionary ? appDict : null);
+	}
+	
+	
 	public DataDictionary getTransportDictionary() throws ConfigError
 	{
 		if (transportDict == null)  //If FIX application is not connected yet
@@ -42,12 +42,14 @@ public class FixCodec implements ICodec
 {
 	private static final Logger logger = LoggerFactory.getLogger(FixCodec.class);
 	
-	public static final String DEFAULT_CODEC_NAME = "FIX";
+	public static final String DEFAULT_CODEC_NAME = "FIX",
+			PARAM_DECODE_PARSED = "decodeParsed";
 	
 	protected final ClearThDataDictionary appDictionary,
 			transportDictionary;
 	protected final int typeTag;
 	protected final Set<String> serviceFields;
+	protected final boolean decodeParsed;
 	private final Map<String, String> codecParameters;
 	
 	public FixCodec(FixDictionary dictionary)
@@ -61,6 +63,7 @@ public class FixCodec implements ICodec
 		this.transportDictionary = dictionary.getTransportDictionary();
 		typeTag = dictionary.getTypeTag();
 		serviceFields = createServiceFields();
+		this.decodeParsed = codecParameters == null ? true : Boolean.parseBoolean(codecParameters.getOrDefault(PARAM_DECODE_PARSED, "true"));
 		this.codecParameters = codecParameters;
 	}
 	
@@ -107,17 +110,89 @@ public class FixCodec implements ICodec
 			throw new DecodeException("Could not find 'MsgType' field in message", e);
 		}
 		
-		FieldsInfo fieldsInfo = appDictionary.getMessageFieldsInfo(messageType);
-		Set<Integer> fields = fieldsInfo != null ? fieldsInfo.getFields() : null;
-		
-		SimpleClearThMessage result = createMessage();
+		SimpleClearThMessage result = decodeFixMessage(fixMessage, messageType);
 		result.setEncodedMessage(message);
-		result.addField(ClearThMessage.MSGTYPE, messageType);
-		decodeHeader(fixMessage, messageType, result);
-		decodeFields(fixMessage, fields, messageType, null, result);
 		return result;
 	}
 	
+	/**
+	 * Decodes message already parsed by FIX connection without parsing its string representation. 
+	 * Other payloads are decoded as strings
+	 */
+	@Override
+	public ClearThMessage<?> decodePayload(Object payload) throws DecodeException
+	{
+		if (!(payload instanceof FixPayload) || !canDecodeParsed((FixPayload) payload))
+			return decode(payload.toString());
+		
+		FixPayload fixPayload = (FixPayload) payload;
+		Message fixMessage = fixPayload.getMessage();
+		checkValidity(fixMessage);
+		
+		String messageType;
+		try
+		{
+			messageType = getMessageType(fixMessage);
+		}
+		catch (FieldNotFound e)
+		{
+			throw new DecodeException("Could not find 'MsgType' field in message", e);
+		}
+		
+		SimpleClearThMessage result = decodeFixMessage(fixMessage, messageType);
+		result.setEncodedMessageSource(fixPayload::toString);
+		return result;
+	}
+	
+	
+	@Override
+	public String peekMessageType(String message)
+	{
+		//Messages can be delimited with | instead of SOH, like in FixMessage.prepareMessageText()
+		String delimiter = message.contains(FixMessage.SOH) ? FixMessage.SOH : FixMessage.PIPE,
+				typeField = typeTag + "=";
+		int start;
+		if (message.startsWith(typeField))
+			start = 0;
+		else
+		{
+			start = message.indexOf(delimiter + typeField);
+			if (start < 0)
+				return null;
+			start += delimiter.length();
+		}
+		
+		start += typeField.length();
+		int end = message.indexOf(delimiter, start);
+		return end < 0 ? message.substring(start) : message.substring(start, end);
+	}
+	
+	@Override
+	public String peekPayloadType(Object payload)
+	{
+		if (!(payload instanceof FixPayload))
+			return peekMessageType(payload.toString());
+		
+		try
+		{
+			return getMessageType(((FixPayload) payload).getMessage());
+		}
+		catch (FieldNotFound e)
+		{
+			return null;
+		}
+	}
+	
+	/**
+	 * Codec uses dictionaries read-only, so decoding can be done by several threads at once. 
+	 * Subclasses are not considered thread-safe unless they override this method
+	 */
+	@Override
+	public boolean isThreadSafe()
+	{
+		return getClass() == FixCodec.class;
+	}
+	
 	
 	public String getMessageType(Message fixMessage) throws FieldNotFound
 	{
@@ -140,6 +215,31 @@ public class FixCodec implements ICodec
 	}
 	
 	
+	/**
+	 * Checks if message parsed by FIX connection has the same structure as if it was parsed by this codec. 
+	 * Dictionaries of the same FIX version are supposed to describe repeating groups the same way, 
+	 * else codec parameter {@value #PARAM_DECODE_PARSED} should be set to false
+	 * @param payload to check
+	 * @return true if payload can be decoded from already parsed message
+	 */
+	protected boolean canDecodeParsed(FixPayload payload)
+	{
+		DataDictionary dictionary = payload.getDictionary();
+		return decodeParsed && dictionary != null && StringUtils.equals(dictionary.getVersion(), appDictionary.getVersion());
+	}
+	
+	protected SimpleClearThMessage decodeFixMessage(Message fixMessage, String messageType)
+	{
+		FieldsInfo fieldsInfo = appDictionary.getMessageFieldsInfo(messageType);
+		Set<Integer> fields = fieldsInfo != null ? fieldsInfo.getFields() : null;
+		
+		SimpleClearThMessage result = createMessage();
+		result.addField(ClearThMessage.MSGTYPE, messageType);
+		decodeHeader(fixMessage, messageType, result);
+		decodeFields(fixMessage, fields, messageType, null, result);
+		return result;
+	}
+	
 	protected void checkValidity(Message fixMessage) throws DecodeException
 	{
 		Exception e = fixMessage.getException();
@@ -0,0 +1,76 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.connectivity.fix;
+
+import quickfix.DataDictionary;
+import quickfix.Message;
+
+/**
+ * Payload of FIX message received by {@link FixApplication}. 
+ * Keeps message already parsed by QuickFIX/J session so that {@link FixCodec} can decode it without parsing string again. 
+ * String representation of message is created on first call of {@link #toString()}
+ */
+public class FixPayload
+{
+	private final Message message;
+	private final DataDictionary dictionary;
+	private volatile String text;
+	
+	/**
+	 * @param message parsed by FIX session
+	 * @param dictionary application dictionary used by session to parse message or null if session doesn't use dictionary, 
+	 * i.e. repeating groups are not parsed
+	 */
+	public FixPayload(Message message, DataDictionary dictionary)
+	{
+		this.message = message;
+		this.dictionary = dictionary;
+	}
+	
+	
+	public Message getMessage()
+	{
+		return message;
+	}
+	
+	public DataDictionary getDictionary()
+	{
+		return dictionary;
+	}
+	
+	@Override
+	public String toString()
+	{
+		String result = text;
+		if (result != null)
+			return result;
+		
+		//Message.toString() updates BodyLength and CheckSum fields, so it shouldn't be called by several threads at once
+		synchronized (message)
+		{
+			result = text;
+			if (result == null)
+			{
+				result = message.toString();
+				text = result;
+			}
+		}
+		return result;
+	}
+}
@@ -30,6 +30,8 @@ import com.exactprosystems.clearth.connectivity.iface.SimpleClearThMessageBuilde
 import com.exactprosystems.clearth.utils.DictionaryLoadException;
 
 import quickfix.ConfigError;
+import quickfix.InvalidMessage;
+import quickfix.Message;
 
 public class FixCodecTest
 {
@@ -79,4 +81,41 @@ public class FixCodecTest
 		soft.assertNull(decodedRg.getField("GrpField2"), "GrpField2 tag of 1st group");
 		soft.assertAll();
 	}
+	
+	@Test
+	public void peekMessageType() throws DictionaryLoadException, ConfigError, DecodeException
+	{
+		FixCodec codec = new FixCodec(new FixDictionary(FIX50_FILENAME), null);
+		String piped = "8=FIXT.1.1|9=999|35=CU|1=T|2=123|10=043|";
+		
+		SoftAssert soft = new SoftAssert();
+		soft.assertEquals(codec.peekMessageType(piped), codec.decode(piped).getField(ClearThMessage.MSGTYPE), "Type in message with |");
+		soft.assertEquals(codec.peekMessageType(piped.replace("|", FixMessage.SOH)), "CU", "Type in message with SOH");
+		soft.assertEquals(codec.peekMessageType("35=CU|1=T"), "CU", "Type in first field");
+		soft.assertEquals(codec.peekMessageType("8=FIXT.1.1|135=A|35=0"), "0", "Type after field with similar tag");
+		soft.assertNull(codec.peekMessageType("8=FIXT.1.1|9=999|1=T|"), "Message without type");
+		soft.assertTrue(codec.isThreadSafe(), "Codec is thread-safe");
+		soft.assertAll();
+	}
+	
+	@Test
+	public void decodeParsedPayload() throws DictionaryLoadException, ConfigError, DecodeException, InvalidMessage
+	{
+		FixDictionary dictionary = new FixDictionary(FIX50_FILENAME);
+		FixCodec codec = new FixCodec(dictionary, null);
+		String text = "8=FIXT.1.1|9=999|35=CU|1=T|2=123|3=test|4=1|5=111|6=222|7=333|50=1|5=X|7=Z|6=Y|10=043|";
+		Message parsed = FixMessage.createFromStringByDictionary(text, null, dictionary.getTransportDictionary(), dictionary.getAppDictionary(), false);
+		
+		ClearThMessage<?> expected = codec.decode(text),
+				actual = codec.decodePayload(new FixPayload(parsed, dictionary.getAppDictionary())),
+				withoutDictionary = codec.decodePayload(new FixPayload(parsed, null));
+		
+		SoftAssert soft = new SoftAssert();
+		soft.assertEquals(actual.getFields(), expected.getFields(), "Fields of decoded parsed message");
+		soft.assertEquals(actual.getSubMessages(), expected.getSubMessages(), "Groups of decoded parsed message");
+		soft.assertEquals(actual.getEncodedMessage(), parsed.toString(), "Encoded parsed message");
+		soft.assertEquals(withoutDictionary.getFields(), expected.getFields(), "Fields of message decoded from string");
+		soft.assertEquals(codec.peekPayloadType(new FixPayload(parsed, null)), "CU", "Type of parsed message");
+		soft.assertAll();
+	}
 }
@@ -414,7 +414,8 @@ public class ConfigurationAutomationBean extends ClearThBean {
 	{
 		try
 		{
-			selectedScheduler().setStateConfig(new StateConfig(autoSave));
+			StateConfig current = selectedScheduler().getStateConfig();
+			selectedScheduler().setStateConfig(new StateConfig(autoSave, current.getDurabilityWindow(), current.getMaxPendingUpdates()));
 		}
 		catch (Exception e)
 		{
@@ -47,7 +47,14 @@ public abstract class BasicIbmMqMessageReceiverThread extends MessageReceiverThr
 	                                       BlockingQueue<EncodedClearThMessage> messageQueue, int charset,
 	                                       long readDelay)
 	{
-		super(name, owner, messageQueue, readDelay);
+		this(name, owner, receiveQueue, messageQueue, charset, readDelay, 0);
+	}
+	
+	public BasicIbmMqMessageReceiverThread(String name, IbmMqConnection owner, MQQueue receiveQueue,
+	                                       BlockingQueue<EncodedClearThMessage> messageQueue, int charset,
+	                                       long readDelay, int drainBatchSize)
+	{
+		super(name, owner, messageQueue, readDelay, drainBatchSize);
 		this.receiveQueue = receiveQueue;
 		this.charset = charset;
 		retryAttemptsCount = owner.getRetryAttemptCount();
@@ -43,7 +43,7 @@ public class DefaultIbmMqClient extends BasicIbmMqClient
 	{
 		IbmMqConnectionSettings settings = getSettings();
 		return new SimpleIbmMqReceiverThread(name+" (Receiver thread)", getOwner(), receiveQueue, receivedMessageQueue,
-				settings.getCharset(), settings.isAutoReconnect(), settings.getReadDelay());
+				settings.getCharset(), settings.isAutoReconnect(), settings.getReadDelay(), settings.getDrainBatchSize());
 	}
 
 	protected IbmMqConnection getOwner()
@@ -32,7 +32,7 @@ import javax.xml.bind.annotation.XmlRootElement;
 @XmlRootElement
 @XmlAccessorType(XmlAccessType.NONE)
 @ConnectionSettings(order = {"hostname", "port", "queueManager", "channel", "retryAttemptCount", "retryTimeout",
-		"receiveQueue", "useReceiveQueue", "sendQueue", "readDelay", "autoConnect", "autoReconnect"},
+		"receiveQueue", "useReceiveQueue", "sendQueue", "readDelay", "drainBatchSize", "autoConnect", "autoReconnect"},
 		columns = {"hostname", "queueManager", "channel", "sendQueue", "receiveQueue"})
 public class IbmMqConnectionSettings extends ClearThBasicMqConnectionSettings
 {
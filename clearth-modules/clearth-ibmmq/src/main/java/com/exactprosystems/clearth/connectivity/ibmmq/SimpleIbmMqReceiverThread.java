@@ -18,6 +18,7 @@
 
 package com.exactprosystems.clearth.connectivity.ibmmq;
 
+import com.exactprosystems.clearth.connectivity.connections.clients.DrainableReceiver;
 import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
 import com.ibm.mq.MQException;
 import com.ibm.mq.MQQueue;
@@ -29,10 +30,12 @@ import java.util.concurrent.BlockingQueue;
 
 import static com.exactprosystems.clearth.connectivity.MQExceptionUtils.isConnectionBroken;
 
-public class SimpleIbmMqReceiverThread extends BasicIbmMqMessageReceiverThread
+public class SimpleIbmMqReceiverThread extends BasicIbmMqMessageReceiverThread implements DrainableReceiver
 {
 	private static final Logger logger = LoggerFactory.getLogger(SimpleIbmMqReceiverThread.class);
 
+	protected static final int WAIT_INTERVAL = 10000;
+	
 	private final boolean autoReconnect;
 	protected int errorCount;
 
@@ -40,30 +43,57 @@ public class SimpleIbmMqReceiverThread extends BasicIbmMqMessageReceiverThread
 	                                 BlockingQueue<EncodedClearThMessage> messageQueue, int charset,
 	                                 boolean autoReconnect, int readDelay)
 	{
-		super(name, owner, receiveQueue, messageQueue, charset, readDelay);
+		this(name, owner, receiveQueue, messageQueue, charset, autoReconnect, readDelay, 0);
+	}
+	
+	public SimpleIbmMqReceiverThread(String name, IbmMqConnection owner, MQQueue receiveQueue,
+	                                 BlockingQueue<EncodedClearThMessage> messageQueue, int charset,
+	                                 boolean autoReconnect, int readDelay, int drainBatchSize)
+	{
+		super(name, owner, receiveQueue, messageQueue, charset, readDelay, drainBatchSize);
 		this.autoReconnect = autoReconnect;
 	}
 	
 	@Override
 	protected void getAndHandleMessage()
+	{
+		EncodedClearThMessage received = readReceivedMessage(WAIT_INTERVAL);
+		if (received == null)
+			return;
+		
+		logger.trace("Adding message to internal queue");
+		boolean inserted = receivedMessageQueue.offer(received);
+		if (inserted)
+			receiveMetrics.messagesReceived(1);
+		else
+			logger.warn("It is not possible to add message to queue due to capacity restrictions");
+	}
+	
+	@Override
+	public EncodedClearThMessage receiveMessage(boolean wait)
+	{
+		return readReceivedMessage(wait ? WAIT_INTERVAL : 0);
+	}
+	
+	/**
+	 * Reads message from receive queue, handling errors that occur
+	 * @param waitInterval time in milliseconds to wait for message, 0 to not wait if queue is empty
+	 * @return received message or null if queue has no messages, received message is empty or error occurred
+	 */
+	protected EncodedClearThMessage readReceivedMessage(int waitInterval)
 	{
 		resetMessage(message);
 		try
 		{
-			readMessage(message, 10000);
+			readMessage(message, waitInterval);
 			errorCount = 0;
 
 			if (message.originalLength!=0)
 			{
 				try
 				{
-					logger.trace("Adding message to internal queue");
 					String m = message.readStringOfByteLength(message.getDataLength());
-
-					boolean inserted = receivedMessageQueue.offer(createReceivedMessage(m));
-
-					if (!inserted)
-						logger.warn("It is not possible to add message to queue due to capacity restrictions");
+					return createReceivedMessage(m);
 				}
 				catch (Exception e)
 				{
@@ -101,5 +131,6 @@ public class SimpleIbmMqReceiverThread extends BasicIbmMqMessageReceiverThread
 				}
 			}
 		}
+		return null;
 	}
-}
\ No newline at end of file
+}
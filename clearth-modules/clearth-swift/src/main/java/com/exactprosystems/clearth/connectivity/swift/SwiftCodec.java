@@ -60,7 +60,9 @@ import static com.exactprosystems.clearth.utils.Utils.EOL;
 public class SwiftCodec implements ICodec
 {
 	private static final Logger logger = LoggerFactory.getLogger(SwiftCodec.class);
-	private static final String DEFAULT_SEPARATOR = "//";
+	private static final String DEFAULT_SEPARATOR = "//",
+			BLOCK2_START = "{2:";
+	private static final int MSG_TYPE_LENGTH = 3;
 	
 	public static final String DEFAULT_CODEC_NAME = "Swift";
 	public static final String MSG_DESC_DOES_NOT_FIT = "Message definition, founded by %s (type = %s), does not fit by %s.";
@@ -594,6 +596,27 @@ public class SwiftCodec implements ICodec
 	}
 	
 	
+	/**
+	 * Reads message type from application header block, i.e. from "{2:I103..." or "{2:O103..."
+	 */
+	@Override
+	public String peekMessageType(String message)
+	{
+		int start = message.indexOf(BLOCK2_START);
+		if (start < 0)
+			return null;
+		
+		start += BLOCK2_START.length() + 1;  //Skipping input/output identifier
+		int end = start + MSG_TYPE_LENGTH;
+		if (end > message.length())
+			return null;
+		
+		char direction = message.charAt(start - 1);
+		if (direction != 'I' && direction != 'O')
+			return null;
+		return message.substring(start, end);
+	}
+	
 	@Override
 	public ClearThSwiftMessage decode(String message) throws DecodeException
 	{
@@ -42,6 +42,7 @@ import static com.exactprosystems.clearth.utils.CollectionUtils.map;
 import static com.exactprosystems.clearth.utils.FileOperationUtils.resourceToAbsoluteFilePath;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class SwiftCodecTest
 {
@@ -255,6 +256,19 @@ public class SwiftCodecTest
 		assertEquals(decodedMessage, actualMessage);
 	}
 
+	@Test(dataProvider = "decodeMessageTest")
+	public void testPeekMessageType(String messageToDecode, ClearThSwiftMessage decodedMessage) throws Exception
+	{
+		assertEquals(codec.decode(messageToDecode).getField(ClearThSwiftMessage.MSGTYPE), codec.peekMessageType(messageToDecode));
+	}
+	
+	@Test
+	public void testPeekMessageTypeWithoutBlock2()
+	{
+		assertNull(codec.peekMessageType("{1:F01XXXXXXXXXXXX0001000000}{4:\n:20:REF\n-}"));
+		assertNull(codec.peekMessageType("{1:F01XXXXXXXXXXXX0001000000}{2:"));
+	}
+
 	@Test(dataProvider = "mandatoryTagBlock4Test")
 	public void testWithoutMandatoryTagBlock4(String messageToDecode)
 	{
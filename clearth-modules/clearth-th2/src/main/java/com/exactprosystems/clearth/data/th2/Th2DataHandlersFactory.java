@@ -37,6 +37,7 @@ import com.exactprosystems.clearth.data.MessageHandler;
 import com.exactprosystems.clearth.data.TestExecutionHandler;
 import com.exactprosystems.clearth.data.th2.config.StorageConfig;
 import com.exactprosystems.clearth.data.th2.events.EventFactory;
+import com.exactprosystems.clearth.data.th2.events.EventPublisher;
 import com.exactprosystems.clearth.data.th2.events.ResultSaver;
 import com.exactprosystems.clearth.data.th2.events.ResultSavingConfig;
 import com.exactprosystems.clearth.utils.ClearThException;
@@ -103,8 +104,9 @@ public class Th2DataHandlersFactory implements DataHandlersFactory
 		{
 			logger.debug("Creating test execution handler for '{}'", schedulerName);
 			MessageRouter<EventBatch> eventRouter = createEventBatchRouter();
-			ResultSaver resultSaver = createResultSaver(eventRouter, storageConfig);
-			return new Th2TestExecutionHandler(schedulerName, eventRouter, eventFactory, resultSaver);
+			EventPublisher publisher = createEventPublisher(eventRouter, storageConfig, schedulerName);
+			ResultSaver resultSaver = createResultSaver(eventRouter, storageConfig, publisher);
+			return new Th2TestExecutionHandler(schedulerName, eventRouter, eventFactory, resultSaver, publisher);
 		}
 		catch (DataHandlingException e)
 		{
@@ -179,12 +181,23 @@ public class Th2DataHandlersFactory implements DataHandlersFactory
 	}
 	
 	protected ResultSaver createResultSaver(MessageRouter<EventBatch> eventRouter, StorageConfig storageConfig) throws DataHandlingException
+	{
+		return createResultSaver(eventRouter, storageConfig, null);
+	}
+	
+	protected ResultSaver createResultSaver(MessageRouter<EventBatch> eventRouter, StorageConfig storageConfig, 
+			EventPublisher publisher) throws DataHandlingException
 	{
 		ResultSavingConfig config = new ResultSavingConfig();
 		config.setMaxBatchSize(storageConfig.getEvents().getMaxBatchSize());
 		config.setMaxBatchSizeInBytes(storageConfig.getEvents().getMaxBatchSizeInBytes());
 		config.setMaxFlushTime(storageConfig.getEvents().getMaxFlushTime());
-		return new ResultSaver(eventRouter, config);
+		return new ResultSaver(eventRouter, config, publisher);
+	}
+	
+	protected EventPublisher createEventPublisher(MessageRouter<EventBatch> eventRouter, StorageConfig storageConfig, String schedulerName)
+	{
+		return new EventPublisher(eventRouter, storageConfig.getEvents(), schedulerName);
 	}
 	
 	protected EventFactory createEventFactory(String bookName, StorageConfig config) throws ClearThException
@@ -24,13 +24,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.exactpro.th2.common.schema.message.MessageRouter;
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.Direction;
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.GroupBatch;
-import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.MessageGroup;
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.MessageId;
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.RawMessage;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessageDirection;
@@ -40,18 +37,19 @@ import com.exactprosystems.clearth.data.HandledMessageId;
 import com.exactprosystems.clearth.data.MessageHandler;
 import com.exactprosystems.clearth.data.MessageHandlingException;
 import com.exactprosystems.clearth.data.MessageHandlingUtils;
+import com.exactprosystems.clearth.data.th2.config.MessagesConfig;
 import com.exactprosystems.clearth.data.th2.config.StorageConfig;
+import com.exactprosystems.clearth.data.th2.messages.MessageBatcher;
 import com.exactprosystems.clearth.data.th2.messages.Th2MessageId;
 
 public class Th2MessageHandler implements MessageHandler
 {
-	private static final Logger logger = LoggerFactory.getLogger(Th2MessageHandler.class);
-	
 	private final String connectionName;
 	private final MessageRouter<GroupBatch> router;
 	private final AtomicLong sentMessageIndex,
 			receivedMessageIndex;
 	private final String bookName;
+	private final MessageBatcher batcher;
 	
 	public Th2MessageHandler(String connectionName, MessageRouter<GroupBatch> router, String bookName, StorageConfig config)
 	{
@@ -60,13 +58,21 @@ public class Th2MessageHandler implements MessageHandler
 		sentMessageIndex = initSentIndex(config);
 		receivedMessageIndex = initReceivedIndex(config);
 		this.bookName = bookName;
+		batcher = createBatcher(config);
 	}
 	
 	
 	@Override
 	public void close() throws Exception
 	{
-		router.close();
+		try
+		{
+			batcher.close();
+		}
+		finally
+		{
+			router.close();
+		}
 	}
 	
 	@Override
@@ -97,8 +103,7 @@ public class Th2MessageHandler implements MessageHandler
 		byte[] body = createMessageBody(message.getPayload());
 		RawMessage result = createMessage(id, body, metadata);
 		
-		GroupBatch batch = wrapMessage(result);
-		storeMessage(batch);
+		storeMessage(result);
 	}
 	
 	@Override
@@ -118,6 +123,14 @@ public class Th2MessageHandler implements MessageHandler
 		return initIndex();
 	}
 	
+	protected MessageBatcher createBatcher(StorageConfig config)
+	{
+		MessagesConfig messagesConfig = config.getMessages();
+		if (messagesConfig == null)
+			messagesConfig = new MessagesConfig();
+		return new MessageBatcher(router, messagesConfig, connectionName);
+	}
+	
 	protected MessageId createMessageId(Instant timestamp, Direction direction, long sequence)
 	{
 		return MessageId.builder()
@@ -152,33 +165,14 @@ public class Th2MessageHandler implements MessageHandler
 		return new AtomicLong(TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano());
 	}
 	
-	private GroupBatch wrapMessage(RawMessage message)
+	private void storeMessage(RawMessage message) throws MessageHandlingException
 	{
 		MessageId id = message.getId();
 		String sessionGroup = id.getSessionGroup(),
 				batchSession = StringUtils.isEmpty(sessionGroup) ? id.getSessionAlias() : sessionGroup,
 				book = id.getBook(),
 				batchBook = StringUtils.isEmpty(book) ? bookName : book;
-		return GroupBatch.builder()
-				.setBook(batchBook)
-				.setSessionGroup(batchSession)
-				.addGroup(MessageGroup.builder()
-						.addMessage(message)
-						.build())
-				.build();
-	}
-	
-	private void storeMessage(GroupBatch message) throws MessageHandlingException
-	{
-		try
-		{
-			logger.trace("Storing message: {}", message);
-			router.send(message);
-		}
-		catch (Exception e)
-		{
-			throw new MessageHandlingException(e);
-		}
+		batcher.add(message, batchBook, batchSession);
 	}
 	
 	private MessageId getMessageId(ClearThMessageMetadata metadata) throws MessageHandlingException
@@ -36,7 +36,9 @@ import com.exactprosystems.clearth.automation.report.Result;
 import com.exactprosystems.clearth.automation.report.results.DefaultResult;
 import com.exactprosystems.clearth.data.HandledTestExecutionIdStorage;
 import com.exactprosystems.clearth.data.TestExecutionHandlingException;
+import com.exactprosystems.clearth.data.th2.config.EventsConfig;
 import com.exactprosystems.clearth.data.th2.events.EventFactory;
+import com.exactprosystems.clearth.data.th2.events.EventPublisher;
 import com.exactprosystems.clearth.data.th2.events.EventUtils;
 import com.exactprosystems.clearth.data.th2.events.ResultSaver;
 import com.exactprosystems.clearth.data.th2.events.Th2EventId;
@@ -53,19 +55,41 @@ public class Th2TestExecutionHandler implements TestExecutionHandler
 	private final SchedulerExecutionInfo executionInfo;
 	private final EventFactory eventFactory;
 	private final ResultSaver resultSaver;
+	private final EventPublisher publisher;
 	
+	/**
+	 * Creates handler that sends events one by one in background thread
+	 */
 	public Th2TestExecutionHandler(String schedulerName, MessageRouter<EventBatch> router, EventFactory eventFactory, ResultSaver resultSaver)
+	{
+		this(schedulerName, router, eventFactory, resultSaver, 
+				new EventPublisher(router, new EventsConfig(null, 1, Long.MAX_VALUE, 0), schedulerName));
+	}
+	
+	/**
+	 * Creates handler that sends events via given publisher. It is closed together with handler
+	 */
+	public Th2TestExecutionHandler(String schedulerName, MessageRouter<EventBatch> router, EventFactory eventFactory, ResultSaver resultSaver, 
+			EventPublisher publisher)
 	{
 		this.router = router;
 		this.executionInfo = new SchedulerExecutionInfo(schedulerName);
 		this.eventFactory = eventFactory;
 		this.resultSaver = resultSaver;
+		this.publisher = publisher;
 	}
 	
 	@Override
 	public void close() throws Exception
 	{
-		router.close();
+		try
+		{
+			publisher.close();
+		}
+		finally
+		{
+			router.close();
+		}
 	}
 	
 	@Override
@@ -86,6 +110,8 @@ public class Th2TestExecutionHandler implements TestExecutionHandler
 	@Override
 	public void onTestEnd() throws TestExecutionHandlingException
 	{
+		logger.debug("Waiting for {} event(s) of scheduler '{}' to be sent", publisher.getQueueSize(), executionInfo.getName());
+		publisher.flush();
 	}
 	
 	@Override
@@ -208,23 +234,15 @@ public class Th2TestExecutionHandler implements TestExecutionHandler
 	}
 	
 	
+	//Events are sent in background, so that test execution doesn't wait for router
 	private void storeEvent(Event event) throws TestExecutionHandlingException
 	{
-		EventBatch batch = EventUtils.wrap(event);
-		storeBatch(batch);
+		publisher.publish(event);
 	}
 	
 	private void storeBatch(EventBatch batch) throws TestExecutionHandlingException
 	{
-		try
-		{
-			logger.trace("Storing event: {}", batch);
-			router.send(batch);
-		}
-		catch (Exception e)
-		{
-			throw new TestExecutionHandlingException(e);
-		}
+		publisher.publish(batch);
 	}
 	
 	private EventID getEventId(Action action) throws TestExecutionHandlingException
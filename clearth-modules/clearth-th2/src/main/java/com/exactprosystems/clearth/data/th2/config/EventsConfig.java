@@ -24,6 +24,7 @@ public class EventsConfig
 	private int maxBatchSize = 100;
 	private long maxBatchSizeInBytes = 1048576;
 	private long maxFlushTime = 1000;
+	private int maxQueueSize = 10000;
 	
 	public EventsConfig()
 	{
@@ -43,7 +44,8 @@ public class EventsConfig
 		return "[scope = " + scope + 
 				"; maxBatchSize = " + maxBatchSize +
 				"; maxBatchSizeInBytes = " + maxBatchSizeInBytes +
-				"; maxFlushTime = " + maxFlushTime + "]";
+				"; maxFlushTime = " + maxFlushTime +
+				"; maxQueueSize = " + maxQueueSize + "]";
 	}
 	
 	public String getScope()
@@ -85,4 +87,17 @@ public class EventsConfig
 	{
 		this.maxFlushTime = maxFlushTime;
 	}
+	
+	/**
+	 * @return maximum number of events waiting to be sent. When it is reached, test execution waits till events are sent
+	 */
+	public int getMaxQueueSize()
+	{
+		return maxQueueSize;
+	}
+	
+	public void setMaxQueueSize(int maxQueueSize)
+	{
+		this.maxQueueSize = maxQueueSize;
+	}
 }
@@ -28,6 +28,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class StorageConfig
 {
 	private EventsConfig events;
+	private MessagesConfig messages;
 	
 	public StorageConfig()
 	{
@@ -38,6 +39,12 @@ public class StorageConfig
 		this.events = events;
 	}
 	
+	public StorageConfig(EventsConfig events, MessagesConfig messages)
+	{
+		this.events = events;
+		this.messages = messages;
+	}
+	
 	public static StorageConfig load(Path file) throws StreamReadException, DatabindException, IOException
 	{
 		return new ObjectMapper().readValue(file.toFile(), StorageConfig.class);
@@ -47,7 +54,8 @@ public class StorageConfig
 	@Override
 	public String toString()
 	{
-		return "[events: " + events + "]";
+		return "[events: " + events + 
+				"; messages: " + messages + "]";
 	}
 	
 	
@@ -60,4 +68,14 @@ public class StorageConfig
 	{
 		this.events = events;
 	}
+	
+	public MessagesConfig getMessages()
+	{
+		return messages;
+	}
+	
+	public void setMessages(MessagesConfig messages)
+	{
+		this.messages = messages;
+	}
 }
@@ -0,0 +1,337 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.data.th2.events;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.th2.common.grpc.Event;
+import com.exactpro.th2.common.grpc.EventBatch;
+import com.exactpro.th2.common.grpc.EventID;
+import com.exactpro.th2.common.schema.message.MessageRouter;
+import com.exactprosystems.clearth.data.TestExecutionHandlingException;
+import com.exactprosystems.clearth.data.th2.config.EventsConfig;
+
+/**
+ * Sends events to th2 in background thread, grouping events with the same parent into batches. 
+ * Batch is sent when it reaches maximum size, when it is older than maximum flush time or when {@link #flush()} is called. 
+ * Batches are sent in order of their creation, so that parent events are sent before their children. 
+ * If too many events are waiting to be sent, {@link #publish(Event)} waits till there is free space in queue
+ */
+public class EventPublisher implements AutoCloseable
+{
+	private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+	private static final Object STOP = new Object();
+	
+	private final MessageRouter<EventBatch> router;
+	private final int maxBatchSize;
+	private final long maxBatchSizeInBytes,
+			maxFlushTime;
+	private final BlockingQueue<Object> queue;
+	private final Thread thread;
+	//Batches being collected by publisher thread. Key - ID of parent event, default instance for events without parent
+	private final Map<EventID, PendingBatch> pending = new LinkedHashMap<>();
+	
+	private volatile boolean closed = false;
+	private volatile Exception sendError;
+	private long sentEvents = 0,
+			sentBatches = 0;
+	
+	public EventPublisher(MessageRouter<EventBatch> router, EventsConfig config, String name)
+	{
+		this.router = router;
+		this.maxBatchSize = Math.max(config.getMaxBatchSize(), 1);
+		this.maxBatchSizeInBytes = config.getMaxBatchSizeInBytes();
+		this.maxFlushTime = config.getMaxFlushTime();
+		this.queue = new LinkedBlockingQueue<>(Math.max(config.getMaxQueueSize(), 1));
+		
+		thread = new Thread(this::publishEvents, name+" (th2 events publisher)");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	
+	/**
+	 * Adds event to queue of events to send. Waits if queue is full
+	 * @param event to send
+	 * @throws TestExecutionHandlingException if publisher is closed or waiting is interrupted
+	 */
+	public void publish(Event event) throws TestExecutionHandlingException
+	{
+		enqueue(event);
+	}
+	
+	/**
+	 * Adds events from given batch to queue of events to send. Events can be sent in other batches
+	 * @param batch with events to send
+	 * @throws TestExecutionHandlingException if publisher is closed or waiting is interrupted
+	 */
+	public void publish(EventBatch batch) throws TestExecutionHandlingException
+	{
+		for (Event event : batch.getEventsList())
+			enqueue(event);
+	}
+	
+	/**
+	 * Waits till all events published before this call are sent
+	 * @throws TestExecutionHandlingException if some events could not be sent since previous call of this method
+	 */
+	public void flush() throws TestExecutionHandlingException
+	{
+		CountDownLatch done = new CountDownLatch(1);
+		enqueue(done);
+		try
+		{
+			done.await();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new TestExecutionHandlingException("Wait for events to be sent has been interrupted", e);
+		}
+		
+		Exception error = sendError;
+		if (error != null)
+		{
+			sendError = null;
+			throw new TestExecutionHandlingException("Could not send events", error);
+		}
+	}
+	
+	/**
+	 * Sends all published events and stops publisher thread
+	 */
+	@Override
+	public void close() throws Exception
+	{
+		if (closed)
+			return;
+		
+		try
+		{
+			flush();
+		}
+		finally
+		{
+			closed = true;
+			queue.put(STOP);
+			thread.join();
+		}
+	}
+	
+	
+	public boolean isClosed()
+	{
+		return closed;
+	}
+	
+	/**
+	 * @return number of events waiting to be sent
+	 */
+	public int getQueueSize()
+	{
+		return queue.size();
+	}
+	
+	
+	private void enqueue(Object item) throws TestExecutionHandlingException
+	{
+		if (closed)
+			throw new TestExecutionHandlingException("Events publisher is closed");
+		
+		try
+		{
+			queue.put(item);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new TestExecutionHandlingException("Wait for free space in events queue has been interrupted", e);
+		}
+	}
+	
+	private void publishEvents()
+	{
+		try
+		{
+			while (true)
+			{
+				Object item = pending.isEmpty() ? queue.take() : queue.poll(getTimeToFlush(), TimeUnit.MILLISECONDS);
+				if (item == STOP)
+					break;
+				
+				//Thread must survive any error, else publish() and flush() will wait forever
+				try
+				{
+					processItem(item);
+				}
+				catch (RuntimeException e)
+				{
+					logger.error("Error while processing events to publish", e);
+					if (sendError == null)
+						sendError = e;
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			logger.warn("Events publisher has been interrupted, {} batch(es) are not sent", pending.size());
+		}
+		
+		sendAll();
+		logger.debug("Events publisher stopped. Sent {} event(s) in {} batch(es)", sentEvents, sentBatches);
+	}
+	
+	private void processItem(Object item)
+	{
+		if (item instanceof Event)
+			addEvent((Event) item);
+		else if (item instanceof CountDownLatch)
+		{
+			try
+			{
+				sendAll();
+			}
+			finally
+			{
+				((CountDownLatch) item).countDown();
+			}
+		}
+		
+		sendExpired();
+	}
+	
+	private long getTimeToFlush()
+	{
+		PendingBatch oldest = pending.values().iterator().next();
+		return Math.max(oldest.created + maxFlushTime - System.currentTimeMillis(), 0);
+	}
+	
+	private void addEvent(Event event)
+	{
+		EventID parentId = event.hasParentId() ? event.getParentId() : EventID.getDefaultInstance();
+		int size = event.getSerializedSize();
+		
+		PendingBatch batch = pending.get(parentId);
+		if (batch != null && batch.size + size > maxBatchSizeInBytes)
+		{
+			sendUpTo(batch);
+			batch = null;
+		}
+		
+		if (batch == null)
+		{
+			batch = new PendingBatch(parentId);
+			pending.put(parentId, batch);
+		}
+		batch.add(event, size);
+		
+		if (batch.events.size() >= maxBatchSize)
+			sendUpTo(batch);
+	}
+	
+	private void sendExpired()
+	{
+		long now = System.currentTimeMillis();
+		PendingBatch lastExpired = null;
+		for (PendingBatch batch : pending.values())
+		{
+			if (now - batch.created < maxFlushTime)
+				break;
+			lastExpired = batch;
+		}
+		
+		if (lastExpired != null)
+			sendUpTo(lastExpired);
+	}
+	
+	//Sends given batch and all batches created before it to keep order of events
+	private void sendUpTo(PendingBatch last)
+	{
+		Iterator<PendingBatch> it = pending.values().iterator();
+		while (it.hasNext())
+		{
+			PendingBatch batch = it.next();
+			it.remove();
+			send(batch);
+			if (batch == last)
+				break;
+		}
+	}
+	
+	private void sendAll()
+	{
+		for (PendingBatch batch : pending.values())
+			send(batch);
+		pending.clear();
+	}
+	
+	private void send(PendingBatch batch)
+	{
+		try
+		{
+			EventBatch.Builder builder = EventBatch.newBuilder();
+			if (!EventID.getDefaultInstance().equals(batch.parentId))
+				builder.setParentEventId(batch.parentId);
+			EventBatch protoBatch = builder.addAllEvents(batch.events).build();
+			
+			logger.trace("Storing events: {}", protoBatch);
+			router.send(protoBatch);
+			sentEvents += batch.events.size();
+			sentBatches++;
+		}
+		catch (Exception e)
+		{
+			logger.error("Could not send batch of {} event(s)", batch.events.size(), e);
+			if (sendError == null)
+				sendError = e;
+		}
+	}
+	
+	
+	private static class PendingBatch
+	{
+		private final EventID parentId;
+		private final long created = System.currentTimeMillis();
+		private final List<Event> events = new ArrayList<>();
+		private long size = 0;
+		
+		public PendingBatch(EventID parentId)
+		{
+			this.parentId = parentId;
+		}
+		
+		public void add(Event event, long eventSize)
+		{
+			events.add(event);
+			size += eventSize;
+		}
+	}
+}
@@ -77,11 +77,23 @@ public class ResultSaver
 	
 	private final MessageRouter<EventBatch> router;
 	private final ResultSavingConfig config;
+	private final EventPublisher publisher;
 	
 	public ResultSaver(MessageRouter<EventBatch> router, ResultSavingConfig config)
+	{
+		this(router, config, null);
+	}
+	
+	/**
+	 * @param router to send events with
+	 * @param config of result saving
+	 * @param publisher to send events in background. If null, events are sent by calling thread
+	 */
+	public ResultSaver(MessageRouter<EventBatch> router, ResultSavingConfig config, EventPublisher publisher)
 	{
 		this.router = router;
 		this.config = config;
+		this.publisher = publisher;
 	}
 	
 	private EventBatcher createEventBatcher(ResultSavingConfig config)
@@ -173,6 +185,11 @@ public class ResultSaver
 		return router;
 	}
 	
+	protected EventPublisher getPublisher()
+	{
+		return publisher;
+	}
+	
 	protected com.exactpro.th2.common.grpc.Event storeEvent(Event event, EventID parentId) throws TestExecutionHandlingException
 	{
 		try
@@ -212,6 +229,13 @@ public class ResultSaver
 	
 	protected void storeProto(com.exactpro.th2.common.grpc.EventBatch protoBatch) throws TestExecutionHandlingException
 	{
+		EventPublisher eventPublisher = getPublisher();
+		if (eventPublisher != null)
+		{
+			eventPublisher.publish(protoBatch);
+			return;
+		}
+		
 		try
 		{
 			logger.trace("Storing event: {}", protoBatch);
@@ -449,18 +473,29 @@ public class ResultSaver
 		
 		Instant start = EventUtils.getTimestamp(storedContainer.getId().getStartTimestamp()),
 				end = EventUtils.getTimestamp(storedContainer.getEndTimestamp());
-		try (EventBatcher eventBatcher = createEventBatcher(config))
+		EventPublisher eventPublisher = getPublisher();
+		if (eventPublisher != null)
 		{
-			for (DetailedResult dr : details)
+			try
+			{
+				for (DetailedResult dr : details)
+					eventPublisher.publish(createDetailsEvent(dr, start, end, storedContainer.getId()));
+			}
+			catch (TestExecutionHandlingException e)
+			{
+				throw e;
+			}
+			catch (Exception e)
 			{
-				com.exactpro.th2.common.grpc.Event rowEvent = ClearThEvent.fromTo(start, end)
-						.name(dr.getComment())
-						.type(TYPE_COMPARISON)
-						.status(EventUtils.getStatus(dr.isSuccess()))
-						.bodyData(createComparisonTable(dr.getResultDetails()))
-						.toProto(storedContainer.getId());
-				eventBatcher.onEvent(rowEvent);
+				throw new TestExecutionHandlingException("Error while processing comparison result", e);
 			}
+			return;
+		}
+		
+		try (EventBatcher eventBatcher = createEventBatcher(config))
+		{
+			for (DetailedResult dr : details)
+				eventBatcher.onEvent(createDetailsEvent(dr, start, end, storedContainer.getId()));
 		}
 		catch (Exception e)
 		{
@@ -472,19 +507,30 @@ public class ResultSaver
 	{
 		Instant start = EventUtils.getTimestamp(storedContainer.getId().getStartTimestamp()),
 				end = EventUtils.getTimestamp(storedContainer.getEndTimestamp());
+		EventPublisher eventPublisher = getPublisher();
+		if (eventPublisher != null)
+		{
+			DetailedResult dr;
+			while ((dr = reader.readNext()) != null)
+				eventPublisher.publish(createDetailsEvent(dr, start, end, storedContainer.getId()));
+			return;
+		}
+		
 		try (EventBatcher eventBatcher = createEventBatcher(config))
 		{
 			DetailedResult dr;
 			while ((dr = reader.readNext()) != null)
-			{
-				com.exactpro.th2.common.grpc.Event rowEvent = ClearThEvent.fromTo(start, end)
-						.name(dr.getComment())
-						.type(TYPE_COMPARISON)
-						.status(EventUtils.getStatus(dr.isSuccess()))
-						.bodyData(createComparisonTable(dr.getResultDetails()))
-						.toProto(storedContainer.getId());
-				eventBatcher.onEvent(rowEvent);
-			}
+				eventBatcher.onEvent(createDetailsEvent(dr, start, end, storedContainer.getId()));
 		}
 	}
+	
+	protected com.exactpro.th2.common.grpc.Event createDetailsEvent(DetailedResult dr, Instant start, Instant end, EventID parentId) throws Exception
+	{
+		return ClearThEvent.fromTo(start, end)
+				.name(dr.getComment())
+				.type(TYPE_COMPARISON)
+				.status(EventUtils.getStatus(dr.isSuccess()))
+				.bodyData(createComparisonTable(dr.getResultDetails()))
+				.toProto(parentId);
+	}
 }
\ No newline at end of file
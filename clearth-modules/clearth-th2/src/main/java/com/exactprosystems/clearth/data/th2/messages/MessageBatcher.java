@@ -0,0 +1,201 @@
+/******************************************************************************
+ * Copyright 2009-2025 Exactpro Systems Limited
+ * https://www.exactpro.com
+ * Build Software to Test Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.exactprosystems.clearth.data.th2.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.exactpro.th2.common.schema.message.MessageRouter;
+import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.GroupBatch;
+import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.MessageGroup;
+import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.RawMessage;
+import com.exactprosystems.clearth.data.MessageHandlingException;
+import com.exactprosystems.clearth.data.th2.config.MessagesConfig;
+
+/**
+ * Accumulates raw messages of each session group and sends them to th2 as one {@link GroupBatch}. 
+ * Batch is sent when it reaches maximum number of messages or maximum size, when it is older than maximum flush time 
+ * or when batcher is flushed. Messages of a session group are sent in order they were added
+ */
+public class MessageBatcher implements AutoCloseable
+{
+	private static final Logger logger = LoggerFactory.getLogger(MessageBatcher.class);
+	
+	private final MessageRouter<GroupBatch> router;
+	private final int maxBatchSize;
+	private final long maxBatchSizeInBytes,
+			maxFlushTime;
+	//Key - book and session group
+	private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService flusher;
+	
+	public MessageBatcher(MessageRouter<GroupBatch> router, MessagesConfig config, String name)
+	{
+		this.router = router;
+		this.maxBatchSize = Math.max(config.getMaxBatchSize(), 1);
+		this.maxBatchSizeInBytes = config.getMaxBatchSizeInBytes();
+		this.maxFlushTime = config.getMaxFlushTime();
+		this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, name+" (th2 messages flusher)");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+	
+	
+	/**
+	 * Adds message to batch of given session group. If batch becomes full, it is sent by calling thread
+	 * @param message to add
+	 * @param book to store message in
+	 * @param sessionGroup of message
+	 * @throws MessageHandlingException if batch could not be sent
+	 */
+	public void add(RawMessage message, String book, String sessionGroup) throws MessageHandlingException
+	{
+		Batch batch = batches.computeIfAbsent(book+":"+sessionGroup, k -> new Batch(book, sessionGroup));
+		batch.add(message);
+	}
+	
+	/**
+	 * Sends all accumulated messages
+	 * @throws MessageHandlingException if some batches could not be sent
+	 */
+	public void flush() throws MessageHandlingException
+	{
+		MessageHandlingException error = null;
+		for (Batch batch : batches.values())
+		{
+			try
+			{
+				batch.send();
+			}
+			catch (MessageHandlingException e)
+			{
+				if (error == null)
+					error = e;
+				else
+					error.addSuppressed(e);
+			}
+		}
+		
+		if (error != null)
+			throw error;
+	}
+	
+	@Override
+	public void close() throws Exception
+	{
+		try
+		{
+			flush();
+		}
+		finally
+		{
+			flusher.shutdownNow();
+		}
+	}
+	
+	
+	private class Batch
+	{
+		private final String book,
+				sessionGroup;
+		private List<MessageGroup> groups = new ArrayList<>();
+		private long size = 0;
+		private ScheduledFuture<?> flushTask;
+		
+		public Batch(String book, String sessionGroup)
+		{
+			this.book = book;
+			this.sessionGroup = sessionGroup;
+		}
+		
+		
+		public synchronized void add(RawMessage message) throws MessageHandlingException
+		{
+			int messageSize = message.getBody().readableBytes();
+			if (!groups.isEmpty() && size + messageSize > maxBatchSizeInBytes)
+				send();
+			
+			groups.add(MessageGroup.builder()
+					.addMessage(message)
+					.build());
+			size += messageSize;
+			
+			if (groups.size() >= maxBatchSize)
+				send();
+			else if (groups.size() == 1)
+				flushTask = flusher.schedule(this::sendByTimer, maxFlushTime, TimeUnit.MILLISECONDS);
+		}
+		
+		//Sending is done under lock so that batches of the same session group are sent in order
+		public synchronized void send() throws MessageHandlingException
+		{
+			if (flushTask != null)
+			{
+				flushTask.cancel(false);
+				flushTask = null;
+			}
+			
+			if (groups.isEmpty())
+				return;
+			
+			GroupBatch.Builder builder = GroupBatch.builder()
+					.setBook(book)
+					.setSessionGroup(sessionGroup);
+			for (MessageGroup group : groups)
+				builder.addGroup(group);
+			GroupBatch batch = builder.build();
+			int count = groups.size();
+			groups = new ArrayList<>();
+			size = 0;
+			
+			try
+			{
+				logger.trace("Storing {} message(s): {}", count, batch);
+				router.send(batch);
+			}
+			catch (Exception e)
+			{
+				throw new MessageHandlingException(e);
+			}
+		}
+		
+		private void sendByTimer()
+		{
+			try
+			{
+				send();
+			}
+			catch (Exception e)
+			{
+				logger.error("Could not store batch of messages of session group '{}'", sessionGroup, e);
+			}
+		}
+	}
+}
@@ -20,6 +20,7 @@ package com.exactprosystems.clearth.data.th2;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
@@ -32,7 +33,7 @@ import com.exactpro.th2.common.schema.message.SubscriberMonitor;
 
 public class CollectingRouter<M> implements MessageRouter<M>
 {
-	private final List<M> sent = new ArrayList<>();
+	private final List<M> sent = Collections.synchronizedList(new ArrayList<>());
 	
 	@Override
 	public void close() throws Exception
@@ -20,6 +20,7 @@ package com.exactprosystems.clearth.data.th2;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.testng.Assert;
@@ -28,6 +29,7 @@ import org.testng.asserts.SoftAssert;
 
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.Direction;
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.GroupBatch;
+import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.MessageGroup;
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.MessageId;
 import com.exactpro.th2.common.schema.message.impl.rabbitmq.transport.RawMessage;
 import com.exactprosystems.clearth.connectivity.iface.ClearThMessageDirection;
@@ -35,6 +37,7 @@ import com.exactprosystems.clearth.connectivity.iface.ClearThMessageMetadata;
 import com.exactprosystems.clearth.connectivity.iface.EncodedClearThMessage;
 import com.exactprosystems.clearth.data.MessageHandler;
 import com.exactprosystems.clearth.data.MessageHandlingUtils;
+import com.exactprosystems.clearth.data.th2.config.MessagesConfig;
 import com.exactprosystems.clearth.data.th2.config.StorageConfig;
 import com.exactprosystems.clearth.data.th2.messages.Th2MessageId;
 
@@ -118,4 +121,35 @@ public class Th2MessageHandlerTest
 		Assert.assertEquals(sentMessage.getId(), id.getId(), "Message ID");
 		Assert.assertEquals(sentMessage.getBody().toString(StandardCharsets.UTF_8), payload, "Payload");
 	}
+	
+	@Test
+	public void messagesSentInBatches() throws Exception
+	{
+		CollectingRouter<GroupBatch> router = new CollectingRouter<>();
+		StorageConfig config = new StorageConfig(null, new MessagesConfig(3, 1048576, 60000));
+		
+		try (MessageHandler handler = new Th2MessageHandler("con1", router, "book1", config))
+		{
+			for (int i = 1; i <= 5; i++)
+			{
+				EncodedClearThMessage message = EncodedClearThMessage.newSentMessage("message"+i, Instant.now());
+				ClearThMessageMetadata metadata = message.getMetadata();
+				MessageHandlingUtils.setMessageId(metadata, handler.createMessageId(metadata));
+				handler.onMessage(message);
+			}
+			
+			Assert.assertEquals(router.getSent().size(), 1, "Number of batches sent before close");
+		}
+		
+		List<GroupBatch> batches = router.getSent();
+		Assert.assertEquals(batches.size(), 2, "Number of batches");
+		
+		List<String> payloads = new ArrayList<>();
+		for (GroupBatch batch : batches)
+		{
+			for (MessageGroup group : batch.getGroups())
+				payloads.add(((RawMessage)group.getMessages().get(0)).getBody().toString(StandardCharsets.UTF_8));
+		}
+		Assert.assertEquals(payloads, List.of("message1", "message2", "message3", "message4", "message5"), "Payloads");
+	}
 }
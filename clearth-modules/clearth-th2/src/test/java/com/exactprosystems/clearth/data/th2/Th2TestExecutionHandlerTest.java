@@ -24,8 +24,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -58,6 +60,7 @@ import com.exactprosystems.clearth.data.TestExecutionHandlingException;
 import com.exactprosystems.clearth.data.th2.config.EventsConfig;
 import com.exactprosystems.clearth.data.th2.config.StorageConfig;
 import com.exactprosystems.clearth.data.th2.events.EventFactory;
+import com.exactprosystems.clearth.data.th2.events.EventPublisher;
 import com.exactprosystems.clearth.data.th2.events.EventUtils;
 import com.exactprosystems.clearth.data.th2.events.ResultSaver;
 import com.exactprosystems.clearth.data.th2.events.ResultSavingConfig;
@@ -260,6 +263,59 @@ public class Th2TestExecutionHandlerTest
 		assertEquals(testMatrixAction2ResultEvent.getParentId(), testMatrixAction2Event.getId(), "Parent of result of second action from "+testMatrixName);
 	}
 	
+	@Test
+	public void eventsSentInBatchesOnTestEnd() throws Exception
+	{
+		CollectingRouter<EventBatch> router = new CollectingRouter<>();
+		EventsConfig eventsConfig = new EventsConfig("default", 100, 1048576, 60000);  //Batches are not flushed by time during the test
+		Matrix testMatrix = createMatrix("test_matrix"),
+				anotherMatrix = createMatrix("another_matrix");
+		Step step = createStep("step1");
+		
+		EventPublisher publisher = new EventPublisher(router, eventsConfig, "main");
+		try (TestExecutionHandler handler = new Th2TestExecutionHandler("main", router, 
+				new EventFactory("book1", new StorageConfig(eventsConfig)), 
+				new ResultSaver(router, new ResultSavingConfig(), publisher),
+				publisher))
+		{
+			handler.onTestStart(Arrays.asList(testMatrix.getName(), anotherMatrix.getName()), createGlobalContext(Instant.now(), "admin", handler));
+			handler.onGlobalStepStart(new StepMetadata(step.getName(), Instant.now()));
+			for (int i = 0; i < 3; i++)
+			{
+				onAction(createSetStatic("id"+i, testMatrix, step, null), handler);
+				onAction(createSetStatic("id"+i, anotherMatrix, step, null), handler);
+			}
+			handler.onGlobalStepEnd();
+			
+			assertEquals(router.getSent().size(), 0, "Number of batches sent before test end");
+			
+			handler.onTestEnd();
+			assertEquals(publisher.getQueueSize(), 0, "Number of events waiting after test end");
+		}
+		
+		List<EventBatch> stored = router.getSent();
+		Set<EventID> sentIds = new HashSet<>();
+		int eventsCount = 0;
+		for (EventBatch batch : stored)
+		{
+			for (Event event : batch.getEventsList())
+			{
+				eventsCount++;
+				if (event.hasParentId())
+				{
+					assertEquals(batch.getParentEventId(), event.getParentId(), "Parent of batch with event '"+event.getName()+"'");
+					assertTrue(sentIds.contains(event.getParentId()), "Parent of event '"+event.getName()+"' is sent before it");
+				}
+				sentIds.add(event.getId());
+			}
+		}
+		
+		//23 events = scheduler start + 2 matrices + 2 steps + 6 actions + parameters of each action + status of each action
+		assertEquals(eventsCount, 23, "Number of stored events");
+		//Batches: scheduler, matrices, steps of 2 matrices, actions of 2 steps, parameters and status of 6 actions
+		assertEquals(stored.size(), 12, "Number of stored batches");
+	}
+	
 	
 	private Matrix createMatrix(String name)
 	{